@@ -23,7 +23,9 @@ package com.senither.hypixel;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultiset;
+import com.google.common.collect.Maps;
 import com.senither.hypixel.inventory.ItemRarity;
+import com.senither.hypixel.statistics.LevelCurve;
 import com.senither.hypixel.time.Carbon;
 
 public class Constants {
@@ -82,4 +84,16 @@ public class Constants {
         441700, 476700, 516700, 561700, 611700, 666700, 726700, 791700, 861700, 936700,
         1016700, 1101700, 1191700, 1286700, 1386700, 1496700, 1616700, 1746700, 1886700
     );
+
+    public static final LevelCurve GENERAL_SKILL_LEVELS = LevelCurve.fromExperiencePerLevel(GENERAL_SKILL_EXPERIENCE);
+
+    public static final LevelCurve RUNECRAFTING_SKILL_LEVELS = LevelCurve.fromExperiencePerLevel(RUNECRAFTING_SKILL_EXPERIENCE);
+
+    public static final LevelCurve DUNGEON_LEVELS = LevelCurve.fromExperiencePerLevel(DUNGEON_EXPERIENCE);
+
+    public static final LevelCurve SLAYER_LEVELS = LevelCurve.fromTotalExperience(SLAYER_EXPERIENCE);
+
+    public static final ImmutableMap<ItemRarity, LevelCurve> PET_LEVELS = ImmutableMap.copyOf(Maps.transformValues(PET_OFFSET,
+        offset -> LevelCurve.fromExperiencePerLevel(PET_EXPERIENCE.asList().subList(offset, offset + 99))
+    ));
 }
@@ -107,6 +107,7 @@ public class SkyblockAssistant {
         commandManager.registerCommand(new CatacombsCommand(this));
         commandManager.registerCommand(new GuildExperienceLeaderboardCommand(this));
         commandManager.registerCommand(new LeaderboardCommand(this));
+        commandManager.registerCommand(new LowestBinCommand(this));
         commandManager.registerCommand(new PetsCommand(this));
         commandManager.registerCommand(new PlayerLeaderboardCommand(this));
         commandManager.registerCommand(new PlayerOverviewCommand(this));
@@ -123,12 +124,16 @@ public class SkyblockAssistant {
         log.info("Registering jobs...");
         this.scheduleManager = new ScheduleManager(this);
         scheduleManager.registerJob(new SyncMetricsJob(this));
+        scheduleManager.registerJob(new GarbageCollectorJob(this));
         scheduleManager.registerJob(new SplashQueueJob(this));
         scheduleManager.registerJob(new UpdateGuildDataJob(this));
-        scheduleManager.registerJob(new GarbageCollectorJob(this));
+        scheduleManager.registerJob(new UpdateBazaarSnapshotJob(this));
+        scheduleManager.registerJob(new UpdateAuctionPriceIndexJob(this));
         scheduleManager.registerJob(new DrainReportQueueJob(this));
         scheduleManager.registerJob(new DecayDonationPointsJob(this));
         scheduleManager.registerJob(new HypixelRankSynchronizeJob(this));
+        scheduleManager.registerJob(new PruneDatabaseConnectionsJob(this));
+        scheduleManager.registerJob(new EncodeCachedRepliesJob(this));
         log.info("{} jobs have been registered!", scheduleManager.entrySet().size());
 
         log.info("Creating database manager");
@@ -163,6 +168,7 @@ public class SkyblockAssistant {
             if (configuration.getServlet().getAccessToken() != null) {
                 servlet.registerGet("player/:username", new GetProfileRoute(this));
                 servlet.registerGet("guild/:name", new GetGuildRoute(this));
+                servlet.registerGet("debug/queries", new GetDebugQueriesRoute(this));
             }
         } else {
             this.servlet = null;
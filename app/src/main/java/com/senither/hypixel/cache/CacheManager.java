@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.cache;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import io.prometheus.client.guava.cache.CacheMetricsCollector;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public class CacheManager {
+
+    private static final CacheMetricsCollector cacheMetrics = new CacheMetricsCollector().register();
+    private static final Map<String, ManagedCache<?, ?>> caches = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new cache builder for a cache with the given name, the name
+     * is used to identify the cache in the metrics, so it must be unique.
+     *
+     * @param name The name of the cache.
+     * @return The cache builder.
+     */
+    public static Builder newBuilder(String name) {
+        return new Builder(name);
+    }
+
+    public static Collection<ManagedCache<?, ?>> getCaches() {
+        return Collections.unmodifiableCollection(caches.values());
+    }
+
+    public static ManagedCache<?, ?> getCache(String name) {
+        return caches.get(name);
+    }
+
+    /**
+     * Gets the estimated amount of bytes used by all the registered caches.
+     *
+     * @return The estimated weight of all the caches in bytes.
+     */
+    public static long getTotalWeight() {
+        return caches.values().stream()
+            .mapToLong(ManagedCache::getWeight)
+            .sum();
+    }
+
+    private static <K, V> ManagedCache<K, V> register(ManagedCache<K, V> cache) {
+        if (caches.putIfAbsent(cache.getName(), cache) != null) {
+            throw new IllegalArgumentException(String.format(
+                "A cache with the name \"%s\" has already been registered!", cache.getName()
+            ));
+        }
+
+        cacheMetrics.addCache(cache.getName(), cache);
+
+        return cache;
+    }
+
+    public static class Builder {
+
+        private final String name;
+
+        long maximumWeight = 16 * 1024 * 1024;
+        private long expireAfterWrite = -1;
+        private long expireAfterAccess = -1;
+
+        Builder(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Sets the byte budget for the cache, once the estimated size of the cache
+         * goes above the budget, the least recently used entries are evicted,
+         * and new keys must be popular enough before they are admitted.
+         *
+         * @param bytes The maximum estimated size of the cache in bytes.
+         * @return The cache builder.
+         */
+        public Builder maximumWeight(long bytes) {
+            this.maximumWeight = bytes;
+            return this;
+        }
+
+        public Builder expireAfterWrite(long duration, TimeUnit unit) {
+            this.expireAfterWrite = unit.toNanos(duration);
+            return this;
+        }
+
+        public Builder expireAfterAccess(long duration, TimeUnit unit) {
+            this.expireAfterAccess = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Builds the cache using the {@link SizeEstimator} to weigh the entries.
+         *
+         * @param <K> The type of the cache keys.
+         * @param <V> The type of the cache values.
+         * @return The managed cache.
+         */
+        public <K, V> ManagedCache<K, V> build() {
+            return build(SizeEstimator::estimate);
+        }
+
+        public <K, V> ManagedCache<K, V> build(Weigher<? super K, ? super V> weigher) {
+            return build(weigher, value -> {
+                // Nothing needs to be released for plain values.
+            });
+        }
+
+        /**
+         * Builds the cache using the given weigher, and calls the removal listener
+         * for every value that leaves the cache, or is never admitted into it.
+         *
+         * @param weigher         The weigher used to estimate the size of the entries.
+         * @param removalListener The listener called with every removed value.
+         * @param <K>             The type of the cache keys.
+         * @param <V>             The type of the cache values.
+         * @return The managed cache.
+         */
+        public <K, V> ManagedCache<K, V> build(Weigher<? super K, ? super V> weigher, Consumer<? super V> removalListener) {
+            return register(new ManagedCache<>(name, this, weigher, removalListener));
+        }
+
+        CacheBuilder<Object, Object> toCacheBuilder() {
+            // Guava splits the maximum weight evenly between the segments of the cache, and
+            // evicts any entry heavier than a single segment as soon as it is stored, using
+            // a single segment lets every entry use the entire byte budget of the cache.
+            CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+                .concurrencyLevel(1);
+            if (expireAfterWrite > 0) {
+                builder.expireAfterWrite(expireAfterWrite, TimeUnit.NANOSECONDS);
+            }
+            if (expireAfterAccess > 0) {
+                builder.expireAfterAccess(expireAfterAccess, TimeUnit.NANOSECONDS);
+            }
+            return builder;
+        }
+    }
+}
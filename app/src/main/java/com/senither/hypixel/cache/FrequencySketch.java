@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A small count-min sketch used to estimate how often a key has been requested
+ * recently, each counter saturates at 15 and all counters are halved once
+ * enough increments have been made, so old popularity fades over time.
+ * <p>
+ * The counters are updated without any locking, so cache reads never have to wait
+ * on each other, concurrent updates can be off by a little while the counters
+ * are being halved, which is fine since the sketch is only an estimate.
+ */
+class FrequencySketch {
+
+    private static final long[] SEEDS = new long[]{
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+
+    private static final int MAXIMUM_FREQUENCY = 15;
+
+    private final AtomicIntegerArray table;
+    private final int sampleSize;
+    private final AtomicInteger additions = new AtomicInteger(0);
+
+    FrequencySketch(int expectedEntries) {
+        int size = Integer.highestOneBit(Math.max(64, Math.min(expectedEntries, 1 << 20)) - 1) << 1;
+
+        this.table = new AtomicIntegerArray(size);
+        this.sampleSize = size * 10;
+    }
+
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            added |= incrementAt(indexOf(hash, i));
+        }
+
+        // Every addition gets its own count, so exactly one thread will
+        // reach the sample size and be the one to halve the counters.
+        if (added && additions.incrementAndGet() == sampleSize) {
+            reset();
+        }
+    }
+
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+
+        int frequency = MAXIMUM_FREQUENCY;
+        for (int i = 0; i < SEEDS.length; i++) {
+            frequency = Math.min(frequency, table.get(indexOf(hash, i)));
+        }
+        return frequency;
+    }
+
+    private boolean incrementAt(int index) {
+        while (true) {
+            int count = table.get(index);
+            if (count >= MAXIMUM_FREQUENCY) {
+                return false;
+            }
+
+            if (table.compareAndSet(index, count, count + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length(); i++) {
+            int count;
+            do {
+                count = table.get(i);
+            } while (!table.compareAndSet(i, count, count >>> 1));
+        }
+        additions.addAndGet(-sampleSize / 2);
+    }
+
+    private int indexOf(int hash, int seed) {
+        long index = (hash + SEEDS[seed]) * SEEDS[seed];
+        index += index >>> 32;
+        return ((int) index) & (table.length() - 1);
+    }
+
+    private int spread(int hash) {
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        return (hash >>> 16) ^ hash;
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.cache;
+
+import com.google.common.cache.AbstractCache;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.Weigher;
+import com.senither.hypixel.metrics.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+public class ManagedCache<K, V> extends AbstractCache<K, V> {
+
+    private static final Logger log = LoggerFactory.getLogger(ManagedCache.class);
+
+    /**
+     * The amount of times a key must have been looked up recently before it is
+     * allowed into the cache, once the cache is over its budget. Only lookups are
+     * counted, so a key that misses once and is then stored isn't admitted.
+     */
+    private static final int ADMISSION_FREQUENCY = 2;
+
+    private final String name;
+    private final long maximumWeight;
+    private final Weigher<? super K, ? super V> weigher;
+    private final Consumer<? super V> valueRemovalListener;
+    private final FrequencySketch sketch;
+    private final AtomicLong weight = new AtomicLong();
+    private final Cache<K, WeightedValue<V>> cache;
+
+    ManagedCache(String name, CacheManager.Builder builder, Weigher<? super K, ? super V> weigher, Consumer<? super V> valueRemovalListener) {
+        this.name = name;
+        this.maximumWeight = builder.maximumWeight;
+        this.weigher = weigher;
+        this.valueRemovalListener = valueRemovalListener;
+        this.sketch = new FrequencySketch((int) Math.min(Integer.MAX_VALUE, maximumWeight / 1024));
+
+        RemovalListener<K, WeightedValue<V>> removalListener = notification -> {
+            if (notification.getValue() != null) {
+                updateWeight(-notification.getValue().weight);
+                valueRemovalListener.accept(notification.getValue().value);
+            }
+        };
+
+        this.cache = builder.toCacheBuilder()
+            .maximumWeight(maximumWeight)
+            .weigher((K key, WeightedValue<V> value) -> value.weight)
+            .removalListener(removalListener)
+            .recordStats()
+            .build();
+
+        Metrics.cacheMaximumWeight.labels(name).set(maximumWeight);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the estimated amount of bytes used by all the entries in the cache.
+     *
+     * @return The estimated weight of the cache in bytes.
+     */
+    public long getWeight() {
+        return weight.get();
+    }
+
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    @Nullable
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getIfPresent(Object key) {
+        sketch.increment(key);
+
+        WeightedValue<V> value = cache.getIfPresent(key);
+        return value == null ? null : value.value;
+    }
+
+    @Override
+    public V get(K key, Callable<? extends V> loader) throws ExecutionException {
+        sketch.increment(key);
+
+        return cache.get(key, () -> {
+            WeightedValue<V> weightedValue = weigh(key, loader.call());
+            if (isOversized(weightedValue)) {
+                Metrics.cacheAdmissions.labels(name, "oversized").inc();
+            }
+            updateWeight(weightedValue.weight);
+
+            return weightedValue;
+        }).value;
+    }
+
+    /**
+     * Stores the value in the cache, if the cache is already over its budget, the
+     * value is only admitted if the key has been requested often enough recently,
+     * or if it replaces an existing entry, so keys that are only requested a
+     * single time won't push out popular entries. Values heavier than the
+     * entire budget of the cache are never stored.
+     *
+     * @param key   The key that the value should be stored under.
+     * @param value The value that should be stored.
+     */
+    @Override
+    public void put(K key, V value) {
+        putWeightedValue(key, weigh(key, value));
+    }
+
+    /**
+     * Stores the value in the cache using the given weight instead of running the
+     * weigher, this should be used when the size of the value is already known,
+     * so large values don't have to be measured again on the request path.
+     *
+     * @param key    The key that the value should be stored under.
+     * @param value  The value that should be stored.
+     * @param weight The weight of the entry in bytes.
+     * @see #put(Object, Object)
+     */
+    public void put(K key, V value, int weight) {
+        putWeightedValue(key, new WeightedValue<>(value, Math.max(1, weight)));
+    }
+
+    private void putWeightedValue(K key, WeightedValue<V> weightedValue) {
+        V value = weightedValue.value;
+
+        if (isOversized(weightedValue)) {
+            Metrics.cacheAdmissions.labels(name, "oversized").inc();
+            valueRemovalListener.accept(value);
+            return;
+        }
+
+        if (!shouldAdmit(key, weightedValue)) {
+            Metrics.cacheAdmissions.labels(name, "rejected").inc();
+            valueRemovalListener.accept(value);
+            return;
+        }
+
+        Metrics.cacheAdmissions.labels(name, "admitted").inc();
+        updateWeight(weightedValue.weight);
+        cache.put(key, weightedValue);
+    }
+
+    /**
+     * Removes the entry for the given key, only if it is currently mapped to the given value.
+     *
+     * @param key   The key that should be removed.
+     * @param value The value the key must be mapped to.
+     * @return <code>True</code> if the entry was removed, <code>False</code> otherwise.
+     */
+    public boolean remove(K key, V value) {
+        WeightedValue<V> current = cache.asMap().get(key);
+        return current != null && current.value == value && cache.asMap().remove(key, current);
+    }
+
+    @Override
+    public void invalidate(Object key) {
+        cache.invalidate(key);
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void invalidateAll(Iterable<?> keys) {
+        cache.invalidateAll(keys);
+    }
+
+    @Override
+    public long size() {
+        return cache.size();
+    }
+
+    @Override
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void cleanUp() {
+        cache.cleanUp();
+    }
+
+    private boolean shouldAdmit(K key, WeightedValue<V> value) {
+        return weight.get() + value.weight <= maximumWeight
+            || cache.asMap().containsKey(key)
+            || sketch.frequency(key) >= ADMISSION_FREQUENCY;
+    }
+
+    private boolean isOversized(WeightedValue<V> value) {
+        if (value.weight <= maximumWeight) {
+            return false;
+        }
+
+        log.warn("Refusing to cache an entry weighing {} bytes in the {} cache, the entry is larger than the {} byte budget of the cache",
+            value.weight, name, maximumWeight
+        );
+        return true;
+    }
+
+    private WeightedValue<V> weigh(K key, V value) {
+        return new WeightedValue<>(value, Math.max(1, weigher.weigh(key, value)));
+    }
+
+    private void updateWeight(long delta) {
+        Metrics.cacheWeight.labels(name).set(weight.addAndGet(delta));
+    }
+
+    private static class WeightedValue<V> {
+
+        private final V value;
+        private final int weight;
+
+        WeightedValue(V value, int weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
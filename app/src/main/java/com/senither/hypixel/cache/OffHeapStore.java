@@ -0,0 +1,437 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.cache;
+
+import com.senither.hypixel.metrics.Metrics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Stores compressed blobs outside of the Java heap, the off-heap memory is split into
+ * fixed size pages that are allocated in chunks as they're needed, up to the maximum
+ * size of the store. Blobs are compressed straight into free pages, and the pages
+ * are handed back to the store once a blob is released and no one is reading it,
+ * so once every page is in use new blobs are refused until older blobs are released.
+ */
+public class OffHeapStore {
+
+    /**
+     * The size of a single page in bytes, blobs always take up at
+     * least one page, so this should stay close to the size of
+     * a typical compressed reply to keep the wasted space low.
+     */
+    private static final int pageSize = 16 * 1024;
+
+    /**
+     * The amount of pages that are allocated together in a single direct buffer.
+     */
+    private static final int pagesPerChunk = 64;
+
+    private final String name;
+    private final long maximumSize;
+    private final ByteBuffer[] pages;
+    private final int[] freePages;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicLong usedSize = new AtomicLong();
+    private final AtomicLong compressedBytes = new AtomicLong();
+    private final AtomicLong uncompressedBytes = new AtomicLong();
+
+    private int allocatedPages = 0;
+    private int freePageCount = 0;
+
+    public OffHeapStore(String name, long maximumSize) {
+        this.name = name;
+        this.maximumSize = maximumSize;
+
+        int maximumPages = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(0L, maximumSize) / pageSize);
+        this.pages = new ByteBuffer[maximumPages];
+        this.freePages = new int[maximumPages];
+
+        Metrics.offHeapStoreMaximumSize.labels(name).set(maximumSize);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getUsedSize() {
+        return usedSize.get();
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Compresses everything the given writer writes directly into free pages
+     * in the store, if the store runs out of free pages before the blob has
+     * been written, the pages are handed back and <code>NULL</code> is returned.
+     *
+     * @param writer The writer that writes the uncompressed data.
+     * @return The off-heap blob, or <code>NULL</code> if the store is full.
+     * @throws IOException If the writer fails to write the data.
+     */
+    public Blob store(BlobWriter writer) throws IOException {
+        PageOutputStream compressed = new PageOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+        CountingOutputStream uncompressed;
+        try (DeflaterOutputStream deflaterStream = new DeflaterOutputStream(compressed, deflater, 8192)) {
+            uncompressed = new CountingOutputStream(deflaterStream);
+            writer.write(uncompressed);
+        } catch (IOException | RuntimeException e) {
+            freePages(compressed.pages, compressed.pageCount);
+
+            if (isStoreFull(e)) {
+                Metrics.offHeapStoreRejections.labels(name).inc();
+                return null;
+            }
+            throw e;
+        } finally {
+            deflater.end();
+        }
+
+        Blob blob = new Blob(compressed.pages, compressed.pageCount, compressed.size, uncompressed.count);
+
+        compressedBytes.addAndGet(blob.size);
+        uncompressedBytes.addAndGet(blob.uncompressedSize);
+        updateMetrics();
+
+        return blob;
+    }
+
+    /**
+     * Opens a stream that decompresses the given blob while it is being read, the
+     * blob is never copied back onto the heap in its compressed form, and its
+     * pages are kept out of the store until the stream has been closed.
+     *
+     * @param blob The blob that should be read.
+     * @return The stream of uncompressed bytes.
+     * @throws IOException If the blob has already been released.
+     */
+    public InputStream open(Blob blob) throws IOException {
+        if (!blob.retain()) {
+            throw new IOException("The off-heap blob has already been released");
+        }
+
+        return new InflaterInputStream(new PageInputStream(blob), new Inflater(), 8192) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    inf.end();
+                }
+            }
+        };
+    }
+
+    /**
+     * Releases the given blob, the blob can't be opened again once it has been
+     * released, and its pages are handed back to the store as soon as
+     * every stream that is still reading the blob has been closed.
+     *
+     * @param blob The blob that should be released.
+     */
+    public void release(Blob blob) {
+        if (!blob.released.compareAndSet(false, true)) {
+            return;
+        }
+
+        compressedBytes.addAndGet(-blob.size);
+        uncompressedBytes.addAndGet(-blob.uncompressedSize);
+
+        releaseReference(blob);
+    }
+
+    private void releaseReference(Blob blob) {
+        if (blob.references.decrementAndGet() == 0) {
+            freePages(blob.pages, blob.pages.length);
+        } else {
+            updateMetrics();
+        }
+    }
+
+    private int allocatePage() {
+        lock.lock();
+        try {
+            if (freePageCount == 0) {
+                if (allocatedPages == pages.length) {
+                    return -1;
+                }
+
+                int chunkPages = Math.min(pagesPerChunk, pages.length - allocatedPages);
+                ByteBuffer chunk = ByteBuffer.allocateDirect(chunkPages * pageSize);
+                for (int i = chunkPages - 1; i >= 0; i--) {
+                    chunk.limit((i + 1) * pageSize).position(i * pageSize);
+
+                    pages[allocatedPages + i] = chunk.slice();
+                    freePages[freePageCount++] = allocatedPages + i;
+                }
+                allocatedPages += chunkPages;
+            }
+
+            usedSize.addAndGet(pageSize);
+
+            return freePages[--freePageCount];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void freePages(int[] indexes, int count) {
+        if (count == 0) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            for (int i = 0; i < count; i++) {
+                freePages[freePageCount++] = indexes[i];
+            }
+            usedSize.addAndGet(-((long) count * pageSize));
+        } finally {
+            lock.unlock();
+        }
+
+        updateMetrics();
+    }
+
+    private boolean isStoreFull(Throwable throwable) {
+        // Writers like Gson wrap the IO exceptions thrown by the stream in
+        // their own runtime exceptions, so we need to look at the causes too.
+        while (throwable != null) {
+            if (throwable instanceof StoreFullException) {
+                return true;
+            }
+            throwable = throwable.getCause();
+        }
+        return false;
+    }
+
+    private void updateMetrics() {
+        Metrics.offHeapStoreUsedSize.labels(name).set(usedSize.get());
+
+        long compressed = compressedBytes.get();
+        Metrics.offHeapStoreCompressionRatio.labels(name).set(
+            compressed <= 0 ? 0D : (double) uncompressedBytes.get() / compressed
+        );
+    }
+
+    @FunctionalInterface
+    public interface BlobWriter {
+
+        void write(OutputStream stream) throws IOException;
+    }
+
+    public static class Blob {
+
+        private final int[] pages;
+        private final int size;
+        private final long uncompressedSize;
+        private final AtomicInteger references = new AtomicInteger(1);
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        Blob(int[] pages, int pageCount, int size, long uncompressedSize) {
+            this.pages = pages.length == pageCount ? pages : Arrays.copyOf(pages, pageCount);
+            this.size = size;
+            this.uncompressedSize = uncompressedSize;
+        }
+
+        public int getCompressedSize() {
+            return size;
+        }
+
+        public long getUncompressedSize() {
+            return uncompressedSize;
+        }
+
+        private boolean retain() {
+            while (true) {
+                int current = references.get();
+                if (current <= 0 || released.get()) {
+                    return false;
+                }
+
+                if (references.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    private static class StoreFullException extends IOException {
+
+        StoreFullException() {
+            super("The off-heap store doesn't have any free pages left");
+        }
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        private final OutputStream stream;
+        private long count = 0;
+
+        CountingOutputStream(OutputStream stream) {
+            this.stream = stream;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            stream.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            stream.write(bytes, offset, length);
+            count += length;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            stream.flush();
+        }
+    }
+
+    private class PageOutputStream extends OutputStream {
+
+        private int[] pages = new int[4];
+        private int pageCount = 0;
+        private int size = 0;
+        private ByteBuffer page;
+
+        @Override
+        public void write(int b) throws IOException {
+            nextPageIfFull();
+            page.put((byte) b);
+            size++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                nextPageIfFull();
+
+                int written = Math.min(length, page.remaining());
+                page.put(bytes, offset, written);
+
+                offset += written;
+                length -= written;
+                size += written;
+            }
+        }
+
+        private void nextPageIfFull() throws IOException {
+            if (page != null && page.hasRemaining()) {
+                return;
+            }
+
+            int index = allocatePage();
+            if (index < 0) {
+                throw new StoreFullException();
+            }
+
+            if (pageCount == pages.length) {
+                pages = Arrays.copyOf(pages, pageCount * 2);
+            }
+            pages[pageCount++] = index;
+
+            page = OffHeapStore.this.pages[index].duplicate();
+            page.clear();
+        }
+    }
+
+    private class PageInputStream extends InputStream {
+
+        private final Blob blob;
+        private int remaining;
+        private int pageIndex = 0;
+        private ByteBuffer page;
+        private boolean closed = false;
+
+        PageInputStream(Blob blob) {
+            this.blob = blob;
+            this.remaining = blob.size;
+        }
+
+        @Override
+        public int read() {
+            if (!nextPageIfEmpty()) {
+                return -1;
+            }
+
+            remaining--;
+            return page.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!nextPageIfEmpty()) {
+                return -1;
+            }
+
+            length = Math.min(length, page.remaining());
+            page.get(bytes, offset, length);
+            remaining -= length;
+
+            return length;
+        }
+
+        @Override
+        public int available() {
+            return remaining;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                releaseReference(blob);
+            }
+        }
+
+        private boolean nextPageIfEmpty() {
+            if (closed || remaining <= 0) {
+                return false;
+            }
+
+            if (page == null || !page.hasRemaining()) {
+                page = pages[blob.pages[pageIndex++]].duplicate();
+                page.clear().limit(Math.min(pageSize, remaining));
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.cache;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.io.Writer;
+import java.util.Map;
+import java.util.UUID;
+
+public class SizeEstimator {
+
+    /**
+     * The estimated amount of bytes the cache uses to hold a single entry,
+     * on top of the size of the key and the value themselves.
+     */
+    private static final int ENTRY_OVERHEAD = 64;
+
+    /**
+     * Objects on the heap are usually a lot bigger than their serialized form, every
+     * character is a char, and most values are boxed or wrapped objects, so the
+     * serialized size is multiplied by this to get the size on the heap.
+     */
+    private static final int HEAP_OVERHEAD_RATIO = 4;
+
+    private static final Gson gson = new Gson();
+
+    /**
+     * Estimates how many bytes the given cache entry is using, the estimate
+     * is based off the serialized size of the key and value, so it's
+     * only meant for comparing entries against each other.
+     *
+     * @param key   The key of the cache entry.
+     * @param value The value of the cache entry.
+     * @return The estimated size of the cache entry in bytes.
+     */
+    public static int estimate(Object key, Object value) {
+        return estimate(gson, key, value);
+    }
+
+    public static int estimate(Gson gson, Object key, Object value) {
+        return (int) Math.min(Integer.MAX_VALUE, ENTRY_OVERHEAD + estimate(gson, key) + estimate(gson, value));
+    }
+
+    /**
+     * Estimates how many bytes a cache entry is using from the size of its value
+     * in serialized form, this should be used over the other estimates when
+     * the serialized size is already known, like the size of a response body.
+     *
+     * @param serializedSize The size of the serialized value in bytes.
+     * @return The estimated size of the cache entry in bytes.
+     */
+    public static int estimateFromSerializedSize(long serializedSize) {
+        return (int) Math.min(Integer.MAX_VALUE, ENTRY_OVERHEAD + Math.max(0L, serializedSize) * HEAP_OVERHEAD_RATIO);
+    }
+
+    public static long estimate(Object value) {
+        return estimate(gson, value);
+    }
+
+    public static long estimate(Gson gson, Object value) {
+        if (value == null) {
+            return 0;
+        }
+
+        if (value instanceof String) {
+            return 40 + ((String) value).length() * 2L;
+        }
+
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character || value instanceof Enum) {
+            return 16;
+        }
+
+        if (value instanceof UUID) {
+            return 32;
+        }
+
+        if (value instanceof JsonElement) {
+            return estimate((JsonElement) value);
+        }
+
+        try {
+            CountingWriter writer = new CountingWriter();
+            gson.toJson(value, writer);
+
+            return writer.getCount() * HEAP_OVERHEAD_RATIO;
+        } catch (Exception e) {
+            return 1024;
+        }
+    }
+
+    private static long estimate(JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            return 16;
+        }
+
+        if (element.isJsonPrimitive()) {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            return primitive.isString() ? estimate(primitive.getAsString()) + 16 : 32;
+        }
+
+        long size = 48;
+        if (element.isJsonArray()) {
+            for (JsonElement child : (JsonArray) element) {
+                size += 8 + estimate(child);
+            }
+            return size;
+        }
+
+        for (Map.Entry<String, JsonElement> entry : ((JsonObject) element).entrySet()) {
+            size += 32 + estimate(entry.getKey()) + estimate(entry.getValue());
+        }
+        return size;
+    }
+
+    private static class CountingWriter extends Writer {
+
+        private long count = 0;
+
+        @Override
+        public void write(int c) {
+            count++;
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            count += length;
+        }
+
+        @Override
+        public void write(String string, int offset, int length) {
+            count += length;
+        }
+
+        @Override
+        public void flush() {
+            // Nothing is stored, so there is nothing to flush.
+        }
+
+        @Override
+        public void close() {
+            // Nothing is stored, so there is nothing to close.
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
@@ -64,9 +64,13 @@ public class SimplePaginator<T> extends Paginator<T> {
     }
 
     public String generateFooter(String command) {
+        return generateFooter(getCurrentPage(), getPages(), command);
+    }
+
+    public static String generateFooter(int currentPage, int pages, String command) {
         return String.format("Page **%s** out of **%s** pages.\n`%s [page]`",
-            getCurrentPage(),
-            getPages(),
+            currentPage,
+            pages,
             command
         );
     }
@@ -39,7 +39,6 @@ import com.senither.hypixel.utils.NumberUtil;
 import net.dv8tion.jda.api.entities.Role;
 import net.dv8tion.jda.api.entities.TextChannel;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
-import net.hypixel.api.reply.GuildReply;
 
 import java.sql.SQLException;
 import java.util.*;
@@ -160,21 +159,13 @@ public class DonationCommand extends Command {
     }
 
     private void showLeaderboard(GuildController.GuildEntry guildEntry, MessageReceivedEvent event, String[] args) {
-        GuildReply guildReply = app.getHypixel().getGson().fromJson(guildEntry.getData(), GuildReply.class);
-
-        List<UUID> memberUuids = new ArrayList<>();
-        guildReply.getGuild().getMembers().forEach(member -> memberUuids.add(member.getUuid()));
-
-        StringBuilder stringifiedParams = new StringBuilder();
-        for (UUID ignored : memberUuids) {
-            stringifiedParams.append("?, ");
-        }
+        Set<UUID> memberUuids = guildEntry.getMemberUuids();
 
         try {
-            Collection result = app.getDatabaseManager().query(String.format(
-                "SELECT `uuid`, `username` FROM `uuids` WHERE `uuid` IN (%s)",
-                stringifiedParams.toString().substring(0, stringifiedParams.length() - 2)
-            ), memberUuids.toArray());
+            Collection result = app.getDatabaseManager().query(
+                "SELECT `uuid`, `username` FROM `uuids` WHERE `uuid` IN (?)",
+                memberUuids
+            );
 
             HashMap<UUID, String> memberUsernameMap = new HashMap<>();
             for (DataRow row : result) {
@@ -187,10 +178,7 @@ public class DonationCommand extends Command {
             } catch (SQLException ignored) {
             }
 
-            UUID finalUserUUID = userUUID;
-            boolean isGuildMember = guildReply.getGuild().getMembers().stream()
-                .filter(member -> member.getUuid().equals(finalUserUUID))
-                .count() > 0;
+            boolean isGuildMember = userUUID != null && guildEntry.isMember(userUUID);
 
             int rank = 1;
             int position = -1;
@@ -311,8 +299,7 @@ public class DonationCommand extends Command {
             return;
         }
 
-        GuildReply guildReply = app.getHypixel().getGson().fromJson(guildEntry.getData(), GuildReply.class);
-        boolean isMember = guildReply.getGuild().getMembers().stream().anyMatch(member -> member.getUuid().equals(uuid));
+        boolean isMember = guildEntry.isMember(uuid);
 
         if (!isMember) {
             MessageFactory.makeError(event.getMessage(),
@@ -375,8 +362,7 @@ public class DonationCommand extends Command {
             return;
         }
 
-        GuildReply guildReply = app.getHypixel().getGson().fromJson(guildEntry.getData(), GuildReply.class);
-        boolean isMember = guildReply.getGuild().getMembers().stream().filter(member -> member.getUuid().equals(uuid)).count() > 0;
+        boolean isMember = guildEntry.isMember(uuid);
 
         if (!isMember) {
             MessageFactory.makeError(event.getMessage(),
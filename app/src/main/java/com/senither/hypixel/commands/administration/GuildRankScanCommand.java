@@ -114,7 +114,7 @@ public class GuildRankScanCommand extends Command {
             return;
         }
 
-        GuildReply guildReply = app.getHypixel().getGson().fromJson(guildEntry.getData(), GuildReply.class);
+        GuildReply guildReply = guildEntry.getGuildReply();
         Carbon time = Carbon.now().addSeconds(guildReply.getGuild().getMembers().size() * 10);
 
         try {
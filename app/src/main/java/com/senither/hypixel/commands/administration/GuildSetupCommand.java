@@ -144,9 +144,7 @@ public class GuildSetupCommand extends Command {
     @SuppressWarnings("ConstantConditions")
     private void handleUnlinkGuild(MessageReceivedEvent event, GuildController.GuildEntry guildEntry, UUID uuid) {
         if (!event.getMember().isOwner()) {
-            GuildReply guild = app.getHypixel().getGson().fromJson(
-                guildEntry.getData(), GuildReply.class
-            );
+            GuildReply guild = guildEntry.getGuildReply();
 
             GuildReply.Guild.Member fromUUID = getMemberFromUUID(guild.getGuild(), uuid);
             if (fromUUID == null || !"Guild Master".equalsIgnoreCase(fromUUID.getRank())) {
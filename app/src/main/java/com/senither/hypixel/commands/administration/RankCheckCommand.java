@@ -43,7 +43,6 @@ import net.hypixel.api.reply.skyblock.SkyBlockProfileReply;
 
 import java.util.*;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 public class RankCheckCommand extends SkillCommand {
 
@@ -121,7 +120,7 @@ public class RankCheckCommand extends SkillCommand {
     @SuppressWarnings("ConstantConditions")
     protected void handleSkyblockProfile(Message message, SkyBlockProfileReply profileReply, PlayerReply playerReply, String[] args) {
         GuildController.GuildEntry guildEntry = GuildController.getGuildById(app.getDatabaseManager(), message.getGuild().getIdLong());
-        GuildReply guildReply = app.getHypixel().getGson().fromJson(guildEntry.getData(), GuildReply.class);
+        GuildReply guildReply = guildEntry.getGuildReply();
         JsonObject member = getProfileMemberFromPlayer(profileReply, playerReply);
 
         String uuidAsString = playerReply.getPlayer().get("uuid").getAsString();
@@ -193,9 +192,7 @@ public class RankCheckCommand extends SkillCommand {
             ), true);
 
         GuildReply.Guild.Rank rankQualifier = null;
-        List<GuildReply.Guild.Rank> sortedRanks = guildReply.getGuild().getRanks().stream()
-            .sorted((o1, o2) -> o2.getPriority() - o1.getPriority())
-            .collect(Collectors.toList());
+        List<GuildReply.Guild.Rank> sortedRanks = guildEntry.getSortedRanks();
 
         RANK_LOOP:
         for (GuildReply.Guild.Rank rank : sortedRanks) {
@@ -100,7 +100,7 @@ public class RankRequirementCommand extends Command {
             return;
         }
 
-        GuildReply guildReply = app.getHypixel().getGson().fromJson(guildEntry.getData(), GuildReply.class);
+        GuildReply guildReply = guildEntry.getGuildReply();
 
         if (args.length == 0) {
             sendListOfGuildRanks(event, guildEntry, guildReply);
@@ -197,8 +197,7 @@ public class RankRequirementCommand extends Command {
         ).setTitle("Rank Requirements");
 
         List<String> roles = new ArrayList<>();
-        guildReply.getGuild().getRanks()
-            .stream().sorted((o1, o2) -> o2.getPriority() - o1.getPriority())
+        guildEntry.getSortedRanks()
             .forEach(rank -> {
                 roles.add(String.format("%s %s",
                     guildEntry.getRankRequirements().containsKey(rank.getName())
@@ -220,15 +220,10 @@ public class SplashCommand extends Command {
                 uuids.add(stat.getString("uuid"));
             }
 
-            StringBuilder stringifiedParams = new StringBuilder();
-            for (String ignored : uuids) {
-                stringifiedParams.append("?, ");
-            }
-
-            Collection usernameQueryResult = app.getDatabaseManager().query(String.format(
-                "SELECT `uuid`, `username` FROM `uuids` WHERE `uuid` IN (%s);",
-                stringifiedParams.toString().substring(0, stringifiedParams.length() - 2)
-            ), uuids.toArray());
+            Collection usernameQueryResult = app.getDatabaseManager().query(
+                "SELECT `uuid`, `username` FROM `uuids` WHERE `uuid` IN (?);",
+                uuids
+            );
 
             HashMap<String, String> usernameMap = new HashMap<>();
             for (DataRow row : usernameQueryResult) {
@@ -294,15 +289,10 @@ public class SplashCommand extends Command {
                 uuids.add(splash.getUserUuid().toString());
             }
 
-            StringBuilder stringifiedParams = new StringBuilder();
-            for (String ignored : uuids) {
-                stringifiedParams.append("?, ");
-            }
-
-            Collection usernameQueryResult = app.getDatabaseManager().query(String.format(
-                "SELECT `uuid`, `username` FROM `uuids` WHERE `uuid` IN (%s);",
-                stringifiedParams.toString().substring(0, stringifiedParams.length() - 2)
-            ), uuids.toArray());
+            Collection usernameQueryResult = app.getDatabaseManager().query(
+                "SELECT `uuid`, `username` FROM `uuids` WHERE `uuid` IN (?);",
+                uuids
+            );
 
             HashMap<String, String> usernameMap = new HashMap<>();
             for (DataRow row : usernameQueryResult) {
@@ -740,17 +730,12 @@ public class SplashCommand extends Command {
             }
         }
 
-        GuildReply guildReply = app.getHypixel().getGson().fromJson(guildEntry.getData(), GuildReply.class);
+        GuildReply guildReply = guildEntry.getGuildReply();
         if (guildReply == null || guildReply.getGuild() == null) {
             throw new FriendlyException("The request to the API returned null for a guild with the given name, try again later.");
         }
 
-        for (GuildReply.Guild.Member member : guildReply.getGuild().getMembers()) {
-            if (member.getUuid().equals(uuid)) {
-                return true;
-            }
-        }
-        return false;
+        return guildEntry.isMember(uuid);
     }
 
     private boolean isOfficerInGuildOrHasManagerSplashRole(MessageReceivedEvent event, GuildController.GuildEntry guildEntry, UUID uuid) {
@@ -26,6 +26,7 @@ import com.senither.hypixel.SkyblockAssistant;
 import com.senither.hypixel.chat.MessageFactory;
 import com.senither.hypixel.contracts.commands.Command;
 import com.senither.hypixel.inventory.ItemRarity;
+import com.senither.hypixel.statistics.LevelCurve;
 import com.senither.hypixel.utils.NumberUtil;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 
@@ -113,11 +114,8 @@ public class PetsCalculatorCommand extends Command {
             max = temp;
         }
 
-        int xp = 0;
-        Integer offset = Constants.PET_OFFSET.get(rarity);
-        for (int i = offset + min - 1; i < offset + max - 1; i++) {
-            xp += Constants.PET_EXPERIENCE.asList().get(i);
-        }
+        LevelCurve levels = Constants.PET_LEVELS.get(rarity);
+        long xp = levels.getExperienceForLevel(max - 1) - levels.getExperienceForLevel(min - 1);
 
         MessageFactory.makeInfo(event.getMessage(), "You need **:xp** XP to level a :rarity pet from level **:first** to **:second**!")
             .set("rarity", rarity.getName())
@@ -21,7 +21,6 @@
 
 package com.senither.hypixel.commands.calculators;
 
-import com.google.common.collect.ImmutableMultiset;
 import com.google.gson.JsonObject;
 import com.senither.hypixel.Constants;
 import com.senither.hypixel.SkyblockAssistant;
@@ -107,8 +106,8 @@ public class SkillsCalculatorCommand extends CalculatorCommand {
     }
 
     private void handleCalculateSkillFromLevel(MessageReceivedEvent event, String[] args) {
-        int min = NumberUtil.getBetween(NumberUtil.parseInt(args[0], 0), 0, Constants.GENERAL_SKILL_EXPERIENCE.size());
-        int max = NumberUtil.getBetween(NumberUtil.parseInt(args[1], 50), 0, Constants.GENERAL_SKILL_EXPERIENCE.size());
+        int min = NumberUtil.getBetween(NumberUtil.parseInt(args[0], 0), 0, Constants.GENERAL_SKILL_LEVELS.getMaxLevel());
+        int max = NumberUtil.getBetween(NumberUtil.parseInt(args[1], 50), 0, Constants.GENERAL_SKILL_LEVELS.getMaxLevel());
 
         if (min > max) {
             int temp = min;
@@ -119,7 +118,7 @@ public class SkillsCalculatorCommand extends CalculatorCommand {
         MessageFactory.makeSuccess(event.getMessage(), "You need **:xp** XP to go from level **:first** to **:second**!")
             .setTitle("Skill Calculation")
             .set("xp", NumberUtil.formatNicelyWithDecimals(
-                getExperienceForLevel(Constants.GENERAL_SKILL_EXPERIENCE, max) - getExperienceForLevel(Constants.GENERAL_SKILL_EXPERIENCE, min)
+                Constants.GENERAL_SKILL_LEVELS.getExperienceForLevel(max) - Constants.GENERAL_SKILL_LEVELS.getExperienceForLevel(min)
             ))
             .set("first", min)
             .set("second", max)
@@ -176,15 +175,15 @@ public class SkillsCalculatorCommand extends CalculatorCommand {
                 }
 
                 double experience = type.getStat().getExperience() == -1
-                    ? getExperienceForLevel(type.getExperienceList(), (int) type.getStat().getLevel())
+                    ? type.getLevelCurve().getExperienceForLevel((int) type.getStat().getLevel())
                     : type.getStat().getExperience();
 
-                int max = NumberUtil.getBetween(NumberUtil.parseInt(args[1], type.getExperienceList().size()), 0, type.getExperienceList().size());
+                int max = NumberUtil.getBetween(NumberUtil.parseInt(args[1], type.getLevelCurve().getMaxLevel()), 0, type.getLevelCurve().getMaxLevel());
                 if (type.getSkillType() != null) {
                     max = Math.min(max, type.getSkillType().getMaxLevel());
                 }
 
-                double levelExperience = getExperienceForLevel(type.getExperienceList(), max);
+                double levelExperience = type.getLevelCurve().getExperienceForLevel(max);
                 double diff = levelExperience - experience;
                 boolean isMaxLevel = false;
 
@@ -232,12 +231,4 @@ public class SkillsCalculatorCommand extends CalculatorCommand {
             }
         });
     }
-
-    private double getExperienceForLevel(ImmutableMultiset<Integer> experience, int level) {
-        double totalRequiredExperience = 0;
-        for (int i = 0; i < Math.min(level, experience.size()); i++) {
-            totalRequiredExperience += experience.asList().get(i);
-        }
-        return totalRequiredExperience;
-    }
 }
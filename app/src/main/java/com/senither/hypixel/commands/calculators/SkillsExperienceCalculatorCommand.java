@@ -21,9 +21,7 @@
 
 package com.senither.hypixel.commands.calculators;
 
-import com.google.common.collect.ImmutableMultiset;
 import com.google.gson.JsonObject;
-import com.senither.hypixel.Constants;
 import com.senither.hypixel.SkyblockAssistant;
 import com.senither.hypixel.chat.MessageFactory;
 import com.senither.hypixel.chat.MessageType;
@@ -157,7 +155,7 @@ public class SkillsExperienceCalculatorCommand extends CalculatorCommand {
                     return;
                 }
 
-                if (type.getStat().getLevel() >= type.getExperienceList().size()) {
+                if (type.getStat().getLevel() >= type.getLevelCurve().getMaxLevel()) {
                     EmbedBuilder builder = embedBuilder
                         .setColor(MessageType.INFO.getColor())
                         .setTitle("Already max level")
@@ -185,18 +183,18 @@ public class SkillsExperienceCalculatorCommand extends CalculatorCommand {
 
                 double experience = getExperienceFromString(args[1]);
                 double skillXp = (type.getStat().getExperience() == -1
-                    ? getExperienceForLevel(type.getExperienceList(), (int) type.getStat().getLevel())
+                    ? type.getLevelCurve().getExperienceForLevel((int) type.getStat().getLevel())
                     : type.getStat().getExperience());
 
                 double combinedXp = experience + skillXp;
                 double newLevel = Math.min(
-                    type.getSkillType() == null ? type.getExperienceList().size() : type.getSkillType().getMaxLevel(),
-                    getLevelFromExperience(type, type.getExperienceList(), combinedXp)
+                    type.getSkillType() == null ? type.getLevelCurve().getMaxLevel() : type.getSkillType().getMaxLevel(),
+                    type.getLevelCurve().getLevelFromExperience(combinedXp)
                 );
 
-                String note = newLevel >= type.getExperienceList().size() ?
+                String note = newLevel >= type.getLevelCurve().getMaxLevel() ?
                     String.format("You'll reach level **%s** and max out your %s %s after gaining **%s** XP!",
-                        type.getExperienceList().size(), type.getName(),
+                        type.getLevelCurve().getMaxLevel(), type.getName(),
                         type.getType().equals(SkillCalculationType.SLAYERS) ? "slayer" : "skill",
                         NumberUtil.formatNicelyWithDecimals(experience)
                     ) :
@@ -329,35 +327,4 @@ public class SkillsExperienceCalculatorCommand extends CalculatorCommand {
             }
         }
     }
-
-    private double getExperienceForLevel(ImmutableMultiset<Integer> experience, int level) {
-        double totalRequiredExperience = 0;
-        for (int i = 0; i < Math.min(level, experience.size()); i++) {
-            totalRequiredExperience += experience.asList().get(i);
-        }
-        return totalRequiredExperience;
-    }
-
-    private double getLevelFromExperience(SkillType type, ImmutableMultiset<Integer> experience, double exp) {
-        if (type.getType().equals(SkillCalculationType.SLAYERS)) {
-            for (int level = 0; level < experience.size(); level++) {
-                double requirement = experience.asList().get(level);
-                if (exp < requirement) {
-                    double lastRequirement = level == 0 ? 0D : Constants.SLAYER_EXPERIENCE.asList().get(level - 1);
-                    return level + (exp - lastRequirement) / (requirement - lastRequirement);
-                }
-            }
-            return 9D;
-        }
-
-        int level = 0;
-        for (int toRemove : experience) {
-            exp -= toRemove;
-            if (exp < 0) {
-                return level + (1D - (exp * -1) / (double) toRemove);
-            }
-            level++;
-        }
-        return level;
-    }
 }
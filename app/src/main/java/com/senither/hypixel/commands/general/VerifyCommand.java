@@ -252,7 +252,7 @@ public class VerifyCommand extends Command {
             }
         }
 
-        GuildReply guildReply = app.getHypixel().getGson().fromJson(guildEntry.getData(), GuildReply.class);
+        GuildReply guildReply = guildEntry.getGuildReply();
         if (guildReply == null || guildReply.getGuild() == null) {
             return;
         }
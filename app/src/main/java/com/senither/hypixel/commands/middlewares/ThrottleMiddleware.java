@@ -1,8 +1,8 @@
 package com.senither.hypixel.commands.middlewares;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import com.senither.hypixel.SkyblockAssistant;
+import com.senither.hypixel.cache.CacheManager;
+import com.senither.hypixel.cache.ManagedCache;
 import com.senither.hypixel.chat.MessageFactory;
 import com.senither.hypixel.commands.ThrottleContainer;
 import com.senither.hypixel.contracts.commands.Command;
@@ -16,9 +16,9 @@ import java.util.concurrent.TimeUnit;
 
 public class ThrottleMiddleware extends Middleware {
 
-    public static final Cache<Long, ThrottleEntity> cache = CacheBuilder.newBuilder()
-        .recordStats()
+    public static final ManagedCache<Long, ThrottleEntity> cache = CacheManager.newBuilder("throttle-commands")
         .expireAfterWrite(60, TimeUnit.SECONDS)
+        .maximumWeight(4 * 1024 * 1024)
         .build();
 
     @Override
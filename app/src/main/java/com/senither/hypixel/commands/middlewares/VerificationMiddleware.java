@@ -1,9 +1,9 @@
 package com.senither.hypixel.commands.middlewares;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import com.senither.hypixel.Constants;
 import com.senither.hypixel.SkyblockAssistant;
+import com.senither.hypixel.cache.CacheManager;
+import com.senither.hypixel.cache.ManagedCache;
 import com.senither.hypixel.chat.MessageFactory;
 import com.senither.hypixel.contracts.commands.Command;
 import com.senither.hypixel.contracts.commands.Middleware;
@@ -17,9 +17,9 @@ import java.util.concurrent.TimeUnit;
 
 public class VerificationMiddleware extends Middleware {
 
-    public static final Cache<Long, Boolean> cache = CacheBuilder.newBuilder()
+    public static final ManagedCache<Long, Boolean> cache = CacheManager.newBuilder("verify")
         .expireAfterAccess(30, TimeUnit.MINUTES)
-        .recordStats()
+        .maximumWeight(4 * 1024 * 1024)
         .build();
 
     public static void clearVerificationCacheFor(User user) {
@@ -1,8 +1,8 @@
 package com.senither.hypixel.commands.misc;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import com.senither.hypixel.SkyblockAssistant;
+import com.senither.hypixel.cache.CacheManager;
+import com.senither.hypixel.cache.ManagedCache;
 import com.senither.hypixel.chat.MessageFactory;
 import com.senither.hypixel.contracts.commands.Command;
 import net.dv8tion.jda.api.MessageBuilder;
@@ -17,9 +17,9 @@ import java.util.concurrent.TimeUnit;
 
 public class BoopCommand extends Command {
 
-    public static final Cache<Long, Boolean> cache = CacheBuilder.newBuilder()
+    public static final ManagedCache<Long, Boolean> cache = CacheManager.newBuilder("boop")
         .expireAfterWrite(60, TimeUnit.SECONDS)
-        .recordStats()
+        .maximumWeight(1024 * 1024)
         .build();
 
     public BoopCommand(SkyblockAssistant app) {
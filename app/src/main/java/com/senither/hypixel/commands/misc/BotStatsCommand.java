@@ -21,10 +21,10 @@
 
 package com.senither.hypixel.commands.misc;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import com.senither.hypixel.Constants;
 import com.senither.hypixel.SkyblockAssistant;
+import com.senither.hypixel.cache.CacheManager;
+import com.senither.hypixel.cache.ManagedCache;
 import com.senither.hypixel.chat.MessageFactory;
 import com.senither.hypixel.contracts.commands.Command;
 import com.senither.hypixel.metrics.Metrics;
@@ -43,9 +43,9 @@ import java.util.concurrent.TimeUnit;
 
 public class BotStatsCommand extends Command {
 
-    public static final Cache<String, Long> cache = CacheBuilder.newBuilder()
+    public static final ManagedCache<String, Long> cache = CacheManager.newBuilder("bot-stats")
         .expireAfterWrite(60, TimeUnit.SECONDS)
-        .recordStats()
+        .maximumWeight(64 * 1024)
         .build();
 
     public BotStatsCommand(SkyblockAssistant app) {
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class AuctionHouseCommand extends SkillCommand {
 
@@ -59,16 +60,25 @@ public class AuctionHouseCommand extends SkillCommand {
 
     @Override
     protected void handleSkyblockProfile(Message message, SkyBlockProfileReply profileReply, PlayerReply playerReply, String[] args) {
-        AuctionHouseResponse auctions = app.getHypixel().getAuctionsFromProfile(
-            profileReply.getProfile().get("profile_id").getAsString()
-        );
+        final String profileId = profileReply.getProfile().get("profile_id").getAsString();
 
-        if (auctions == null) {
-            auctions = app.getHypixel().getAuctionsFromProfile(
-                profileReply.getProfile().get("profile_id").getAsString()
-            );
-        }
+        app.getHypixel().getAuctionsFromProfileAsync(profileId)
+            .exceptionally(throwable -> null)
+            .thenCompose(auctions -> auctions != null
+                ? CompletableFuture.completedFuture(auctions)
+                : app.getHypixel().getAuctionsFromProfileAsync(profileId).exceptionally(throwable -> null)
+            )
+            .thenAccept(auctions -> sendAuctionsMessage(message, profileReply, playerReply, auctions, args))
+            .whenComplete((ignored, throwable) -> {
+                if (throwable != null) {
+                    log.error("Failed to send auctions message for {}, error: {}",
+                        profileId, throwable.getMessage(), throwable
+                    );
+                }
+            });
+    }
 
+    private void sendAuctionsMessage(Message message, SkyBlockProfileReply profileReply, PlayerReply playerReply, AuctionHouseResponse auctions, String[] args) {
         if (auctions == null) {
             MessageFactory.makeError(message,
                 "Failed to load your auction information, please try again later!"
@@ -4,8 +4,12 @@ import com.senither.hypixel.SkyblockAssistant;
 import com.senither.hypixel.chat.MessageFactory;
 import com.senither.hypixel.chat.PlaceholderMessage;
 import com.senither.hypixel.contracts.commands.Command;
+import com.senither.hypixel.hypixel.bazaar.ArchiveResolution;
+import com.senither.hypixel.hypixel.bazaar.ArchiveSeries;
+import com.senither.hypixel.hypixel.bazaar.BazaarArchive;
 import com.senither.hypixel.hypixel.bazaar.BazaarProduct;
-import com.senither.hypixel.hypixel.bazaar.BazaarProductReply;
+import com.senither.hypixel.hypixel.bazaar.BazaarSnapshot;
+import com.senither.hypixel.hypixel.bazaar.PriceHistory;
 import com.senither.hypixel.utils.NumberUtil;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 
@@ -13,6 +17,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class BazaarCommand extends Command {
 
@@ -62,10 +67,10 @@ public class BazaarCommand extends Command {
             return;
         }
 
-        BazaarProductReply bazaarProducts = app.getHypixel().getBazaarProducts();
-        if (bazaarProducts == null || !bazaarProducts.isSuccess()) {
+        BazaarSnapshot snapshot = app.getHypixel().getBazaarTracker().getSnapshot();
+        if (snapshot == null) {
             MessageFactory.makeError(event.getMessage(),
-                "Failed to fetch the Bazaar product details, try again later."
+                "The Bazaar product details haven't been loaded yet, try again in a minute."
             ).queue();
             return;
         }
@@ -102,17 +107,18 @@ public class BazaarCommand extends Command {
                 return;
             }
 
-            BazaarProductReply.Product product = bazaarProducts.getProduct(bazaarProduct);
-
-            double buyPrice = product.getQuickStatus().getBuyPrice();
-            double sellPrice = product.getQuickStatus().getSellPrice();
+            double buyPrice = snapshot.getBuyPrice(bazaarProduct);
+            double sellPrice = snapshot.getSellPrice(bazaarProduct);
 
             totalBuy += buyPrice * amount;
             totalSell += sellPrice * amount;
 
             placeholderMessage.addField(
                 String.format("%sx %s", NumberUtil.formatNicely(amount), bazaarProduct.getName()),
-                createItemDescription(buyPrice, sellPrice, amount),
+                createItemDescription(buyPrice, sellPrice, amount,
+                    app.getHypixel().getBazaarTracker().getHistory(bazaarProduct).getSamples(),
+                    getWeeklySeries(bazaarProduct)
+                ),
                 false
             );
         }
@@ -124,10 +130,12 @@ public class BazaarCommand extends Command {
             ), false
         );
 
-        placeholderMessage.queue();
+        placeholderMessage
+            .setFooter("Averages and trends are based on the Bazaar prices from the last hour")
+            .queue();
     }
 
-    private String createItemDescription(double buyPrice, double sellPrice, int amount) {
+    private String createItemDescription(double buyPrice, double sellPrice, int amount, List<PriceHistory.Sample> history, ArchiveSeries weeklySeries) {
         String totalSellPriceString = String.format("Sell %s Price: ", NumberUtil.formatNicely(amount));
 
         List<String> content = new ArrayList<>(Arrays.asList(
@@ -144,9 +152,51 @@ public class BazaarCommand extends Command {
             content.add(totalSellPriceString + NumberUtil.formatNicelyWithDecimals(sellPrice * amount));
         }
 
+        if (history.size() > 1) {
+            content.add(padSpaces("Buy 1 Avg:", totalSellPriceString.length())
+                + NumberUtil.formatNicelyWithDecimals(PriceHistory.getAverage(history, PriceHistory.Sample::getBuyPrice))
+            );
+            content.add(padSpaces("Sell 1 Avg:", totalSellPriceString.length())
+                + NumberUtil.formatNicelyWithDecimals(PriceHistory.getAverage(history, PriceHistory.Sample::getSellPrice))
+            );
+            content.add(padSpaces("Buy Trend:", totalSellPriceString.length())
+                + formatTrend(PriceHistory.getChange(history, PriceHistory.Sample::getBuyPrice))
+            );
+            content.add(padSpaces("Sell Trend:", totalSellPriceString.length())
+                + formatTrend(PriceHistory.getChange(history, PriceHistory.Sample::getSellPrice))
+            );
+        }
+
+        if (weeklySeries != null && !weeklySeries.isEmpty()) {
+            content.add(padSpaces("Buy 7d Avg:", totalSellPriceString.length())
+                + NumberUtil.formatNicelyWithDecimals(weeklySeries.getAverageBuyPrice())
+            );
+            content.add(padSpaces("Sell 7d Avg:", totalSellPriceString.length())
+                + NumberUtil.formatNicelyWithDecimals(weeklySeries.getAverageSellPrice())
+            );
+        }
+
         return String.format("```scala\n%s```", String.join("\n", content));
     }
 
+    private ArchiveSeries getWeeklySeries(BazaarProduct bazaarProduct) {
+        BazaarArchive archive = app.getHypixel().getBazaarTracker().getArchive();
+        if (archive == null) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+
+        return archive.query(bazaarProduct, ArchiveResolution.HOUR, now - TimeUnit.DAYS.toMillis(7), now);
+    }
+
+    private String formatTrend(double change) {
+        if (Double.isNaN(change)) {
+            return "Unknown";
+        }
+        return String.format("%s%.2f%%", change >= 0 ? "+" : "", change);
+    }
+
     private String padSpaces(String string, double size) {
         StringBuilder builder = new StringBuilder(string);
         while (builder.length() < size) {
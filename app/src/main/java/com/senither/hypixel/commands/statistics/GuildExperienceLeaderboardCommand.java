@@ -87,7 +87,7 @@ public class GuildExperienceLeaderboardCommand extends Command {
             return;
         }
 
-        GuildReply guildReply = app.getHypixel().getGson().fromJson(guildEntry.getData(), GuildReply.class);
+        GuildReply guildReply = guildEntry.getGuildReply();
         if (guildReply == null || guildReply.getGuild() == null) {
             MessageFactory.makeError(event.getMessage(),
                 "Something went wrong while trying ot load the guild data from the database, try again later."
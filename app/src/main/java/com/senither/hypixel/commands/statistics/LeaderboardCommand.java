@@ -28,6 +28,7 @@ import com.senither.hypixel.chat.PlaceholderMessage;
 import com.senither.hypixel.chat.SimplePaginator;
 import com.senither.hypixel.contracts.commands.Command;
 import com.senither.hypixel.database.controller.GuildController;
+import com.senither.hypixel.hypixel.leaderboard.LeaderboardIndex;
 import com.senither.hypixel.hypixel.leaderboard.LeaderboardType;
 import com.senither.hypixel.hypixel.response.GuildLeaderboardResponse;
 import com.senither.hypixel.hypixel.response.GuildMetricsResponse;
@@ -40,7 +41,6 @@ import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import java.sql.SQLException;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicReference;
 
 public class LeaderboardCommand extends Command {
 
@@ -109,7 +109,6 @@ public class LeaderboardCommand extends Command {
         }
 
         UUID userUUID = null;
-        final int[] position = {-1};
 
         try {
             userUUID = app.getHypixel().getUUIDFromUser(event.getAuthor());
@@ -167,58 +166,34 @@ public class LeaderboardCommand extends Command {
             ? "%s: %s\n%s> %s (%s)" : type.equals(LeaderboardType.WEIGHT)
             ? "%s: %s\n%s> %s + %s" : "%s: %s\n%s> %s [%s XP]";
 
-        AtomicReference<Double> totalStatCounter = new AtomicReference<>(0D);
-        AtomicReference<Double> totalExpCounter = new AtomicReference<>(0D);
-        AtomicReference<Integer> totalPlayers = new AtomicReference<>(0);
-
-        final int[] index = {1};
-        final UUID finalUserUUID = userUUID;
-        List<String> completeRows = new ArrayList<>();
-
-        Comparator<PlayerLeaderboardResponse.Player> comparator = Comparator.comparing(
-            player -> type.getOrderFunction().getStat(player)
-        );
-
-        if (type.getIndexFunction() != null) {
-            comparator = comparator.thenComparing(player -> type.getIndexFunction().getStat(player));
+        LeaderboardIndex<PlayerLeaderboardResponse.Player> index = leaderboard.getIndex();
+        if (!index.isIndexed(type)) {
+            MessageFactory.makeError(event.getMessage(),
+                "The :type leaderboard is not available for the `:name` guild right now, try again later."
+            ).set("type", type.getName()).set("name", guildName).setTitle("Missing guild data", "https://hypixel-leaderboard.senither.com/").queue();
+            return;
         }
 
-        leaderboard.getData().stream()
-            .sorted(comparator.reversed())
-            .forEach(player -> {
-                if (player.getUuid().equals(finalUserUUID)) {
-                    position[0] = index[0];
-                }
-
-                double stat = type.getStatFunction().getStat(player);
-                Double exp = type.getExpFunction() == null ? null : type.getExpFunction().getStat(player);
-
-                if (stat > 0) {
-                    totalStatCounter.updateAndGet(v -> v + stat);
-                    totalPlayers.getAndSet(totalPlayers.get() + 1);
-
-                    if (exp != null && exp > 0) {
-                        totalExpCounter.updateAndGet(v -> v + exp);
-                    }
-                }
-
-                completeRows.add(String.format(rowMessage,
-                    padPosition("#" + NumberUtil.formatNicely(index[0]), index[0] - 1),
-                    player.getUsername(),
-                    padPosition("", index[0] - 1),
-                    stat == -1
-                        ? "API IS DISABLED"
-                        : NumberUtil.formatNicelyWithDecimals(stat),
-                    exp == null ? "" : exp == -1
-                        ? "API IS DISABLED"
-                        : NumberUtil.formatNicelyWithDecimals(exp)
-                ));
-                index[0]++;
-            });
+        int pages = (int) Math.ceil(index.size() / 10D);
+        int currentPage = Math.max(1, Math.min(pages, pageNumber));
 
         List<String> rows = new ArrayList<>();
-        SimplePaginator<String> paginator = new SimplePaginator<>(completeRows, 10, pageNumber);
-        paginator.forEach((index1, key, val) -> rows.add(val));
+        for (int position = (currentPage - 1) * 10; position < Math.min(currentPage * 10, index.size()); position++) {
+            double stat = index.getStat(type, position);
+            Double exp = index.getExperience(type, position);
+
+            rows.add(String.format(rowMessage,
+                padPosition("#" + NumberUtil.formatNicely(position + 1), position),
+                index.getPlayer(type, position).getUsername(),
+                padPosition("", position),
+                stat == -1
+                    ? "API IS DISABLED"
+                    : NumberUtil.formatNicelyWithDecimals(stat),
+                exp == null ? "" : exp == -1
+                    ? "API IS DISABLED"
+                    : NumberUtil.formatNicelyWithDecimals(exp)
+            ));
+        }
 
         String command = String.format("%s%s %s %s",
             Constants.COMMAND_PREFIX, getTriggers().get(0),
@@ -226,9 +201,10 @@ public class LeaderboardCommand extends Command {
         );
 
         String note = "";
-        if (finalUserUUID != null && position[0] > 0) {
+        int position = index.getRank(type, userUUID);
+        if (position > 0) {
             note = String.format("> You're ranked **#%s** in %s in the guild!\n\n",
-                position[0], type.getName()
+                position, type.getName()
             );
         }
 
@@ -237,15 +213,15 @@ public class LeaderboardCommand extends Command {
             type.equals(LeaderboardType.SECRETS) ? " secrets!"
                 : type.getExpFunction() == null ? " XP!" : " with **:xp** :xptype",
             String.join("\n", rows)) + "\n"
-            + note + paginator.generateFooter(command)
+            + note + SimplePaginator.generateFooter(currentPage, pages, command)
         )
             .setTitle(
                 String.format("%s's %s Leaderboard", guild.getName(), type.getName()),
                 String.format("https://hypixel-leaderboard.senither.com/guilds/%s", guild.getId())
             )
             .set("type", type.getName().toLowerCase().replace("average", "").trim())
-            .set("skill", NumberUtil.formatNicelyWithDecimals(totalStatCounter.get() / totalPlayers.get()))
-            .set("xp", NumberUtil.formatNicelyWithDecimals(totalExpCounter.get() / totalPlayers.get()))
+            .set("skill", NumberUtil.formatNicelyWithDecimals(index.getAverageStat(type)))
+            .set("xp", NumberUtil.formatNicelyWithDecimals(index.getAverageExperience(type)))
             .set("xptype", type.equals(LeaderboardType.WEIGHT)
                 ? " overflow weight!" : type.equals(LeaderboardType.AVERAGE_SKILL)
                 ? " without progress!" : " average XP!"
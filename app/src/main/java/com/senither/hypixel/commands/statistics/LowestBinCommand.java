@@ -0,0 +1,111 @@
+package com.senither.hypixel.commands.statistics;
+
+import com.senither.hypixel.SkyblockAssistant;
+import com.senither.hypixel.chat.MessageFactory;
+import com.senither.hypixel.chat.PlaceholderMessage;
+import com.senither.hypixel.contracts.commands.Command;
+import com.senither.hypixel.hypixel.auctions.AuctionPrice;
+import com.senither.hypixel.hypixel.auctions.AuctionPriceIndex;
+import com.senither.hypixel.inventory.ItemRarity;
+import com.senither.hypixel.utils.NumberUtil;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class LowestBinCommand extends Command {
+
+    public LowestBinCommand(SkyblockAssistant app) {
+        super(app);
+    }
+
+    @Override
+    public String getName() {
+        return "Lowest BIN Command";
+    }
+
+    @Override
+    public List<String> getDescription() {
+        return Arrays.asList(
+            "Gets the lowest and median Buy It Now price for an item on the",
+            "auction house, for every rarity the item is being sold at."
+        );
+    }
+
+    @Override
+    public List<String> getUsageInstructions() {
+        return Arrays.asList(
+            "`:command <item>` - Gets the BIN prices for the given item.",
+            "`:command <item> <rarity>` - Gets the BIN prices for the given item with the given rarity."
+        );
+    }
+
+    @Override
+    public List<String> getExampleUsage() {
+        return Arrays.asList(
+            "`:command aspect of the end` - Gets the BIN prices for Aspect of the End.",
+            "`:command ender dragon legendary` - Gets the BIN prices for legendary Ender Dragon pets."
+        );
+    }
+
+    @Override
+    public List<String> getTriggers() {
+        return Arrays.asList("lowestbin", "lbin", "bin");
+    }
+
+    @Override
+    public void onCommand(MessageReceivedEvent event, String[] args) {
+        if (args.length == 0) {
+            MessageFactory.makeError(event.getMessage(),
+                "You must include the name of the item you want to see the BIN prices for."
+            ).queue();
+            return;
+        }
+
+        AuctionPriceIndex index = app.getHypixel().getAuctionIngestion().getIndex();
+        if (index == null) {
+            MessageFactory.makeError(event.getMessage(),
+                "The auction house prices haven't been loaded yet, try again in a few minutes."
+            ).queue();
+            return;
+        }
+
+        ItemRarity rarity = ItemRarity.UNKNOWN;
+        if (args.length > 1) {
+            rarity = ItemRarity.fromName(args[args.length - 1]);
+            if (rarity != ItemRarity.UNKNOWN) {
+                args = Arrays.copyOfRange(args, 0, args.length - 1);
+            }
+        }
+
+        String itemName = String.join(" ", args);
+
+        AuctionPrice[] prices = index.getPrices(itemName);
+        if (prices == null || (rarity != ItemRarity.UNKNOWN && prices[rarity.ordinal()] == null)) {
+            MessageFactory.makeWarning(event.getMessage(),
+                "Found no BIN auctions for **:name**, please make sure the item name is spelled correctly."
+            ).set("name", itemName).queue();
+            return;
+        }
+
+        PlaceholderMessage placeholderMessage = MessageFactory.makeInfo(event.getMessage(), "")
+            .setTitle("BIN Prices for " + itemName)
+            .setFooter("The auction house prices are updated every two minutes");
+
+        for (ItemRarity itemRarity : ItemRarity.values()) {
+            AuctionPrice price = prices[itemRarity.ordinal()];
+            if (price == null || (rarity != ItemRarity.UNKNOWN && rarity != itemRarity)) {
+                continue;
+            }
+
+            placeholderMessage.addField(itemRarity.getName(), String.format(
+                "```scala\nLowest BIN: %s\nMedian BIN: %s\nListings:   %s```",
+                NumberUtil.formatNicely(price.getLowestBin()),
+                NumberUtil.formatNicely(price.getMedianBin()),
+                NumberUtil.formatNicely(price.getCount())
+            ), true);
+        }
+
+        placeholderMessage.queue();
+    }
+}
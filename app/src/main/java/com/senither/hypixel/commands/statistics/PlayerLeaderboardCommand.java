@@ -26,6 +26,7 @@ import com.senither.hypixel.SkyblockAssistant;
 import com.senither.hypixel.chat.MessageFactory;
 import com.senither.hypixel.chat.SimplePaginator;
 import com.senither.hypixel.contracts.commands.Command;
+import com.senither.hypixel.hypixel.leaderboard.LeaderboardIndex;
 import com.senither.hypixel.hypixel.leaderboard.LeaderboardPlayer;
 import com.senither.hypixel.hypixel.leaderboard.LeaderboardType;
 import com.senither.hypixel.hypixel.response.PlayerLeaderboardResponse;
@@ -36,7 +37,7 @@ import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 
 import java.sql.SQLException;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.BiFunction;
 
 public class PlayerLeaderboardCommand extends Command {
 
@@ -121,45 +122,37 @@ public class PlayerLeaderboardCommand extends Command {
             ? "%s: %s [%s]\n%s> %s (%s)" : type.equals(LeaderboardType.WEIGHT)
             ? "%s: %s [%s]\n%s> %s + %s" : "%s: %s [%s]\n%s> %s [%s XP]";
 
-        final int[] index = {1};
-        final int[] position = {-1};
-        final UUID finalUserUUID = userUUID;
-        List<String> completeRows = new ArrayList<>();
-
-        Comparator<PlayerLeaderboardResponse.Player> comparator = Comparator.comparing(
-            player -> type.getOrderFunction().getStat(player)
-        );
-
-        if (type.getIndexFunction() != null) {
-            comparator = comparator.thenComparing(player -> type.getIndexFunction().getStat(player));
+        LeaderboardIndex<PlayerLeaderboardResponse.Player> index = app.getHypixel().getPlayerLeaderboard().getIndex();
+        if (!index.isIndexed(type)) {
+            MessageFactory.makeError(event.getMessage(),
+                "The :type leaderboard is not available right now, try again later."
+            ).set("type", type.getName()).queue();
+            return;
         }
 
-        app.getHypixel().getPlayerLeaderboard().getData().stream()
-            .sorted(comparator.reversed())
-            .forEach(player -> {
-                if (player.getUuid().equals(finalUserUUID)) {
-                    position[0] = index[0];
-                }
-
-                completeRows.add(String.format(rowMessage,
-                    padPosition("#" + NumberUtil.formatNicely(index[0]), index[0] - 1),
-                    player.getUsername(),
-                    player.getGuildName(),
-                    padPosition("", index[0] - 1),
-                    type.getStatFunction().getStat(player) == -1
-                        ? "API IS DISABLED"
-                        : NumberUtil.formatNicelyWithDecimals(type.getStatFunction().getStat(player)),
-                    type.getExpFunction() == null ? "" : type.getExpFunction().getStat(player) == -1
-                        ? "API IS DISABLED"
-                        : NumberUtil.formatNicelyWithDecimals(type.getExpFunction().getStat(player))
-                ));
-
-                index[0]++;
-            });
+        int pages = (int) Math.ceil(index.size() / 10D);
+        int currentPage = Math.max(1, Math.min(pages, pageNumber));
 
         List<String> rows = new ArrayList<>();
-        SimplePaginator<String> paginator = new SimplePaginator<>(completeRows, 10, pageNumber);
-        paginator.forEach((index1, key, val) -> rows.add(val));
+        for (int position = (currentPage - 1) * 10; position < Math.min(currentPage * 10, index.size()); position++) {
+            PlayerLeaderboardResponse.Player player = index.getPlayer(type, position);
+
+            double stat = index.getStat(type, position);
+            Double exp = index.getExperience(type, position);
+
+            rows.add(String.format(rowMessage,
+                padPosition("#" + NumberUtil.formatNicely(position + 1), position),
+                player.getUsername(),
+                player.getGuildName(),
+                padPosition("", position),
+                stat == -1
+                    ? "API IS DISABLED"
+                    : NumberUtil.formatNicelyWithDecimals(stat),
+                exp == null ? "" : exp == -1
+                    ? "API IS DISABLED"
+                    : NumberUtil.formatNicelyWithDecimals(exp)
+            ));
+        }
 
         String command = String.format("%s%s %s",
             Constants.COMMAND_PREFIX, getTriggers().get(0),
@@ -167,16 +160,17 @@ public class PlayerLeaderboardCommand extends Command {
         );
 
         String note = "";
-        if (finalUserUUID != null && position[0] > 0) {
+        int position = index.getRank(type, userUUID);
+        if (position > 0) {
             note = String.format("> You're ranked **#%s** in %s!\n\n",
-                NumberUtil.formatNicely(position[0]), type.getName()
+                NumberUtil.formatNicely(position), type.getName()
             );
         }
 
         MessageFactory.makeInfo(event.getMessage(), String.format(
             "```ada\n%s```",
             String.join("\n", rows)) + "\n"
-            + note + paginator.generateFooter(command)
+            + note + SimplePaginator.generateFooter(currentPage, pages, command)
         )
             .setTitle(String.format("%s Player Leaderboard", type.getName()))
             .setFooter("Requested by " + event.getAuthor().getAsTag(), event.getAuthor().getEffectiveAvatarUrl())
@@ -185,50 +179,32 @@ public class PlayerLeaderboardCommand extends Command {
     }
 
     private void showLeaderboard(MessageReceivedEvent event, String[] args) {
-        PlayerLeaderboardResponse leaderboard = app.getHypixel().getPlayerLeaderboard();
-
-        List<String> slayerRow = new ArrayList<>();
-        List<LeaderboardPlayer> sortedBySlayer = leaderboard.getData().stream()
-            .filter(guild -> guild.getGuildName() != null)
-            .sorted((o1, o2) -> Double.compare(o2.getTotalSlayer(), o1.getTotalSlayer()))
-            .collect(Collectors.toList());
-
-        List<String> skillsRow = new ArrayList<>();
-        List<LeaderboardPlayer> sortedBySkills = leaderboard.getData().stream()
-            .filter(guild -> guild.getGuildName() != null)
-            .sorted((o1, o2) -> Double.compare(o2.getAverageSkillProgress(), o1.getAverageSkillProgress()))
-            .collect(Collectors.toList());
-
-        for (int i = 0; i < sortedBySkills.size(); i++) {
-            LeaderboardPlayer skillsPlayer = sortedBySkills.get(i);
-            skillsRow.add(String.format("%s: %s\n%s> %s (%s)",
-                padPosition("#" + NumberUtil.formatNicely(i + 1), i), skillsPlayer.getUsername(),
-                padPosition("", i),
-                NumberUtil.formatNicelyWithDecimals(skillsPlayer.getAverageSkillProgress()),
-                NumberUtil.formatNicelyWithDecimals(skillsPlayer.getAverageSkill())
-            ));
-
-            LeaderboardPlayer slayerPlayer = sortedBySlayer.get(i);
-            slayerRow.add(String.format("%s: %s\n%s> %s",
-                padPosition("#" + NumberUtil.formatNicely(i + 1), i),
-                slayerPlayer.getUsername(),
-                padPosition("", i),
-                NumberUtil.formatNicelyWithDecimals(slayerPlayer.getTotalSlayer())
-            ));
-        }
+        LeaderboardIndex<PlayerLeaderboardResponse.Player> index = app.getHypixel().getPlayerLeaderboard().getIndex();
 
         int currentPage = 1;
         if (args.length > 0) {
             currentPage = NumberUtil.parseInt(args[0], 1);
         }
 
-        SimplePaginator<String> skillsPaginator = new SimplePaginator<>(skillsRow, 10, currentPage);
-        skillsRow.clear();
-        skillsPaginator.forEach((index, key, val) -> skillsRow.add(val));
+        List<String> skillsRow = new ArrayList<>();
+        int pages = collectGuildPlayerRows(index, LeaderboardType.AVERAGE_SKILL, currentPage, skillsRow, (position, player) ->
+            String.format("%s: %s\n%s> %s (%s)",
+                padPosition("#" + NumberUtil.formatNicely(position + 1), position), player.getUsername(),
+                padPosition("", position),
+                NumberUtil.formatNicelyWithDecimals(player.getAverageSkillProgress()),
+                NumberUtil.formatNicelyWithDecimals(player.getAverageSkill())
+            )
+        );
 
-        SimplePaginator<String> slayerPaginator = new SimplePaginator<>(slayerRow, 10, currentPage);
-        slayerRow.clear();
-        slayerPaginator.forEach((index, key, val) -> slayerRow.add(val));
+        List<String> slayerRow = new ArrayList<>();
+        collectGuildPlayerRows(index, LeaderboardType.TOTAL_SLAYER, currentPage, slayerRow, (position, player) ->
+            String.format("%s: %s\n%s> %s",
+                padPosition("#" + NumberUtil.formatNicely(position + 1), position),
+                player.getUsername(),
+                padPosition("", position),
+                NumberUtil.formatNicelyWithDecimals(player.getTotalSlayer())
+            )
+        );
 
         MessageFactory.makeInfo(event.getMessage(),
             "The players leaderboards are the total average skill and slayer stats for every player in a guild the bot is tracking, the stats are refreshed every 24 hours."
@@ -237,12 +213,29 @@ public class PlayerLeaderboardCommand extends Command {
             .setTimestamp(Carbon.now().getTime().toInstant())
             .addField("Skills Leaderboard", String.format("```ada\n%s```", String.join("\n", skillsRow)), true)
             .addField("Slayer Leaderboard", String.format("```ada\n%s```", String.join("\n", slayerRow)), true)
-            .addField(EmbedBuilder.ZERO_WIDTH_SPACE, skillsPaginator.generateFooter(
-                Constants.COMMAND_PREFIX + getTriggers().get(0)
+            .addField(EmbedBuilder.ZERO_WIDTH_SPACE, SimplePaginator.generateFooter(
+                Math.max(1, Math.min(pages, currentPage)), pages, Constants.COMMAND_PREFIX + getTriggers().get(0)
             ), false)
             .queue();
     }
 
+    private int collectGuildPlayerRows(
+        LeaderboardIndex<PlayerLeaderboardResponse.Player> index,
+        LeaderboardType type,
+        int page,
+        List<String> rows,
+        BiFunction<Integer, LeaderboardPlayer, String> formatter
+    ) {
+        int pages = (int) Math.ceil(index.getGuildPlayerCount(type) / 10D);
+        int start = (Math.max(1, Math.min(pages, page)) - 1) * 10;
+
+        for (int position = start; position < Math.min(start + 10, index.getGuildPlayerCount(type)); position++) {
+            rows.add(formatter.apply(position, index.getGuildPlayer(type, position)));
+        }
+
+        return pages;
+    }
+
     private String padPosition(String string, double position) {
         StringBuilder builder = new StringBuilder(string);
         while (builder.length() < 1 + String.valueOf(position).length()) {
@@ -5,7 +5,9 @@ import com.senither.hypixel.chat.MessageFactory;
 import com.senither.hypixel.chat.PlaceholderMessage;
 import com.senither.hypixel.contracts.commands.Command;
 import com.senither.hypixel.hypixel.bazaar.BazaarProduct;
-import com.senither.hypixel.hypixel.bazaar.BazaarProductReply;
+import com.senither.hypixel.hypixel.bazaar.BazaarSnapshot;
+import com.senither.hypixel.hypixel.bazaar.BazaarTracker;
+import com.senither.hypixel.hypixel.bazaar.PriceHistory;
 import com.senither.hypixel.utils.NumberUtil;
 import net.dv8tion.jda.api.entities.MessageEmbed;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
@@ -13,6 +15,7 @@ import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.ToDoubleFunction;
 
 public class SplashCostCommand extends Command {
 
@@ -80,46 +83,66 @@ public class SplashCostCommand extends Command {
 
     @Override
     public void onCommand(MessageReceivedEvent event, String[] args) {
-        BazaarProductReply bazaarProducts = app.getHypixel().getBazaarProducts();
-        if (bazaarProducts == null || !bazaarProducts.isSuccess()) {
+        BazaarTracker tracker = app.getHypixel().getBazaarTracker();
+
+        BazaarSnapshot snapshot = tracker.getSnapshot();
+        if (snapshot == null) {
             MessageFactory.makeError(event.getMessage(),
-                "Failed to fetch the Bazaar product details, try again later."
+                "The Bazaar product details haven't been loaded yet, try again in a minute."
             ).queue();
             return;
         }
 
-        double totalCost = 0D;
         PlaceholderMessage message = MessageFactory.makeInfo(event.getMessage(),
-            "A **17** potion splash costs **:price** coins on average with current Bazaar prices."
+            "A **17** potion splash costs **:price** coins on average with current Bazaar prices, "
+                + "or **:average** coins with the average Bazaar prices from the last hour."
         ).setFooter(
             "The splash calculation assumes you're splashing all the normal buff potions(Strength 8, Critical 4, Archery 4, etc) using the special brews for the ones that requires it + 3 skill potions."
         );
 
         for (BazaarProduct bazaarProduct : products) {
-            BazaarProductReply.Product product = bazaarProducts.getProduct(bazaarProduct);
+            message.addField(createEmbedField(bazaarProduct,
+                snapshot.getBuyPrice(bazaarProduct), tracker.getHistory(bazaarProduct)
+            ));
+        }
 
-            double price = product.getQuickStatus().getBuyPrice();
-            totalCost += products.indexOf(bazaarProduct) < 3 ? price : price / 3D;
+        message
+            .set("price", NumberUtil.formatNicely(calculateCost(snapshot::getBuyPrice)))
+            .set("average", NumberUtil.formatNicely(calculateCost(bazaarProduct -> {
+                double average = tracker.getHistory(bazaarProduct).getAverageBuyPrice();
+
+                return Double.isNaN(average) ? snapshot.getBuyPrice(bazaarProduct) : average;
+            })))
+            .queue();
+    }
 
-            message.addField(createEmbedField(bazaarProduct, product));
+    private double calculateCost(ToDoubleFunction<BazaarProduct> priceFunction) {
+        double totalCost = 0D;
+        for (BazaarProduct bazaarProduct : products) {
+            double price = priceFunction.applyAsDouble(bazaarProduct);
+            totalCost += products.indexOf(bazaarProduct) < 3 ? price : price / 3D;
         }
 
-        double redstoneLamp = bazaarProducts.getProduct(BazaarProduct.ENCHANTED_REDSTONE_LAMP).getQuickStatus().getBuyPrice();
+        double redstoneLamp = priceFunction.applyAsDouble(BazaarProduct.ENCHANTED_REDSTONE_LAMP);
         totalCost += ((redstoneLamp * 15) / 3) - redstoneLamp;
 
-        double redstoneBlock = bazaarProducts.getProduct(BazaarProduct.ENCHANTED_REDSTONE_BLOCK).getQuickStatus().getBuyPrice();
+        double redstoneBlock = priceFunction.applyAsDouble(BazaarProduct.ENCHANTED_REDSTONE_BLOCK);
         totalCost += ((redstoneBlock * 17) / 3) - redstoneBlock;
 
-        double gunpowder = bazaarProducts.getProduct(BazaarProduct.ENCHANTED_GUNPOWDER).getQuickStatus().getBuyPrice();
+        double gunpowder = priceFunction.applyAsDouble(BazaarProduct.ENCHANTED_GUNPOWDER);
         totalCost += ((gunpowder * 17) / 3) - gunpowder;
 
-        message.set("price", NumberUtil.formatNicely(totalCost + brewCosts + additionalCosts)).queue();
+        return totalCost + brewCosts + additionalCosts;
     }
 
-    private MessageEmbed.Field createEmbedField(BazaarProduct bazaarProduct, BazaarProductReply.Product product) {
+    private MessageEmbed.Field createEmbedField(BazaarProduct bazaarProduct, double buyPrice, PriceHistory history) {
+        double change = history.getBuyPriceChange();
+
         return new MessageEmbed.Field(
             bazaarProduct.getName(),
-            NumberUtil.formatNicely(product.getQuickStatus().getBuyPrice()),
+            Double.isNaN(change)
+                ? NumberUtil.formatNicely(buyPrice)
+                : String.format("%s (%s%.2f%%)", NumberUtil.formatNicely(buyPrice), change >= 0 ? "+" : "", change),
             true
         );
     }
@@ -25,7 +25,7 @@ import com.google.gson.JsonObject;
 import com.senither.hypixel.SkyblockAssistant;
 import com.senither.hypixel.chat.MessageType;
 import com.senither.hypixel.contracts.commands.SkillCommand;
-import com.senither.hypixel.inventory.Inventory;
+import com.senither.hypixel.inventory.InventoryCache;
 import com.senither.hypixel.inventory.Item;
 import com.senither.hypixel.inventory.ItemRarity;
 import com.senither.hypixel.inventory.ItemType;
@@ -92,10 +92,12 @@ public class TalismansCommand extends SkillCommand {
         }
 
         try {
-            List<Item> talismans = new ArrayList<>();
-            talismans.addAll(getTalismansFromInventory(member, "ender_chest_contents"));
-            talismans.addAll(getTalismansFromInventory(member, "talisman_bag"));
-            talismans.addAll(getTalismansFromInventory(member, "inv_contents"));
+            List<Item> talismans = InventoryCache.getCombinedInventory(
+                profileReply.getProfile().get("profile_id").getAsString(),
+                playerReply.getPlayer().get("uuid").getAsString(),
+                member,
+                "ender_chest_contents", "talisman_bag", "inv_contents"
+            ).getItemsWithType(ItemType.ACCESSORY);
 
             EmbedBuilder builder = new EmbedBuilder()
                 .setColor(MessageType.SUCCESS.getColor())
@@ -134,12 +136,6 @@ public class TalismansCommand extends SkillCommand {
         }
     }
 
-    private List<Item> getTalismansFromInventory(JsonObject member, String inventoryName) throws IOException {
-        Inventory inventory = new Inventory(member.get(inventoryName).getAsJsonObject().get("data").getAsString());
-
-        return inventory.getItemsWithType(ItemType.ACCESSORY);
-    }
-
     private boolean isInventoryApiEnabled(JsonObject json) {
         return json.has("ender_chest_contents")
             && json.has("talisman_bag")
@@ -23,6 +23,7 @@ package com.senither.hypixel.config;
 
 import com.senither.hypixel.Constants;
 
+import java.util.Map;
 import java.util.UUID;
 
 public class Configuration {
@@ -31,6 +32,12 @@ public class Configuration {
     private String hypixel_token;
     private String leaderboard_uri;
     private String[] hypixel_tokens;
+    private int hypixel_rate_limit;
+    private Map<String, Integer> hypixel_rate_limits;
+    private boolean hypixel_hedged_requests;
+    private Map<String, ReplyCache> reply_cache;
+    private OffHeapCache off_heap_cache;
+    private BazaarArchive bazaar_archive;
     private Database database;
     private Servlet servlet;
 
@@ -46,6 +53,35 @@ public class Configuration {
         return hypixel_tokens;
     }
 
+    public int getHypixelRateLimit(String token) {
+        if (hypixel_rate_limits != null && hypixel_rate_limits.getOrDefault(token, 0) > 0) {
+            return hypixel_rate_limits.get(token);
+        }
+        return hypixel_rate_limit < 1 ? 120 : hypixel_rate_limit;
+    }
+
+    public boolean isHypixelHedgedRequestsEnabled() {
+        return hypixel_hedged_requests;
+    }
+
+    public ReplyCache getReplyCache(String type) {
+        return reply_cache == null ? null : reply_cache.get(type);
+    }
+
+    public OffHeapCache getOffHeapCache() {
+        if (off_heap_cache == null) {
+            off_heap_cache = new OffHeapCache();
+        }
+        return off_heap_cache;
+    }
+
+    public BazaarArchive getBazaarArchive() {
+        if (bazaar_archive == null) {
+            bazaar_archive = new BazaarArchive();
+        }
+        return bazaar_archive;
+    }
+
     public String getLeaderboardUri() {
         if (leaderboard_uri == null) {
             return Constants.DEFAULT_LEADERBOARD_URI;
@@ -68,12 +104,65 @@ public class Configuration {
         return servlet;
     }
 
+    public class ReplyCache {
+
+        private long soft_ttl;
+        private long hard_ttl;
+
+        public long getSoftTtl() {
+            return soft_ttl;
+        }
+
+        public long getHardTtl() {
+            return hard_ttl;
+        }
+    }
+
+    public class OffHeapCache {
+
+        private boolean enabled;
+        private int max_size;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public long getMaximumSize() {
+            return (max_size < 1 ? 256L : max_size) * 1024 * 1024;
+        }
+    }
+
+    public class BazaarArchive {
+
+        private boolean enabled;
+        private String directory;
+        private int retention_days;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public String getDirectory() {
+            return directory == null ? "bazaar-archive" : directory;
+        }
+
+        public int getRetentionDays() {
+            return retention_days < 1 ? 28 : retention_days;
+        }
+    }
+
     public class Database {
 
         private String hostname;
         private String username;
         private String password;
         private String database;
+        private Integer min_connections;
+        private int max_connections;
+        private long acquire_timeout;
+        private long idle_timeout;
+        private int statement_cache_size;
+        private long slow_query_threshold;
 
         public String getHostname() {
             return hostname.split(":")[0];
@@ -103,6 +192,30 @@ public class Configuration {
                 return 3306;
             }
         }
+
+        public int getMinimumConnections() {
+            return min_connections == null ? 2 : Math.max(0, min_connections);
+        }
+
+        public int getMaximumConnections() {
+            return max_connections < 1 ? 10 : max_connections;
+        }
+
+        public long getAcquireTimeout() {
+            return acquire_timeout < 1 ? 10000L : acquire_timeout;
+        }
+
+        public long getIdleTimeout() {
+            return idle_timeout < 1 ? 600000L : idle_timeout;
+        }
+
+        public int getStatementCacheSize() {
+            return statement_cache_size < 1 ? 64 : statement_cache_size;
+        }
+
+        public long getSlowQueryThreshold() {
+            return slow_query_threshold < 1 ? 500L : slow_query_threshold;
+        }
     }
 
     public class Servlet {
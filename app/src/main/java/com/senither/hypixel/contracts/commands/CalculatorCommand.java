@@ -21,12 +21,12 @@
 
 package com.senither.hypixel.contracts.commands;
 
-import com.google.common.collect.ImmutableMultiset;
 import com.senither.hypixel.Constants;
 import com.senither.hypixel.SkyblockAssistant;
 import com.senither.hypixel.contracts.statistics.HasLevel;
 import com.senither.hypixel.contracts.statistics.StatisticsResponse;
 import com.senither.hypixel.hypixel.SkyBlockSkill;
+import com.senither.hypixel.statistics.LevelCurve;
 import com.senither.hypixel.statistics.responses.DungeonResponse;
 import com.senither.hypixel.statistics.responses.SkillsResponse;
 import com.senither.hypixel.statistics.weight.DungeonWeight;
@@ -298,19 +298,19 @@ public abstract class CalculatorCommand extends Command {
             return skillFunction.setCalculateableSkill(response, level, experience);
         }
 
-        public ImmutableMultiset<Integer> getExperienceList() {
+        public LevelCurve getLevelCurve() {
             switch (type) {
                 case GENERAL:
-                    return Constants.GENERAL_SKILL_EXPERIENCE;
+                    return Constants.GENERAL_SKILL_LEVELS;
 
                 case RUNECRAFTING:
-                    return Constants.RUNECRAFTING_SKILL_EXPERIENCE;
+                    return Constants.RUNECRAFTING_SKILL_LEVELS;
 
                 case DUNGEON:
-                    return Constants.DUNGEON_EXPERIENCE;
+                    return Constants.DUNGEON_LEVELS;
 
                 case SLAYERS:
-                    return Constants.SLAYER_EXPERIENCE;
+                    return Constants.SLAYER_LEVELS;
 
                 default:
                     throw new RuntimeException("No valid skill experience calculator could be found for type '" + type + "'");
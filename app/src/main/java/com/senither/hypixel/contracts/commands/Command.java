@@ -21,9 +21,9 @@
 
 package com.senither.hypixel.contracts.commands;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import com.senither.hypixel.SkyblockAssistant;
+import com.senither.hypixel.cache.CacheManager;
+import com.senither.hypixel.cache.ManagedCache;
 import com.senither.hypixel.chat.MessageType;
 import com.senither.hypixel.commands.ThrottleContainer;
 import com.senither.hypixel.database.collection.Collection;
@@ -47,14 +47,14 @@ public abstract class Command {
 
     private static final Logger log = LoggerFactory.getLogger(Command.class);
 
-    public static final Cache<Long, String> discordIdToUsernameCache = CacheBuilder.newBuilder()
+    public static final ManagedCache<Long, String> discordIdToUsernameCache = CacheManager.newBuilder("discord-id-to-username")
         .expireAfterAccess(5, TimeUnit.MINUTES)
-        .recordStats()
+        .maximumWeight(4 * 1024 * 1024)
         .build();
 
-    public static final Cache<Long, UUID> discordIdToUuidCache = CacheBuilder.newBuilder()
+    public static final ManagedCache<Long, UUID> discordIdToUuidCache = CacheManager.newBuilder("discord-id-to-uuid")
         .expireAfterAccess(5, TimeUnit.MINUTES)
-        .recordStats()
+        .maximumWeight(4 * 1024 * 1024)
         .build();
 
     private static final ThrottleContainer defaultThrottleContainer = new ThrottleContainer(
@@ -188,14 +188,13 @@ public abstract class Command {
     }
 
     private boolean isPartOfGuildCheck(MessageReceivedEvent event, GuildController.GuildEntry guildEntry, boolean allowOfficers) {
-        GuildReply guildReply = app.getHypixel().getGson().fromJson(guildEntry.getData(), GuildReply.class);
+        GuildReply guildReply = guildEntry.getGuildReply();
         if (guildReply == null || guildReply.getGuild() == null) {
             throw new FriendlyException("The request to the API returned null for a guild with the given name, try again later.");
         }
 
-        GuildReply.Guild.Rank rank = guildReply.getGuild().getRanks()
+        GuildReply.Guild.Rank rank = guildEntry.getSortedRanks()
             .stream()
-            .sorted((o1, o2) -> o2.getPriority() - o1.getPriority())
             .findFirst().orElse(null);
 
         if (allowOfficers && rank == null) {
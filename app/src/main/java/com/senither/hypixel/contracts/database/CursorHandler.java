@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+package com.senither.hypixel.contracts.database;
+
+import com.senither.hypixel.database.collection.Cursor;
+
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface CursorHandler {
+
+    /**
+     * Handles the rows of a streamed query, the cursor starts before the first
+     * row and is only valid until this method returns, since its connection
+     * is released back to the connection pool right after.
+     *
+     * @param cursor The forward-only cursor for the query.
+     * @throws SQLException If the rows could not be read from the cursor.
+     */
+    void handle(Cursor cursor) throws SQLException;
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+package com.senither.hypixel.contracts.database;
+
+import com.senither.hypixel.database.collection.Cursor;
+
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Maps the row the given cursor is currently positioned at to an object,
+     * the mapper should only read from the cursor, moving the cursor
+     * is handled by the database manager.
+     *
+     * @param cursor The cursor positioned at the row that should be mapped.
+     * @return The object the row was mapped to.
+     * @throws SQLException If the row could not be read from the cursor.
+     */
+    T map(Cursor cursor) throws SQLException;
+}
@@ -25,6 +25,7 @@ import com.google.gson.JsonObject;
 import com.senither.hypixel.database.controller.GuildController;
 import com.senither.hypixel.exceptions.NoRankRequirementException;
 import com.senither.hypixel.inventory.Inventory;
+import com.senither.hypixel.inventory.InventoryCache;
 import com.senither.hypixel.rank.RankCheckResponse;
 import net.hypixel.api.reply.GuildReply;
 import net.hypixel.api.reply.skyblock.SkyBlockProfileReply;
@@ -32,7 +33,6 @@ import net.hypixel.api.reply.skyblock.SkyBlockProfileReply;
 import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 public abstract class RankRequirementChecker {
 
@@ -78,13 +78,16 @@ public abstract class RankRequirementChecker {
         return profileReply.getProfile().getAsJsonObject("members").getAsJsonObject(playerUUID.toString().replace("-", ""));
     }
 
-    protected final List<GuildReply.Guild.Rank> getSortedRanksFromGuild(GuildReply guild) {
-        return guild.getGuild().getRanks().stream()
-            .sorted((o1, o2) -> o2.getPriority() - o1.getPriority())
-            .collect(Collectors.toList());
+    protected final List<GuildReply.Guild.Rank> getSortedRanksFromGuild(GuildController.GuildEntry guildEntry) {
+        return guildEntry.getSortedRanks();
     }
 
-    protected final Inventory buildInventoryForPlayer(JsonObject member, String inventoryName) throws IOException {
-        return new Inventory(member.get(inventoryName).getAsJsonObject().get("data").getAsString());
+    protected final Inventory buildCombinedInventoryForPlayer(SkyBlockProfileReply profileReply, UUID playerUUID, String... inventoryNames) throws IOException {
+        return InventoryCache.getCombinedInventory(
+            profileReply.getProfile().get("profile_id").getAsString(),
+            playerUUID.toString().replace("-", ""),
+            getProfileMemberFromUUID(profileReply, playerUUID),
+            inventoryNames
+        );
     }
 }
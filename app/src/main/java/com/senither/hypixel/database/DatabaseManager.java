@@ -22,32 +22,47 @@
 package com.senither.hypixel.database;
 
 import com.senither.hypixel.SkyblockAssistant;
+import com.senither.hypixel.contracts.database.CursorHandler;
+import com.senither.hypixel.contracts.database.RowMapper;
 import com.senither.hypixel.database.collection.Collection;
+import com.senither.hypixel.database.collection.Cursor;
 import com.senither.hypixel.database.migrations.*;
+import com.senither.hypixel.database.pool.ConnectionPool;
+import com.senither.hypixel.database.pool.PooledConnection;
 import com.senither.hypixel.metrics.Metrics;
+import com.senither.hypixel.time.Carbon;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.Statement;
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
 
 public class DatabaseManager {
 
     private static final Logger log = LoggerFactory.getLogger(DatabaseManager.class);
 
-    private MySQLConnection connection;
+    public static final int defaultFetchSize = 100;
+
+    private final ConnectionPool connectionPool;
+    private final QueryStatistics queryStatistics = new QueryStatistics();
+    private final long slowQueryThresholdNanos;
     private MigrationManager migrationManager;
 
     public DatabaseManager(SkyblockAssistant app) {
-        connection = new MySQLConnection(app);
+        connectionPool = new ConnectionPool(new MySQLConnection(app), app.getConfiguration().getDatabase());
+        slowQueryThresholdNanos = TimeUnit.MILLISECONDS.toNanos(app.getConfiguration().getDatabase().getSlowQueryThreshold());
         migrationManager = new MigrationManager(this);
 
         try {
-            connection.open();
+            connectionPool.fill();
             log.info("Connected to database successfully");
 
             log.info("Registering database migrations");
@@ -76,6 +91,7 @@ public class DatabaseManager {
             migrationManager.register(new CreateBanLogTableMigration());
             migrationManager.register(new AddBanLogRoleColumnToGuildsTableMigration());
             migrationManager.register(new AddSplashManagementRoleColumnToGuildsTableMigration());
+            migrationManager.register(new AddEncodedColumnToProfileAndPlayerTableMigration());
 
             log.info("Running database migrations");
             migrationManager.migrate();
@@ -85,70 +101,388 @@ public class DatabaseManager {
     }
 
     public Collection query(String sql, Object... binds) throws SQLException {
-        Metrics.databaseQueries.labels("SELECT").inc();
         log.debug("Running select query: {}", sql, binds);
 
-        try (PreparedStatement statement = preparedStatement(sql, binds)) {
+        return execute("SELECT", sql, binds.length, connection -> {
+            PreparedStatement statement = preparedStatement(connection, sql, binds);
             if (!statement.execute()) {
                 return null;
             }
 
             return new Collection(statement.getResultSet());
-        }
+        }, result -> result == null ? 0 : result.size());
     }
 
     public Set<Long> queryInsert(String sql, Object... binds) throws SQLException {
-        Metrics.databaseQueries.labels("INSERT").inc();
-
         log.debug("Running insert query: {}", sql, binds);
 
-        try (PreparedStatement statement = preparedStatement(sql, binds)) {
-            statement.executeUpdate();
+        int[] affectedRows = new int[1];
+        return execute("INSERT", sql, binds.length, connection -> {
+            PreparedStatement statement = preparedStatement(connection, sql, binds);
+            affectedRows[0] = statement.executeUpdate();
 
             Set<Long> ids = new HashSet<>();
-            ResultSet keys = statement.getGeneratedKeys();
-            while (keys.next()) {
-                ids.add(keys.getLong(1));
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                while (keys.next()) {
+                    ids.add(keys.getLong(1));
+                }
             }
 
             return ids;
-        }
+        }, ids -> affectedRows[0]);
     }
 
     public boolean queryUpdate(String sql, Object... binds) throws SQLException {
-        Metrics.databaseQueries.labels(
-            sql.toUpperCase().startsWith("UPDATE") ? "UPDATE" : "DELETE"
-        ).inc();
-
         log.debug("Running update query: {}", sql, binds);
 
-        try (PreparedStatement statement = preparedStatement(sql, binds)) {
-            return statement.executeUpdate() > 0;
+        return execute(sql.toUpperCase().startsWith("UPDATE") ? "UPDATE" : "DELETE", sql, binds.length,
+            connection -> preparedStatement(connection, sql, binds).executeUpdate(),
+            affectedRows -> affectedRows
+        ) > 0;
+    }
+
+    /**
+     * Runs the given query once for every set of binds in the batch using JDBC batching,
+     * sending all the rows to the database in a single round trip. Since every row
+     * shares the same prepared statement, collection binds are not expanded for
+     * batches, and will be bound as strings instead.
+     *
+     * @param sql   The query that should be run for every row in the batch.
+     * @param batch The list of values that should be bound for each row.
+     * @return The amount of affected rows for each row in the batch.
+     * @throws SQLException If the batch failed to run.
+     */
+    public int[] queryBatch(String sql, List<Object[]> batch) throws SQLException {
+        log.debug("Running batch query with {} rows: {}", batch.size(), sql);
+
+        if (batch.isEmpty()) {
+            Metrics.databaseQueries.labels("BATCH").inc();
+            return new int[0];
         }
+
+        return execute("BATCH", sql, batch.size() * batch.get(0).length, connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            try {
+                for (Object[] binds : batch) {
+                    bindParameters(statement, binds);
+                    statement.addBatch();
+                }
+
+                return statement.executeBatch();
+            } finally {
+                // The statement is cached on the connection, so any rows left in the batch
+                // after a failed bind would otherwise be sent with the next batch.
+                try {
+                    statement.clearBatch();
+                } catch (SQLException e) {
+                    connection.markBroken();
+                }
+            }
+        }, results -> {
+            // Drivers may report SUCCESS_NO_INFO (-2) for rows in a batch, so only
+            // the rows with a known amount of affected rows are counted.
+            long affectedRows = 0;
+            for (int result : results) {
+                affectedRows += Math.max(result, 0);
+            }
+            return affectedRows;
+        });
+    }
+
+    /**
+     * Runs the given select query and passes a forward-only cursor for the result to the
+     * handler, rows are fetched from the database in chunks of the given fetch size
+     * while the handler moves through them, so the entire result is never kept in
+     * memory at once, the connection is held until the handler returns.
+     *
+     * @param sql       The select query that should be run.
+     * @param fetchSize The amount of rows that should be fetched from the database at a time.
+     * @param handler   The handler that should read the rows from the cursor.
+     * @param binds     The values that should be bound to the query.
+     * @throws SQLException If the query failed, or the handler failed to read from the cursor.
+     */
+    public void queryCursor(String sql, int fetchSize, CursorHandler handler, Object... binds) throws SQLException {
+        log.debug("Running cursor query: {}", sql, binds);
+
+        execute("SELECT", sql, binds.length, connection -> {
+            try (PreparedStatement statement = connection.getRawConnection().prepareStatement(
+                expandCollectionPlaceholders(sql, binds), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY
+            )) {
+                statement.setFetchSize(fetchSize);
+                bindParameters(statement, flattenCollectionBinds(binds));
+
+                try (ResultSet result = statement.executeQuery()) {
+                    Cursor cursor = new Cursor(result);
+                    handler.handle(cursor);
+
+                    return cursor.getRows();
+                }
+            }
+        }, rows -> rows);
     }
 
-    public MySQLConnection getConnection() throws SQLException {
-        if (!connection.isOpen()) {
-            connection.open();
+    /**
+     * Runs the given select query and maps every row using the given row mapper, passing
+     * the mapped objects to the consumer one at a time as the rows are fetched.
+     *
+     * @param sql       The select query that should be run.
+     * @param fetchSize The amount of rows that should be fetched from the database at a time.
+     * @param mapper    The mapper that should map each row to an object.
+     * @param consumer  The consumer that should receive the mapped objects.
+     * @param binds     The values that should be bound to the query.
+     * @param <T>       The type the rows are mapped to.
+     * @return The amount of rows that were mapped.
+     * @throws SQLException If the query failed, or a row could not be mapped.
+     */
+    public <T> int queryEach(String sql, int fetchSize, RowMapper<T> mapper, Consumer<T> consumer, Object... binds) throws SQLException {
+        int[] rows = new int[1];
+        queryCursor(sql, fetchSize, cursor -> {
+            while (cursor.next()) {
+                consumer.accept(mapper.map(cursor));
+            }
+            rows[0] = cursor.getRows();
+        }, binds);
+
+        return rows[0];
+    }
+
+    /**
+     * Runs the given select query and maps every row using the given row mapper.
+     *
+     * @param sql    The select query that should be run.
+     * @param mapper The mapper that should map each row to an object.
+     * @param binds  The values that should be bound to the query.
+     * @param <T>    The type the rows are mapped to.
+     * @return The list of mapped objects, in the same order as the rows were returned.
+     * @throws SQLException If the query failed, or a row could not be mapped.
+     */
+    public <T> List<T> queryList(String sql, RowMapper<T> mapper, Object... binds) throws SQLException {
+        List<T> items = new ArrayList<>();
+        queryEach(sql, defaultFetchSize, mapper, items::add, binds);
+
+        return items;
+    }
+
+    public ConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    public QueryStatistics getQueryStatistics() {
+        return queryStatistics;
+    }
+
+    /**
+     * Acquires a connection from the pool and runs the given executor with it, while
+     * recording how long the query took, how long was spent waiting for the
+     * connection, and how many rows were returned or affected by it.
+     *
+     * @param type      The type of the query, used for the query counter metric.
+     * @param sql       The SQL query that is being run.
+     * @param bindCount The amount of values bound to the query.
+     * @param executor  The executor that runs the query on the acquired connection.
+     * @param rows      The function that counts the rows returned or affected by the query.
+     * @param <T>       The type of the query result.
+     * @return The result of the executor.
+     * @throws SQLException If no connection could be acquired, or the query failed.
+     */
+    private <T> T execute(String type, String sql, int bindCount, QueryExecutor<T> executor, ToLongFunction<T> rows) throws SQLException {
+        Metrics.databaseQueries.labels(type).inc();
+
+        String template = queryStatistics.normalize(sql);
+        long start = System.nanoTime();
+        long waitNanos = 0;
+        long affectedRows = 0;
+        boolean failed = true;
+
+        try (PooledConnection connection = connectionPool.acquire()) {
+            waitNanos = System.nanoTime() - start;
+
+            try {
+                T result = executor.execute(connection);
+                affectedRows = rows.applyAsLong(result);
+                failed = false;
+
+                return result;
+            } catch (SQLException e) {
+                handleConnectionException(connection, e);
+                throw e;
+            }
+        } finally {
+            long durationNanos = System.nanoTime() - start;
+
+            queryStatistics.record(template, durationNanos, waitNanos, affectedRows, failed);
+            Metrics.databaseQueryTime.labels(template).observe(durationNanos / 1E9);
+            Metrics.databaseQueryRows.labels(template).inc(affectedRows);
+
+            if (durationNanos >= slowQueryThresholdNanos) {
+                Metrics.databaseSlowQueries.labels(template).inc();
+                log.warn("Slow query: template=\"{}\" binds={} duration={}ms wait={}ms rows={} failed={} caller={}",
+                    template, bindCount,
+                    TimeUnit.NANOSECONDS.toMillis(durationNanos),
+                    TimeUnit.NANOSECONDS.toMillis(waitNanos),
+                    affectedRows, failed, findCaller()
+                );
+            }
         }
+    }
 
-        return connection;
+    private String findCaller() {
+        return StackWalker.getInstance().walk(frames -> frames
+            .filter(frame -> !frame.getClassName().startsWith(DatabaseManager.class.getName()))
+            .findFirst()
+            .map(frame -> frame.getClassName() + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+            .orElse("unknown")
+        );
     }
 
-    private PreparedStatement preparedStatement(String sql, Object... binds) throws SQLException {
-        PreparedStatement statement = getConnection().getRawConnection().prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+    private PreparedStatement preparedStatement(PooledConnection connection, String sql, Object... binds) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(expandCollectionPlaceholders(sql, binds));
+        bindParameters(statement, flattenCollectionBinds(binds));
+
+        return statement;
+    }
 
+    private void bindParameters(PreparedStatement statement, Object... binds) throws SQLException {
         int index = 1;
         for (Object bind : binds) {
-            if (bind == null) {
-                statement.setNull(index++, 0);
-            } else if (bind instanceof Boolean) {
-                statement.setBoolean(index++, (Boolean) bind);
+            bindParameter(statement, index++, bind);
+        }
+    }
+
+    private void bindParameter(PreparedStatement statement, int index, Object bind) throws SQLException {
+        if (bind == null) {
+            statement.setNull(index, Types.NULL);
+        } else if (bind instanceof Boolean) {
+            statement.setBoolean(index, (Boolean) bind);
+        } else if (bind instanceof Long) {
+            statement.setLong(index, (Long) bind);
+        } else if (bind instanceof Integer || bind instanceof Short || bind instanceof Byte) {
+            statement.setInt(index, ((Number) bind).intValue());
+        } else if (bind instanceof Double) {
+            statement.setDouble(index, (Double) bind);
+        } else if (bind instanceof Float) {
+            statement.setFloat(index, (Float) bind);
+        } else if (bind instanceof BigDecimal) {
+            statement.setBigDecimal(index, (BigDecimal) bind);
+        } else if (bind instanceof byte[]) {
+            statement.setBytes(index, (byte[]) bind);
+        } else if (bind instanceof Carbon) {
+            // Carbon timestamps are bound as local date times so the stored value
+            // is the same wall-clock time that was used when binding them as strings.
+            Carbon carbon = (Carbon) bind;
+            statement.setObject(index, LocalDateTime.of(
+                carbon.getYear(), carbon.getMonth(), carbon.getDay(),
+                carbon.getHour(), carbon.getMinute(), carbon.getSecond()
+            ));
+        } else {
+            // UUIDs, and everything else, are stored as VARCHAR columns.
+            statement.setString(index, bind.toString());
+        }
+    }
+
+    /**
+     * Expands the placeholder for every collection bind into one placeholder per
+     * element, so <code>IN (?)</code> with a list of three values becomes
+     * <code>IN (?, ?, ?)</code>, empty collections are replaced with <code>NULL</code>
+     * so the query still matches nothing instead of being invalid SQL.
+     *
+     * @param sql   The SQL query that should be expanded.
+     * @param binds The binds that will be used for the query.
+     * @return The SQL query with the collection placeholders expanded.
+     */
+    private String expandCollectionPlaceholders(String sql, Object... binds) {
+        if (!hasCollectionBinds(binds)) {
+            return sql;
+        }
+
+        StringBuilder builder = new StringBuilder(sql.length() + 16);
+        int bindIndex = 0;
+        char quote = 0;
+
+        for (int i = 0; i < sql.length(); i++) {
+            char character = sql.charAt(i);
+
+            if (quote != 0) {
+                if (character == quote) {
+                    quote = 0;
+                }
+                builder.append(character);
+                continue;
+            }
+
+            if (character == '\'' || character == '"' || character == '`') {
+                quote = character;
+                builder.append(character);
+                continue;
+            }
+
+            if (character != '?') {
+                builder.append(character);
+                continue;
+            }
+
+            Object bind = bindIndex < binds.length ? binds[bindIndex] : null;
+            bindIndex++;
+
+            if (!(bind instanceof java.util.Collection)) {
+                builder.append(character);
+                continue;
+            }
+
+            int size = ((java.util.Collection<?>) bind).size();
+            if (size == 0) {
+                builder.append("NULL");
+                continue;
+            }
+
+            builder.append('?');
+            for (int j = 1; j < size; j++) {
+                builder.append(", ?");
+            }
+        }
+
+        return builder.toString();
+    }
+
+    private Object[] flattenCollectionBinds(Object... binds) {
+        if (!hasCollectionBinds(binds)) {
+            return binds;
+        }
+
+        List<Object> flattened = new ArrayList<>(binds.length + 16);
+        for (Object bind : binds) {
+            if (bind instanceof java.util.Collection) {
+                flattened.addAll((java.util.Collection<?>) bind);
             } else {
-                statement.setString(index++, bind.toString());
+                flattened.add(bind);
             }
         }
 
-        return statement;
+        return flattened.toArray();
+    }
+
+    private boolean hasCollectionBinds(Object... binds) {
+        for (Object bind : binds) {
+            if (bind instanceof java.util.Collection) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void handleConnectionException(PooledConnection connection, SQLException exception) {
+        // SQL states in the "08" class are connection exceptions, meaning the
+        // connection is most likely dead and shouldn't be put back in the pool.
+        if (exception instanceof SQLRecoverableException || exception instanceof SQLNonTransientConnectionException) {
+            connection.markBroken();
+        } else if (exception.getSQLState() != null && exception.getSQLState().startsWith("08")) {
+            connection.markBroken();
+        }
+    }
+
+    @FunctionalInterface
+    private interface QueryExecutor<T> {
+
+        T execute(PooledConnection connection) throws SQLException;
     }
 }
@@ -28,41 +28,59 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 public class MySQLConnection extends DatabaseConnection {
 
     private static final Logger log = LoggerFactory.getLogger(MySQLConnection.class);
 
+    private static final ExecutorService networkTimeoutExecutor = Executors.newCachedThreadPool();
+
     public MySQLConnection(SkyblockAssistant app) {
         super(app);
     }
 
     public boolean open() throws SQLException {
+        if (initialize()) {
+            connection = createConnection();
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Creates a new raw connection to the MySQL database, the connection is
+     * not tracked by this instance and must be closed by the caller.
+     *
+     * @return The newly created database connection.
+     * @throws SQLException If the connection could not be established.
+     */
+    public Connection createConnection() throws SQLException {
         try {
             Configuration.Database databaseConfiguration = app.getConfiguration().getDatabase();
-            String url = String.format("jdbc:mysql://%s:%d/%s?autoReconnect=true&serverTimezone=UTC",
+            // Cursor fetching makes the driver respect the fetch size of streamed queries,
+            // fetching rows from the server in chunks instead of buffering every row.
+            String url = String.format("jdbc:mysql://%s:%d/%s?serverTimezone=UTC&useCursorFetch=true&rewriteBatchedStatements=true",
                 databaseConfiguration.getHostname(), databaseConfiguration.getPort(), databaseConfiguration.getDatabase()
             );
 
-            if (initialize()) {
-                connection = DriverManager.getConnection(url, databaseConfiguration.getUsername(), databaseConfiguration.getPassword());
+            Connection connection = DriverManager.getConnection(url, databaseConfiguration.getUsername(), databaseConfiguration.getPassword());
 
-                // Sets a timeout of 20 seconds(This is an extremely long time, however the default
-                // is around 10 minutes so this should give some improvements with the threads
-                // not being blocked for ages due to hanging database queries.
-                connection.setNetworkTimeout(Executors.newCachedThreadPool(), 1000 * 20);
+            // Sets a timeout of 20 seconds(This is an extremely long time, however the default
+            // is around 10 minutes so this should give some improvements with the threads
+            // not being blocked for ages due to hanging database queries.
+            connection.setNetworkTimeout(networkTimeoutExecutor, 1000 * 20);
 
-                return true;
-            }
+            return connection;
         } catch (SQLException ex) {
             String reason = "Could not establish a MySQL connection, SQLException: " + ex.getMessage();
 
             log.error(reason, ex);
             throw new SQLException(reason);
         }
-
-        return false;
     }
 
     @Override
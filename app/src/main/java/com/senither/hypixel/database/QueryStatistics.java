@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+package com.senither.hypixel.database;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+public class QueryStatistics {
+
+    private static final int maximumCachedTemplates = 2048;
+
+    private static final Pattern inListPattern = Pattern.compile("\\bIN\\s*\\(\\s*(\\?|'[^']*'|-?\\d+)(\\s*,\\s*(\\?|'[^']*'|-?\\d+))*\\s*\\)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern stringLiteralPattern = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+    private static final Pattern numberLiteralPattern = Pattern.compile("(?<![\\w`])-?\\d+(\\.\\d+)?\\b");
+    private static final Pattern whitespacePattern = Pattern.compile("\\s+");
+
+    private final Map<String, String> templateCache = new ConcurrentHashMap<>();
+    private final Map<String, TemplateStatistics> templates = new ConcurrentHashMap<>();
+
+    /**
+     * Normalizes the given SQL query into a template, where literal values are replaced with
+     * placeholders, and IN-lists are collapsed into a single placeholder, so queries that
+     * only differ by their values are grouped together under the same template.
+     *
+     * @param sql The SQL query that should be normalized.
+     * @return The normalized SQL template.
+     */
+    public String normalize(String sql) {
+        String template = templateCache.get(sql);
+        if (template != null) {
+            return template;
+        }
+
+        template = whitespacePattern.matcher(sql.trim()).replaceAll(" ");
+        template = stringLiteralPattern.matcher(template).replaceAll("?");
+        template = numberLiteralPattern.matcher(template).replaceAll("?");
+        template = inListPattern.matcher(template).replaceAll("IN (?)");
+        if (template.endsWith(";")) {
+            template = template.substring(0, template.length() - 1).trim();
+        }
+
+        // Queries with values built into them would fill up the cache with one entry
+        // per value, so the cache stops growing once it reaches its maximum size.
+        if (templateCache.size() < maximumCachedTemplates) {
+            templateCache.put(sql, template);
+        }
+
+        return template;
+    }
+
+    /**
+     * Records a finished query for the given template.
+     *
+     * @param template      The normalized SQL template for the query.
+     * @param durationNanos The amount of nanoseconds the query took, including the connection wait time.
+     * @param waitNanos     The amount of nanoseconds spent waiting for a database connection.
+     * @param rows          The amount of rows that were returned or affected by the query.
+     * @param failed        Whether the query failed with an exception.
+     */
+    public void record(String template, long durationNanos, long waitNanos, long rows, boolean failed) {
+        TemplateStatistics statistics = templates.computeIfAbsent(template, TemplateStatistics::new);
+
+        statistics.calls.increment();
+        statistics.totalNanos.add(durationNanos);
+        statistics.waitNanos.add(waitNanos);
+        statistics.rows.add(rows);
+        statistics.maxNanos.accumulateAndGet(durationNanos, Math::max);
+        if (failed) {
+            statistics.failures.increment();
+        }
+    }
+
+    /**
+     * Gets the statistics for the templates that have spent the most time running queries in total.
+     *
+     * @param limit The maximum amount of templates that should be returned.
+     * @return The statistics for the templates, sorted by their total time, highest first.
+     */
+    public List<TemplateStatistics> getTopTemplates(int limit) {
+        List<TemplateStatistics> statistics = new ArrayList<>(templates.values());
+        statistics.sort(Comparator.comparingLong(TemplateStatistics::getTotalNanos).reversed());
+
+        return statistics.subList(0, Math.min(limit, statistics.size()));
+    }
+
+    public static class TemplateStatistics {
+
+        private final String template;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        TemplateStatistics(String template) {
+            this.template = template;
+        }
+
+        public String getTemplate() {
+            return template;
+        }
+
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getWaitNanos() {
+            return waitNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        public long getRows() {
+            return rows.sum();
+        }
+    }
+}
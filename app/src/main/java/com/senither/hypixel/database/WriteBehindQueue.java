@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+package com.senither.hypixel.database;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.senither.hypixel.metrics.Metrics;
+import com.senither.hypixel.time.Carbon;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+public class WriteBehindQueue<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindQueue.class);
+
+    private static final int batchSize = 100;
+    private static final long flushInterval = TimeUnit.SECONDS.toMillis(1);
+
+    private final DatabaseManager databaseManager;
+    private final String table;
+    private final String upsertQuery;
+    private final Function<T, byte[]> encoder;
+    private final int maximumPendingWrites;
+    private final Map<String, PendingWrite<T>> pendingWrites = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final ScheduledExecutorService flushExecutor;
+
+    /**
+     * Creates a new write-behind queue for the given table, the table must have a unique
+     * <code>uuid</code> column, a binary <code>encoded</code> column, and a <code>data</code>
+     * and <code>last_updated_at</code> column, like the players and profiles tables.
+     * <p>
+     * Values are only encoded once they're flushed, so values that are replaced by a newer
+     * write before the queue is flushed are never encoded at all, the values must
+     * therefore never be modified after they have been given to the queue.
+     *
+     * @param databaseManager      The database manager that should be used to flush the writes.
+     * @param table                The name of the table the writes should be flushed to.
+     * @param maximumPendingWrites The maximum amount of UUIDs that can be waiting to be written.
+     * @param encoder              The encoder that encodes the values to the bytes stored in the table.
+     */
+    public WriteBehindQueue(DatabaseManager databaseManager, String table, int maximumPendingWrites, Function<T, byte[]> encoder) {
+        this.databaseManager = databaseManager;
+        this.table = table;
+        this.maximumPendingWrites = maximumPendingWrites;
+        this.encoder = encoder;
+        this.upsertQuery = String.format(
+            "INSERT INTO `%s` (`uuid`, `encoded`, `data`, `last_updated_at`) VALUES (?, ?, NULL, ?) "
+                + "ON DUPLICATE KEY UPDATE `encoded` = VALUES(`encoded`), `data` = NULL, `last_updated_at` = VALUES(`last_updated_at`)",
+            table
+        );
+
+        this.flushExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("database-write-behind-" + table + "-%d")
+            .setDaemon(true)
+            .build()
+        );
+        this.flushExecutor.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+
+        // Writes that are still waiting when the process exits would otherwise be lost,
+        // so the queue is flushed one last time while the JVM is shutting down.
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "database-write-behind-" + table + "-shutdown"));
+    }
+
+    /**
+     * Queues the given value to be written to the row with the given UUID, if a
+     * write for the UUID is already waiting to be flushed it will be replaced,
+     * so only the latest value is written to the database.
+     *
+     * @param uuid  The UUID of the row that should be written to.
+     * @param value The value that should be written to the row.
+     * @return <code>True</code> if the write was queued, <code>False</code> if the queue is full and the write was dropped.
+     */
+    public boolean write(String uuid, T value) {
+        PendingWrite<T> write = new PendingWrite<>(uuid, value, Carbon.now());
+
+        // The size check and the put aren't atomic, so the queue can go slightly over its
+        // maximum size under contention, which is fine since it's only there to stop
+        // the queue from growing forever while the database is unavailable.
+        if (pendingWrites.size() >= maximumPendingWrites && !pendingWrites.containsKey(uuid)) {
+            Metrics.writeBehindWrites.labels(table, "dropped").inc();
+            log.warn("Dropped write for {} in the {} table, the write-behind queue is full", uuid, table);
+
+            return false;
+        }
+
+        PendingWrite<T> previous = pendingWrites.put(uuid, write);
+        Metrics.writeBehindWrites.labels(table, previous == null ? "queued" : "coalesced").inc();
+        Metrics.writeBehindQueueDepth.labels(table).set(pendingWrites.size());
+
+        if (pendingWrites.size() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets the amount of UUIDs that are currently waiting to be written.
+     *
+     * @return The amount of UUIDs that are waiting to be written.
+     */
+    public int size() {
+        return pendingWrites.size();
+    }
+
+    /**
+     * Flushes every pending write to the database in batches, writes
+     * that fail to be flushed are put back in the queue, unless
+     * a newer write for the same UUID was queued in the meantime.
+     */
+    public synchronized void flush() {
+        try {
+            List<PendingWrite<T>> batch = new ArrayList<>(batchSize);
+            for (String uuid : pendingWrites.keySet()) {
+                PendingWrite<T> write = pendingWrites.remove(uuid);
+                if (write == null) {
+                    continue;
+                }
+
+                batch.add(write);
+                if (batch.size() >= batchSize) {
+                    if (!flushBatch(batch)) {
+                        return;
+                    }
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+
+            flushBatch(batch);
+        } finally {
+            Metrics.writeBehindQueueDepth.labels(table).set(pendingWrites.size());
+        }
+    }
+
+    private boolean flushBatch(List<PendingWrite<T>> batch) {
+        if (batch.isEmpty()) {
+            return true;
+        }
+
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (PendingWrite<T> write : batch) {
+            try {
+                rows.add(new Object[]{write.uuid, encoder.apply(write.value), write.queuedAt});
+            } catch (Exception e) {
+                log.error("Failed to encode the write for {} in the {} table, error: {}",
+                    write.uuid, table, e.getMessage(), e
+                );
+
+                Metrics.writeBehindWrites.labels(table, "failed").inc();
+            }
+        }
+
+        if (rows.isEmpty()) {
+            return true;
+        }
+
+        long start = System.nanoTime();
+        try {
+            databaseManager.queryBatch(upsertQuery, rows);
+
+            Metrics.writeBehindWrites.labels(table, "flushed").inc(rows.size());
+            return true;
+        } catch (Exception e) {
+            log.error("Failed to flush {} writes to the {} table, error: {}",
+                rows.size(), table, e.getMessage(), e
+            );
+
+            Metrics.writeBehindWrites.labels(table, "failed").inc(rows.size());
+            for (PendingWrite<T> write : batch) {
+                pendingWrites.putIfAbsent(write.uuid, write);
+            }
+            return false;
+        } finally {
+            Metrics.writeBehindFlushTime.labels(table).observe((System.nanoTime() - start) / 1_000_000_000D);
+        }
+    }
+
+    private static class PendingWrite<T> {
+
+        private final String uuid;
+        private final T value;
+        private final Carbon queuedAt;
+
+        PendingWrite(String uuid, T value, Carbon queuedAt) {
+            this.uuid = uuid;
+            this.value = value;
+            this.queuedAt = queuedAt;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+package com.senither.hypixel.database.collection;
+
+import com.senither.hypixel.exceptions.InvalidFormatException;
+import com.senither.hypixel.time.Carbon;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class Cursor {
+
+    private final ResultSet result;
+    private final Map<String, Integer> columns;
+    private int rows = 0;
+
+    /**
+     * Creates a new forward-only cursor for the given result set, unlike the
+     * {@link Collection} the rows are never copied, every accessor reads
+     * straight from the current row of the result set instead.
+     *
+     * @param result The result set the cursor should read from.
+     * @throws SQLException If the result set meta data could not be read.
+     */
+    public Cursor(ResultSet result) throws SQLException {
+        this.result = result;
+        this.columns = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+        ResultSetMetaData meta = result.getMetaData();
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            columns.putIfAbsent(meta.getColumnLabel(i), i);
+        }
+    }
+
+    /**
+     * Moves the cursor to the next row.
+     *
+     * @return <code>True</code> if the cursor moved to a new row, <code>False</code> if there are no more rows.
+     * @throws SQLException If the next row could not be fetched.
+     */
+    public boolean next() throws SQLException {
+        if (!result.next()) {
+            return false;
+        }
+
+        rows++;
+        return true;
+    }
+
+    /**
+     * Gets the amount of rows the cursor has moved through so far.
+     *
+     * @return The amount of rows the cursor has moved through.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Resolves the index of the column with the given name, the index can be
+     * used with the index based accessors so rows can be read without
+     * looking up the column by name every time.
+     *
+     * @param name The name or label of the column, the name is case-insensitive.
+     * @return The index of the column, starting at 1.
+     * @throws SQLException If the query didn't select a column with the given name.
+     */
+    public int getColumnIndex(String name) throws SQLException {
+        Integer index = columns.get(name);
+        if (index == null) {
+            throw new SQLException("The query didn't select a column called " + name);
+        }
+        return index;
+    }
+
+    /**
+     * Checks if the query selected a column with the given name.
+     *
+     * @param name The name or label of the column, the name is case-insensitive.
+     * @return <code>True</code> if the column exists, <code>False</code> otherwise.
+     */
+    public boolean hasColumn(String name) {
+        return columns.containsKey(name);
+    }
+
+    /**
+     * Checks if the value of the given column is <code>NULL</code> for the current row.
+     *
+     * @param column The index of the column, starting at 1.
+     * @return <code>True</code> if the value is <code>NULL</code>, <code>False</code> otherwise.
+     * @throws SQLException If the value could not be read.
+     */
+    public boolean isNull(int column) throws SQLException {
+        result.getObject(column);
+        return result.wasNull();
+    }
+
+    /**
+     * Gets the value of the given column as a long.
+     *
+     * @param column The index of the column, starting at 1.
+     * @return The value of the column, or <code>0L</code> if the value is <code>NULL</code>.
+     * @throws SQLException If the value could not be read as a long.
+     */
+    public long getLong(int column) throws SQLException {
+        return result.getLong(column);
+    }
+
+    /**
+     * Gets the value of the column with the given name as a long, resolving
+     * the column index is done for every call, so rows that are read
+     * in a loop should use the index based accessor instead.
+     *
+     * @param name The name or label of the column, the name is case-insensitive.
+     * @return The value of the column.
+     * @throws SQLException If the column doesn't exist or the value could not be read.
+     */
+    public long getLong(String name) throws SQLException {
+        return getLong(getColumnIndex(name));
+    }
+
+    /**
+     * Gets the value of the given column as an integer.
+     *
+     * @param column The index of the column, starting at 1.
+     * @return The value of the column, or <code>0</code> if the value is <code>NULL</code>.
+     * @throws SQLException If the value could not be read as an integer.
+     */
+    public int getInt(int column) throws SQLException {
+        return result.getInt(column);
+    }
+
+    /**
+     * Gets the value of the column with the given name as an integer, resolving
+     * the column index is done for every call, so rows that are read
+     * in a loop should use the index based accessor instead.
+     *
+     * @param name The name or label of the column, the name is case-insensitive.
+     * @return The value of the column.
+     * @throws SQLException If the column doesn't exist or the value could not be read.
+     */
+    public int getInt(String name) throws SQLException {
+        return getInt(getColumnIndex(name));
+    }
+
+    /**
+     * Gets the value of the given column as a double.
+     *
+     * @param column The index of the column, starting at 1.
+     * @return The value of the column, or <code>0.0D</code> if the value is <code>NULL</code>.
+     * @throws SQLException If the value could not be read as a double.
+     */
+    public double getDouble(int column) throws SQLException {
+        return result.getDouble(column);
+    }
+
+    /**
+     * Gets the value of the column with the given name as a double, resolving
+     * the column index is done for every call, so rows that are read
+     * in a loop should use the index based accessor instead.
+     *
+     * @param name The name or label of the column, the name is case-insensitive.
+     * @return The value of the column.
+     * @throws SQLException If the column doesn't exist or the value could not be read.
+     */
+    public double getDouble(String name) throws SQLException {
+        return getDouble(getColumnIndex(name));
+    }
+
+    /**
+     * Gets the value of the given column as a boolean.
+     *
+     * @param column The index of the column, starting at 1.
+     * @return The value of the column, or <code>False</code> if the value is <code>NULL</code>.
+     * @throws SQLException If the value could not be read as a boolean.
+     */
+    public boolean getBoolean(int column) throws SQLException {
+        return result.getBoolean(column);
+    }
+
+    /**
+     * Gets the value of the column with the given name as a boolean, resolving
+     * the column index is done for every call, so rows that are read
+     * in a loop should use the index based accessor instead.
+     *
+     * @param name The name or label of the column, the name is case-insensitive.
+     * @return The value of the column.
+     * @throws SQLException If the column doesn't exist or the value could not be read.
+     */
+    public boolean getBoolean(String name) throws SQLException {
+        return getBoolean(getColumnIndex(name));
+    }
+
+    /**
+     * Gets the value of the given column as a string, if the string is
+     * encoded with base64 it will automatically be decoded, the
+     * same way the {@link DataRow#getString(String)} does.
+     *
+     * @param column The index of the column, starting at 1.
+     * @return The value of the column, or <code>NULL</code> if the value is <code>NULL</code>.
+     * @throws SQLException If the value could not be read as a string.
+     */
+    public String getString(int column) throws SQLException {
+        String string = result.getString(column);
+        if (string == null || !string.startsWith("base64:")) {
+            return string;
+        }
+
+        try {
+            return new String(Base64.getDecoder().decode(string.substring(7)));
+        } catch (IllegalArgumentException ex) {
+            return string;
+        }
+    }
+
+    /**
+     * Gets the value of the column with the given name as a string, resolving
+     * the column index is done for every call, so rows that are read
+     * in a loop should use the index based accessor instead.
+     *
+     * @param name The name or label of the column, the name is case-insensitive.
+     * @return The value of the column.
+     * @throws SQLException If the column doesn't exist or the value could not be read.
+     */
+    public String getString(String name) throws SQLException {
+        return getString(getColumnIndex(name));
+    }
+
+    /**
+     * Gets the value of the given column as a byte array, used for binary columns.
+     *
+     * @param column The index of the column, starting at 1.
+     * @return The value of the column, or <code>NULL</code> if the value is <code>NULL</code>.
+     * @throws SQLException If the value could not be read as a byte array.
+     */
+    public byte[] getBytes(int column) throws SQLException {
+        return result.getBytes(column);
+    }
+
+    /**
+     * Gets the value of the given column as a carbon timestamp, the value is
+     * parsed the same way the {@link DataRow#getTimestamp(String)} does,
+     * so both return the same time for the same column.
+     *
+     * @param column The index of the column, starting at 1.
+     * @return The value of the column, or <code>NULL</code> if the value is <code>NULL</code> or not a valid time.
+     * @throws SQLException If the value could not be read.
+     */
+    public Carbon getTimestamp(int column) throws SQLException {
+        String time = result.getString(column);
+        if (time == null) {
+            return null;
+        }
+
+        try {
+            return new Carbon(time);
+        } catch (InvalidFormatException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the value of the column with the given name as a carbon timestamp, resolving
+     * the column index is done for every call, so rows that are read
+     * in a loop should use the index based accessor instead.
+     *
+     * @param name The name or label of the column, the name is case-insensitive.
+     * @return The value of the column.
+     * @throws SQLException If the column doesn't exist or the value could not be read.
+     */
+    public Carbon getTimestamp(String name) throws SQLException {
+        return getTimestamp(getColumnIndex(name));
+    }
+}
@@ -21,30 +21,37 @@
 
 package com.senither.hypixel.database.controller;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
+import com.senither.hypixel.cache.CacheManager;
+import com.senither.hypixel.cache.ManagedCache;
+import com.senither.hypixel.contracts.database.RowMapper;
 import com.senither.hypixel.database.DatabaseManager;
-import com.senither.hypixel.database.collection.Collection;
-import com.senither.hypixel.database.collection.DataRow;
+import com.senither.hypixel.database.collection.Cursor;
 import com.senither.hypixel.rank.items.PowerOrb;
+import net.hypixel.api.adapters.DateTimeTypeAdapter;
+import net.hypixel.api.adapters.UUIDTypeAdapter;
+import net.hypixel.api.reply.GuildReply;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.SQLException;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.time.ZonedDateTime;
+import java.util.*;
 import java.util.concurrent.TimeUnit;
 
 public class GuildController {
 
     private static final Logger log = LoggerFactory.getLogger(GuildController.class);
-    private static final Gson gson = new Gson();
+    private static final Gson gson = new GsonBuilder()
+        .registerTypeAdapter(UUID.class, new UUIDTypeAdapter())
+        .registerTypeAdapter(ZonedDateTime.class, new DateTimeTypeAdapter())
+        .create();
 
-    public static final Cache<Long, GuildEntry> cache = CacheBuilder.newBuilder()
+    public static final ManagedCache<Long, GuildEntry> cache = CacheManager.newBuilder("database-guild")
         .expireAfterAccess(60, TimeUnit.SECONDS)
-        .recordStats()
+        .maximumWeight(16 * 1024 * 1024)
         .build();
 
     public static GuildEntry getGuildById(DatabaseManager manager, long guildId) {
@@ -55,14 +62,14 @@ public class GuildController {
         }
 
         try {
-            Collection result = manager.query("SELECT * FROM `guilds` WHERE `discord_id` = ?", guildId);
+            List<GuildEntry> result = manager.queryList("SELECT * FROM `guilds` WHERE `discord_id` = ?", guildEntryMapper(), guildId);
             if (result.isEmpty()) {
                 return null;
             }
 
             log.debug("Found guild entry for {} using the database cache", guildId);
 
-            GuildEntry guildEntry = new GuildEntry(result.first());
+            GuildEntry guildEntry = result.get(0);
             cache.put(guildId, guildEntry);
 
             return guildEntry;
@@ -85,16 +92,57 @@ public class GuildController {
         }
     }
 
+    /**
+     * Removes the guild entry from the in-memory cache, together with its decoded
+     * guild reply, so the next lookup loads the guild from the database again.
+     *
+     * @param guildId The ID of the Discord guild that should be forgotten.
+     */
     public static void forgetCacheFor(long guildId) {
         cache.invalidate(guildId);
     }
 
+    /**
+     * Creates a new row mapper that maps rows from the guilds table to guild entries, the
+     * mapper resolves the column indexes the first time it sees a cursor, so the
+     * query must select every column from the guilds table, like <code>SELECT *</code>.
+     *
+     * @return The row mapper for guild entries.
+     */
+    public static RowMapper<GuildEntry> guildEntryMapper() {
+        return new RowMapper<GuildEntry>() {
+
+            private Cursor resolvedCursor;
+            private int[] columns;
+
+            @Override
+            public GuildEntry map(Cursor cursor) throws SQLException {
+                if (resolvedCursor != cursor) {
+                    columns = new int[GuildEntry.columnNames.length];
+                    for (int i = 0; i < columns.length; i++) {
+                        columns[i] = cursor.getColumnIndex(GuildEntry.columnNames[i]);
+                    }
+                    resolvedCursor = cursor;
+                }
+
+                return new GuildEntry(cursor, columns);
+            }
+        };
+    }
+
     public static GuildEntry.RankRequirement createEmptyRankRequirement() {
         return new GuildEntry.RankRequirement();
     }
 
     public static class GuildEntry {
 
+        private static final String[] columnNames = new String[]{
+            "id", "discord_id", "name", "data", "splash_role", "splash_management_role", "splash_channel",
+            "splash_points", "donation_time", "donation_points", "donation_role", "donation_channel",
+            "donation_notification_channel", "ban_log_role", "auto_rename", "default_role",
+            "guild_member_role", "rank_requirements"
+        };
+
         private final String id;
         private final long discordId;
         private final String name;
@@ -113,36 +161,39 @@ public class GuildController {
         private final Long banLogRole;
         private final boolean autoRename;
         private final LinkedHashMap<String, RankRequirement> rankRequirements;
-
-        GuildEntry(DataRow row) {
-            id = row.getString("id");
-            discordId = row.getLong("discord_id");
-            name = row.getString("name");
-            data = row.getString("data");
-            splashRole = row.getLong("splash_role");
-            splashManagementRole = row.getLong("splash_management_role");
-            splashChannel = row.getLong("splash_channel");
-            splashPoints = row.getBoolean("splash_points");
-            donationTime = row.getInt("donation_time");
-            donationPoints = row.getInt("donation_points");
-            donationRole = row.getLong("donation_role");
-            donationChannel = row.getLong("donation_channel");
-            donationNotificationChannel = row.getLong("donation_notification_channel");
-            banLogRole = row.getLong("ban_log_role");
-            autoRename = row.getBoolean("auto_rename");
-
-            long defaultRole = row.getLong("default_role", 0L);
+        private transient volatile DecodedGuild decodedGuild;
+
+        GuildEntry(Cursor cursor, int[] columns) throws SQLException {
+            id = cursor.getString(columns[0]);
+            discordId = cursor.getLong(columns[1]);
+            name = cursor.getString(columns[2]);
+            data = cursor.getString(columns[3]);
+            splashRole = cursor.getLong(columns[4]);
+            splashManagementRole = cursor.getLong(columns[5]);
+            splashChannel = cursor.getLong(columns[6]);
+            splashPoints = cursor.getBoolean(columns[7]);
+            donationTime = cursor.getInt(columns[8]);
+            donationPoints = cursor.getInt(columns[9]);
+            donationRole = cursor.getLong(columns[10]);
+            donationChannel = cursor.getLong(columns[11]);
+            donationNotificationChannel = cursor.getLong(columns[12]);
+            banLogRole = cursor.getLong(columns[13]);
+            autoRename = cursor.getBoolean(columns[14]);
+
+            long defaultRole = cursor.getLong(columns[15]);
             this.defaultRole = defaultRole == 0L ? null : defaultRole;
 
-            long guildMemberRole = row.getLong("guild_member_role", 0L);
+            long guildMemberRole = cursor.getLong(columns[16]);
             this.guildMemberRole = guildMemberRole == 0L ? null : guildMemberRole;
 
             rankRequirements = new LinkedHashMap<>();
-            if (row.getString("rank_requirements") == null) {
+
+            String rawRankRequirements = cursor.getString(columns[17]);
+            if (rawRankRequirements == null) {
                 return;
             }
 
-            JsonObject rankRequirements = gson.fromJson(row.getString("rank_requirements"), JsonObject.class);
+            JsonObject rankRequirements = gson.fromJson(rawRankRequirements, JsonObject.class);
             for (String name : rankRequirements.keySet()) {
                 this.rankRequirements.put(name, new RankRequirement(rankRequirements.get(name).getAsJsonObject()));
             }
@@ -164,6 +215,61 @@ public class GuildController {
             return data;
         }
 
+        /**
+         * Gets the guild reply stored in the data column, the reply is decoded the first
+         * time it's requested and then shared by everything that uses the guild entry,
+         * so the reply must be treated as read-only, use {@link #getData()} and
+         * decode a copy instead if the reply needs to be modified.
+         *
+         * @return The decoded guild reply, or <code>NULL</code> if the guild has no data.
+         */
+        public GuildReply getGuildReply() {
+            return getDecodedGuild().reply;
+        }
+
+        /**
+         * Gets the UUIDs of all the members in the guild reply.
+         *
+         * @return An immutable set of the guild member UUIDs.
+         */
+        public Set<UUID> getMemberUuids() {
+            return getDecodedGuild().memberUuids;
+        }
+
+        /**
+         * Checks if the given UUID belongs to a member of the guild.
+         *
+         * @param uuid The UUID that should be checked.
+         * @return <code>True</code> if the UUID belongs to a guild member, <code>False</code> otherwise.
+         */
+        public boolean isMember(UUID uuid) {
+            return getDecodedGuild().memberUuids.contains(uuid);
+        }
+
+        /**
+         * Gets the ranks from the guild reply, sorted by their priority with
+         * the highest priority rank first.
+         *
+         * @return An immutable list of the guild ranks.
+         */
+        public List<GuildReply.Guild.Rank> getSortedRanks() {
+            return getDecodedGuild().sortedRanks;
+        }
+
+        private DecodedGuild getDecodedGuild() {
+            DecodedGuild decoded = decodedGuild;
+            if (decoded == null) {
+                synchronized (this) {
+                    decoded = decodedGuild;
+                    if (decoded == null) {
+                        decoded = new DecodedGuild(data == null ? null : gson.fromJson(data, GuildReply.class));
+                        decodedGuild = decoded;
+                    }
+                }
+            }
+            return decoded;
+        }
+
         public Long getSplashRole() {
             return splashRole;
         }
@@ -241,6 +347,34 @@ public class GuildController {
             return rankRequirements;
         }
 
+        private static class DecodedGuild {
+
+            private final GuildReply reply;
+            private final Set<UUID> memberUuids;
+            private final List<GuildReply.Guild.Rank> sortedRanks;
+
+            DecodedGuild(GuildReply reply) {
+                this.reply = reply;
+
+                if (reply == null || reply.getGuild() == null) {
+                    memberUuids = Collections.emptySet();
+                    sortedRanks = Collections.emptyList();
+                    return;
+                }
+
+                Set<UUID> memberUuids = new HashSet<>();
+                for (GuildReply.Guild.Member member : reply.getGuild().getMembers()) {
+                    memberUuids.add(member.getUuid());
+                }
+                this.memberUuids = Collections.unmodifiableSet(memberUuids);
+
+                List<GuildReply.Guild.Rank> sortedRanks = reply.getGuild().getRanks() == null
+                    ? new ArrayList<>() : new ArrayList<>(reply.getGuild().getRanks());
+                sortedRanks.sort((o1, o2) -> o2.getPriority() - o1.getPriority());
+                this.sortedRanks = Collections.unmodifiableList(sortedRanks);
+            }
+        }
+
         public static class RankRequirement {
 
             private int fairySouls = Integer.MAX_VALUE;
@@ -21,8 +21,8 @@
 
 package com.senither.hypixel.database.controller;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
+import com.senither.hypixel.cache.CacheManager;
+import com.senither.hypixel.cache.ManagedCache;
 import com.senither.hypixel.database.DatabaseManager;
 import com.senither.hypixel.database.collection.Collection;
 import com.senither.hypixel.database.collection.DataRow;
@@ -40,8 +40,9 @@ public class PlayerDonationController {
 
     private static final Logger log = LoggerFactory.getLogger(PlayerDonationController.class);
 
-    public static final Cache<String, PlayerDonationEntry> cache = CacheBuilder.newBuilder()
+    public static final ManagedCache<String, PlayerDonationEntry> cache = CacheManager.newBuilder("database-donation-points")
         .expireAfterAccess(15, TimeUnit.MINUTES)
+        .maximumWeight(8 * 1024 * 1024)
         .build();
 
     public static synchronized PlayerDonationEntry getPlayerByUuid(DatabaseManager manager, long guildId, UUID uuid) {
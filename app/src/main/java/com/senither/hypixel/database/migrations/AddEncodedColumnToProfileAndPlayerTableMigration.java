@@ -0,0 +1,40 @@
+package com.senither.hypixel.database.migrations;
+
+import com.senither.hypixel.contracts.database.Migration;
+import com.senither.hypixel.database.DatabaseManager;
+
+import java.sql.SQLException;
+
+public class AddEncodedColumnToProfileAndPlayerTableMigration implements Migration {
+
+    @Override
+    public boolean up(DatabaseManager databaseManager) throws SQLException {
+        databaseManager.queryUpdate(
+            "ALTER TABLE `players` ADD `encoded` MEDIUMBLOB NULL DEFAULT NULL AFTER `data`, MODIFY `data` MEDIUMTEXT NULL DEFAULT NULL;"
+        );
+        databaseManager.queryUpdate(
+            "ALTER TABLE `profiles` ADD `encoded` MEDIUMBLOB NULL DEFAULT NULL AFTER `data`, MODIFY `data` MEDIUMTEXT NULL DEFAULT NULL;"
+        );
+        return true;
+    }
+
+    @Override
+    public boolean down(DatabaseManager databaseManager) throws SQLException {
+        // Rows that only have the encoded data can't be converted back using SQL
+        // alone, and since the tables are only used for caching, they're
+        // just removed so they'll be requested from the API again.
+        databaseManager.queryUpdate(
+            "DELETE FROM `players` WHERE `data` IS NULL;"
+        );
+        databaseManager.queryUpdate(
+            "ALTER TABLE `players` DROP `encoded`, MODIFY `data` MEDIUMTEXT NOT NULL;"
+        );
+        databaseManager.queryUpdate(
+            "DELETE FROM `profiles` WHERE `data` IS NULL;"
+        );
+        databaseManager.queryUpdate(
+            "ALTER TABLE `profiles` DROP `encoded`, MODIFY `data` MEDIUMTEXT NOT NULL;"
+        );
+        return true;
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.database.pool;
+
+import com.senither.hypixel.config.Configuration;
+import com.senither.hypixel.database.MySQLConnection;
+import com.senither.hypixel.metrics.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConnectionPool {
+
+    private static final Logger log = LoggerFactory.getLogger(ConnectionPool.class);
+
+    /**
+     * The amount of milliseconds a connection can sit idle in the pool
+     * before it will be validated again when it is being acquired.
+     */
+    private static final long validationInterval = 5000L;
+
+    private final MySQLConnection connectionFactory;
+    private final LinkedBlockingDeque<PooledConnection> idleConnections;
+    private final AtomicInteger totalConnections;
+    private final Semaphore permits;
+
+    private final int minimumSize;
+    private final int maximumSize;
+    private final long acquireTimeout;
+    private final long idleTimeout;
+    private final int statementCacheSize;
+
+    public ConnectionPool(MySQLConnection connectionFactory, Configuration.Database configuration) {
+        this.connectionFactory = connectionFactory;
+        this.idleConnections = new LinkedBlockingDeque<>();
+        this.totalConnections = new AtomicInteger(0);
+
+        this.maximumSize = configuration.getMaximumConnections();
+        this.minimumSize = Math.min(configuration.getMinimumConnections(), maximumSize);
+        this.acquireTimeout = configuration.getAcquireTimeout();
+        this.idleTimeout = configuration.getIdleTimeout();
+        this.statementCacheSize = configuration.getStatementCacheSize();
+
+        this.permits = new Semaphore(maximumSize, true);
+    }
+
+    /**
+     * Opens connections until the pool has reached its minimum size.
+     *
+     * @throws SQLException If a new connection could not be established.
+     */
+    public void fill() throws SQLException {
+        while (totalConnections.get() < minimumSize) {
+            idleConnections.offerLast(createConnection());
+        }
+        updateMetrics();
+    }
+
+    /**
+     * Acquires a connection from the pool, if no idle connections are available
+     * and the pool is at its maximum size, the calling thread will wait up to
+     * the configured acquire timeout for a connection to be released.
+     *
+     * @return The acquired connection, which must be closed to return it to the pool.
+     * @throws SQLException If no connection could be acquired before the timeout,
+     *                      or if a new connection could not be established.
+     */
+    public PooledConnection acquire() throws SQLException {
+        long start = System.nanoTime();
+
+        try {
+            if (!permits.tryAcquire(acquireTimeout, TimeUnit.MILLISECONDS)) {
+                Metrics.databasePoolTimeouts.inc();
+                throw new SQLTransientConnectionException(String.format(
+                    "Timed out after %sms while waiting for a database connection (%s connections in use)",
+                    acquireTimeout, maximumSize
+                ));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        }
+
+        Metrics.databasePoolWaitTime.observe((System.nanoTime() - start) / 1E9);
+
+        try {
+            PooledConnection connection;
+            while ((connection = idleConnections.pollFirst()) != null) {
+                if (System.currentTimeMillis() - connection.getLastUsedAt() < validationInterval || connection.isValid(2)) {
+                    return lease(connection);
+                }
+                evict(connection, "failed validation");
+            }
+
+            return lease(createConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            updateMetrics();
+
+            throw e;
+        }
+    }
+
+    /**
+     * Closes idle connections that have been unused for longer than the idle
+     * timeout while keeping the pool at its minimum size, and validates
+     * the rest of the idle connections so dead connections are evicted
+     * before they're handed out to a caller.
+     */
+    public void evictIdleConnections() {
+        long now = System.currentTimeMillis();
+
+        // Connections are validated one at a time while holding a permit for them, the same
+        // way they would be if they were leased, so callers acquiring connections in the
+        // meantime can't open extra connections past the maximum size of the pool.
+        // Validated connections are put back at the end of the queue, so going
+        // through every idle connection once keeps them in the same order.
+        int idle = idleConnections.size();
+        for (int i = 0; i < idle; i++) {
+            if (!permits.tryAcquire()) {
+                break;
+            }
+
+            try {
+                PooledConnection connection = idleConnections.pollFirst();
+                if (connection == null) {
+                    break;
+                }
+
+                if (!connection.isValid(2)) {
+                    evict(connection, "failed validation");
+                } else if (now - connection.getLastUsedAt() > idleTimeout && totalConnections.get() > minimumSize) {
+                    evict(connection, "idle timeout");
+                } else {
+                    idleConnections.offerLast(connection);
+                }
+            } finally {
+                permits.release();
+            }
+        }
+
+        try {
+            fill();
+        } catch (SQLException e) {
+            log.error("Failed to refill the database connection pool, error: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Closes all the idle connections in the pool.
+     */
+    public void close() {
+        PooledConnection connection;
+        while ((connection = idleConnections.pollFirst()) != null) {
+            evict(connection, "pool shutdown");
+        }
+    }
+
+    public int getTotalConnections() {
+        return totalConnections.get();
+    }
+
+    public int getIdleConnections() {
+        return idleConnections.size();
+    }
+
+    void release(PooledConnection connection) {
+        if (connection.isBroken()) {
+            evict(connection, "broken connection");
+        } else {
+            connection.touch();
+            idleConnections.offerFirst(connection);
+        }
+
+        permits.release();
+        updateMetrics();
+    }
+
+    private PooledConnection lease(PooledConnection connection) {
+        connection.markLeased();
+        connection.touch();
+        updateMetrics();
+
+        return connection;
+    }
+
+    private PooledConnection createConnection() throws SQLException {
+        PooledConnection connection = new PooledConnection(this, connectionFactory.createConnection(), statementCacheSize);
+        totalConnections.incrementAndGet();
+
+        log.debug("Opened new pooled database connection ({} total connections)", totalConnections.get());
+
+        return connection;
+    }
+
+    private void evict(PooledConnection connection, String reason) {
+        connection.closeRawConnection();
+        totalConnections.decrementAndGet();
+
+        Metrics.databasePoolEvictions.labels(reason).inc();
+        log.debug("Evicted pooled database connection due to {} ({} total connections)", reason, totalConnections.get());
+    }
+
+    private void updateMetrics() {
+        int idle = idleConnections.size();
+
+        Metrics.databasePoolConnections.labels("idle").set(idle);
+        Metrics.databasePoolConnections.labels("active").set(Math.max(0, totalConnections.get() - idle));
+    }
+}
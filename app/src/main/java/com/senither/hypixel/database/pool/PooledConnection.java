@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.database.pool;
+
+import com.senither.hypixel.metrics.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class PooledConnection implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PooledConnection.class);
+
+    private final ConnectionPool pool;
+    private final Connection connection;
+    private final LinkedHashMap<String, PreparedStatement> statementCache;
+    private final AtomicBoolean leased = new AtomicBoolean(false);
+
+    private final long createdAt;
+    private long lastUsedAt;
+    private boolean broken;
+
+    PooledConnection(ConnectionPool pool, Connection connection, int statementCacheSize) {
+        this.pool = pool;
+        this.connection = connection;
+        this.statementCache = new LinkedHashMap<String, PreparedStatement>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() <= statementCacheSize) {
+                    return false;
+                }
+
+                closeStatement(eldest.getValue());
+                return true;
+            }
+        };
+
+        this.createdAt = System.currentTimeMillis();
+        this.lastUsedAt = createdAt;
+        this.broken = false;
+    }
+
+    /**
+     * Gets the prepared statement for the given SQL query, if the query have
+     * been prepared on this connection before the cached statement will be
+     * re-used, otherwise a new statement will be prepared and cached.
+     *
+     * @param sql The SQL query that should be prepared.
+     * @return The prepared statement for the given query, with all its parameters cleared.
+     * @throws SQLException If the statement could not be prepared.
+     */
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        PreparedStatement statement = statementCache.get(sql);
+        if (statement != null && !statement.isClosed()) {
+            Metrics.databaseStatementCache.labels("hit").inc();
+            statement.clearParameters();
+
+            return statement;
+        }
+
+        Metrics.databaseStatementCache.labels("miss").inc();
+
+        statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+        statementCache.put(sql, statement);
+
+        return statement;
+    }
+
+    /**
+     * Marks the connection as broken, broken connections are evicted
+     * from the pool instead of being re-used when they're released.
+     */
+    public void markBroken() {
+        broken = true;
+    }
+
+    public Connection getRawConnection() {
+        return connection;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getLastUsedAt() {
+        return lastUsedAt;
+    }
+
+    boolean isBroken() {
+        if (broken) {
+            return true;
+        }
+
+        try {
+            return connection.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    boolean isValid(int seconds) {
+        try {
+            return !isBroken() && connection.isValid(seconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    void markLeased() {
+        leased.set(true);
+    }
+
+    void touch() {
+        lastUsedAt = System.currentTimeMillis();
+    }
+
+    void closeRawConnection() {
+        for (PreparedStatement statement : statementCache.values()) {
+            closeStatement(statement);
+        }
+        statementCache.clear();
+
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Failed to close pooled database connection, error: {}", e.getMessage());
+        }
+    }
+
+    private void closeStatement(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            log.debug("Failed to close cached prepared statement, error: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Releases the connection back into the pool it came from, closing
+     * the connection more than once will only release it the first time.
+     */
+    @Override
+    public void close() {
+        if (leased.compareAndSet(true, false)) {
+            pool.release(this);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.hypixel;
+
+import net.hypixel.api.HypixelAPI;
+
+import java.util.concurrent.TimeUnit;
+
+class ApiKeyBucket {
+
+    private final HypixelAPI client;
+    private final String name;
+    private final double capacity;
+    private final double tokensPerNano;
+
+    private double tokens;
+    private long lastRefilledAt;
+    private long quarantinedUntil;
+
+    ApiKeyBucket(HypixelAPI client, int requestsPerMinute) {
+        this.client = client;
+        this.name = client.getApiKey().toString().substring(0, 8);
+        this.capacity = requestsPerMinute;
+        this.tokensPerNano = requestsPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+
+        this.tokens = capacity;
+        this.lastRefilledAt = System.nanoTime();
+        this.quarantinedUntil = lastRefilledAt;
+    }
+
+    HypixelAPI getClient() {
+        return client;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    double getTokens() {
+        return tokens;
+    }
+
+    void refill(long now) {
+        tokens = Math.min(capacity, tokens + (now - lastRefilledAt) * tokensPerNano);
+        lastRefilledAt = now;
+    }
+
+    boolean canConsume(long now) {
+        return canConsume(now, 0D);
+    }
+
+    /**
+     * Checks if the bucket can hand out a request while still keeping the
+     * given share of its capacity in reserve for other requests.
+     *
+     * @param now           The current time in nanoseconds.
+     * @param reservedShare The share of the capacity, between 0 and 1, that must be left over.
+     * @return <code>True</code> if a request can be handed out, <code>False</code> otherwise.
+     */
+    boolean canConsume(long now, double reservedShare) {
+        return !isQuarantined(now) && tokens - capacity * reservedShare >= 1D;
+    }
+
+    void consume() {
+        tokens -= 1D;
+    }
+
+    /**
+     * Gets the amount of nanoseconds until the bucket will be able to
+     * hand out its next request, taking quarantines into account.
+     *
+     * @param now The current time in nanoseconds.
+     * @return The amount of nanoseconds until the next token is available.
+     */
+    long nanosUntilAvailable(long now) {
+        long untilToken = tokens >= 1D ? 0L : (long) Math.ceil((1D - tokens) / tokensPerNano);
+
+        return Math.max(untilToken, quarantinedUntil - now);
+    }
+
+    boolean isQuarantined(long now) {
+        return quarantinedUntil - now > 0;
+    }
+
+    void quarantine(long now, long duration, TimeUnit unit) {
+        quarantinedUntil = now + unit.toNanos(duration);
+        tokens = 0D;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.hypixel;
+
+import com.google.gson.Gson;
+import com.senither.hypixel.cache.OffHeapStore;
+import com.senither.hypixel.metrics.Metrics;
+import io.prometheus.client.Histogram;
+import net.hypixel.api.reply.AbstractReply;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+public class CachedReply {
+
+    private static final Logger log = LoggerFactory.getLogger(CachedReply.class);
+
+    private final AbstractReply reply;
+    private final ReplyType type;
+    private final boolean success;
+    private final long staleAt;
+    private final long expiresAt;
+
+    private final OffHeapStore store;
+    private final OffHeapStore.Blob blob;
+    private final Class<? extends AbstractReply> replyClass;
+    private final Gson gson;
+
+    CachedReply(AbstractReply reply, ReplyType type, long softTtl, long hardTtl) {
+        this(reply, type, softTtl, hardTtl, null, null, null);
+    }
+
+    private CachedReply(AbstractReply reply, ReplyType type, long softTtl, long hardTtl, OffHeapStore store, OffHeapStore.Blob blob, Gson gson) {
+        long now = System.currentTimeMillis();
+
+        this.type = type;
+        this.success = reply.isSuccess();
+        this.staleAt = now + softTtl;
+        this.expiresAt = now + hardTtl;
+
+        this.store = store;
+        this.blob = blob;
+        this.gson = gson;
+        this.replyClass = reply.getClass();
+        this.reply = blob == null ? reply : null;
+    }
+
+    /**
+     * Creates a cached reply that keeps the given reply as a compressed blob in the given
+     * off-heap store, the reply is then decoded again every time it is read, if the
+     * reply doesn't fit in the store, the reply is kept on the heap instead.
+     *
+     * @param store   The off-heap store the reply should be kept in.
+     * @param gson    The Gson instance used to encode and decode the reply.
+     * @param reply   The reply that should be cached.
+     * @param type    The type of the reply.
+     * @param softTtl The soft TTL of the reply in milliseconds.
+     * @param hardTtl The hard TTL of the reply in milliseconds.
+     * @return The cached reply.
+     */
+    static CachedReply offHeap(OffHeapStore store, Gson gson, AbstractReply reply, ReplyType type, long softTtl, long hardTtl) {
+        OffHeapStore.Blob blob = null;
+        try {
+            blob = store.store(stream -> {
+                Writer writer = new OutputStreamWriter(stream, StandardCharsets.UTF_8);
+                gson.toJson(reply, writer);
+                writer.flush();
+            });
+        } catch (IOException e) {
+            log.error("Failed to encode {} reply for the off-heap store, error: {}", type.getName(), e.getMessage(), e);
+        }
+
+        return new CachedReply(reply, type, softTtl, hardTtl, store, blob, gson);
+    }
+
+    /**
+     * Gets the cached reply, if the reply is kept off-heap it is
+     * decoded from its compressed blob every time it is called.
+     *
+     * @return The cached reply, or <code>NULL</code> if the reply could not be decoded.
+     */
+    public AbstractReply getReply() {
+        if (blob == null) {
+            return reply;
+        }
+
+        Histogram.Timer timer = Metrics.offHeapStoreDecodeTime.labels(store.getName()).startTimer();
+        try (Reader reader = new InputStreamReader(store.open(blob), StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, replyClass);
+        } catch (Exception e) {
+            log.error("Failed to decode {} reply from the off-heap store, error: {}", type.getName(), e.getMessage(), e);
+            return null;
+        } finally {
+            timer.observeDuration();
+        }
+    }
+
+    public ReplyType getType() {
+        return type;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public boolean isOffHeap() {
+        return blob != null;
+    }
+
+    /**
+     * Releases the off-heap memory used by the reply back to its store,
+     * this should be called once the reply is removed from the cache.
+     */
+    public void release() {
+        if (blob != null) {
+            store.release(blob);
+        }
+    }
+
+    /**
+     * Checks if the reply has passed its soft TTL, stale replies can still
+     * be served, but should be refreshed in the background.
+     *
+     * @return <code>True</code> if the reply is stale, <code>False</code> otherwise.
+     */
+    public boolean isStale() {
+        return System.currentTimeMillis() >= staleAt;
+    }
+
+    /**
+     * Checks if the reply has passed its hard TTL, expired replies must
+     * not be served and have to be fetched again.
+     *
+     * @return <code>True</code> if the reply has expired, <code>False</code> otherwise.
+     */
+    public boolean isExpired() {
+        return System.currentTimeMillis() >= expiresAt;
+    }
+}
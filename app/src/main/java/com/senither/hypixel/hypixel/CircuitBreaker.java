@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.hypixel;
+
+import com.senither.hypixel.metrics.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+class CircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    private static final int windowSize = 50;
+    private static final int minimumCalls = 20;
+    private static final double failureRateThreshold = 0.5D;
+    private static final double slowCallRateThreshold = 0.8D;
+    private static final long slowCallDuration = TimeUnit.SECONDS.toNanos(5);
+    private static final long openDuration = TimeUnit.SECONDS.toNanos(30);
+    private static final int halfOpenCalls = 3;
+
+    private final boolean[] failures = new boolean[windowSize];
+    private final boolean[] slowCalls = new boolean[windowSize];
+    private int index = 0;
+    private int calls = 0;
+    private int failureCount = 0;
+    private int slowCallCount = 0;
+
+    private State state = State.CLOSED;
+    private long openedAt = 0;
+    private int halfOpenPermits = 0;
+    private int halfOpenSuccesses = 0;
+
+    CircuitBreaker() {
+        Metrics.hypixelCircuitState.set(state.getValue());
+    }
+
+    /**
+     * Checks if a request is allowed through the circuit breaker, once the breaker has
+     * been open for long enough, a few trial requests are let through to check
+     * if the API has recovered before the breaker is closed again.
+     *
+     * @param now The current time in nanoseconds.
+     * @return <code>True</code> if the request is allowed, <code>False</code> otherwise.
+     */
+    synchronized boolean tryAcquire(long now) {
+        if (state == State.OPEN) {
+            if (now - openedAt < openDuration) {
+                return false;
+            }
+
+            transitionTo(State.HALF_OPEN);
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+            halfOpenPermits--;
+        }
+
+        return true;
+    }
+
+    synchronized boolean isClosed() {
+        return state == State.CLOSED;
+    }
+
+    synchronized boolean isOpen(long now) {
+        return state == State.OPEN && now - openedAt < openDuration;
+    }
+
+    synchronized void onSuccess(long duration, long now) {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSuccesses >= halfOpenCalls) {
+                resetWindow();
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+
+        record(false, duration >= slowCallDuration, now);
+    }
+
+    synchronized void onFailure(long now) {
+        if (state == State.HALF_OPEN) {
+            open(now);
+            return;
+        }
+
+        record(true, false, now);
+    }
+
+    /**
+     * Hands back the permit for a request that didn't tell us anything about the
+     * health of the API, like a request that was rate-limited for its API key.
+     */
+    synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && halfOpenPermits < halfOpenCalls) {
+            halfOpenPermits++;
+        }
+    }
+
+    private void record(boolean failure, boolean slow, long now) {
+        if (state != State.CLOSED) {
+            return;
+        }
+
+        if (calls == windowSize) {
+            failureCount -= failures[index] ? 1 : 0;
+            slowCallCount -= slowCalls[index] ? 1 : 0;
+        } else {
+            calls++;
+        }
+
+        failures[index] = failure;
+        slowCalls[index] = slow;
+        failureCount += failure ? 1 : 0;
+        slowCallCount += slow ? 1 : 0;
+        index = (index + 1) % windowSize;
+
+        if (calls < minimumCalls) {
+            return;
+        }
+
+        if (failureCount >= calls * failureRateThreshold || slowCallCount >= calls * slowCallRateThreshold) {
+            log.warn("Opening the Hypixel API circuit breaker, {} of the last {} requests failed and {} were slow",
+                failureCount, calls, slowCallCount
+            );
+            open(now);
+        }
+    }
+
+    private void open(long now) {
+        openedAt = now;
+        halfOpenPermits = 0;
+        resetWindow();
+        transitionTo(State.OPEN);
+    }
+
+    private void resetWindow() {
+        index = 0;
+        calls = 0;
+        failureCount = 0;
+        slowCallCount = 0;
+    }
+
+    private void transitionTo(State state) {
+        if (this.state == state) {
+            return;
+        }
+
+        log.info("Hypixel API circuit breaker changed from {} to {}", this.state, state);
+
+        this.state = state;
+        Metrics.hypixelCircuitState.set(state.getValue());
+        Metrics.hypixelCircuitTransitions.labels(state.name().toLowerCase()).inc();
+    }
+
+    enum State {
+
+        CLOSED(0), HALF_OPEN(1), OPEN(2);
+
+        private final int value;
+
+        State(int value) {
+            this.value = value;
+        }
+
+        int getValue() {
+            return value;
+        }
+    }
+}
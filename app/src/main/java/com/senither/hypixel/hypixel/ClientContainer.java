@@ -22,49 +22,193 @@
 package com.senither.hypixel.hypixel;
 
 import com.senither.hypixel.SkyblockAssistant;
+import com.senither.hypixel.metrics.Metrics;
 import net.hypixel.api.HypixelAPI;
+import net.hypixel.api.reply.AbstractReply;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class ClientContainer {
 
     private static final Logger log = LoggerFactory.getLogger(ClientContainer.class);
 
     private final HypixelAPI[] clients;
-    private int index = 0;
+    private final ApiKeyBucket[] buckets;
+    private final ReentrantLock lock = new ReentrantLock(true);
 
     ClientContainer(SkyblockAssistant app) {
+        LinkedHashMap<UUID, String> tokens = new LinkedHashMap<>();
         if (app.getConfiguration().getHypixelTokens() == null) {
-            clients = new HypixelAPI[]{new HypixelAPI(UUID.fromString(app.getConfiguration().getHypixelToken()))};
+            tokens.put(UUID.fromString(app.getConfiguration().getHypixelToken()), app.getConfiguration().getHypixelToken());
         } else {
-            HashSet<UUID> tokens = new HashSet<>();
             for (String token : app.getConfiguration().getHypixelTokens()) {
                 try {
-                    tokens.add(UUID.fromString(token));
+                    tokens.put(UUID.fromString(token), token);
                 } catch (Exception e) {
                     log.warn("The \"{}\" API token is not a valid UUID, the key was skipped!", token);
                 }
             }
+        }
 
-            HypixelAPI[] clients = new HypixelAPI[tokens.size()];
-            for (UUID token : tokens) {
-                clients[index++] = new HypixelAPI(token);
-            }
-            this.clients = clients;
+        int index = 0;
+        clients = new HypixelAPI[tokens.size()];
+        buckets = new ApiKeyBucket[tokens.size()];
+        for (Map.Entry<UUID, String> token : tokens.entrySet()) {
+            clients[index] = new HypixelAPI(token.getKey());
+            buckets[index] = new ApiKeyBucket(clients[index], app.getConfiguration().getHypixelRateLimit(token.getValue()));
+            index++;
         }
+
+        updateMetrics(System.nanoTime());
     }
 
     public HypixelAPI[] getClients() {
         return clients;
     }
 
-    public HypixelAPI getNextClient() {
-        if (index >= clients.length) {
-            index = 0;
+    /**
+     * Gets the API client with the most request budget left, if no key has
+     * any budget left right now <code>NULL</code> is returned instead of
+     * waiting for one to become available.
+     *
+     * @return The API client that should be used, or <code>NULL</code>.
+     */
+    public HypixelAPI getNextClientIfAvailable() {
+        return getNextClientIfAvailable(0D);
+    }
+
+    /**
+     * Gets the API client with the most request budget left, as long as the key
+     * will still have the given share of its budget left afterwards, this lets
+     * background work use spare budget without starving other requests.
+     *
+     * @param reservedShare The share of each key's budget, between 0 and 1, that must be left over.
+     * @return The API client that should be used, or <code>NULL</code>.
+     */
+    public HypixelAPI getNextClientIfAvailable(double reservedShare) {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+
+            ApiKeyBucket bucket = getBucketWithMostBudget(now);
+            if (bucket == null || !bucket.canConsume(now, reservedShare)) {
+                return null;
+            }
+
+            bucket.consume();
+            updateMetrics(now);
+
+            return bucket.getClient();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks the given reply for rate-limit or authentication errors, if any
+     * is found the API key the reply came from will be quarantined.
+     *
+     * @param client The client that was used to make the request.
+     * @param reply  The reply returned by the Hypixel API.
+     */
+    public void handleReply(HypixelAPI client, AbstractReply reply) {
+        if (reply == null || reply.isSuccess()) {
+            return;
+        }
+
+        if (reply.isThrottle()) {
+            quarantine(client, "ratelimit", 1, TimeUnit.MINUTES);
+        } else if (reply.getCause() != null && reply.getCause().toLowerCase().contains("api key")) {
+            quarantine(client, "auth", 30, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * Checks the given HTTP status code for rate-limit or authentication errors,
+     * if any is found the API key used for the request will be quarantined.
+     *
+     * @param client     The client whose API key was used to make the request.
+     * @param statusCode The HTTP status code returned by the Hypixel API.
+     */
+    public void handleStatusCode(HypixelAPI client, int statusCode) {
+        if (statusCode == 429) {
+            quarantine(client, "ratelimit", 1, TimeUnit.MINUTES);
+        } else if (statusCode == 403) {
+            quarantine(client, "auth", 30, TimeUnit.MINUTES);
+        }
+    }
+
+    private void quarantine(HypixelAPI client, String reason, long duration, TimeUnit unit) {
+        lock.lock();
+        try {
+            for (ApiKeyBucket bucket : buckets) {
+                if (bucket.getClient() != client) {
+                    continue;
+                }
+
+                log.warn("Quarantining Hypixel API key {}... for {} {} due to {}",
+                    bucket.getName(), duration, unit.name().toLowerCase(), reason
+                );
+
+                bucket.quarantine(System.nanoTime(), duration, unit);
+                Metrics.hypixelKeyQuarantines.labels(bucket.getName(), reason).inc();
+            }
+
+            updateMetrics(System.nanoTime());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ApiKeyBucket getBucketWithMostBudget(long now) {
+        ApiKeyBucket selected = null;
+        for (ApiKeyBucket bucket : buckets) {
+            bucket.refill(now);
+
+            if (bucket.isQuarantined(now)) {
+                continue;
+            }
+
+            if (selected == null || bucket.getTokens() > selected.getTokens()) {
+                selected = bucket;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Gets the amount of nanoseconds until at least one of the API keys
+     * will have request budget left and is no longer quarantined.
+     *
+     * @return The amount of nanoseconds until a key is available.
+     */
+    public long getNanosUntilAvailable() {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+
+            long nanos = Long.MAX_VALUE;
+            for (ApiKeyBucket bucket : buckets) {
+                bucket.refill(now);
+                nanos = Math.min(nanos, bucket.nanosUntilAvailable(now));
+            }
+            return Math.max(0L, nanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void updateMetrics(long now) {
+        for (ApiKeyBucket bucket : buckets) {
+            Metrics.hypixelKeyBudget.labels(bucket.getName()).set(
+                bucket.isQuarantined(now) ? 0D : Math.floor(bucket.getTokens())
+            );
         }
-        return clients[index++];
     }
 }
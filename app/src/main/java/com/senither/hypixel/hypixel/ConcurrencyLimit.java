@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.hypixel;
+
+import com.senither.hypixel.metrics.Metrics;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits how many requests can be sent to the Hypixel API at the same time, the limit
+ * grows slowly while requests succeed, and is cut down whenever a request times
+ * out or is rate-limited, so we back off when the API starts to struggle.
+ */
+class ConcurrencyLimit {
+
+    private static final double initialLimit = 20D;
+    private static final double minimumLimit = 2D;
+    private static final double maximumLimit = 200D;
+    private static final double backoffRatio = 0.7D;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private double limit = initialLimit;
+    private int inflight = 0;
+
+    ConcurrencyLimit() {
+        updateMetrics();
+    }
+
+    boolean tryAcquire() {
+        lock.lock();
+        try {
+            if (inflight >= (int) limit) {
+                return false;
+            }
+
+            inflight++;
+            updateMetrics();
+
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void release(Outcome outcome) {
+        lock.lock();
+        try {
+            // The limit is only grown while it is actually being used, otherwise a long
+            // quiet period would let the limit grow far beyond what the API can handle.
+            if (outcome == Outcome.SUCCESS && inflight * 2 >= limit) {
+                limit = Math.min(maximumLimit, limit + 1D / limit);
+            } else if (outcome == Outcome.OVERLOADED) {
+                limit = Math.max(minimumLimit, limit * backoffRatio);
+            }
+
+            inflight--;
+            updateMetrics();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void updateMetrics() {
+        Metrics.hypixelConcurrencyLimit.set((int) limit);
+        Metrics.hypixelConcurrencyInflight.set(inflight);
+    }
+
+    enum Outcome {
+        SUCCESS, OVERLOADED, IGNORED
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.hypixel;
+
+import com.google.common.io.CountingInputStream;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+class HttpTransport {
+
+    private static final Duration connectTimeout = Duration.ofSeconds(5);
+    private static final Duration requestTimeout = Duration.ofSeconds(10);
+
+    /**
+     * The maximum amount of time spent reading and decoding a response body, the request
+     * timeout only covers the time until the response headers have been received,
+     * so a server that stalls mid-body would otherwise block a decoder thread.
+     */
+    private static final Duration readTimeout = Duration.ofSeconds(30);
+
+    private final Gson gson;
+    private final HttpClient client;
+    private final ExecutorService decoderExecutor;
+    private final ExecutorService backgroundDecoderExecutor;
+    private final ScheduledExecutorService readTimeoutScheduler;
+
+    HttpTransport(Gson gson) {
+        this.gson = gson;
+
+        // The HTTP client keeps connections alive between requests and re-uses them
+        // per host, so requests to the same API won't need to reconnect every time.
+        this.client = HttpClient.newBuilder()
+            .connectTimeout(connectTimeout)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+        // Response bodies are decoded while they're being streamed in, which blocks
+        // the decoding thread, so it's done on its own pool instead of on the
+        // threads the HTTP client uses to read from the connections.
+        this.decoderExecutor = Executors.newFixedThreadPool(4, new ThreadFactoryBuilder()
+            .setNameFormat("hypixel-http-decoder-%d")
+            .setDaemon(true)
+            .build()
+        );
+
+        // Background jobs like the auction sweep decode a lot of large responses at
+        // once, they get their own pool so they can't hold up interactive requests.
+        this.backgroundDecoderExecutor = Executors.newFixedThreadPool(4, new ThreadFactoryBuilder()
+            .setNameFormat("hypixel-http-background-decoder-%d")
+            .setDaemon(true)
+            .build()
+        );
+
+        this.readTimeoutScheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("hypixel-http-read-timeout-%d")
+            .setDaemon(true)
+            .build()
+        );
+    }
+
+    /**
+     * Sends a GET request to the given URI, and decodes the response body
+     * straight from the response stream into the given type.
+     *
+     * @param uri  The URI that the request should be sent to.
+     * @param type The type the response body should be decoded into.
+     * @param <T>  The type of the response.
+     * @return The future that is completed with the decoded response body.
+     */
+    public <T> CompletableFuture<T> get(String uri, Class<T> type) {
+        return get(uri, type, statusCode -> {
+            // Nothing to do here
+        });
+    }
+
+    /**
+     * Sends a GET request to the given URI, and decodes the response body
+     * straight from the response stream into the given type.
+     *
+     * @param uri            The URI that the request should be sent to.
+     * @param type           The type the response body should be decoded into.
+     * @param statusListener The listener that is called with the status code of the response.
+     * @param <T>            The type of the response.
+     * @return The future that is completed with the decoded response body.
+     */
+    public <T> CompletableFuture<T> get(String uri, Class<T> type, IntConsumer statusListener) {
+        return get(uri, type, statusListener, size -> {
+            // Nothing to do here
+        });
+    }
+
+    /**
+     * Sends a GET request to the given URI, and decodes the response body
+     * straight from the response stream into the given type.
+     *
+     * @param uri            The URI that the request should be sent to.
+     * @param type           The type the response body should be decoded into.
+     * @param statusListener The listener that is called with the status code of the response.
+     * @param sizeListener   The listener that is called with the size of the response body in bytes.
+     * @param <T>            The type of the response.
+     * @return The future that is completed with the decoded response body.
+     */
+    public <T> CompletableFuture<T> get(String uri, Class<T> type, IntConsumer statusListener, LongConsumer sizeListener) {
+        return get(uri, statusListener, sizeListener, reader -> gson.fromJson(reader, type), decoderExecutor);
+    }
+
+    /**
+     * Sends a GET request to the given URI for a background job, and decodes the
+     * response body straight from the response stream using the given type adapter,
+     * this allows using adapters that should not be registered on the shared Gson
+     * instance. Background responses are decoded on their own pool, so a job
+     * sending a lot of requests at once can't hold up interactive requests.
+     *
+     * @param uri            The URI that the request should be sent to.
+     * @param adapter        The type adapter the response body should be decoded with.
+     * @param statusListener The listener that is called with the status code of the response.
+     * @param <T>            The type of the response.
+     * @return The future that is completed with the decoded response body.
+     */
+    public <T> CompletableFuture<T> getInBackground(String uri, TypeAdapter<T> adapter, IntConsumer statusListener) {
+        return get(uri, statusListener, size -> {
+            // Nothing to do here
+        }, reader -> adapter.read(new JsonReader(reader)), backgroundDecoderExecutor);
+    }
+
+    private <T> CompletableFuture<T> get(String uri, IntConsumer statusListener, LongConsumer sizeListener, BodyDecoder<T> decoder, Executor executor) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(uri))
+            .timeout(requestTimeout)
+            .header("Accept", "application/json")
+            .GET()
+            .build();
+
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+            .thenApplyAsync(response -> {
+                statusListener.accept(response.statusCode());
+
+                CountingInputStream body = new CountingInputStream(response.body());
+
+                // Closing the body stream wakes up the decoder if it is blocked
+                // waiting for more of the body, which then fails the request.
+                AtomicBoolean timedOut = new AtomicBoolean(false);
+                ScheduledFuture<?> readDeadline = readTimeoutScheduler.schedule(() -> {
+                    timedOut.set(true);
+                    closeQuietly(response.body());
+                }, readTimeout.toMillis(), TimeUnit.MILLISECONDS);
+
+                T decoded;
+                try (Reader reader = new InputStreamReader(body, StandardCharsets.UTF_8)) {
+                    decoded = decoder.decode(reader);
+                } catch (Exception e) {
+                    throw new CompletionException(timedOut.get() ? createReadTimeout(request, e) : e);
+                } finally {
+                    readDeadline.cancel(false);
+                }
+
+                if (timedOut.get()) {
+                    throw new CompletionException(createReadTimeout(request, null));
+                }
+                sizeListener.accept(body.getCount());
+
+                return decoded;
+            }, executor);
+    }
+
+    private HttpTimeoutException createReadTimeout(HttpRequest request, Exception cause) {
+        HttpTimeoutException exception = new HttpTimeoutException(String.format(
+            "Timed out after %s seconds while reading the response body from %s",
+            readTimeout.getSeconds(), request.uri().getHost()
+        ));
+
+        if (cause != null) {
+            exception.initCause(cause);
+        }
+        return exception;
+    }
+
+    private void closeQuietly(InputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException ignored) {
+            // The request is failed by the decoder either way.
+        }
+    }
+
+    @FunctionalInterface
+    private interface BodyDecoder<T> {
+
+        T decode(Reader reader) throws IOException;
+    }
+}
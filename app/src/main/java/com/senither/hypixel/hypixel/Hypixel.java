@@ -21,79 +21,96 @@
 
 package com.senither.hypixel.hypixel;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.senither.hypixel.SkyblockAssistant;
+import com.senither.hypixel.cache.CacheManager;
+import com.senither.hypixel.cache.ManagedCache;
+import com.senither.hypixel.cache.OffHeapStore;
+import com.senither.hypixel.cache.SizeEstimator;
+import com.senither.hypixel.config.Configuration;
 import com.senither.hypixel.contracts.commands.Command;
 import com.senither.hypixel.contracts.hypixel.Response;
+import com.senither.hypixel.database.WriteBehindQueue;
 import com.senither.hypixel.database.collection.Collection;
 import com.senither.hypixel.exceptions.FriendlyException;
+import com.senither.hypixel.hypixel.adapters.AuctionPageTypeAdapter;
+import com.senither.hypixel.hypixel.adapters.SkyBlockProfileReplyTypeAdapterFactory;
+import com.senither.hypixel.hypixel.auctions.AuctionIngestion;
+import com.senither.hypixel.hypixel.auctions.AuctionPage;
+import com.senither.hypixel.hypixel.bazaar.BazaarArchive;
 import com.senither.hypixel.hypixel.bazaar.BazaarProductReply;
+import com.senither.hypixel.hypixel.bazaar.BazaarSnapshot;
+import com.senither.hypixel.hypixel.bazaar.BazaarTracker;
 import com.senither.hypixel.hypixel.response.*;
+import com.senither.hypixel.metrics.Metrics;
 import com.senither.hypixel.statistics.StatisticsChecker;
 import com.senither.hypixel.time.Carbon;
 import net.dv8tion.jda.api.entities.User;
+import net.hypixel.api.HypixelAPI;
 import net.hypixel.api.adapters.DateTimeTypeAdapter;
 import net.hypixel.api.adapters.UUIDTypeAdapter;
 import net.hypixel.api.reply.AbstractReply;
 import net.hypixel.api.reply.GuildReply;
 import net.hypixel.api.reply.PlayerReply;
 import net.hypixel.api.reply.skyblock.SkyBlockProfileReply;
-import org.apache.http.client.HttpClient;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.HttpClientBuilder;
-import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.net.ssl.SSLPeerUnverifiedException;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.sql.SQLException;
 import java.time.ZonedDateTime;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
 public class Hypixel {
 
     private static final Logger log = LoggerFactory.getLogger(Hypixel.class);
 
-    public static final Cache<String, UUID> usernameToUuidCache = CacheBuilder.newBuilder()
+    public static final ManagedCache<String, UUID> usernameToUuidCache = CacheManager.newBuilder("username-to-uuid")
         .expireAfterAccess(30, TimeUnit.MINUTES)
-        .recordStats()
+        .maximumWeight(8 * 1024 * 1024)
         .build();
 
-    public static final Cache<UUID, Long> uuidToDiscordIdCache = CacheBuilder.newBuilder()
+    public static final ManagedCache<UUID, Long> uuidToDiscordIdCache = CacheManager.newBuilder("uuid-to-discord-id")
         .expireAfterAccess(30, TimeUnit.MINUTES)
-        .recordStats()
+        .maximumWeight(4 * 1024 * 1024)
         .build();
 
-    public static final Cache<UUID, String> uuidToUsernameCache = CacheBuilder.newBuilder()
+    public static final ManagedCache<UUID, String> uuidToUsernameCache = CacheManager.newBuilder("uuid-to-username")
         .expireAfterAccess(30, TimeUnit.MINUTES)
-        .recordStats()
+        .maximumWeight(8 * 1024 * 1024)
         .build();
 
-    public static final Cache<String, AbstractReply> replyCache = CacheBuilder.newBuilder()
-        .expireAfterWrite(90, TimeUnit.SECONDS)
-        .recordStats()
-        .build();
+    /**
+     * The longest amount of time in seconds a reply can be kept in the reply cache,
+     * the hard TTL for any reply type can't be configured to be any higher than this.
+     */
+    private static final long maxReplyCacheTtl = TimeUnit.MINUTES.toSeconds(15);
+
+    public static final ManagedCache<HypixelCacheKey, CachedReply> replyCache = CacheManager.newBuilder("reply")
+        .expireAfterWrite(maxReplyCacheTtl, TimeUnit.SECONDS)
+        .maximumWeight(256 * 1024 * 1024)
+        .build((HypixelCacheKey key, CachedReply cachedReply) -> weighReply(cachedReply, -1L), CachedReply::release);
 
-    public static final Cache<String, Response> responseCache = CacheBuilder.newBuilder()
+    public static final ManagedCache<HypixelCacheKey, Response> responseCache = CacheManager.newBuilder("response")
         .expireAfterWrite(30, TimeUnit.MINUTES)
-        .recordStats()
-        .build();
+        .maximumWeight(32 * 1024 * 1024)
+        .build((HypixelCacheKey key, Response response) -> SizeEstimator.estimate(Hypixel.gson, key, response));
 
-    public static final Cache<String, AuctionHouseResponse> auctionsCache = CacheBuilder.newBuilder()
+    public static final ManagedCache<String, AuctionHouseResponse> auctionsCache = CacheManager.newBuilder("profile-auctions")
         .expireAfterWrite(1, TimeUnit.MINUTES)
-        .recordStats()
+        .maximumWeight(32 * 1024 * 1024)
         .build();
 
     private static final Gson gson = new GsonBuilder()
@@ -101,27 +118,176 @@ public class Hypixel {
         .registerTypeAdapter(ZonedDateTime.class, new DateTimeTypeAdapter())
         .create();
 
+    /**
+     * The Gson instance used to read the SkyBlock profiles that are used by the bot
+     * itself, it only keeps the member properties the bot actually uses, so the
+     * full profiles are only kept around for the database and the public API.
+     */
+    private static final Gson profileGson = gson.newBuilder()
+        .registerTypeAdapterFactory(new SkyBlockProfileReplyTypeAdapterFactory())
+        .create();
+
+    /**
+     * The auction page adapter can only read pages, so it is kept off the shared
+     * Gson instance, which is also used to serialize replies for the caches.
+     */
+    private static final AuctionPageTypeAdapter auctionPageTypeAdapter = new AuctionPageTypeAdapter();
+
+    /**
+     * The share of each API key's budget that the auction sweep must leave over for
+     * other requests, pages are only loaded while a key has more budget than this.
+     */
+    private static final double auctionSweepReservedShare = 0.5D;
+
     private static final Pattern minecraftUsernameRegex = Pattern.compile("^\\w+$", Pattern.CASE_INSENSITIVE);
 
     private final SkyblockAssistant app;
     private final ClientContainer clientContainer;
-    private final HttpClient httpClient;
+    private final RequestGuard requestGuard;
+    private final InflightRequests inflightRequests;
+    private final HttpTransport httpTransport;
+    private final ThreadPoolExecutor refreshExecutor;
+    private final OffHeapStore offHeapStore;
+    private final BazaarTracker bazaarTracker;
+    private final AuctionIngestion auctionIngestion;
+    private final WriteBehindQueue<JsonElement> playerWriter;
+    private final WriteBehindQueue<JsonElement> profileWriter;
+    private final Set<HypixelCacheKey> refreshingReplies = ConcurrentHashMap.newKeySet();
 
     public Hypixel(SkyblockAssistant app) {
         this.app = app;
 
-        this.httpClient = HttpClientBuilder.create().build();
+        this.httpTransport = new HttpTransport(gson);
         this.clientContainer = new ClientContainer(app);
+        this.requestGuard = new RequestGuard(clientContainer, app.getConfiguration().isHypixelHedgedRequestsEnabled());
+        this.inflightRequests = new InflightRequests();
+        this.refreshExecutor = new ThreadPoolExecutor(
+            2, 2, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(64), new ThreadFactoryBuilder()
+            .setNameFormat("hypixel-reply-refresh-%d")
+            .setDaemon(true)
+            .build()
+        );
+
+        this.offHeapStore = app.getConfiguration().getOffHeapCache().isEnabled()
+            ? new OffHeapStore("reply", app.getConfiguration().getOffHeapCache().getMaximumSize())
+            : null;
+
+        this.bazaarTracker = new BazaarTracker(createBazaarArchive());
+        this.auctionIngestion = new AuctionIngestion(this::loadAuctionPage, 4);
+
+        // The replies are turned into JSON trees before they're queued, since the trees are
+        // copies of the replies, the replies can still be modified after they're queued.
+        this.playerWriter = new WriteBehindQueue<>(app.getDatabaseManager(), "players", 5000, tree -> encodeReply("players", tree));
+        this.profileWriter = new WriteBehindQueue<>(app.getDatabaseManager(), "profiles", 5000, tree -> encodeReply("profiles", tree));
     }
 
     public boolean isValidMinecraftUsername(@Nonnull String username) {
         return username.length() > 2 && username.length() < 17 && minecraftUsernameRegex.matcher(username).find();
     }
 
+    /**
+     * Loads a page from the bulk auctions endpoint for the auction sweep, the pages are
+     * sent past the request guard, so a slow or failing sweep can't open the circuit
+     * breaker or use up the concurrency limit for other requests, and only spare
+     * key budget is used, if none is left the page, and the sweep, fails.
+     *
+     * @param page The page number, starting from zero.
+     * @return The future that is completed with the loaded page.
+     */
+    private CompletableFuture<AuctionPage> loadAuctionPage(int page) {
+        HypixelAPI client = clientContainer.getNextClientIfAvailable(auctionSweepReservedShare);
+        if (client == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException(
+                "No Hypixel API key has enough budget left to load auction page " + page
+            ));
+        }
+
+        return httpTransport.getInBackground(String.format(
+            "https://api.hypixel.net/skyblock/auctions?key=%s&page=%d", client.getApiKey().toString(), page
+        ), auctionPageTypeAdapter, statusCode -> clientContainer.handleStatusCode(client, statusCode));
+    }
+
     public ClientContainer getClientContainer() {
         return clientContainer;
     }
 
+    public RequestGuard getRequestGuard() {
+        return requestGuard;
+    }
+
+    private BazaarArchive createBazaarArchive() {
+        Configuration.BazaarArchive config = app.getConfiguration().getBazaarArchive();
+        if (!config.isEnabled()) {
+            return null;
+        }
+
+        try {
+            return new BazaarArchive(Paths.get(config.getDirectory()), config.getRetentionDays());
+        } catch (IOException e) {
+            log.error("Failed to create the Bazaar archive directory, the Bazaar archive will be disabled, error: {}",
+                e.getMessage(), e
+            );
+            return null;
+        }
+    }
+
+    private byte[] encodeReply(String table, JsonElement tree) {
+        byte[] encoded = ReplyCodec.encode(tree);
+        Metrics.databaseReplySize.labels(table).observe(encoded.length);
+
+        return encoded;
+    }
+
+    /**
+     * Gets the reply stored in the given cache table for the given UUID, rows stored
+     * using the binary reply format are decoded using the {@link ReplyCodec},
+     * while rows that haven't been converted yet are decoded from JSON.
+     *
+     * @param table           The name of the table the reply is stored in.
+     * @param uuid            The UUID of the row that should be loaded.
+     * @param maxAgeInMinutes The maximum amount of minutes since the row was last updated.
+     * @param type            The type of the reply.
+     * @param <T>             The type of the reply.
+     * @return The reply, or <code>NULL</code> if there were no row, the row is too old, or it could not be decoded.
+     * @throws SQLException If the row could not be loaded from the database.
+     */
+    private <T extends AbstractReply> T getReplyFromDatabase(String table, String uuid, int maxAgeInMinutes, Class<T> type) throws SQLException {
+        return getReplyFromDatabase(table, uuid, maxAgeInMinutes, type, gson);
+    }
+
+    private <T extends AbstractReply> T getReplyFromDatabase(String table, String uuid, int maxAgeInMinutes, Class<T> type, Gson gson) throws SQLException {
+        List<T> replies = app.getDatabaseManager().queryList(String.format(
+            "SELECT `data`, `encoded`, `last_updated_at` FROM `%s` WHERE `uuid` = ?", table
+        ), cursor -> {
+            Carbon lastUpdatedAt = cursor.getTimestamp(3);
+            if (lastUpdatedAt == null || !lastUpdatedAt.addMinutes(maxAgeInMinutes).isFuture()) {
+                return null;
+            }
+
+            long start = System.nanoTime();
+            byte[] encoded = cursor.getBytes(2);
+            try {
+                return gson.fromJson(ReplyCodec.decode(encoded, encoded == null ? cursor.getString(1) : null), type);
+            } catch (IOException | JsonParseException e) {
+                log.error("Failed to decode the {} row for {}, error: {}", table, uuid, e.getMessage(), e);
+                return null;
+            } finally {
+                Metrics.databaseReplyDecodeTime.labels(table, encoded == null ? "json" : "binary")
+                    .observe((System.nanoTime() - start) / 1_000_000_000D);
+            }
+        }, uuid);
+
+        return replies.isEmpty() ? null : replies.get(0);
+    }
+
+    public BazaarTracker getBazaarTracker() {
+        return bazaarTracker;
+    }
+
+    public AuctionIngestion getAuctionIngestion() {
+        return auctionIngestion;
+    }
+
     public Gson getGson() {
         return gson;
     }
@@ -131,83 +297,68 @@ public class Hypixel {
     }
 
     public CompletableFuture<PlayerReply> getPlayerByName(String name, boolean ignoreDatabaseCache) {
-        CompletableFuture<PlayerReply> future = new CompletableFuture<>();
+        final HypixelCacheKey cacheKey = HypixelCacheKey.playerByName(name);
 
-        final String cacheKey = "player-name-" + name.toLowerCase();
-        try {
-            UUID uuid = getUUIDFromName(name);
-            if (uuid == null) {
-                handleResponseException(future, new FriendlyException("Failed to find a valid UUID for the given username!"));
-                return future;
-            }
+        PlayerReply cachedPlayerProfile = getCachedReply(cacheKey, ReplyType.PLAYER, PlayerReply.class,
+            () -> inflightRequests.coalesce(cacheKey + "-fresh", () -> loadPlayerByName(name, cacheKey, true))
+        );
 
-            AbstractReply cachedPlayerProfile = replyCache.getIfPresent(cacheKey);
-            if (cachedPlayerProfile instanceof PlayerReply) {
-                log.debug("Found player profile for {} using the in-memory cache (ID: {})", name, uuid.toString());
+        if (cachedPlayerProfile != null) {
+            log.debug("Found player profile for {} using the in-memory cache", name);
 
-                future.complete((PlayerReply) cachedPlayerProfile);
-                return future;
+            return CompletableFuture.completedFuture(cachedPlayerProfile);
+        }
+
+        return inflightRequests.coalesce(ignoreDatabaseCache ? cacheKey + "-fresh" : cacheKey.toString(),
+            () -> loadPlayerByName(name, cacheKey, ignoreDatabaseCache)
+        );
+    }
+
+    private CompletableFuture<PlayerReply> loadPlayerByName(String name, HypixelCacheKey cacheKey, boolean ignoreDatabaseCache) {
+        CompletableFuture<PlayerReply> future = new CompletableFuture<>();
+
+        getUUIDFromNameAsync(name).whenComplete((uuid, uuidThrowable) -> {
+            if (uuidThrowable != null) {
+                handleResponseException(future, uuidThrowable);
+                return;
             }
 
-            final boolean[] hasDatabaseEntry = {false};
+            if (uuid == null) {
+                handleResponseException(future, new FriendlyException("Failed to find a valid UUID for the given username!"));
+                return;
+            }
 
-            if (!ignoreDatabaseCache) {
-                Collection result = app.getDatabaseManager().query("SELECT `data`, `last_updated_at` FROM `players` WHERE `uuid` = ?", uuid.toString());
-                if (!result.isEmpty()) {
-                    Carbon lastUpdatedAt = result.first().getTimestamp("last_updated_at");
-                    if (lastUpdatedAt.addMinutes(30).isFuture()) {
-                        PlayerReply playerReply = gson.fromJson(result.get(0).getString("data"), PlayerReply.class);
-                        if (playerReply != null && playerReply.getPlayer() != null) {
-                            log.debug("Found player profile for {} using the database cache (ID: {})", name, uuid);
+            try {
+                if (!ignoreDatabaseCache) {
+                    PlayerReply playerReply = getReplyFromDatabase("players", uuid.toString(), 30, PlayerReply.class);
+                    if (playerReply != null && playerReply.getPlayer() != null) {
+                        log.debug("Found player profile for {} using the database cache (ID: {})", name, uuid);
 
-                            replyCache.put(cacheKey, playerReply);
-                            future.complete(playerReply);
+                        cacheReply(cacheKey, ReplyType.PLAYER, playerReply);
+                        future.complete(playerReply);
 
-                            return future;
-                        }
+                        return;
                     }
-                    hasDatabaseEntry[0] = true;
                 }
+            } catch (SQLException e) {
+                handleResponseException(future, e);
+                return;
             }
 
             log.debug("Requesting for player profile for \"{}\" using the API", name);
 
-            getClientContainer().getNextClient().getPlayerByUuid(uuid).whenCompleteAsync((playerReply, throwable) -> {
+            requestGuard.execute((client, statusListener) -> client.getPlayerByUuid(uuid)).whenCompleteAsync((playerReply, throwable) -> {
                 if (throwable != null) {
                     handleResponseException(future, throwable);
                     return;
                 }
 
-                replyCache.put(cacheKey, playerReply);
-
-                try {
-                    if (ignoreDatabaseCache) {
-                        hasDatabaseEntry[0] = !app.getDatabaseManager().query(
-                            "SELECT `data` FROM `players` WHERE `uuid` = ?", uuid.toString()
-                        ).isEmpty();
-                    }
-
-                    if (hasDatabaseEntry[0]) {
-                        app.getDatabaseManager().queryUpdate(
-                            "UPDATE `players` SET `data` = ?, `last_updated_at` = ? WHERE `uuid` = ?",
-                            gson.toJson(playerReply), Carbon.now(), uuid.toString()
-                        );
-                    } else {
-                        app.getDatabaseManager().queryInsert(
-                            "INSERT INTO `players` SET `uuid` = ?, `data` = ?, `created_at` = NOW(), `last_updated_at` = ?",
-                            uuid.toString(), gson.toJson(playerReply), Carbon.now()
-                        );
-                    }
-                } catch (Exception e) {
-                    log.error("Failed to create/update player data for {}, error: {}",
-                        uuid.toString(), e.getMessage(), e);
-                }
+                cacheReply(cacheKey, ReplyType.PLAYER, playerReply);
+                playerWriter.write(uuid.toString(), gson.toJsonTree(playerReply));
 
                 future.complete(playerReply);
             });
-        } catch (SQLException e) {
-            handleResponseException(future, e);
-        }
+        });
 
         return future;
     }
@@ -227,35 +378,44 @@ public class Hypixel {
                 return;
             }
 
-            try {
-                List<SkyBlockProfileReply> skyBlockProfileReplies = prepareSkyBlockProfiles(playerReply);
-                if (skyBlockProfileReplies.isEmpty()) {
-                    log.debug("Failed to get selected skyblock profile for \"{}\" due to having found no valid profiles.", name);
-
-                    handleResponseException(future, new FriendlyException("Failed to find any valid SkyBlock profiles!"));
+            prepareSkyBlockProfiles(playerReply).whenComplete((skyBlockProfileReplies, profilesThrowable) -> {
+                if (profilesThrowable != null) {
+                    handleResponseException(future, profilesThrowable instanceof NullPointerException
+                        ? new FriendlyException("Found no SkyBlock profiles for " + name)
+                        : profilesThrowable
+                    );
                     return;
                 }
 
-                //noinspection ConstantConditions
-                SkyBlockProfileReply skyBlockProfileReply = skyBlockProfileReplies.stream()
-                    .sorted((profileOne, profileTwo) -> {
-                        return getLastSaveFromMember(profileOne.getProfile().getAsJsonObject("members").getAsJsonObject(
-                            playerReply.getPlayer().get("uuid").getAsString()
-                        )) < getLastSaveFromMember(profileTwo.getProfile().getAsJsonObject("members").getAsJsonObject(
-                            playerReply.getPlayer().get("uuid").getAsString()
-                        )) ? 1 : -1;
-                    }).findFirst().get();
-
-                log.debug("Found selected SkyBlock profile for \"{}\" it was \"{}\" with UUID \"{}\"",
-                    name, skyBlockProfileReply.getProfile().get("cute_name").getAsString(), skyBlockProfileReply.getProfile().get("profile_id").getAsString()
-                );
+                try {
+                    if (skyBlockProfileReplies.isEmpty()) {
+                        log.debug("Failed to get selected skyblock profile for \"{}\" due to having found no valid profiles.", name);
 
-                future.complete(skyBlockProfileReply);
-            } catch (NullPointerException e) {
-                handleResponseException(future, new FriendlyException("Found no SkyBlock profiles for " + name));
-            } catch (Exception e) {
-                handleResponseException(future, e);
-            }
+                        handleResponseException(future, new FriendlyException("Failed to find any valid SkyBlock profiles!"));
+                        return;
+                    }
+
+                    //noinspection ConstantConditions
+                    SkyBlockProfileReply skyBlockProfileReply = skyBlockProfileReplies.stream()
+                        .sorted((profileOne, profileTwo) -> {
+                            return getLastSaveFromMember(profileOne.getProfile().getAsJsonObject("members").getAsJsonObject(
+                                playerReply.getPlayer().get("uuid").getAsString()
+                            )) < getLastSaveFromMember(profileTwo.getProfile().getAsJsonObject("members").getAsJsonObject(
+                                playerReply.getPlayer().get("uuid").getAsString()
+                            )) ? 1 : -1;
+                        }).findFirst().get();
+
+                    log.debug("Found selected SkyBlock profile for \"{}\" it was \"{}\" with UUID \"{}\"",
+                        name, skyBlockProfileReply.getProfile().get("cute_name").getAsString(), skyBlockProfileReply.getProfile().get("profile_id").getAsString()
+                    );
+
+                    future.complete(skyBlockProfileReply);
+                } catch (NullPointerException e) {
+                    handleResponseException(future, new FriendlyException("Found no SkyBlock profiles for " + name));
+                } catch (Exception e) {
+                    handleResponseException(future, e);
+                }
+            });
         });
 
         return future;
@@ -276,71 +436,96 @@ public class Hypixel {
                 return;
             }
 
-            try {
-                List<SkyBlockProfileReply> skyBlockProfileReplies = prepareSkyBlockProfiles(playerReply);
-                if (skyBlockProfileReplies.isEmpty()) {
-                    log.debug("Failed to get most progressed skyblock profile for \"{}\" due to having found no valid profiles.", name);
-
-                    handleResponseException(future, new FriendlyException("Failed to find any valid SkyBlock profiles!"));
+            prepareSkyBlockProfiles(playerReply).whenComplete((skyBlockProfileReplies, profilesThrowable) -> {
+                if (profilesThrowable != null) {
+                    handleResponseException(future, profilesThrowable instanceof NullPointerException
+                        ? new FriendlyException("Failed to find any valid SkyBlock profiles!")
+                        : profilesThrowable
+                    );
                     return;
                 }
 
-                final String uuid = playerReply.getPlayer().get("uuid").getAsString();
+                try {
+                    if (skyBlockProfileReplies.isEmpty()) {
+                        log.debug("Failed to get most progressed skyblock profile for \"{}\" due to having found no valid profiles.", name);
 
-                SkyBlockProfileReply skyBlockProfileReply = skyBlockProfileReplies.stream()
-                    .max(Comparator.comparingDouble(profile -> getSkyblockProfileScore(playerReply, profile, uuid)))
-                    .orElseThrow(() -> new FriendlyException("Failed to find any valid SkyBlock profiles!"));
+                        handleResponseException(future, new FriendlyException("Failed to find any valid SkyBlock profiles!"));
+                        return;
+                    }
 
-                log.debug("Found selected SkyBlock profile for \"{}\" it was \"{}\" with UUID \"{}\"",
-                    name, skyBlockProfileReply.getProfile().get("cute_name").getAsString(), skyBlockProfileReply.getProfile().get("profile_id").getAsString()
-                );
+                    final String uuid = playerReply.getPlayer().get("uuid").getAsString();
 
-                future.complete(skyBlockProfileReply);
-            } catch (NullPointerException e) {
-                handleResponseException(future, new FriendlyException("Failed to find any valid SkyBlock profiles!"));
-            } catch (Exception e) {
-                handleResponseException(future, e);
-            }
+                    SkyBlockProfileReply skyBlockProfileReply = skyBlockProfileReplies.stream()
+                        .max(Comparator.comparingDouble(profile -> getSkyblockProfileScore(playerReply, profile, uuid)))
+                        .orElseThrow(() -> new FriendlyException("Failed to find any valid SkyBlock profiles!"));
+
+                    log.debug("Found selected SkyBlock profile for \"{}\" it was \"{}\" with UUID \"{}\"",
+                        name, skyBlockProfileReply.getProfile().get("cute_name").getAsString(), skyBlockProfileReply.getProfile().get("profile_id").getAsString()
+                    );
+
+                    future.complete(skyBlockProfileReply);
+                } catch (NullPointerException e) {
+                    handleResponseException(future, new FriendlyException("Failed to find any valid SkyBlock profiles!"));
+                } catch (Exception e) {
+                    handleResponseException(future, e);
+                }
+            });
         });
 
         return future;
     }
 
     public CompletableFuture<SkyBlockProfileReply> getSkyBlockProfile(String name) {
-        CompletableFuture<SkyBlockProfileReply> future = new CompletableFuture<>();
+        final HypixelCacheKey cacheKey = HypixelCacheKey.skyBlockProfile(name);
 
-        final String cacheKey = "skyblock-profile-" + name;
+        SkyBlockProfileReply cachedSkyBlockProfile = getCachedReply(cacheKey, ReplyType.PROFILE, SkyBlockProfileReply.class,
+            () -> inflightRequests.coalesce(cacheKey + "-fresh", () -> loadSkyBlockProfile(name, cacheKey, true, false))
+        );
 
-        AbstractReply cachedSkyBlockProfile = replyCache.getIfPresent(cacheKey);
-        if (cachedSkyBlockProfile instanceof SkyBlockProfileReply) {
+        if (cachedSkyBlockProfile != null) {
             log.debug("Found SkyBlock profile {} using the in-memory cache", name);
 
-            ((SkyBlockProfileReply) cachedSkyBlockProfile).getProfile().addProperty("isFromCache", true);
+            cachedSkyBlockProfile.getProfile().addProperty("isFromCache", true);
 
-            future.complete((SkyBlockProfileReply) cachedSkyBlockProfile);
-            return future;
+            return CompletableFuture.completedFuture(cachedSkyBlockProfile);
         }
 
-        boolean hasDatabaseEntry = false;
+        return inflightRequests.coalesce(cacheKey.toString(), () -> loadSkyBlockProfile(name, cacheKey, false, false));
+    }
+
+    /**
+     * Gets the SkyBlock profile with the given ID including every member property, the
+     * profiles returned by {@link #getSkyBlockProfile(String)} only include the member
+     * properties used by the bot, so this should be used whenever the profile is
+     * handed over to someone else. The full profile is never cached in memory.
+     *
+     * @param name The ID of the SkyBlock profile.
+     * @return The SkyBlock profile including every member property.
+     */
+    public CompletableFuture<SkyBlockProfileReply> getFullSkyBlockProfile(String name) {
+        final HypixelCacheKey cacheKey = HypixelCacheKey.skyBlockProfile(name);
+
+        return inflightRequests.coalesce(cacheKey + "-full", () -> loadSkyBlockProfile(name, cacheKey, false, true));
+    }
+
+    private CompletableFuture<SkyBlockProfileReply> loadSkyBlockProfile(String name, HypixelCacheKey cacheKey, boolean ignoreDatabaseCache, boolean fullProfile) {
+        CompletableFuture<SkyBlockProfileReply> future = new CompletableFuture<>();
 
         try {
-            Collection result = app.getDatabaseManager().query("SELECT `data`, `last_updated_at` FROM `profiles` WHERE `uuid` = ?", name);
-            if (!result.isEmpty()) {
-                Carbon lastUpdatedAt = result.first().getTimestamp("last_updated_at");
-                if (lastUpdatedAt.addMinutes(5).isFuture()) {
-                    SkyBlockProfileReply skyblockProfile = gson.fromJson(result.get(0).getString("data"), SkyBlockProfileReply.class);
-                    if (skyblockProfile != null && skyblockProfile.getProfile() != null) {
-                        log.debug("Found SkyBlock profile for {} using the database cache", name);
+            SkyBlockProfileReply skyblockProfile = ignoreDatabaseCache ? null
+                : getReplyFromDatabase("profiles", name, 5, SkyBlockProfileReply.class, fullProfile ? gson : profileGson);
 
-                        skyblockProfile.getProfile().addProperty("isFromCache", true);
+            if (skyblockProfile != null && skyblockProfile.getProfile() != null) {
+                log.debug("Found SkyBlock profile for {} using the database cache", name);
 
-                        replyCache.put(cacheKey, skyblockProfile);
-                        future.complete(skyblockProfile);
+                skyblockProfile.getProfile().addProperty("isFromCache", true);
 
-                        return future;
-                    }
+                if (!fullProfile) {
+                    cacheReply(cacheKey, ReplyType.PROFILE, skyblockProfile);
                 }
-                hasDatabaseEntry = true;
+                future.complete(skyblockProfile);
+
+                return future;
             }
         } catch (SQLException e) {
             log.error("An exception were thrown while trying to get the SkyBlock profile from the database cache, error: {}",
@@ -350,59 +535,62 @@ public class Hypixel {
 
         log.debug("Requesting for SkyBlock profile with an ID of {} from the API", name);
 
-        boolean finalHasDatabaseEntry = hasDatabaseEntry;
-        clientContainer.getNextClient().getSkyBlockProfile(name).whenComplete((skyBlockProfileReply, throwable) -> {
+        AtomicLong replySize = new AtomicLong(-1L);
+        requestGuard.execute((client, statusListener) -> httpTransport.get(String.format(
+            "https://api.hypixel.net/skyblock/profile?key=%s&profile=%s",
+            client.getApiKey().toString(), name
+        ), JsonObject.class, statusListener, replySize::set)).whenComplete((profileTree, throwable) -> {
             if (throwable != null) {
                 handleResponseException(future, throwable);
                 return;
             }
 
-            replyCache.put(cacheKey, skyBlockProfileReply);
-
-            try {
-                if (finalHasDatabaseEntry) {
-                    app.getDatabaseManager().queryUpdate("UPDATE `profiles` SET `data` = ?, `last_updated_at` = ? WHERE `uuid` = ?",
-                        gson.toJson(skyBlockProfileReply), Carbon.now(), name
-                    );
-                } else {
-                    app.getDatabaseManager().queryInsert("INSERT INTO `profiles` SET `uuid` = ?, `data` = ?, `last_updated_at` = ?",
-                        name, gson.toJson(skyBlockProfileReply), Carbon.now()
-                    );
-                }
-            } catch (Exception e) {
-                log.error("Failed to create/update profile data for {}, error: {}",
-                    name, e.getMessage(), e
-                );
+            if (profileTree == null) {
+                handleResponseException(future, new FriendlyException("Hypixels API returned an empty SkyBlock profile, please try again later."));
+                return;
             }
 
-            future.complete(skyBlockProfileReply);
+            // The full profile is written to the database, while only the member
+            // properties used by the bot are kept for the in-memory cache.
+            profileWriter.write(name, profileTree);
+
+            SkyBlockProfileReply skyBlockProfileReply = profileGson.fromJson(profileTree, SkyBlockProfileReply.class);
+            cacheReply(cacheKey, ReplyType.PROFILE, skyBlockProfileReply, replySize.get());
+
+            future.complete(fullProfile ? gson.fromJson(profileTree, SkyBlockProfileReply.class) : skyBlockProfileReply);
         });
 
         return future;
     }
 
     public CompletableFuture<GuildReply> getGuildByPlayer(String uuid) {
-        CompletableFuture<GuildReply> future = new CompletableFuture<>();
+        final HypixelCacheKey cacheKey = HypixelCacheKey.guildByPlayer(uuid);
 
-        final String cacheKey = "skyblock-guild-player-" + uuid;
+        GuildReply cachedSkyBlockGuild = getCachedReply(cacheKey, ReplyType.GUILD, GuildReply.class,
+            () -> inflightRequests.coalesce(cacheKey + "-fresh", () -> loadGuildByPlayer(uuid, cacheKey))
+        );
 
-        AbstractReply cachedSkyBlockGuild = replyCache.getIfPresent(cacheKey);
-        if (cachedSkyBlockGuild instanceof GuildReply) {
+        if (cachedSkyBlockGuild != null) {
             log.debug("Found SkyBlock Guild from player {} using the in-memory cache", uuid);
 
-            future.complete((GuildReply) cachedSkyBlockGuild);
-            return future;
+            return CompletableFuture.completedFuture(cachedSkyBlockGuild);
         }
 
+        return inflightRequests.coalesce(cacheKey.toString(), () -> loadGuildByPlayer(uuid, cacheKey));
+    }
+
+    private CompletableFuture<GuildReply> loadGuildByPlayer(String uuid, HypixelCacheKey cacheKey) {
+        CompletableFuture<GuildReply> future = new CompletableFuture<>();
+
         log.debug("Requesting for SkyBlock Guild from player {} from the API", uuid);
 
-        clientContainer.getNextClient().getGuildByPlayer(uuid).whenComplete((skyBlockGuildReply, throwable) -> {
+        requestGuard.execute((client, statusListener) -> client.getGuildByPlayer(uuid)).whenComplete((skyBlockGuildReply, throwable) -> {
             if (throwable != null) {
                 handleResponseException(future, throwable);
                 return;
             }
 
-            replyCache.put(cacheKey, skyBlockGuildReply);
+            cacheReply(cacheKey, ReplyType.GUILD, skyBlockGuildReply);
 
             future.complete(skyBlockGuildReply);
         });
@@ -411,26 +599,32 @@ public class Hypixel {
     }
 
     public CompletableFuture<GuildReply> getGuildByName(String name) {
-        CompletableFuture<GuildReply> future = new CompletableFuture<>();
+        final HypixelCacheKey cacheKey = HypixelCacheKey.guildByName(name);
 
-        final String cacheKey = "skyblock-guild-" + name.trim().toLowerCase();
+        GuildReply cachedSkyBlockGuild = getCachedReply(cacheKey, ReplyType.GUILD, GuildReply.class,
+            () -> inflightRequests.coalesce(cacheKey + "-fresh", () -> loadGuildByName(name, cacheKey, true))
+        );
 
-        AbstractReply cachedSkyBlockGuild = replyCache.getIfPresent(cacheKey);
-        if (cachedSkyBlockGuild instanceof GuildReply) {
+        if (cachedSkyBlockGuild != null) {
             log.debug("Found SkyBlock Guild {} using the in-memory cache", name);
 
-            future.complete((GuildReply) cachedSkyBlockGuild);
-            return future;
+            return CompletableFuture.completedFuture(cachedSkyBlockGuild);
         }
 
+        return inflightRequests.coalesce(cacheKey.toString(), () -> loadGuildByName(name, cacheKey, false));
+    }
+
+    private CompletableFuture<GuildReply> loadGuildByName(String name, HypixelCacheKey cacheKey, boolean ignoreDatabaseCache) {
+        CompletableFuture<GuildReply> future = new CompletableFuture<>();
+
         try {
-            Collection result = app.getDatabaseManager().query("SELECT `data` FROM `guilds` WHERE `name` = ?", name);
-            if (!result.isEmpty()) {
+            Collection result = ignoreDatabaseCache ? null : app.getDatabaseManager().query("SELECT `data` FROM `guilds` WHERE `name` = ?", name);
+            if (result != null && !result.isEmpty()) {
                 GuildReply skyblockGuild = gson.fromJson(result.get(0).getString("data"), GuildReply.class);
                 if (skyblockGuild != null && skyblockGuild.getGuild() != null) {
                     log.debug("Found SkyBlock Guild for {} using the database cache", name);
 
-                    replyCache.put(cacheKey, skyblockGuild);
+                    cacheReply(cacheKey, ReplyType.GUILD, skyblockGuild);
                     future.complete(skyblockGuild);
 
                     return future;
@@ -444,13 +638,13 @@ public class Hypixel {
 
         log.debug("Requesting for SkyBlock Guild with a name of {} from the API", name);
 
-        clientContainer.getNextClient().getGuildByName(name).whenComplete((skyBlockGuildReply, throwable) -> {
+        requestGuard.execute((client, statusListener) -> client.getGuildByName(name)).whenComplete((skyBlockGuildReply, throwable) -> {
             if (throwable != null) {
                 handleResponseException(future, throwable);
                 return;
             }
 
-            replyCache.put(cacheKey, skyBlockGuildReply);
+            cacheReply(cacheKey, ReplyType.GUILD, skyBlockGuildReply);
 
             future.complete(skyBlockGuildReply);
         });
@@ -459,26 +653,23 @@ public class Hypixel {
     }
 
     public AuctionHouseResponse getAuctionsFromProfile(String profileId) {
+        return await(getAuctionsFromProfileAsync(profileId));
+    }
+
+    public CompletableFuture<AuctionHouseResponse> getAuctionsFromProfileAsync(String profileId) {
         AuctionHouseResponse cachedAuctionResponse = auctionsCache.getIfPresent(profileId);
         if (cachedAuctionResponse != null) {
             log.debug("Found SkyBlock Auctions for {} using the in-memory cache", profileId);
 
-            return cachedAuctionResponse;
+            return CompletableFuture.completedFuture(cachedAuctionResponse);
         }
 
         log.debug("Requesting SkyBlock Auctions for {} from the API", profileId);
 
-        UUID randomApiKey = clientContainer.getNextClient().getApiKey();
-
-        try {
-            AuctionHouseResponse auctionHouseResponse = httpClient.execute(new HttpGet(String.format(
-                "https://api.hypixel.net/skyblock/auction?key=%s&profile=%s",
-                randomApiKey.toString(), profileId
-            )), obj -> {
-                String content = EntityUtils.toString(obj.getEntity(), "UTF-8");
-                return gson.fromJson(content, AuctionHouseResponse.class);
-            });
-
+        return requestGuard.execute((client, statusListener) -> httpTransport.get(String.format(
+            "https://api.hypixel.net/skyblock/auction?key=%s&profile=%s",
+            client.getApiKey().toString(), profileId
+        ), AuctionHouseResponse.class, statusListener)).thenApply(auctionHouseResponse -> {
             if (auctionHouseResponse == null || !auctionHouseResponse.isSuccess()) {
                 return null;
             }
@@ -486,171 +677,150 @@ public class Hypixel {
             auctionsCache.put(profileId, auctionHouseResponse);
 
             return auctionHouseResponse;
-        } catch (IOException e) {
-            return null;
-        }
+        });
     }
 
     public BazaarProductReply getBazaarProducts() {
-        final String cacheKey = "skyblock-bazaar-products";
+        return await(getBazaarProductsAsync());
+    }
 
-        AbstractReply bazaarProductsCacheReply = replyCache.getIfPresent(cacheKey);
-        if (bazaarProductsCacheReply instanceof BazaarProductReply) {
+    public CompletableFuture<BazaarProductReply> getBazaarProductsAsync() {
+        final HypixelCacheKey cacheKey = HypixelCacheKey.bazaarProducts();
+
+        BazaarProductReply bazaarProductsCacheReply = getCachedReply(cacheKey, ReplyType.BAZAAR, BazaarProductReply.class,
+            () -> inflightRequests.coalesce(cacheKey + "-fresh", () -> loadBazaarProducts(cacheKey))
+        );
+
+        if (bazaarProductsCacheReply != null) {
             log.debug("Found Bazaar Products using the in-memory cache");
 
-            return (BazaarProductReply) bazaarProductsCacheReply;
+            return CompletableFuture.completedFuture(bazaarProductsCacheReply);
         }
 
-        log.debug("Requesting for SkyBlock Bazaar Products from the API");
+        return inflightRequests.coalesce(cacheKey.toString(), () -> loadBazaarProducts(cacheKey));
+    }
 
-        UUID randomApiKey = clientContainer.getNextClient().getApiKey();
+    public CompletableFuture<BazaarSnapshot> refreshBazaarSnapshot() {
+        final HypixelCacheKey cacheKey = HypixelCacheKey.bazaarProducts();
 
-        try {
-            BazaarProductReply bazaarProductReply = httpClient.execute(new HttpGet(String.format(
-                "https://api.hypixel.net/skyblock/bazaar?key=%s", randomApiKey.toString()
-            )), obj -> {
-                String content = EntityUtils.toString(obj.getEntity(), "UTF-8");
-                return gson.fromJson(content, BazaarProductReply.class);
+        return inflightRequests.coalesce(cacheKey + "-fresh", () -> loadBazaarProducts(cacheKey))
+            .thenApply(bazaarProductReply -> {
+                if (bazaarProductReply == null) {
+                    Metrics.bazaarSnapshots.labels("failed").inc();
+
+                    return bazaarTracker.getSnapshot();
+                }
+
+                return bazaarTracker.publish(bazaarProductReply);
             });
+    }
+
+    private CompletableFuture<BazaarProductReply> loadBazaarProducts(HypixelCacheKey cacheKey) {
+        log.debug("Requesting for SkyBlock Bazaar Products from the API");
 
+        AtomicLong replySize = new AtomicLong(-1L);
+        return requestGuard.execute((client, statusListener) -> httpTransport.get(String.format(
+            "https://api.hypixel.net/skyblock/bazaar?key=%s", client.getApiKey().toString()
+        ), BazaarProductReply.class, statusListener, replySize::set)).thenApply(bazaarProductReply -> {
             if (bazaarProductReply == null || !bazaarProductReply.isSuccess()) {
                 return null;
             }
 
-            replyCache.put(cacheKey, bazaarProductReply);
+            cacheReply(cacheKey, ReplyType.BAZAAR, bazaarProductReply, replySize.get());
 
             return bazaarProductReply;
-        } catch (IOException e) {
-            return null;
-        }
+        });
     }
 
     public PlayerLeaderboardResponse getPlayerLeaderboard() {
-        final String cacheKey = "skyblock-player-leaderboard";
+        return await(getPlayerLeaderboardAsync());
+    }
+
+    public CompletableFuture<PlayerLeaderboardResponse> getPlayerLeaderboardAsync() {
+        final HypixelCacheKey cacheKey = HypixelCacheKey.playerLeaderboard();
 
         Response cachedLeaderboard = responseCache.getIfPresent(cacheKey);
         if (cachedLeaderboard instanceof PlayerLeaderboardResponse) {
             log.debug("Found Player Leaderboard using the in-memory cache");
 
-            return (PlayerLeaderboardResponse) cachedLeaderboard;
+            return CompletableFuture.completedFuture((PlayerLeaderboardResponse) cachedLeaderboard);
         }
 
         log.debug("Requesting for Player Leaderboard from the API");
 
-        try {
-            PlayerLeaderboardResponse leaderboardResponse = httpClient.execute(new HttpGet(app.getConfiguration().getLeaderboardUri() + "/players"), obj -> {
-                String content = EntityUtils.toString(obj.getEntity(), "UTF-8");
-                return gson.fromJson(content, PlayerLeaderboardResponse.class);
-            });
-
-            if (leaderboardResponse == null) {
-                return null;
-            }
-
-            responseCache.put(cacheKey, leaderboardResponse);
-
-            return leaderboardResponse;
-        } catch (IOException e) {
-            return null;
-        }
+        return requestLeaderboardResponse(
+            app.getConfiguration().getLeaderboardUri() + "/players", cacheKey, PlayerLeaderboardResponse.class
+        );
     }
 
     public GuildLeaderboardResponse getGuildLeaderboard() {
-        final String cacheKey = "skyblock-leaderboard";
+        return await(getGuildLeaderboardAsync());
+    }
+
+    public CompletableFuture<GuildLeaderboardResponse> getGuildLeaderboardAsync() {
+        final HypixelCacheKey cacheKey = HypixelCacheKey.guildLeaderboard();
 
         Response cachedLeaderboard = responseCache.getIfPresent(cacheKey);
         if (cachedLeaderboard instanceof GuildLeaderboardResponse) {
             log.debug("Found Guild Leaderboard using the in-memory cache");
 
-            return (GuildLeaderboardResponse) cachedLeaderboard;
+            return CompletableFuture.completedFuture((GuildLeaderboardResponse) cachedLeaderboard);
         }
 
         log.debug("Requesting for Guild Leaderboard from the API");
 
-        try {
-            GuildLeaderboardResponse leaderboardResponse = httpClient.execute(new HttpGet(app.getConfiguration().getLeaderboardUri()), obj -> {
-                String content = EntityUtils.toString(obj.getEntity(), "UTF-8");
-                return gson.fromJson(content, GuildLeaderboardResponse.class);
-            });
-
-            if (leaderboardResponse == null) {
-                return null;
-            }
-
-            responseCache.put(cacheKey, leaderboardResponse);
-
-            return leaderboardResponse;
-        } catch (IOException e) {
-            return null;
-        }
+        return requestLeaderboardResponse(
+            app.getConfiguration().getLeaderboardUri(), cacheKey, GuildLeaderboardResponse.class
+        );
     }
 
     public GuildMetricsResponse getGuildLeaderboardMetrics(String guildId) {
-        final String cacheKey = "skyblock-metrics-leaderboard-" + guildId;
+        return await(getGuildLeaderboardMetricsAsync(guildId));
+    }
+
+    public CompletableFuture<GuildMetricsResponse> getGuildLeaderboardMetricsAsync(String guildId) {
+        final HypixelCacheKey cacheKey = HypixelCacheKey.guildMetrics(guildId);
 
         Response cachedLeaderboard = responseCache.getIfPresent(cacheKey);
         if (cachedLeaderboard instanceof GuildMetricsResponse) {
             log.debug("Found metrics for {} using the in-memory cache", guildId);
 
-            return (GuildMetricsResponse) cachedLeaderboard;
+            return CompletableFuture.completedFuture((GuildMetricsResponse) cachedLeaderboard);
         }
 
         log.debug("Requesting for Guild metrics for {} from the API", guildId);
 
-        try {
-            GuildMetricsResponse leaderboardResponse = httpClient.execute(new HttpGet(app.getConfiguration().getLeaderboardUri() + "/metrics/" + guildId), obj -> {
-                String content = EntityUtils.toString(obj.getEntity(), "UTF-8");
-                return gson.fromJson(content, GuildMetricsResponse.class);
-            });
-
-            if (leaderboardResponse == null) {
-                return null;
-            }
-
-            responseCache.put(cacheKey, leaderboardResponse);
-
-            return leaderboardResponse;
-        } catch (IOException e) {
-            return null;
-        }
+        return requestLeaderboardResponse(
+            app.getConfiguration().getLeaderboardUri() + "/metrics/" + guildId, cacheKey, GuildMetricsResponse.class
+        );
     }
 
     public PlayerLeaderboardResponse getGuildPlayersLeaderboard(String guildId) {
-        final String cacheKey = "skyblock-player-leaderboard-" + guildId;
+        return await(getGuildPlayersLeaderboardAsync(guildId));
+    }
+
+    public CompletableFuture<PlayerLeaderboardResponse> getGuildPlayersLeaderboardAsync(String guildId) {
+        final HypixelCacheKey cacheKey = HypixelCacheKey.guildPlayersLeaderboard(guildId);
 
         Response cachedLeaderboard = responseCache.getIfPresent(cacheKey);
         if (cachedLeaderboard instanceof PlayerLeaderboardResponse) {
             log.debug("Found Player Leaderboard for {} using the in-memory cache", guildId);
 
-            return (PlayerLeaderboardResponse) cachedLeaderboard;
+            return CompletableFuture.completedFuture((PlayerLeaderboardResponse) cachedLeaderboard);
         }
 
         log.debug("Requesting for Player Leaderboard for {} from the API", guildId);
 
-        try {
-            PlayerLeaderboardResponse leaderboardResponse = httpClient.execute(new HttpGet(app.getConfiguration().getLeaderboardUri() + "/players/" + guildId), obj -> {
-                String content = EntityUtils.toString(obj.getEntity(), "UTF-8");
-                return gson.fromJson(content, PlayerLeaderboardResponse.class);
-            });
-
-            if (leaderboardResponse == null) {
-                return null;
-            }
-
-            responseCache.put(cacheKey, leaderboardResponse);
-
-            return leaderboardResponse;
-        } catch (IOException e) {
-            return null;
-        }
+        return requestLeaderboardResponse(
+            app.getConfiguration().getLeaderboardUri() + "/players/" + guildId, cacheKey, PlayerLeaderboardResponse.class
+        );
     }
 
     public boolean isLeaderboardApiValid() {
         try {
-            LeaderboardStatsResponse response = httpClient.execute(new HttpGet(app.getConfiguration().getLeaderboardUri() + "/stats"), obj -> {
-                String content = EntityUtils.toString(obj.getEntity(), "UTF-8");
-                return gson.fromJson(content, LeaderboardStatsResponse.class);
-            });
+            LeaderboardStatsResponse response = httpTransport.get(
+                app.getConfiguration().getLeaderboardUri() + "/stats", LeaderboardStatsResponse.class
+            ).get(10, TimeUnit.SECONDS);
 
             if (response == null || !response.isSuccess() || response.getData() == null) {
                 return false;
@@ -707,27 +877,71 @@ public class Hypixel {
         return null;
     }
 
-    public synchronized UUID getUUIDFromName(String name) throws SQLException {
+    public UUID getUUIDFromName(String name) throws SQLException {
+        try {
+            return getUUIDFromNameAsync(name).get(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while fetching the UUID for {}", name);
+        } catch (TimeoutException e) {
+            log.error("Failed to fetch UUID for {}, error: {}", name, e.getMessage(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            log.error("Failed to fetch UUID for {}, error: {}", name, e.getMessage(), e);
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the UUID for the given Minecraft username using the in-memory cache, the
+     * database, or the Mojang API, in that order. Concurrent lookups for the same
+     * name share a single lookup, and the calling thread is never blocked
+     * while waiting for the Mojang API to respond.
+     *
+     * @param name The Minecraft username the UUID should be found for.
+     * @return The future that is completed with the UUID, or <code>NULL</code> if no player has the given name.
+     */
+    public CompletableFuture<UUID> getUUIDFromNameAsync(String name) {
         UUID cachedUUID = usernameToUuidCache.getIfPresent(name.toLowerCase());
         if (cachedUUID != null) {
             log.debug("Found UUID for {} using the in-memory cache (ID: {})", name, cachedUUID);
-            return cachedUUID;
+            return CompletableFuture.completedFuture(cachedUUID);
         }
 
-        Collection result = app.getDatabaseManager().query("SELECT `uuid` FROM `uuids` WHERE `username` = ?", name);
-        if (!result.isEmpty()) {
-            UUID uuid = UUID.fromString(result.get(0).getString("uuid"));
-            usernameToUuidCache.put(name.toLowerCase(), uuid);
-            log.debug("Found UUID for {} using the database cache (ID: {})", name, uuid);
+        return inflightRequests.coalesce("uuid-" + name.toLowerCase(), () -> loadUUIDFromName(name));
+    }
 
-            return uuid;
+    private CompletableFuture<UUID> loadUUIDFromName(String name) {
+        try {
+            Collection result = app.getDatabaseManager().query("SELECT `uuid` FROM `uuids` WHERE `username` = ?", name);
+            if (!result.isEmpty()) {
+                UUID uuid = UUID.fromString(result.get(0).getString("uuid"));
+                usernameToUuidCache.put(name.toLowerCase(), uuid);
+                log.debug("Found UUID for {} using the database cache (ID: {})", name, uuid);
+
+                return CompletableFuture.completedFuture(uuid);
+            }
+        } catch (SQLException e) {
+            return CompletableFuture.failedFuture(e);
         }
 
-        try {
-            MojangPlayerUUID mojangPlayer = httpClient.execute(new HttpGet("https://api.mojang.com/users/profiles/minecraft/" + name), obj -> {
-                String content = EntityUtils.toString(obj.getEntity(), "UTF-8");
-                return gson.fromJson(content, MojangPlayerUUID.class);
-            });
+        return httpTransport.get(
+            "https://api.mojang.com/users/profiles/minecraft/" + name, MojangPlayerUUID.class
+        ).handle((mojangPlayer, throwable) -> {
+            if (throwable != null) {
+                Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                    ? throwable.getCause() : throwable;
+
+                // Illegal argument exceptions can be ignored since they should only be
+                // thrown if the Mojang API returns null due to the player not existing.
+                if (!(cause instanceof IllegalArgumentException)) {
+                    log.error("Failed to fetch UUID for {} using the Mojang API, error: {}", name, cause.getMessage(), cause);
+                }
+                return null;
+            }
 
             if (mojangPlayer == null || mojangPlayer.getUUID() == null) {
                 return null;
@@ -746,14 +960,7 @@ public class Hypixel {
             }
 
             return mojangPlayer.getUUID();
-        } catch (IOException e) {
-            log.error("Failed to fetch UUID for {} using the Mojang API, error: {}", name, e.getMessage(), e);
-        } catch (IllegalArgumentException e) {
-            // We can ignore this exception since it should only be thrown if
-            // the Hypixel API returns null due to the player not existing.
-        }
-
-        return null;
+        });
     }
 
     public void forgetUsernameCacheEntry(UUID uuid) {
@@ -777,7 +984,8 @@ public class Hypixel {
         }
 
         try {
-            PlayerReply playerReply = getClientContainer().getNextClient().getPlayerByUuid(uuid).get(10, TimeUnit.SECONDS);
+            PlayerReply playerReply = requestGuard.execute((client, statusListener) -> client.getPlayerByUuid(uuid))
+                .get(10, TimeUnit.SECONDS);
 
             if (playerReply == null || playerReply.getPlayer() == null) {
                 return null;
@@ -789,14 +997,12 @@ public class Hypixel {
 
             log.debug("Found Username for {} using the Hypixel API (Username: {})", uuid, username);
 
+            playerWriter.write(uuid.toString(), gson.toJsonTree(playerReply));
+
             try {
                 app.getDatabaseManager().queryInsert("INSERT INTO `uuids` SET `uuid` = ?, `username` = ?",
                     uuid, username
                 );
-
-                app.getDatabaseManager().queryInsert("INSERT INTO `players` SET `uuid` = ?, `data` = ?",
-                    uuid, getGson().toJson(playerReply)
-                );
             } catch (Exception e) {
                 log.error("Failed to get Username from UUID for player {}, error: {}",
                     uuid.toString(), e.getMessage(), e
@@ -828,27 +1034,59 @@ public class Hypixel {
         return HypixelRank.DEFAULT;
     }
 
-    private List<SkyBlockProfileReply> prepareSkyBlockProfiles(PlayerReply playerReply) {
-        JsonObject profiles = playerReply.getPlayer().getAsJsonObject("stats").getAsJsonObject("SkyBlock").getAsJsonObject("profiles");
+    private CompletableFuture<List<SkyBlockProfileReply>> prepareSkyBlockProfiles(PlayerReply playerReply) {
+        final JsonObject profiles;
+        try {
+            profiles = playerReply.getPlayer().getAsJsonObject("stats").getAsJsonObject("SkyBlock").getAsJsonObject("profiles");
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        if (profiles == null) {
+            return CompletableFuture.failedFuture(new NullPointerException("The player has no SkyBlock profiles"));
+        }
 
-        List<SkyBlockProfileReply> skyBlockProfileReplies = new ArrayList<>();
+        List<CompletableFuture<SkyBlockProfileReply>> profileFutures = new ArrayList<>();
         for (Map.Entry<String, JsonElement> profileEntry : profiles.entrySet()) {
-            try {
-                SkyBlockProfileReply profileReply = getSkyBlockProfile(profileEntry.getKey()).get(5, TimeUnit.SECONDS);
-                if (!profileReply.isSuccess()) {
-                    continue;
+            profileFutures.add(getSkyBlockProfile(profileEntry.getKey()).handle((profileReply, throwable) -> {
+                if (throwable != null) {
+                    log.error("Failed to get selected profile for {}, error: {}",
+                        playerReply.getPlayer().get("displayname").getAsString(), throwable.getMessage(), throwable
+                    );
+                    return null;
+                }
+
+                if (profileReply == null || !profileReply.isSuccess()) {
+                    return null;
                 }
 
                 profileReply.getProfile().add("cute_name", profileEntry.getValue().getAsJsonObject().get("cute_name"));
 
-                skyBlockProfileReplies.add(profileReply);
-            } catch (Exception e) {
-                log.error("Failed to get selected profile for {}, error: {}",
-                    playerReply.getPlayer().get("displayname").getAsString(), e.getMessage(), e
-                );
-            }
+                return profileReply;
+            }));
         }
-        return skyBlockProfileReplies;
+
+        // All the profiles are requested at the same time with a single deadline, if the
+        // deadline is reached we'll continue with whatever profiles that were loaded.
+        return CompletableFuture.allOf(profileFutures.toArray(new CompletableFuture<?>[0]))
+            .completeOnTimeout(null, 10, TimeUnit.SECONDS)
+            .thenApply(ignored -> {
+                List<SkyBlockProfileReply> skyBlockProfileReplies = new ArrayList<>();
+                for (CompletableFuture<SkyBlockProfileReply> profileFuture : profileFutures) {
+                    SkyBlockProfileReply profileReply = profileFuture.getNow(null);
+                    if (profileReply != null) {
+                        skyBlockProfileReplies.add(profileReply);
+                    }
+                }
+
+                if (skyBlockProfileReplies.size() < profileFutures.size()) {
+                    log.debug("Loaded {} out of {} SkyBlock profiles for {}",
+                        skyBlockProfileReplies.size(), profileFutures.size(), playerReply.getPlayer().get("displayname").getAsString()
+                    );
+                }
+
+                return skyBlockProfileReplies;
+            });
     }
 
     private double getSkyblockProfileScore(PlayerReply playerReply, SkyBlockProfileReply profileReply, String uuid) {
@@ -864,11 +1102,196 @@ public class Hypixel {
         return object != null && object.has("last_save") ? object.get("last_save").getAsLong() : Long.MIN_VALUE;
     }
 
+    /**
+     * Gets the reply stored in the reply cache for the given cache key, if the reply
+     * has passed its soft TTL it is still returned, and the given refresh supplier
+     * is started in the background to replace it, once the reply passes its hard
+     * TTL it is dropped from the cache, and <code>NULL</code> is returned instead,
+     * unless the Hypixel API circuit breaker is open, then old replies are served
+     * as-is, without any refresh, until the API has recovered again.
+     *
+     * @param cacheKey   The cache key the reply is stored under.
+     * @param type       The type of reply that is being looked up.
+     * @param replyClass The class the cached reply must be an instance of.
+     * @param refresh    The supplier used to refresh the reply when it is stale.
+     * @param <T>        The type of the reply.
+     * @return The cached reply, or <code>NULL</code> if there were no usable reply in the cache.
+     */
+    private <T extends AbstractReply> T getCachedReply(HypixelCacheKey cacheKey, ReplyType type, Class<T> replyClass, Supplier<CompletableFuture<T>> refresh) {
+        CachedReply cachedReply = replyCache.getIfPresent(cacheKey);
+        if (cachedReply == null) {
+            Metrics.replyCacheLookups.labels(type.getName(), "miss").inc();
+            return null;
+        }
+
+        boolean isCircuitOpen = requestGuard.isOpen();
+        if (cachedReply.isExpired() && !isCircuitOpen) {
+            Metrics.replyCacheLookups.labels(type.getName(), "expired").inc();
+            replyCache.remove(cacheKey, cachedReply);
+            return null;
+        }
+
+        AbstractReply reply = cachedReply.getReply();
+        if (!replyClass.isInstance(reply)) {
+            Metrics.replyCacheLookups.labels(type.getName(), "miss").inc();
+            return null;
+        }
+
+        if (!cachedReply.isStale()) {
+            Metrics.replyCacheLookups.labels(type.getName(), "fresh").inc();
+        } else if (isCircuitOpen) {
+            Metrics.replyCacheLookups.labels(type.getName(), "fallback").inc();
+        } else {
+            Metrics.replyCacheLookups.labels(type.getName(), "stale").inc();
+            refreshReplyInBackground(cacheKey, type, refresh);
+        }
+
+        return replyClass.cast(reply);
+    }
+
+    private void refreshReplyInBackground(HypixelCacheKey cacheKey, ReplyType type, Supplier<? extends CompletableFuture<? extends AbstractReply>> refresh) {
+        if (!refreshingReplies.add(cacheKey)) {
+            return;
+        }
+
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refresh.get().whenComplete((reply, throwable) -> {
+                        refreshingReplies.remove(cacheKey);
+
+                        if (throwable != null || reply == null || !reply.isSuccess()) {
+                            log.debug("Failed to refresh stale {} reply for {}", type.getName(), cacheKey, throwable);
+                            Metrics.replyCacheRefreshes.labels(type.getName(), "failure").inc();
+                        } else {
+                            Metrics.replyCacheRefreshes.labels(type.getName(), "success").inc();
+                        }
+                    });
+                } catch (Exception e) {
+                    refreshingReplies.remove(cacheKey);
+
+                    log.debug("Failed to refresh stale {} reply for {}", type.getName(), cacheKey, e);
+                    Metrics.replyCacheRefreshes.labels(type.getName(), "failure").inc();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshingReplies.remove(cacheKey);
+
+            Metrics.replyCacheRefreshes.labels(type.getName(), "rejected").inc();
+        }
+    }
+
+    private void cacheReply(HypixelCacheKey cacheKey, ReplyType type, AbstractReply reply) {
+        cacheReply(cacheKey, type, reply, -1L);
+    }
+
+    /**
+     * Caches the given reply, the reply is weighed using the given serialized size, so
+     * the reply doesn't have to be serialized again just to find out how big it is.
+     *
+     * @param cacheKey       The key the reply should be cached under.
+     * @param type           The type of the reply.
+     * @param reply          The reply that should be cached.
+     * @param serializedSize The size of the reply in its serialized form in bytes, or -1 if it isn't known.
+     */
+    private void cacheReply(HypixelCacheKey cacheKey, ReplyType type, AbstractReply reply, long serializedSize) {
+        if (reply == null) {
+            return;
+        }
+
+        // Failed replies are still cached to avoid hammering the API, however they
+        // should never replace a successful reply that can still be served.
+        if (!reply.isSuccess()) {
+            CachedReply cachedReply = replyCache.getIfPresent(cacheKey);
+            if (cachedReply != null && cachedReply.isSuccess() && !cachedReply.isExpired()) {
+                return;
+            }
+        }
+
+        long softTtl = type.getDefaultSoftTtl();
+        long hardTtl = type.getDefaultHardTtl();
+
+        Configuration.ReplyCache config = app.getConfiguration().getReplyCache(type.getName());
+        if (config != null) {
+            softTtl = config.getSoftTtl() > 0 ? config.getSoftTtl() : softTtl;
+            hardTtl = config.getHardTtl() > 0 ? config.getHardTtl() : hardTtl;
+        }
+
+        hardTtl = Math.min(hardTtl, maxReplyCacheTtl);
+
+        softTtl = TimeUnit.SECONDS.toMillis(Math.min(softTtl, hardTtl));
+        hardTtl = TimeUnit.SECONDS.toMillis(hardTtl);
+
+        // Player and profile replies are by far the biggest replies, so they're the
+        // only ones worth compressing and moving off-heap when it is enabled.
+        CachedReply cachedReply = offHeapStore != null && (type == ReplyType.PLAYER || type == ReplyType.PROFILE)
+            ? CachedReply.offHeap(offHeapStore, gson, reply, type, softTtl, hardTtl)
+            : new CachedReply(reply, type, softTtl, hardTtl);
+
+        replyCache.put(cacheKey, cachedReply, weighReply(cachedReply, serializedSize));
+    }
+
+    /**
+     * Weighs the given cached reply from its serialized size, off-heap replies only keep
+     * a small handle on the heap, and replies without a known size are weighed
+     * using the typical size for their reply type instead.
+     *
+     * @param cachedReply    The cached reply that should be weighed.
+     * @param serializedSize The size of the reply in its serialized form in bytes, or -1 if it isn't known.
+     * @return The weight of the cached reply.
+     */
+    private static int weighReply(CachedReply cachedReply, long serializedSize) {
+        if (cachedReply.isOffHeap()) {
+            return SizeEstimator.estimateFromSerializedSize(0L);
+        }
+
+        return SizeEstimator.estimateFromSerializedSize(serializedSize < 0L
+            ? cachedReply.getType().getEstimatedSize()
+            : serializedSize
+        );
+    }
+
+    private <T extends Response> CompletableFuture<T> requestLeaderboardResponse(String uri, HypixelCacheKey cacheKey, Class<T> type) {
+        AtomicLong responseSize = new AtomicLong(-1L);
+        return httpTransport.get(uri, type, statusCode -> {
+            // Nothing to do here
+        }, responseSize::set).thenApply(leaderboardResponse -> {
+            if (leaderboardResponse == null) {
+                return null;
+            }
+
+            // Player leaderboards are indexed before they're cached, so the sorting
+            // is done once here instead of every time a leaderboard is shown.
+            if (leaderboardResponse instanceof PlayerLeaderboardResponse) {
+                ((PlayerLeaderboardResponse) leaderboardResponse).getIndex();
+            }
+
+            responseCache.put(cacheKey, leaderboardResponse, SizeEstimator.estimateFromSerializedSize(responseSize.get()));
+
+            return leaderboardResponse;
+        });
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get(15, TimeUnit.SECONDS);
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            log.debug("Failed to get response from the API, error: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
     private void handleResponseException(CompletableFuture<?> future, Throwable throwable) {
+        if (throwable instanceof CompletionException && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+
         if (throwable instanceof FriendlyException) {
             future.completeExceptionally(throwable);
         } else if (throwable instanceof SSLPeerUnverifiedException) {
             future.completeExceptionally(new FriendlyException("Hypixels API is currently experiencing some issues, please try again later."));
+        } else if (throwable instanceof TimeoutException) {
+            future.completeExceptionally(new FriendlyException("Hypixels API took too long to respond, please try again later."));
         } else {
             future.completeExceptionally(throwable);
         }
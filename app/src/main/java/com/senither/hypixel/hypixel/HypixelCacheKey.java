@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.hypixel;
+
+import java.util.Objects;
+
+public final class HypixelCacheKey {
+
+    private final Type type;
+    private final String id;
+
+    private HypixelCacheKey(Type type, String id) {
+        this.type = type;
+        this.id = id;
+    }
+
+    public static HypixelCacheKey playerByName(String name) {
+        return new HypixelCacheKey(Type.PLAYER_NAME, name.toLowerCase());
+    }
+
+    public static HypixelCacheKey skyBlockProfile(String profileId) {
+        return new HypixelCacheKey(Type.SKYBLOCK_PROFILE, profileId);
+    }
+
+    public static HypixelCacheKey guildById(String guildId) {
+        return new HypixelCacheKey(Type.GUILD_ID, guildId.toLowerCase());
+    }
+
+    public static HypixelCacheKey guildByPlayer(String uuid) {
+        return new HypixelCacheKey(Type.GUILD_PLAYER, uuid);
+    }
+
+    public static HypixelCacheKey guildByName(String name) {
+        return new HypixelCacheKey(Type.GUILD_NAME, name.trim().toLowerCase());
+    }
+
+    public static HypixelCacheKey bazaarProducts() {
+        return new HypixelCacheKey(Type.BAZAAR_PRODUCTS, null);
+    }
+
+    public static HypixelCacheKey playerLeaderboard() {
+        return new HypixelCacheKey(Type.PLAYER_LEADERBOARD, null);
+    }
+
+    public static HypixelCacheKey guildLeaderboard() {
+        return new HypixelCacheKey(Type.GUILD_LEADERBOARD, null);
+    }
+
+    public static HypixelCacheKey guildMetrics(String guildId) {
+        return new HypixelCacheKey(Type.GUILD_METRICS, guildId);
+    }
+
+    public static HypixelCacheKey guildPlayersLeaderboard(String guildId) {
+        return new HypixelCacheKey(Type.GUILD_PLAYER_LEADERBOARD, guildId);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof HypixelCacheKey)) {
+            return false;
+        }
+
+        HypixelCacheKey other = (HypixelCacheKey) obj;
+        return type == other.type && Objects.equals(id, other.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * type.hashCode() + (id == null ? 0 : id.hashCode());
+    }
+
+    @Override
+    public String toString() {
+        String name = type.name().toLowerCase().replace('_', '-');
+        return id == null ? name : name + "-" + id;
+    }
+
+    public enum Type {
+        PLAYER_NAME,
+        SKYBLOCK_PROFILE,
+        GUILD_ID,
+        GUILD_PLAYER,
+        GUILD_NAME,
+        BAZAAR_PRODUCTS,
+        PLAYER_LEADERBOARD,
+        GUILD_LEADERBOARD,
+        GUILD_METRICS,
+        GUILD_PLAYER_LEADERBOARD
+    }
+}
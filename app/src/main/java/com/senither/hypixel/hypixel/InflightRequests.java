@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.hypixel;
+
+import com.senither.hypixel.metrics.Metrics;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+class InflightRequests {
+
+    private final ConcurrentHashMap<String, CompletableFuture<?>> requests = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the given request unless a request for the same key is already in-flight, in
+     * which case the future for the in-flight request is shared with the caller instead,
+     * so concurrent cache misses for the same key only causes a single lookup.
+     *
+     * @param key     The cache key the request is for.
+     * @param request The supplier that starts the request.
+     * @param <T>     The type of the reply the request returns.
+     * @return The future for the new or in-flight request.
+     */
+    @SuppressWarnings("unchecked")
+    <T> CompletableFuture<T> coalesce(String key, Supplier<CompletableFuture<T>> request) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        CompletableFuture<?> inflight = requests.putIfAbsent(key, future);
+        if (inflight != null) {
+            Metrics.hypixelRequests.labels("coalesced").inc();
+
+            // Returns a separate future so callers completing or cancelling their
+            // own future won't affect the other callers waiting on the request.
+            CompletableFuture<T> sharedFuture = new CompletableFuture<>();
+            ((CompletableFuture<T>) inflight).whenComplete((reply, throwable) -> {
+                if (throwable != null) {
+                    sharedFuture.completeExceptionally(throwable);
+                } else {
+                    sharedFuture.complete(reply);
+                }
+            });
+
+            return sharedFuture;
+        }
+
+        Metrics.hypixelRequests.labels("issued").inc();
+
+        try {
+            request.get().whenComplete((reply, throwable) -> {
+                requests.remove(key, future);
+
+                if (throwable != null) {
+                    future.completeExceptionally(throwable);
+                } else {
+                    future.complete(reply);
+                }
+            });
+        } catch (Exception e) {
+            requests.remove(key, future);
+            future.completeExceptionally(e);
+        }
+
+        return future;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.hypixel;
+
+import java.util.Arrays;
+
+class LatencyTracker {
+
+    private static final int sampleSize = 256;
+    private static final int minimumSamples = 20;
+
+    private final long[] samples = new long[sampleSize];
+    private int index = 0;
+    private int count = 0;
+
+    synchronized void record(long nanos) {
+        samples[index] = nanos;
+        index = (index + 1) % sampleSize;
+        count = Math.min(count + 1, sampleSize);
+    }
+
+    /**
+     * Gets the given percentile of the recorded latencies.
+     *
+     * @param percentile The percentile that should be returned, between 0 and 1.
+     * @return The latency in nanoseconds, or <code>-1</code> if too few latencies has been recorded.
+     */
+    synchronized long getPercentile(double percentile) {
+        if (count < minimumSamples) {
+            return -1L;
+        }
+
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+
+        return sorted[Math.min(count - 1, (int) Math.ceil(percentile * count) - 1)];
+    }
+}
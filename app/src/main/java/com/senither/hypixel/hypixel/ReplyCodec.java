@@ -0,0 +1,426 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+package com.senither.hypixel.hypixel;
+
+import com.google.gson.*;
+import com.google.gson.internal.LazilyParsedNumber;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Encodes JSON trees into a compact binary format for storing replies in the database, the
+ * first byte is the format version, followed by the deflated tree, where numbers are stored
+ * as varints or floating point values, and object keys are only written out the first
+ * time they're seen, and referenced by their index every time after that.
+ * <p>
+ * Large base64 strings, like the gzipped inventories in SkyBlock profiles, are stored
+ * as raw bytes after the deflated tree instead, since they're already compressed,
+ * so deflating them again would cost a lot of time without saving any space.
+ */
+public final class ReplyCodec {
+
+    public static final byte currentVersion = 1;
+
+    private static final int tagNull = 0;
+    private static final int tagTrue = 1;
+    private static final int tagFalse = 2;
+    private static final int tagLong = 3;
+    private static final int tagDouble = 4;
+    private static final int tagFloat = 5;
+    private static final int tagString = 6;
+    private static final int tagArray = 7;
+    private static final int tagObject = 8;
+    private static final int tagNumber = 9;
+    private static final int tagBase64 = 10;
+
+    private static final int minimumBase64Length = 256;
+
+    private ReplyCodec() {
+        //
+    }
+
+    /**
+     * Encodes the given JSON tree using the current format version.
+     *
+     * @param element The JSON tree that should be encoded.
+     * @return The encoded bytes, starting with the format version.
+     */
+    public static byte[] encode(JsonElement element) {
+        ByteArrayOutputStream tree = new ByteArrayOutputStream(8192);
+        ByteArrayOutputStream blobs = new ByteArrayOutputStream(8192);
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(
+            new DeflaterOutputStream(tree, deflater, 8192), 8192
+        ))) {
+            new Encoder(stream, blobs).write(element);
+        } catch (IOException e) {
+            // Only thrown by the underlying streams, which are in memory.
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(5 + tree.size() + blobs.size());
+        buffer.put(currentVersion);
+        buffer.putInt(tree.size());
+        buffer.put(tree.toByteArray());
+        buffer.put(blobs.toByteArray());
+
+        return buffer.array();
+    }
+
+    /**
+     * Decodes the given bytes back into the JSON tree they were encoded from.
+     *
+     * @param bytes The encoded bytes, starting with the format version.
+     * @return The decoded JSON tree.
+     * @throws IOException If the bytes uses an unknown format version, or are malformed.
+     */
+    public static JsonElement decode(byte[] bytes) throws IOException {
+        if (bytes.length == 0 || bytes[0] != currentVersion) {
+            throw new IOException("Unknown reply format version " + (bytes.length == 0 ? "(empty)" : bytes[0]));
+        }
+
+        if (bytes.length < 5) {
+            throw new IOException("The encoded reply is too short");
+        }
+
+        int treeLength = ByteBuffer.wrap(bytes, 1, 4).getInt();
+        if (treeLength < 0 || treeLength > bytes.length - 5) {
+            throw new IOException("Invalid reply tree length " + treeLength);
+        }
+
+        Inflater inflater = new Inflater();
+        try (DataInputStream stream = new DataInputStream(new BufferedInputStream(
+            new InflaterInputStream(new ByteArrayInputStream(bytes, 5, treeLength), inflater, 8192), 8192
+        ))) {
+            return new Decoder(stream, bytes, 5 + treeLength).read();
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Decodes a reply stored in the database, rows that have been converted to the binary
+     * format are decoded from the encoded bytes, while rows that haven't been converted
+     * yet are parsed from the JSON they were originally stored as.
+     *
+     * @param encoded The encoded bytes, or <code>NULL</code> if the row hasn't been converted yet.
+     * @param json    The JSON the row was originally stored as.
+     * @return The decoded JSON tree.
+     * @throws IOException        If the encoded bytes uses an unknown format version, or are malformed.
+     * @throws JsonParseException If the row hasn't been converted, and the JSON is malformed.
+     */
+    public static JsonElement decode(byte[] encoded, String json) throws IOException {
+        return encoded == null ? JsonParser.parseString(json) : decode(encoded);
+    }
+
+    private static class Encoder {
+
+        private final DataOutputStream stream;
+        private final ByteArrayOutputStream blobs;
+        private final Map<String, Integer> keys = new HashMap<>();
+
+        Encoder(DataOutputStream stream, ByteArrayOutputStream blobs) {
+            this.stream = stream;
+            this.blobs = blobs;
+        }
+
+        void write(JsonElement element) throws IOException {
+            if (element == null || element.isJsonNull()) {
+                stream.writeByte(tagNull);
+            } else if (element.isJsonObject()) {
+                JsonObject object = element.getAsJsonObject();
+
+                stream.writeByte(tagObject);
+                writeVarInt(object.size());
+                for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+                    writeKey(entry.getKey());
+                    write(entry.getValue());
+                }
+            } else if (element.isJsonArray()) {
+                JsonArray array = element.getAsJsonArray();
+
+                stream.writeByte(tagArray);
+                writeVarInt(array.size());
+                for (JsonElement item : array) {
+                    write(item);
+                }
+            } else {
+                writePrimitive(element.getAsJsonPrimitive());
+            }
+        }
+
+        private void writePrimitive(JsonPrimitive primitive) throws IOException {
+            if (primitive.isBoolean()) {
+                stream.writeByte(primitive.getAsBoolean() ? tagTrue : tagFalse);
+                return;
+            }
+
+            if (primitive.isString()) {
+                String string = primitive.getAsString();
+
+                byte[] blob = decodeBase64(string);
+                if (blob != null) {
+                    stream.writeByte(tagBase64);
+                    writeVarInt(blob.length);
+                    blobs.write(blob, 0, blob.length);
+                    return;
+                }
+
+                stream.writeByte(tagString);
+                writeString(string);
+                return;
+            }
+
+            Number value = primitive.getAsNumber();
+            if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+                writeLong(value.longValue());
+                return;
+            }
+
+            if (value instanceof Double || value instanceof Float) {
+                writeDouble(value.doubleValue());
+                return;
+            }
+
+            // Numbers parsed from JSON are stored lazily as their string value, so
+            // the type of the number has to be worked out from the string.
+            String number = value.toString();
+            if (number.indexOf('.') < 0 && number.indexOf('e') < 0 && number.indexOf('E') < 0) {
+                try {
+                    writeLong(Long.parseLong(number));
+                    return;
+                } catch (NumberFormatException ignored) {
+                    // Falls through to storing the number as a string below.
+                }
+            } else {
+                double parsed = Double.parseDouble(number);
+                if (!Double.isInfinite(parsed)) {
+                    writeDouble(parsed);
+                    return;
+                }
+            }
+
+            stream.writeByte(tagNumber);
+            writeString(number);
+        }
+
+        private void writeLong(long value) throws IOException {
+            stream.writeByte(tagLong);
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        private void writeDouble(double value) throws IOException {
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                stream.writeByte(tagNumber);
+                writeString(Double.toString(value));
+            } else if ((double) (float) value == value) {
+                stream.writeByte(tagFloat);
+                stream.writeFloat((float) value);
+            } else {
+                stream.writeByte(tagDouble);
+                stream.writeDouble(value);
+            }
+        }
+
+        private byte[] decodeBase64(String string) {
+            if (string.length() < minimumBase64Length || string.length() % 4 != 0) {
+                return null;
+            }
+
+            for (int i = 0; i < string.length(); i++) {
+                char c = string.charAt(i);
+                if (!(c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z' || c >= '0' && c <= '9' || c == '+' || c == '/' || c == '=')) {
+                    return null;
+                }
+            }
+
+            try {
+                byte[] blob = Base64.getDecoder().decode(string);
+
+                // The string is only stored as bytes if encoding the bytes again gives back the
+                // exact same string, otherwise the decoded reply wouldn't match the original.
+                return Base64.getEncoder().encodeToString(blob).equals(string) ? blob : null;
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        private void writeKey(String key) throws IOException {
+            Integer index = keys.get(key);
+            if (index != null) {
+                writeVarInt(index + 1);
+                return;
+            }
+
+            keys.put(key, keys.size());
+            writeVarInt(0);
+            writeString(key);
+        }
+
+        private void writeString(String string) throws IOException {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            stream.write(bytes);
+        }
+
+        private void writeVarInt(int value) throws IOException {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        private void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                stream.writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            stream.writeByte((int) value);
+        }
+    }
+
+    private static class Decoder {
+
+        private final DataInputStream stream;
+        private final byte[] bytes;
+        private final List<String> keys = new ArrayList<>();
+        private int blobOffset;
+
+        Decoder(DataInputStream stream, byte[] bytes, int blobOffset) {
+            this.stream = stream;
+            this.bytes = bytes;
+            this.blobOffset = blobOffset;
+        }
+
+        JsonElement read() throws IOException {
+            int tag = stream.readUnsignedByte();
+            switch (tag) {
+                case tagNull:
+                    return JsonNull.INSTANCE;
+
+                case tagTrue:
+                    return new JsonPrimitive(true);
+
+                case tagFalse:
+                    return new JsonPrimitive(false);
+
+                case tagLong:
+                    long value = readVarLong();
+                    return new JsonPrimitive((value >>> 1) ^ -(value & 1));
+
+                case tagDouble:
+                    return new JsonPrimitive(stream.readDouble());
+
+                case tagFloat:
+                    return new JsonPrimitive(stream.readFloat());
+
+                case tagString:
+                    return new JsonPrimitive(readString());
+
+                case tagNumber:
+                    return new JsonPrimitive(new LazilyParsedNumber(readString()));
+
+                case tagBase64:
+                    int blobLength = readVarInt();
+                    if (blobLength > bytes.length - blobOffset) {
+                        throw new IOException("Invalid reply blob length " + blobLength);
+                    }
+
+                    ByteBuffer blob = ByteBuffer.wrap(bytes, blobOffset, blobLength);
+                    blobOffset += blobLength;
+
+                    return new JsonPrimitive(StandardCharsets.ISO_8859_1.decode(Base64.getEncoder().encode(blob)).toString());
+
+                case tagArray:
+                    int length = readVarInt();
+                    JsonArray array = new JsonArray(length);
+                    for (int i = 0; i < length; i++) {
+                        array.add(read());
+                    }
+                    return array;
+
+                case tagObject:
+                    int size = readVarInt();
+                    JsonObject object = new JsonObject();
+                    for (int i = 0; i < size; i++) {
+                        String key = readKey();
+                        object.add(key, read());
+                    }
+                    return object;
+
+                default:
+                    throw new IOException("Unknown reply value tag " + tag);
+            }
+        }
+
+        private String readKey() throws IOException {
+            int index = readVarInt();
+            if (index == 0) {
+                String key = readString();
+                keys.add(key);
+                return key;
+            }
+
+            if (index > keys.size()) {
+                throw new IOException("Unknown reply key reference " + index);
+            }
+            return keys.get(index - 1);
+        }
+
+        private String readString() throws IOException {
+            byte[] bytes = new byte[readVarInt()];
+            stream.readFully(bytes);
+
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private int readVarInt() throws IOException {
+            long value = readVarLong();
+            if (value < 0 || value > Integer.MAX_VALUE) {
+                throw new IOException("Invalid reply length " + value);
+            }
+            return (int) value;
+        }
+
+        private long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = stream.readUnsignedByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed reply varint");
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.hypixel;
+
+public enum ReplyType {
+
+    PLAYER("player", 90, 300, 32 * 1024),
+    PROFILE("profile", 90, 300, 160 * 1024),
+    GUILD("guild", 90, 600, 16 * 1024),
+    BAZAAR("bazaar", 60, 180, 512 * 1024);
+
+    private final String name;
+    private final long defaultSoftTtl;
+    private final long defaultHardTtl;
+    private final long estimatedSize;
+
+    ReplyType(String name, long defaultSoftTtl, long defaultHardTtl, long estimatedSize) {
+        this.name = name;
+        this.defaultSoftTtl = defaultSoftTtl;
+        this.defaultHardTtl = defaultHardTtl;
+        this.estimatedSize = estimatedSize;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getDefaultSoftTtl() {
+        return defaultSoftTtl;
+    }
+
+    public long getDefaultHardTtl() {
+        return defaultHardTtl;
+    }
+
+    /**
+     * Gets the typical size of the reply in its serialized form in bytes, this is used to
+     * weigh replies in the reply cache when the size of the reply itself isn't known,
+     * like for replies loaded through the Hypixel API client or the database.
+     *
+     * @return The estimated serialized size of the reply in bytes.
+     */
+    public long getEstimatedSize() {
+        return estimatedSize;
+    }
+}
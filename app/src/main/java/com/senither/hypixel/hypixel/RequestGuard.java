@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.hypixel;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.senither.hypixel.exceptions.FriendlyException;
+import com.senither.hypixel.metrics.Metrics;
+import net.hypixel.api.HypixelAPI;
+import net.hypixel.api.reply.AbstractReply;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Sits in front of the client container and guards every request sent to the Hypixel
+ * API, requests fail fast while the circuit breaker is open, are held back by an
+ * adaptive concurrency limit, and can optionally be hedged with a second request
+ * when the first one is slower than most of the recent requests.
+ * <p>
+ * Requests that can't be sent right away are retried on the guard's own scheduler,
+ * so the calling thread is never blocked while waiting for a permit or an API key.
+ */
+public class RequestGuard {
+
+    private static final long permitTimeout = TimeUnit.SECONDS.toNanos(5);
+    private static final long permitRetryDelay = TimeUnit.MILLISECONDS.toNanos(25);
+    private static final long keyTimeout = TimeUnit.SECONDS.toNanos(30);
+    private static final long requestTimeout = TimeUnit.SECONDS.toMillis(10);
+    private static final long minimumHedgeDelay = TimeUnit.MILLISECONDS.toNanos(250);
+    private static final double hedgePercentile = 0.95D;
+
+    private final ClientContainer clientContainer;
+    private final boolean hedgingEnabled;
+    private final CircuitBreaker circuitBreaker;
+    private final ConcurrencyLimit concurrencyLimit;
+    private final LatencyTracker latencyTracker;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicInteger queued = new AtomicInteger(0);
+
+    RequestGuard(ClientContainer clientContainer, boolean hedgingEnabled) {
+        this.clientContainer = clientContainer;
+        this.hedgingEnabled = hedgingEnabled;
+
+        this.circuitBreaker = new CircuitBreaker();
+        this.concurrencyLimit = new ConcurrencyLimit();
+        this.latencyTracker = new LatencyTracker();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("hypixel-request-scheduler-%d")
+            .setDaemon(true)
+            .build()
+        );
+    }
+
+    /**
+     * Checks if the circuit breaker is currently open, while it is open every
+     * request will fail right away, so cached data should be used instead.
+     *
+     * @return <code>True</code> if the circuit breaker is open, <code>False</code> otherwise.
+     */
+    public boolean isOpen() {
+        return circuitBreaker.isOpen(System.nanoTime());
+    }
+
+    /**
+     * Sends the given request to the Hypixel API using the next available API client, the
+     * request must be safe to send more than once, since it might be hedged, replies
+     * and status codes are passed on to the client container automatically.
+     *
+     * @param request The request that should be sent.
+     * @param <T>     The type of the reply.
+     * @return The future that is completed with the first successful reply.
+     */
+    public <T> CompletableFuture<T> execute(Request<T> request) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        admit(request, result, System.nanoTime(), false);
+
+        return result;
+    }
+
+    private <T> void admit(Request<T> request, CompletableFuture<T> result, long queuedAt, boolean isQueued) {
+        long now = System.nanoTime();
+
+        if (!circuitBreaker.tryAcquire(now)) {
+            Metrics.hypixelRequestsRejected.labels("circuit_open").inc();
+
+            reject(result, isQueued, new FriendlyException(
+                "Hypixels API is currently experiencing some issues, please try again in a minute."
+            ));
+            return;
+        }
+
+        if (!concurrencyLimit.tryAcquire()) {
+            circuitBreaker.onIgnored();
+
+            if (now - queuedAt >= permitTimeout) {
+                Metrics.hypixelRequestsRejected.labels("concurrency_limit").inc();
+
+                reject(result, isQueued, new FriendlyException(
+                    "Too many requests are currently being sent to Hypixels API, please try again in a minute."
+                ));
+                return;
+            }
+
+            retry(request, result, queuedAt, isQueued, permitRetryDelay);
+            return;
+        }
+
+        HypixelAPI client = clientContainer.getNextClientIfAvailable();
+        if (client == null) {
+            circuitBreaker.onIgnored();
+            concurrencyLimit.release(ConcurrencyLimit.Outcome.IGNORED);
+
+            long delay = Math.max(1L, clientContainer.getNanosUntilAvailable());
+            if (now - queuedAt + delay > keyTimeout) {
+                Metrics.hypixelRequestsRejected.labels("rate_limited").inc();
+
+                reject(result, isQueued, new FriendlyException(
+                    "Every Hypixel API key is currently rate limited, please try again in a minute."
+                ));
+                return;
+            }
+
+            retry(request, result, queuedAt, isQueued, delay);
+            return;
+        }
+
+        if (isQueued) {
+            Metrics.hypixelKeyQueue.set(queued.decrementAndGet());
+        }
+        Metrics.hypixelKeyWaitTime.observe((now - queuedAt) / 1E9);
+
+        AtomicInteger pending = new AtomicInteger(1);
+
+        send(request, client, result, pending, false);
+
+        if (hedgingEnabled) {
+            scheduleHedge(request, result, pending);
+        }
+    }
+
+    private <T> void retry(Request<T> request, CompletableFuture<T> result, long queuedAt, boolean isQueued, long delay) {
+        if (!isQueued) {
+            Metrics.hypixelKeyQueue.set(queued.incrementAndGet());
+        }
+
+        scheduler.schedule(() -> admit(request, result, queuedAt, true), delay, TimeUnit.NANOSECONDS);
+    }
+
+    private <T> void reject(CompletableFuture<T> result, boolean isQueued, Throwable throwable) {
+        if (isQueued) {
+            Metrics.hypixelKeyQueue.set(queued.decrementAndGet());
+        }
+
+        result.completeExceptionally(throwable);
+    }
+
+    private <T> void scheduleHedge(Request<T> request, CompletableFuture<T> result, AtomicInteger pending) {
+        long latency = latencyTracker.getPercentile(hedgePercentile);
+        if (latency < 0) {
+            return;
+        }
+
+        scheduler.schedule(() -> {
+            if (result.isDone() || !circuitBreaker.isClosed() || !concurrencyLimit.tryAcquire()) {
+                return;
+            }
+
+            // Hedged requests are only sent if an API key has budget to spare
+            // right away, they should never queue up behind real requests.
+            HypixelAPI client = clientContainer.getNextClientIfAvailable();
+            if (client == null) {
+                concurrencyLimit.release(ConcurrencyLimit.Outcome.IGNORED);
+                return;
+            }
+
+            Metrics.hypixelHedgedRequests.labels("issued").inc();
+
+            pending.incrementAndGet();
+            send(request, client, result, pending, true);
+        }, Math.max(latency, minimumHedgeDelay), TimeUnit.NANOSECONDS);
+    }
+
+    private <T> void send(Request<T> request, HypixelAPI client, CompletableFuture<T> result, AtomicInteger pending, boolean hedged) {
+        final long start = System.nanoTime();
+        final AtomicInteger statusCode = new AtomicInteger(200);
+
+        CompletableFuture<T> future;
+        try {
+            future = request.send(client, code -> {
+                statusCode.set(code);
+                clientContainer.handleStatusCode(client, code);
+            });
+        } catch (Exception e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+
+        future.orTimeout(requestTimeout, TimeUnit.MILLISECONDS).whenComplete((reply, throwable) -> {
+            long now = System.nanoTime();
+
+            if (reply instanceof AbstractReply) {
+                clientContainer.handleReply(client, (AbstractReply) reply);
+            }
+
+            record(reply, throwable, statusCode.get(), now - start, now);
+
+            if (throwable == null) {
+                if (hedged && !result.isDone()) {
+                    Metrics.hypixelHedgedRequests.labels("won").inc();
+                }
+                result.complete(reply);
+            } else if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(throwable);
+            }
+        });
+    }
+
+    private void record(Object reply, Throwable throwable, int statusCode, long duration, long now) {
+        if (throwable instanceof CompletionException && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+
+        if (throwable instanceof TimeoutException) {
+            circuitBreaker.onFailure(now);
+            concurrencyLimit.release(ConcurrencyLimit.Outcome.OVERLOADED);
+        } else if (throwable != null || statusCode >= 500) {
+            circuitBreaker.onFailure(now);
+            concurrencyLimit.release(ConcurrencyLimit.Outcome.IGNORED);
+        } else if (statusCode == 429 || (reply instanceof AbstractReply && ((AbstractReply) reply).isThrottle())) {
+            circuitBreaker.onIgnored();
+            concurrencyLimit.release(ConcurrencyLimit.Outcome.OVERLOADED);
+        } else {
+            latencyTracker.record(duration);
+            circuitBreaker.onSuccess(duration, now);
+            concurrencyLimit.release(ConcurrencyLimit.Outcome.SUCCESS);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Request<T> {
+
+        /**
+         * Sends the request using the given API client.
+         *
+         * @param client         The API client the request should be sent with.
+         * @param statusListener The listener that should be called with the HTTP status code, if it is known.
+         * @return The future for the reply.
+         */
+        CompletableFuture<T> send(HypixelAPI client, IntConsumer statusListener);
+    }
+}
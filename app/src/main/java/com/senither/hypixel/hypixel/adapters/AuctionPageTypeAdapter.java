@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.hypixel.adapters;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.senither.hypixel.hypixel.auctions.AuctionPage;
+import com.senither.hypixel.inventory.ItemRarity;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams pages from the bulk auctions endpoint straight from the JSON reader,
+ * only the item name, tier, and price of unclaimed BIN auctions are read,
+ * everything else, including the encoded item bytes, is skipped.
+ */
+public class AuctionPageTypeAdapter extends TypeAdapter<AuctionPage> {
+
+    @Override
+    public void write(JsonWriter out, AuctionPage value) {
+        throw new UnsupportedOperationException("Auction pages can only be read");
+    }
+
+    @Override
+    public AuctionPage read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        boolean success = false;
+        int page = 0;
+        int totalPages = 0;
+        long lastUpdated = 0;
+        List<AuctionPage.Listing> listings = new ArrayList<>();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "success":
+                    success = in.nextBoolean();
+                    break;
+
+                case "page":
+                    page = in.nextInt();
+                    break;
+
+                case "totalPages":
+                    totalPages = in.nextInt();
+                    break;
+
+                case "lastUpdated":
+                    lastUpdated = in.nextLong();
+                    break;
+
+                case "auctions":
+                    if (in.peek() != JsonToken.BEGIN_ARRAY) {
+                        in.skipValue();
+                        break;
+                    }
+
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        AuctionPage.Listing listing = readListing(in);
+                        if (listing != null) {
+                            listings.add(listing);
+                        }
+                    }
+                    in.endArray();
+                    break;
+
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return new AuctionPage(success, page, totalPages, lastUpdated, listings);
+    }
+
+    private AuctionPage.Listing readListing(JsonReader in) throws IOException {
+        String itemName = null;
+        String tier = null;
+        long startingBid = 0;
+        boolean bin = false;
+        boolean claimed = false;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.skipValue();
+                continue;
+            }
+
+            switch (name) {
+                case "item_name":
+                    itemName = in.nextString();
+                    break;
+
+                case "tier":
+                    tier = in.nextString();
+                    break;
+
+                case "starting_bid":
+                    startingBid = in.nextLong();
+                    break;
+
+                case "bin":
+                    bin = in.nextBoolean();
+                    break;
+
+                case "claimed":
+                    claimed = in.nextBoolean();
+                    break;
+
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if (!bin || claimed || itemName == null) {
+            return null;
+        }
+        return new AuctionPage.Listing(itemName, ItemRarity.fromName(tier), startingBid);
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.hypixel.adapters;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.*;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import net.hypixel.api.reply.skyblock.SkyBlockProfileReply;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Streams SkyBlock profile replies straight from the JSON reader, only keeping
+ * the member properties that are actually used by the bot, every other member
+ * property is skipped without ever being turned into a JSON tree, which
+ * keeps large coop profiles from taking up most of the heap.
+ * <p>
+ * The factory must only be registered for the profiles used by the bot itself,
+ * profiles that are stored in the database or handed out through the API
+ * should always be read with every member property included.
+ */
+public class SkyBlockProfileReplyTypeAdapterFactory implements TypeAdapterFactory {
+
+    private static final Set<String> memberProperties = ImmutableSet.of(
+        // General
+        "last_save", "first_join", "coin_purse", "fairy_souls_collected", "stats",
+        "crafted_generators", "unlocked_coll_tiers",
+        // Skills
+        "experience_skill_farming", "experience_skill_mining", "experience_skill_combat",
+        "experience_skill_foraging", "experience_skill_fishing", "experience_skill_enchanting",
+        "experience_skill_alchemy", "experience_skill_taming", "experience_skill_carpentry",
+        "experience_skill_runecrafting",
+        // Slayer, dungeons & pets
+        "slayer_bosses", "dungeons", "pets",
+        // Inventories
+        "inv_contents", "inv_armor", "ender_chest_contents", "talisman_bag",
+        "wardrobe_contents", "backpack_contents"
+    );
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (type.getRawType() != SkyBlockProfileReply.class) {
+            return null;
+        }
+
+        final TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+
+        return new TypeAdapter<T>() {
+            @Override
+            public void write(JsonWriter out, T value) throws IOException {
+                delegate.write(out, value);
+            }
+
+            @Override
+            public T read(JsonReader in) throws IOException {
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    return null;
+                }
+
+                JsonObject reply = new JsonObject();
+
+                in.beginObject();
+                while (in.hasNext()) {
+                    String name = in.nextName();
+                    if (name.equals("profile") && in.peek() == JsonToken.BEGIN_OBJECT) {
+                        reply.add(name, readProfile(in));
+                    } else {
+                        reply.add(name, JsonParser.parseReader(in));
+                    }
+                }
+                in.endObject();
+
+                return delegate.fromJsonTree(reply);
+            }
+        };
+    }
+
+    private JsonObject readProfile(JsonReader in) throws IOException {
+        JsonObject profile = new JsonObject();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (name.equals("members") && in.peek() == JsonToken.BEGIN_OBJECT) {
+                profile.add(name, readMembers(in));
+            } else {
+                profile.add(name, JsonParser.parseReader(in));
+            }
+        }
+        in.endObject();
+
+        return profile;
+    }
+
+    private JsonObject readMembers(JsonReader in) throws IOException {
+        JsonObject members = new JsonObject();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String uuid = in.nextName();
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                in.skipValue();
+                continue;
+            }
+
+            JsonObject member = new JsonObject();
+
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (memberProperties.contains(name)) {
+                    member.add(name, JsonParser.parseReader(in));
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+
+            members.add(uuid, member);
+        }
+        in.endObject();
+
+        return members;
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.hypixel.auctions;
+
+import com.senither.hypixel.metrics.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Loads every page from the bulk auctions endpoint and builds a new auction
+ * price index from them, the current index is only replaced once all
+ * the pages in a cycle have been loaded successfully.
+ */
+public class AuctionIngestion {
+
+    private static final Logger log = LoggerFactory.getLogger(AuctionIngestion.class);
+
+    private final PageLoader pageLoader;
+    private final int parallelism;
+    private final AtomicReference<AuctionPriceIndex> index = new AtomicReference<>();
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    /**
+     * Creates a new auction ingestion pipeline.
+     *
+     * @param pageLoader  The loader that is used to load each page, this can point to
+     *                    the Hypixel API, or to a stub server serving recorded pages.
+     * @param parallelism The maximum amount of pages that are loaded at the same time.
+     */
+    public AuctionIngestion(PageLoader pageLoader, int parallelism) {
+        this.pageLoader = pageLoader;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Gets the auction price index built by the last successful cycle.
+     *
+     * @return The auction price index, or <code>NULL</code> if no cycle has finished yet.
+     */
+    public AuctionPriceIndex getIndex() {
+        return index.get();
+    }
+
+    /**
+     * Runs a full ingestion cycle, the first page is loaded on its own to find the
+     * total amount of pages, the rest of the pages are then split into lanes that
+     * load their pages one after another, with all the lanes running in parallel.
+     * <p>
+     * If a cycle is already running, the current index is returned instead.
+     *
+     * @return The future that is completed with the new index once the cycle has finished.
+     */
+    public CompletableFuture<AuctionPriceIndex> runCycle() {
+        if (!running.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(index.get());
+        }
+
+        final long start = System.nanoTime();
+        final AuctionPriceIndexBuilder builder = new AuctionPriceIndexBuilder();
+
+        CompletableFuture<AuctionPriceIndex> future = loadPage(0).thenCompose(firstPage -> {
+            builder.add(firstPage);
+
+            int lanes = Math.min(parallelism, Math.max(0, firstPage.getTotalPages() - 1));
+
+            AuctionPriceIndexBuilder[] laneBuilders = new AuctionPriceIndexBuilder[lanes];
+            CompletableFuture<?>[] laneFutures = new CompletableFuture<?>[lanes];
+
+            for (int lane = 0; lane < lanes; lane++) {
+                laneBuilders[lane] = new AuctionPriceIndexBuilder();
+                laneFutures[lane] = loadLane(laneBuilders[lane], lane + 1, lanes, firstPage.getTotalPages());
+            }
+
+            return CompletableFuture.allOf(laneFutures).thenApply(ignored -> {
+                for (AuctionPriceIndexBuilder laneBuilder : laneBuilders) {
+                    builder.merge(laneBuilder);
+                }
+                return builder.build();
+            });
+        });
+
+        return future.whenComplete((auctionPriceIndex, throwable) -> {
+            running.set(false);
+
+            double seconds = (System.nanoTime() - start) / 1_000_000_000D;
+
+            if (throwable != null) {
+                Metrics.auctionIndexCycles.labels("failure").inc();
+
+                log.debug("Failed to build the auction price index after {} seconds, error: {}",
+                    String.format("%.2f", seconds), throwable.getMessage()
+                );
+                return;
+            }
+
+            index.set(auctionPriceIndex);
+
+            Metrics.auctionIndexCycles.labels("success").inc();
+            Metrics.auctionIndexCycleTime.observe(seconds);
+            Metrics.auctionIndexListings.set(auctionPriceIndex.getListings());
+            Metrics.auctionIndexItems.set(auctionPriceIndex.size());
+
+            log.debug("Built the auction price index with {} listings for {} items in {} seconds",
+                auctionPriceIndex.getListings(), auctionPriceIndex.size(), String.format("%.2f", seconds)
+            );
+        });
+    }
+
+    private CompletableFuture<Void> loadLane(AuctionPriceIndexBuilder builder, int page, int lanes, int totalPages) {
+        if (page >= totalPages) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return loadPage(page).thenCompose(auctionPage -> {
+            builder.add(auctionPage);
+
+            return loadLane(builder, page + lanes, lanes, totalPages);
+        });
+    }
+
+    private CompletableFuture<AuctionPage> loadPage(int page) {
+        return pageLoader.load(page).handle((auctionPage, throwable) -> {
+            if (throwable != null || auctionPage == null || !auctionPage.isSuccess()) {
+                Metrics.auctionIndexPages.labels("failure").inc();
+
+                if (throwable instanceof CompletionException) {
+                    throw (CompletionException) throwable;
+                }
+                throw new CompletionException(throwable != null
+                    ? throwable : new IllegalStateException("Failed to load auction page " + page)
+                );
+            }
+
+            Metrics.auctionIndexPages.labels("success").inc();
+
+            return auctionPage;
+        });
+    }
+
+    @FunctionalInterface
+    public interface PageLoader {
+
+        /**
+         * Loads the auction page with the given page number.
+         *
+         * @param page The page number, starting from zero.
+         * @return The future that is completed with the loaded page.
+         */
+        CompletableFuture<AuctionPage> load(int page);
+    }
+}
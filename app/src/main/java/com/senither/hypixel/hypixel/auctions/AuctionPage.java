@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.hypixel.auctions;
+
+import com.senither.hypixel.inventory.ItemRarity;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A single page from the bulk auctions endpoint, only the BIN auctions
+ * that haven't been claimed yet are kept, since those are the only
+ * ones that are used to build the auction price index.
+ */
+public class AuctionPage {
+
+    private final boolean success;
+    private final int page;
+    private final int totalPages;
+    private final long lastUpdated;
+    private final List<Listing> listings;
+
+    public AuctionPage(boolean success, int page, int totalPages, long lastUpdated, List<Listing> listings) {
+        this.success = success;
+        this.page = page;
+        this.totalPages = totalPages;
+        this.lastUpdated = lastUpdated;
+        this.listings = listings == null ? Collections.emptyList() : listings;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    public long getLastUpdated() {
+        return lastUpdated;
+    }
+
+    public List<Listing> getListings() {
+        return listings;
+    }
+
+    public static class Listing {
+
+        private final String itemName;
+        private final ItemRarity rarity;
+        private final long price;
+
+        public Listing(String itemName, ItemRarity rarity, long price) {
+            this.itemName = itemName;
+            this.rarity = rarity;
+            this.price = price;
+        }
+
+        public String getItemName() {
+            return itemName;
+        }
+
+        public ItemRarity getRarity() {
+            return rarity;
+        }
+
+        public long getPrice() {
+            return price;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.hypixel.auctions;
+
+public class AuctionPrice {
+
+    private final long lowestBin;
+    private final long medianBin;
+    private final int count;
+
+    AuctionPrice(long lowestBin, long medianBin, int count) {
+        this.lowestBin = lowestBin;
+        this.medianBin = medianBin;
+        this.count = count;
+    }
+
+    public long getLowestBin() {
+        return lowestBin;
+    }
+
+    public long getMedianBin() {
+        return medianBin;
+    }
+
+    public int getCount() {
+        return count;
+    }
+}
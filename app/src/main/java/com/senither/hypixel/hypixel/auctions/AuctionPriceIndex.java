@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.hypixel.auctions;
+
+import com.senither.hypixel.inventory.ItemRarity;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * An immutable index of the BIN prices for every item on the auction house,
+ * keyed by the normalized item name, with the prices for each rarity
+ * stored in an array indexed by the rarity ordinal.
+ */
+public class AuctionPriceIndex {
+
+    private static final Pattern colorCodePattern = Pattern.compile("§.");
+    private static final Pattern petLevelPattern = Pattern.compile("^\\[lvl \\d+] ");
+    private static final Pattern whitespacePattern = Pattern.compile("\\s+");
+
+    private final Map<String, AuctionPrice[]> prices;
+    private final long lastUpdated;
+    private final long createdAt;
+    private final int listings;
+
+    AuctionPriceIndex(Map<String, AuctionPrice[]> prices, long lastUpdated, int listings) {
+        this.prices = Collections.unmodifiableMap(prices);
+        this.lastUpdated = lastUpdated;
+        this.createdAt = System.currentTimeMillis();
+        this.listings = listings;
+    }
+
+    /**
+     * Normalizes the given item name, so items with the same name are grouped
+     * together no matter their formatting, stars, or pet level.
+     *
+     * @param itemName The item name that should be normalized.
+     * @return The normalized item name.
+     */
+    public static String normalizeName(String itemName) {
+        String name = colorCodePattern.matcher(itemName).replaceAll("")
+            .replace("✪", "")
+            .toLowerCase()
+            .trim();
+
+        name = petLevelPattern.matcher(name).replaceFirst("");
+
+        return whitespacePattern.matcher(name).replaceAll(" ");
+    }
+
+    /**
+     * Gets the prices for the item with the given name and rarity.
+     *
+     * @param itemName The name of the item, the name is normalized before it is used.
+     * @param rarity   The rarity of the item.
+     * @return The prices for the item, or <code>NULL</code> if there are no BIN auctions for it.
+     */
+    public AuctionPrice getPrice(String itemName, ItemRarity rarity) {
+        AuctionPrice[] itemPrices = prices.get(normalizeName(itemName));
+        return itemPrices == null ? null : itemPrices[rarity.ordinal()];
+    }
+
+    /**
+     * Gets the prices for the item with the given name for every rarity, rarities
+     * that don't have any BIN auctions for the item are set to <code>NULL</code>.
+     *
+     * @param itemName The name of the item, the name is normalized before it is used.
+     * @return The prices indexed by rarity ordinal, or <code>NULL</code> if there are no BIN auctions for the item.
+     */
+    public AuctionPrice[] getPrices(String itemName) {
+        AuctionPrice[] itemPrices = prices.get(normalizeName(itemName));
+        return itemPrices == null ? null : itemPrices.clone();
+    }
+
+    public int size() {
+        return prices.size();
+    }
+
+    public int getListings() {
+        return listings;
+    }
+
+    public long getLastUpdated() {
+        return lastUpdated;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+}
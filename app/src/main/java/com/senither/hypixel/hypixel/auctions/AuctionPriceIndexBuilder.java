@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.hypixel.auctions;
+
+import com.senither.hypixel.inventory.ItemRarity;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Collects the BIN prices from auction pages, the builder isn't thread-safe,
+ * so every lane in the ingestion cycle uses its own builder, and they're
+ * merged together once all the pages have been loaded.
+ */
+class AuctionPriceIndexBuilder {
+
+    private final Map<String, PriceList[]> prices = new HashMap<>();
+    private long lastUpdated = 0;
+    private int listings = 0;
+
+    void add(AuctionPage page) {
+        lastUpdated = Math.max(lastUpdated, page.getLastUpdated());
+
+        for (AuctionPage.Listing listing : page.getListings()) {
+            getPriceList(AuctionPriceIndex.normalizeName(listing.getItemName()), listing.getRarity())
+                .add(listing.getPrice());
+
+            listings++;
+        }
+    }
+
+    void merge(AuctionPriceIndexBuilder other) {
+        lastUpdated = Math.max(lastUpdated, other.lastUpdated);
+        listings += other.listings;
+
+        for (Map.Entry<String, PriceList[]> entry : other.prices.entrySet()) {
+            for (ItemRarity rarity : ItemRarity.values()) {
+                PriceList priceList = entry.getValue()[rarity.ordinal()];
+                if (priceList != null) {
+                    getPriceList(entry.getKey(), rarity).addAll(priceList);
+                }
+            }
+        }
+    }
+
+    AuctionPriceIndex build() {
+        Map<String, AuctionPrice[]> index = new HashMap<>(prices.size() * 4 / 3 + 1);
+
+        for (Map.Entry<String, PriceList[]> entry : prices.entrySet()) {
+            AuctionPrice[] itemPrices = new AuctionPrice[ItemRarity.values().length];
+
+            for (int i = 0; i < itemPrices.length; i++) {
+                PriceList priceList = entry.getValue()[i];
+                if (priceList == null) {
+                    continue;
+                }
+
+                long[] sorted = priceList.toSortedArray();
+                itemPrices[i] = new AuctionPrice(sorted[0], sorted[sorted.length / 2], sorted.length);
+            }
+
+            index.put(entry.getKey(), itemPrices);
+        }
+
+        return new AuctionPriceIndex(index, lastUpdated, listings);
+    }
+
+    private PriceList getPriceList(String name, ItemRarity rarity) {
+        PriceList[] itemPrices = prices.computeIfAbsent(name, ignored -> new PriceList[ItemRarity.values().length]);
+        if (itemPrices[rarity.ordinal()] == null) {
+            itemPrices[rarity.ordinal()] = new PriceList();
+        }
+        return itemPrices[rarity.ordinal()];
+    }
+
+    private static class PriceList {
+
+        private long[] values = new long[4];
+        private int size = 0;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(PriceList other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(size + other.size, size * 2));
+            }
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+        }
+
+        long[] toSortedArray() {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.senither.hypixel.hypixel.bazaar;
+
+import java.util.concurrent.TimeUnit;
+
+public enum ArchiveResolution {
+
+    MINUTE("minute", TimeUnit.MINUTES.toMillis(1), 1440),
+    HOUR("hour", TimeUnit.HOURS.toMillis(1), 720),
+    DAY("day", TimeUnit.DAYS.toMillis(1), 366);
+
+    private final String name;
+    private final long bucketSize;
+    private final int rowsPerSegment;
+
+    ArchiveResolution(String name, long bucketSize, int rowsPerSegment) {
+        this.name = name;
+        this.bucketSize = bucketSize;
+        this.rowsPerSegment = rowsPerSegment;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the size of each bucket, all the samples within a single
+     * bucket are rolled up into a single row in the archive.
+     *
+     * @return The size of each bucket in milliseconds.
+     */
+    public long getBucketSize() {
+        return bucketSize;
+    }
+
+    public int getRowsPerSegment() {
+        return rowsPerSegment;
+    }
+
+    /**
+     * Gets the amount of time covered by a single segment file.
+     *
+     * @return The size of each segment in milliseconds.
+     */
+    public long getSegmentSize() {
+        return bucketSize * rowsPerSegment;
+    }
+
+    public long getBucketStart(long time) {
+        return time - Math.floorMod(time, bucketSize);
+    }
+
+    public long getSegmentStart(long time) {
+        return time - Math.floorMod(time, getSegmentSize());
+    }
+}
@@ -0,0 +1,359 @@
+package com.senither.hypixel.hypixel.bazaar;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+class ArchiveSegment {
+
+    private static final int magic = 0x42415A41;
+    private static final int version = 2;
+
+    // The data starts with the time column, holding the start time of every bucket that has
+    // been written to, followed by a block for each product, every block is split into
+    // fixed-width columns for the amount of samples rolled up into each bucket, and the
+    // average buy price, sell price, buy volume, and sell volume, so the series for
+    // a single product can be read without touching any of the other products.
+    private static final int timeSize = 8;
+    private static final int valueSize = 4;
+    private static final int valueColumns = 5;
+
+    private static final int samplesColumn = 0;
+    private static final int buyPriceColumn = 1;
+    private static final int sellPriceColumn = 2;
+    private static final int buyVolumeColumn = 3;
+    private static final int sellVolumeColumn = 4;
+
+    private static final int fixedHeaderSize = 4 + 4 + 4 + 4 + 8 + 8 + 4;
+
+    private final Path path;
+    private final ArchiveResolution resolution;
+    private final long start;
+    private final MappedByteBuffer buffer;
+    private final Header header;
+
+    private ArchiveSegment(Path path, ArchiveResolution resolution, long start, MappedByteBuffer buffer, Header header) {
+        this.path = path;
+        this.resolution = resolution;
+        this.start = start;
+        this.buffer = buffer;
+        this.header = header;
+    }
+
+    /**
+     * Creates a new segment file at the given path, with a block for every
+     * Bazaar product that currently exists, and maps it into memory.
+     *
+     * @param path       The path the segment file should be created at.
+     * @param resolution The resolution of the rows in the segment.
+     * @param start      The time the segment starts at.
+     * @return The newly created segment.
+     * @throws IOException If the segment file couldn't be created.
+     */
+    static ArchiveSegment create(Path path, ArchiveResolution resolution, long start) throws IOException {
+        BazaarProduct[] products = BazaarProduct.values();
+
+        byte[][] keys = new byte[products.length][];
+        int headerSize = fixedHeaderSize;
+        for (BazaarProduct product : products) {
+            keys[product.ordinal()] = product.getKey().getBytes(StandardCharsets.UTF_8);
+            headerSize += 2 + keys[product.ordinal()].length;
+        }
+
+        int dataOffset = (headerSize + 7) & ~7;
+
+        ByteBuffer headerBuffer = ByteBuffer.allocate(dataOffset)
+            .putInt(magic)
+            .putInt(version)
+            .putInt(dataOffset)
+            .putInt(products.length)
+            .putLong(resolution.getBucketSize())
+            .putLong(start)
+            .putInt(resolution.getRowsPerSegment());
+
+        for (byte[] key : keys) {
+            headerBuffer.putShort((short) key.length).put(key);
+        }
+        headerBuffer.position(0);
+
+        int[] columns = new int[products.length];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = i;
+        }
+
+        Header header = new Header(resolution, dataOffset, products.length, columns);
+        try (FileChannel channel = FileChannel.open(path,
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE
+        )) {
+            while (headerBuffer.hasRemaining()) {
+                channel.write(headerBuffer);
+            }
+
+            // Mapping the whole segment grows the file to its full size straight away, the
+            // rows that haven't been written yet are just zeros, so they take up no space
+            // on file systems that support sparse files.
+            return new ArchiveSegment(path, resolution, start,
+                channel.map(FileChannel.MapMode.READ_WRITE, 0, header.getSize()), header
+            );
+        }
+    }
+
+    /**
+     * Opens an existing segment file and maps it into memory so it can be written to.
+     *
+     * @param path       The path to the segment file.
+     * @param resolution The resolution the segment file is expected to have.
+     * @param start      The time the segment file is expected to start at.
+     * @return The opened segment.
+     * @throws IOException If the segment file couldn't be read, or has an invalid header.
+     */
+    static ArchiveSegment open(Path path, ArchiveResolution resolution, long start) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            Header header = readHeader(channel, path, resolution, start);
+
+            return new ArchiveSegment(path, resolution, start,
+                channel.map(FileChannel.MapMode.READ_WRITE, 0, header.getSize()), header
+            );
+        }
+    }
+
+    /**
+     * Reads the header of an existing segment file without mapping the segment, the product
+     * keys stored in the header are matched up with the current Bazaar products, so
+     * segments written before products were added or re-ordered can still be read.
+     *
+     * @param path       The path to the segment file.
+     * @param resolution The resolution the segment file is expected to have.
+     * @param start      The time the segment file is expected to start at.
+     * @return The header of the segment.
+     * @throws IOException If the segment file couldn't be read, or has an invalid header.
+     */
+    static Header readHeader(Path path, ArchiveResolution resolution, long start) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return readHeader(channel, path, resolution, start);
+        }
+    }
+
+    /**
+     * Reads the rows for the given product within the given time range from a segment
+     * file that isn't mapped into memory, only the block belonging to the product
+     * is read from the file, using the header that was read for the segment.
+     *
+     * @param path    The path to the segment file.
+     * @param header  The header of the segment file.
+     * @param start   The time the segment starts at.
+     * @param product The product that should be read.
+     * @param from    The time the range starts at, inclusive.
+     * @param to      The time the range ends at, exclusive.
+     * @param series  The series the rows should be added to.
+     * @throws IOException If the segment file couldn't be read.
+     */
+    static void read(Path path, Header header, long start, BazaarProduct product, long from, long to, ArchiveSeries series) throws IOException {
+        long blockOffset = header.getBlockOffset(product);
+        if (blockOffset < 0) {
+            return;
+        }
+
+        ByteBuffer block = ByteBuffer.allocate(header.getBlockSize());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            readFully(channel, block, blockOffset);
+        }
+
+        readBlock(block, 0, header.resolution, start, from, to, series);
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    long getStart() {
+        return start;
+    }
+
+    long getEnd() {
+        return start + resolution.getSegmentSize();
+    }
+
+    /**
+     * Rolls the given snapshot up into the bucket the snapshot belongs to for
+     * every product, the averages are stored together with the amount of
+     * samples they're made up of, so the bucket can keep being updated
+     * after a restart.
+     *
+     * @param snapshot The snapshot that should be recorded.
+     */
+    void record(BazaarSnapshot snapshot) {
+        long bucket = resolution.getBucketStart(snapshot.getLastUpdated());
+        int row = getRow(bucket);
+
+        buffer.putLong(header.dataOffset + row * timeSize, bucket);
+
+        for (BazaarProduct product : BazaarProduct.values()) {
+            long blockOffset = header.getBlockOffset(product);
+            if (blockOffset < 0 || !snapshot.isListed(product)) {
+                continue;
+            }
+
+            int block = (int) blockOffset;
+            int samples = buffer.getInt(getValueOffset(block, samplesColumn, row));
+
+            putAverage(getValueOffset(block, buyPriceColumn, row), samples, snapshot.getBuyPrice(product));
+            putAverage(getValueOffset(block, sellPriceColumn, row), samples, snapshot.getSellPrice(product));
+            putAverage(getValueOffset(block, buyVolumeColumn, row), samples, snapshot.getBuyVolume(product));
+            putAverage(getValueOffset(block, sellVolumeColumn, row), samples, snapshot.getSellVolume(product));
+
+            buffer.putInt(getValueOffset(block, samplesColumn, row), samples + 1);
+        }
+    }
+
+    /**
+     * Reads all the rows for the given product within the given time range into the series.
+     *
+     * @param product The product that should be read.
+     * @param from    The time the range starts at, inclusive.
+     * @param to      The time the range ends at, exclusive.
+     * @param series  The series the rows should be added to.
+     */
+    void read(BazaarProduct product, long from, long to, ArchiveSeries series) {
+        long blockOffset = header.getBlockOffset(product);
+        if (blockOffset >= 0) {
+            readBlock(buffer, (int) blockOffset, resolution, start, from, to, series);
+        }
+    }
+
+    private int getRow(long bucket) {
+        return (int) ((bucket - start) / resolution.getBucketSize());
+    }
+
+    private int getValueOffset(int block, int column, int row) {
+        return block + (column * resolution.getRowsPerSegment() + row) * valueSize;
+    }
+
+    private void putAverage(int offset, int samples, double value) {
+        float average = buffer.getFloat(offset);
+
+        buffer.putFloat(offset, (float) (average + (value - average) / (samples + 1)));
+    }
+
+    private static void readBlock(ByteBuffer buffer, int block, ArchiveResolution resolution, long start, long from, long to, ArchiveSeries series) {
+        int rows = resolution.getRowsPerSegment();
+        long bucketSize = resolution.getBucketSize();
+
+        int first = (int) Math.min(rows, Math.max(0, (resolution.getBucketStart(from) - start) / bucketSize));
+        int last = (int) Math.min(rows, Math.max(0, (to - start + bucketSize - 1) / bucketSize));
+
+        for (int row = first; row < last; row++) {
+            if (buffer.getInt(block + (samplesColumn * rows + row) * valueSize) == 0) {
+                continue;
+            }
+
+            series.add(start + row * bucketSize,
+                buffer.getFloat(block + (buyPriceColumn * rows + row) * valueSize),
+                buffer.getFloat(block + (sellPriceColumn * rows + row) * valueSize),
+                buffer.getFloat(block + (buyVolumeColumn * rows + row) * valueSize),
+                buffer.getFloat(block + (sellVolumeColumn * rows + row) * valueSize)
+            );
+        }
+    }
+
+    private static Header readHeader(FileChannel channel, Path path, ArchiveResolution resolution, long start) throws IOException {
+        ByteBuffer fixed = ByteBuffer.allocate(fixedHeaderSize);
+        readFully(channel, fixed, 0);
+
+        if (fixed.getInt(0) != magic || fixed.getInt(4) != version) {
+            throw new IOException("The file is not a valid Bazaar archive segment: " + path);
+        }
+
+        int dataOffset = fixed.getInt(8);
+        int columnCount = fixed.getInt(12);
+
+        if (fixed.getLong(16) != resolution.getBucketSize()
+            || fixed.getLong(24) != start
+            || fixed.getInt(32) != resolution.getRowsPerSegment()
+            || dataOffset < fixedHeaderSize || columnCount < 0) {
+            throw new IOException("The Bazaar archive segment doesn't match its file name: " + path);
+        }
+
+        ByteBuffer keyBuffer = ByteBuffer.allocate(dataOffset - fixedHeaderSize);
+        readFully(channel, keyBuffer, fixedHeaderSize);
+
+        Map<String, Integer> keys = new HashMap<>();
+        for (int column = 0; column < columnCount; column++) {
+            byte[] key = new byte[keyBuffer.getShort()];
+            keyBuffer.get(key);
+
+            keys.putIfAbsent(new String(key, StandardCharsets.UTF_8), column);
+        }
+
+        int[] columns = new int[BazaarProduct.values().length];
+        for (BazaarProduct product : BazaarProduct.values()) {
+            columns[product.ordinal()] = keys.getOrDefault(product.getKey(), -1);
+        }
+
+        Header header = new Header(resolution, dataOffset, columnCount, columns);
+        if (channel.size() < header.getSize()) {
+            throw new IOException("The Bazaar archive segment is shorter than its header says: " + path);
+        }
+        return header;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of the Bazaar archive segment");
+            }
+        }
+        buffer.flip();
+    }
+
+    /**
+     * The layout of a segment file, including where the block for each of the
+     * current Bazaar products starts, the header is read once for segments
+     * that are no longer being written to, so queries only have to
+     * read the block for the product they're looking up.
+     */
+    static class Header {
+
+        private final ArchiveResolution resolution;
+        private final int dataOffset;
+        private final int columnCount;
+        private final int[] columns;
+
+        private Header(ArchiveResolution resolution, int dataOffset, int columnCount, int[] columns) {
+            this.resolution = resolution;
+            this.dataOffset = dataOffset;
+            this.columnCount = columnCount;
+            this.columns = columns;
+        }
+
+        long getSize() {
+            return getBlockStart() + (long) columnCount * getBlockSize();
+        }
+
+        int getBlockSize() {
+            return resolution.getRowsPerSegment() * valueColumns * valueSize;
+        }
+
+        /**
+         * Gets the offset the block for the given product starts at within the segment file.
+         *
+         * @param product The product the block offset should be returned for.
+         * @return The offset of the block, or <code>-1</code> if the segment doesn't have the product.
+         */
+        long getBlockOffset(BazaarProduct product) {
+            int column = columns[product.ordinal()];
+            return column < 0 ? -1 : getBlockStart() + (long) column * getBlockSize();
+        }
+
+        private long getBlockStart() {
+            return dataOffset + (long) resolution.getRowsPerSegment() * timeSize;
+        }
+    }
+}
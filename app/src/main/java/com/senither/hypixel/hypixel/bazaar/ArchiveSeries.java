@@ -0,0 +1,106 @@
+package com.senither.hypixel.hypixel.bazaar;
+
+import java.util.Arrays;
+
+public class ArchiveSeries {
+
+    private int size = 0;
+    private long[] times;
+    private float[] buyPrices;
+    private float[] sellPrices;
+    private float[] buyVolumes;
+    private float[] sellVolumes;
+
+    ArchiveSeries(int capacity) {
+        capacity = Math.max(capacity, 1);
+
+        times = new long[capacity];
+        buyPrices = new float[capacity];
+        sellPrices = new float[capacity];
+        buyVolumes = new float[capacity];
+        sellVolumes = new float[capacity];
+    }
+
+    void add(long time, float buyPrice, float sellPrice, float buyVolume, float sellVolume) {
+        if (size == times.length) {
+            resize(size * 2);
+        }
+
+        times[size] = time;
+        buyPrices[size] = buyPrice;
+        sellPrices[size] = sellPrice;
+        buyVolumes[size] = buyVolume;
+        sellVolumes[size] = sellVolume;
+
+        size++;
+    }
+
+    ArchiveSeries trim() {
+        if (size != times.length) {
+            resize(size);
+        }
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the start time of each bucket in the series, ordered from the oldest to the newest
+     * bucket, the values for each bucket are found at the same index in the other arrays.
+     *
+     * @return The start time of each bucket in milliseconds.
+     */
+    public long[] getTimes() {
+        return times;
+    }
+
+    public float[] getBuyPrices() {
+        return buyPrices;
+    }
+
+    public float[] getSellPrices() {
+        return sellPrices;
+    }
+
+    public float[] getBuyVolumes() {
+        return buyVolumes;
+    }
+
+    public float[] getSellVolumes() {
+        return sellVolumes;
+    }
+
+    public double getAverageBuyPrice() {
+        return getAverage(buyPrices);
+    }
+
+    public double getAverageSellPrice() {
+        return getAverage(sellPrices);
+    }
+
+    private double getAverage(float[] values) {
+        if (size == 0) {
+            return Double.NaN;
+        }
+
+        double total = 0D;
+        for (int i = 0; i < size; i++) {
+            total += values[i];
+        }
+        return total / size;
+    }
+
+    private void resize(int capacity) {
+        times = Arrays.copyOf(times, capacity);
+        buyPrices = Arrays.copyOf(buyPrices, capacity);
+        sellPrices = Arrays.copyOf(sellPrices, capacity);
+        buyVolumes = Arrays.copyOf(buyVolumes, capacity);
+        sellVolumes = Arrays.copyOf(sellVolumes, capacity);
+    }
+}
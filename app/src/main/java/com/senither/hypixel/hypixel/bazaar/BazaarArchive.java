@@ -0,0 +1,220 @@
+package com.senither.hypixel.hypixel.bazaar;
+
+import com.senither.hypixel.metrics.Metrics;
+import io.prometheus.client.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class BazaarArchive {
+
+    private static final Logger log = LoggerFactory.getLogger(BazaarArchive.class);
+
+    private static final String fileExtension = ".dat";
+
+    private final Path directory;
+    private final long minuteRetention;
+    private final Map<ArchiveResolution, ArchiveSegment> segments = new EnumMap<>(ArchiveResolution.class);
+    private final Map<Path, ArchiveSegment.Header> headers = new ConcurrentHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public BazaarArchive(Path directory, int retentionDays) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.minuteRetention = TimeUnit.DAYS.toMillis(retentionDays);
+    }
+
+    /**
+     * Rolls the given snapshot up into the rows for every resolution, creating
+     * new segment files when the snapshot is the first one within a segment.
+     *
+     * @param snapshot The snapshot that should be appended to the archive.
+     */
+    public void append(BazaarSnapshot snapshot) {
+        Histogram.Timer timer = Metrics.bazaarArchiveAppendTime.startTimer();
+
+        lock.writeLock().lock();
+        try {
+            for (ArchiveResolution resolution : ArchiveResolution.values()) {
+                ArchiveSegment segment = getWritableSegment(resolution, resolution.getSegmentStart(snapshot.getLastUpdated()));
+                if (segment != null) {
+                    segment.record(snapshot);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+            timer.observeDuration();
+        }
+    }
+
+    /**
+     * Gets the rolled up prices and volumes for the given product within the
+     * given time range, buckets without any samples are left out.
+     *
+     * @param product    The product that the series should be returned for.
+     * @param resolution The resolution of the series.
+     * @param from       The time the range starts at in milliseconds, inclusive.
+     * @param to         The time the range ends at in milliseconds, exclusive.
+     * @return The series of rolled up prices and volumes.
+     */
+    public ArchiveSeries query(BazaarProduct product, ArchiveResolution resolution, long from, long to) {
+        ArchiveSeries series = new ArchiveSeries((int) Math.min(
+            Math.max(0, (to - from) / resolution.getBucketSize()), resolution.getRowsPerSegment()
+        ));
+
+        lock.readLock().lock();
+        try {
+            for (long start = resolution.getSegmentStart(from); start < to; start += resolution.getSegmentSize()) {
+                ArchiveSegment current = segments.get(resolution);
+                if (current != null && current.getStart() == start) {
+                    current.read(product, from, to, series);
+                    continue;
+                }
+
+                Path path = getSegmentPath(resolution, start);
+                ArchiveSegment.Header header = getHeader(resolution, start, path);
+                if (header == null) {
+                    continue;
+                }
+
+                try {
+                    ArchiveSegment.read(path, header, start, product, from, to, series);
+                } catch (IOException e) {
+                    log.error("Failed to read the {} Bazaar archive segment, error: {}", path.getFileName(), e.getMessage(), e);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return series.trim();
+    }
+
+    /**
+     * Gets the segment that snapshots starting at the given time should be written to,
+     * only the newest segment for each resolution is kept mapped into memory, so
+     * once a newer segment is opened the previous segment is dropped from the
+     * archive, and unmapped once nothing references it anymore.
+     *
+     * @param resolution The resolution of the segment.
+     * @param start      The time the segment starts at.
+     * @return The segment, or <code>NULL</code> if the segment couldn't be opened.
+     */
+    private ArchiveSegment getWritableSegment(ArchiveResolution resolution, long start) {
+        ArchiveSegment current = segments.get(resolution);
+        if (current != null && current.getStart() == start) {
+            return current;
+        }
+
+        Path path = getSegmentPath(resolution, start);
+        boolean created = !Files.exists(path);
+
+        ArchiveSegment segment = openSegment(resolution, start, path);
+        if (segment == null || (current != null && current.getStart() > start)) {
+            // Snapshots older than the current segment are still written to their own
+            // segment, but the segment isn't kept around since it's unlikely to
+            // receive any more snapshots after this one.
+            return segment;
+        }
+
+        segments.put(resolution, segment);
+        Metrics.bazaarArchiveSegments.set(segments.size());
+
+        if (created) {
+            prune(resolution, start);
+        }
+
+        return segment;
+    }
+
+    /**
+     * Gets the header for the segment starting at the given time, segments that are no
+     * longer being written to aren't kept mapped, instead their headers are kept in
+     * memory once they've been read, so a query only has to read the block for
+     * the product it is looking up from each segment file in its range.
+     *
+     * @param resolution The resolution of the segment.
+     * @param start      The time the segment starts at.
+     * @param path       The path to the segment file.
+     * @return The header of the segment, or <code>NULL</code> if the segment doesn't exist or couldn't be read.
+     */
+    private ArchiveSegment.Header getHeader(ArchiveResolution resolution, long start, Path path) {
+        ArchiveSegment.Header header = headers.get(path);
+        if (header != null || !Files.exists(path)) {
+            return header;
+        }
+
+        try {
+            header = ArchiveSegment.readHeader(path, resolution, start);
+        } catch (IOException e) {
+            log.error("Failed to open the {} Bazaar archive segment, error: {}", path.getFileName(), e.getMessage(), e);
+            return null;
+        }
+
+        headers.put(path, header);
+        return header;
+    }
+
+    private ArchiveSegment openSegment(ArchiveResolution resolution, long start, Path path) {
+        try {
+            if (Files.exists(path)) {
+                return ArchiveSegment.open(path, resolution, start);
+            }
+            return ArchiveSegment.create(path, resolution, start);
+        } catch (IOException e) {
+            log.error("Failed to open the {} Bazaar archive segment, error: {}", path.getFileName(), e.getMessage(), e);
+            return null;
+        }
+    }
+
+    private Path getSegmentPath(ArchiveResolution resolution, long start) {
+        return directory.resolve(resolution.getName() + "-" + start + fileExtension);
+    }
+
+    private void prune(ArchiveResolution resolution, long start) {
+        // The hour and day segments are what the long term history is built from, and
+        // they're only a few megabytes each, so they're kept on disk indefinitely,
+        // only the newest of them is ever kept mapped into memory.
+        if (resolution != ArchiveResolution.MINUTE) {
+            return;
+        }
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, resolution.getName() + "-*" + fileExtension)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+
+                long segmentStart;
+                try {
+                    segmentStart = Long.parseLong(name.substring(
+                        resolution.getName().length() + 1, name.length() - fileExtension.length()
+                    ));
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+
+                if (segmentStart + resolution.getSegmentSize() > start - minuteRetention) {
+                    continue;
+                }
+
+                // Pruned segments are never the segment that is currently being written
+                // to, so deleting the file is enough for the disk space to be released
+                // once any queries that are still reading from it are done.
+                Files.deleteIfExists(path);
+                headers.remove(path);
+
+                log.debug("Deleted the {} Bazaar archive segment since it's past its retention", name);
+            }
+        } catch (IOException e) {
+            log.error("Failed to prune the Bazaar archive, error: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.senither.hypixel.hypixel.bazaar;
+
+public final class BazaarSnapshot {
+
+    private final long lastUpdated;
+    private final long createdAt;
+
+    private final boolean[] listed;
+    private final double[] buyPrice;
+    private final double[] buyVolume;
+    private final double[] buyOrders;
+    private final double[] sellPrice;
+    private final double[] sellVolume;
+    private final double[] sellOrders;
+
+    BazaarSnapshot(BazaarProductReply reply, long createdAt) {
+        this.lastUpdated = reply.getLastUpdated();
+        this.createdAt = createdAt;
+
+        BazaarProduct[] products = BazaarProduct.values();
+
+        listed = new boolean[products.length];
+        buyPrice = new double[products.length];
+        buyVolume = new double[products.length];
+        buyOrders = new double[products.length];
+        sellPrice = new double[products.length];
+        sellVolume = new double[products.length];
+        sellOrders = new double[products.length];
+
+        for (BazaarProduct product : products) {
+            BazaarProductReply.Product replyProduct = reply.getProducts().get(product.getKey());
+            if (replyProduct == null || replyProduct.getQuickStatus() == null) {
+                continue;
+            }
+
+            int index = product.ordinal();
+            BazaarProductReply.QuickStatus quickStatus = replyProduct.getQuickStatus();
+
+            listed[index] = true;
+            buyPrice[index] = quickStatus.getBuyPrice();
+            buyVolume[index] = quickStatus.getBuyVolume();
+            buyOrders[index] = quickStatus.getBuyOrders();
+            sellPrice[index] = quickStatus.getSellPrice();
+            sellVolume[index] = quickStatus.getSellVolume();
+            sellOrders[index] = quickStatus.getSellOrders();
+        }
+    }
+
+    /**
+     * Gets the time the Bazaar data was last updated by Hypixel.
+     *
+     * @return The time in milliseconds that Hypixel last updated the Bazaar.
+     */
+    public long getLastUpdated() {
+        return lastUpdated;
+    }
+
+    /**
+     * Gets the time the snapshot was created at.
+     *
+     * @return The time in milliseconds that the snapshot was created at.
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Checks if the given product was listed on the Bazaar when the snapshot was
+     * taken, products that weren't listed will have all their values set to zero.
+     *
+     * @param product The product that should be checked.
+     * @return <code>True</code> if the product was listed, <code>False</code> otherwise.
+     */
+    public boolean isListed(BazaarProduct product) {
+        return listed[product.ordinal()];
+    }
+
+    public double getBuyPrice(BazaarProduct product) {
+        return buyPrice[product.ordinal()];
+    }
+
+    public double getBuyVolume(BazaarProduct product) {
+        return buyVolume[product.ordinal()];
+    }
+
+    public double getBuyOrders(BazaarProduct product) {
+        return buyOrders[product.ordinal()];
+    }
+
+    public double getSellPrice(BazaarProduct product) {
+        return sellPrice[product.ordinal()];
+    }
+
+    public double getSellVolume(BazaarProduct product) {
+        return sellVolume[product.ordinal()];
+    }
+
+    public double getSellOrders(BazaarProduct product) {
+        return sellOrders[product.ordinal()];
+    }
+}
@@ -0,0 +1,107 @@
+package com.senither.hypixel.hypixel.bazaar;
+
+import com.senither.hypixel.metrics.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+public class BazaarTracker {
+
+    /**
+     * The amount of samples kept in the price history for each product, with
+     * the Bazaar being polled every 30 seconds this covers the last hour.
+     */
+    public static final int historySize = 120;
+
+    private static final Logger log = LoggerFactory.getLogger(BazaarTracker.class);
+
+    private final AtomicReference<BazaarSnapshot> snapshot = new AtomicReference<>();
+    private final PriceHistory[] history;
+    private final BazaarArchive archive;
+
+    public BazaarTracker(BazaarArchive archive) {
+        this.archive = archive;
+
+        history = new PriceHistory[BazaarProduct.values().length];
+        for (int i = 0; i < history.length; i++) {
+            history[i] = new PriceHistory(historySize);
+        }
+    }
+
+    /**
+     * Gets the latest Bazaar snapshot, the snapshot is immutable and is replaced
+     * as a whole every time new Bazaar data is published, so it's safe to read
+     * from any thread without blocking.
+     *
+     * @return The latest Bazaar snapshot, or <code>NULL</code> if no Bazaar data has been loaded yet.
+     */
+    public BazaarSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Gets the price history for the given product.
+     *
+     * @param product The product that the price history should be returned for.
+     * @return The price history for the given product.
+     */
+    public PriceHistory getHistory(BazaarProduct product) {
+        return history[product.ordinal()];
+    }
+
+    /**
+     * Gets the Bazaar archive that every published snapshot is appended to.
+     *
+     * @return The Bazaar archive, or <code>NULL</code> if the Bazaar archive is disabled.
+     */
+    public BazaarArchive getArchive() {
+        return archive;
+    }
+
+    /**
+     * Publishes a new snapshot from the given Bazaar reply, and records the
+     * prices of all the listed products in their price history, if the reply
+     * hasn't been updated since the last snapshot was published the current
+     * snapshot is kept instead. New snapshots are also appended to the
+     * Bazaar archive if it is enabled.
+     *
+     * @param reply The Bazaar reply that should be published.
+     * @return The snapshot that is now the latest snapshot.
+     */
+    public synchronized BazaarSnapshot publish(BazaarProductReply reply) {
+        BazaarSnapshot current = snapshot.get();
+        if (current != null && current.getLastUpdated() >= reply.getLastUpdated()) {
+            Metrics.bazaarSnapshots.labels("unchanged").inc();
+
+            return current;
+        }
+
+        BazaarSnapshot next = new BazaarSnapshot(reply, System.currentTimeMillis());
+        for (BazaarProduct product : BazaarProduct.values()) {
+            if (!next.isListed(product)) {
+                continue;
+            }
+
+            history[product.ordinal()].add(next.getLastUpdated(),
+                next.getBuyPrice(product), next.getSellPrice(product),
+                next.getBuyVolume(product), next.getSellVolume(product)
+            );
+        }
+
+        snapshot.set(next);
+
+        if (archive != null) {
+            try {
+                archive.append(next);
+            } catch (Exception e) {
+                log.error("Failed to append the Bazaar snapshot to the Bazaar archive, error: {}", e.getMessage(), e);
+            }
+        }
+
+        Metrics.bazaarSnapshots.labels("published").inc();
+        Metrics.bazaarSnapshotUpdated.set(next.getLastUpdated() / 1000D);
+
+        return next;
+    }
+}
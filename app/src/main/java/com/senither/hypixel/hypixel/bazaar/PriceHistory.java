@@ -0,0 +1,153 @@
+package com.senither.hypixel.hypixel.bazaar;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.ToDoubleFunction;
+
+public class PriceHistory {
+
+    private final int capacity;
+    private final AtomicReferenceArray<Sample> samples;
+
+    // Samples are only ever added while the Bazaar tracker is publishing a snapshot,
+    // so the written counter is only updated by one thread at a time, it is
+    // volatile so readers always see the samples written before it was incremented.
+    private volatile long written = 0;
+
+    PriceHistory(int capacity) {
+        this.capacity = capacity;
+        this.samples = new AtomicReferenceArray<>(capacity);
+    }
+
+    void add(long time, double buyPrice, double sellPrice, double buyVolume, double sellVolume) {
+        long sequence = written;
+
+        samples.set((int) (sequence % capacity), new Sample(
+            sequence, time, buyPrice, sellPrice, buyVolume, sellVolume
+        ));
+
+        written = sequence + 1;
+    }
+
+    /**
+     * Gets all the samples currently in the history, ordered from the oldest
+     * sample to the newest sample.
+     *
+     * @return The list of samples in the history.
+     */
+    public List<Sample> getSamples() {
+        long end = written;
+        long start = Math.max(0, end - capacity);
+
+        List<Sample> result = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            Sample sample = samples.get((int) (sequence % capacity));
+
+            // The slot may already have been overwritten with a newer sample while we
+            // were reading the history, in which case the sample is just skipped.
+            if (sample != null && sample.sequence == sequence) {
+                result.add(sample);
+            }
+        }
+
+        return Collections.unmodifiableList(result);
+    }
+
+    public double getAverageBuyPrice() {
+        return getAverage(getSamples(), Sample::getBuyPrice);
+    }
+
+    public double getAverageSellPrice() {
+        return getAverage(getSamples(), Sample::getSellPrice);
+    }
+
+    public double getBuyPriceChange() {
+        return getChange(getSamples(), Sample::getBuyPrice);
+    }
+
+    public double getSellPriceChange() {
+        return getChange(getSamples(), Sample::getSellPrice);
+    }
+
+    /**
+     * Gets the average value across all the given samples.
+     *
+     * @param samples The samples that the average should be calculated for.
+     * @param value   The function that gets the value from each sample.
+     * @return The average value, or <code>NaN</code> if there are no samples.
+     */
+    public static double getAverage(List<Sample> samples, ToDoubleFunction<Sample> value) {
+        if (samples.isEmpty()) {
+            return Double.NaN;
+        }
+
+        double total = 0D;
+        for (Sample sample : samples) {
+            total += value.applyAsDouble(sample);
+        }
+        return total / samples.size();
+    }
+
+    /**
+     * Gets the change in percent from the oldest to the newest of the given samples.
+     *
+     * @param samples The samples that the change should be calculated for.
+     * @param value   The function that gets the value from each sample.
+     * @return The change in percent, or <code>NaN</code> if there are less than two
+     *         samples, or the oldest value is zero.
+     */
+    public static double getChange(List<Sample> samples, ToDoubleFunction<Sample> value) {
+        if (samples.size() < 2) {
+            return Double.NaN;
+        }
+
+        double oldest = value.applyAsDouble(samples.get(0));
+        if (oldest == 0D) {
+            return Double.NaN;
+        }
+
+        double newest = value.applyAsDouble(samples.get(samples.size() - 1));
+        return (newest - oldest) / oldest * 100D;
+    }
+
+    public static class Sample {
+
+        private final long sequence;
+        private final long time;
+        private final double buyPrice;
+        private final double sellPrice;
+        private final double buyVolume;
+        private final double sellVolume;
+
+        Sample(long sequence, long time, double buyPrice, double sellPrice, double buyVolume, double sellVolume) {
+            this.sequence = sequence;
+            this.time = time;
+            this.buyPrice = buyPrice;
+            this.sellPrice = sellPrice;
+            this.buyVolume = buyVolume;
+            this.sellVolume = sellVolume;
+        }
+
+        public long getTime() {
+            return time;
+        }
+
+        public double getBuyPrice() {
+            return buyPrice;
+        }
+
+        public double getSellPrice() {
+            return sellPrice;
+        }
+
+        public double getBuyVolume() {
+            return buyVolume;
+        }
+
+        public double getSellVolume() {
+            return sellVolume;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.hypixel.leaderboard;
+
+import com.senither.hypixel.contracts.hypixel.PlayerStatConversionFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * A precomputed index over a list of leaderboard players, the stats for each
+ * leaderboard type are stored in columns indexed by the players position in
+ * the original list, together with the sorted order of the players for
+ * each type, and the rank of each player for each type, so pages and
+ * ranks can be looked up without having to sort the players again.
+ *
+ * @param <T> The type of leaderboard player the index is built from.
+ */
+public class LeaderboardIndex<T extends LeaderboardPlayer> {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaderboardIndex.class);
+
+    private final List<T> players;
+    private final Map<UUID, Integer> playerIndexes;
+
+    private final int[][] order;
+    private final int[][] guildOrder;
+    private final int[][] ranks;
+    private final double[][] stats;
+    private final double[][] experience;
+    private final double[][] averages;
+
+    public LeaderboardIndex(List<T> players) {
+        this.players = players == null ? Collections.emptyList() : new ArrayList<>(players);
+
+        playerIndexes = new HashMap<>(this.players.size() * 4 / 3 + 1);
+        for (int i = 0; i < this.players.size(); i++) {
+            UUID uuid = this.players.get(i).getUuid();
+            if (uuid != null) {
+                playerIndexes.putIfAbsent(uuid, i);
+            }
+        }
+
+        int types = LeaderboardType.values().length;
+
+        order = new int[types][];
+        guildOrder = new int[types][];
+        ranks = new int[types][];
+        stats = new double[types][];
+        experience = new double[types][];
+        averages = new double[types][];
+
+        for (LeaderboardType type : LeaderboardType.values()) {
+            if (type.getOrderFunction() == null) {
+                continue;
+            }
+
+            try {
+                buildType(type);
+            } catch (RuntimeException e) {
+                order[type.ordinal()] = null;
+
+                log.error("Failed to build the {} leaderboard index, error: {}", type.getName(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private void buildType(LeaderboardType type) {
+        int index = type.ordinal();
+
+        double[] orderColumn = getColumn(type.getOrderFunction());
+        double[] indexColumn = type.getIndexFunction() == null ? null : getColumn(type.getIndexFunction());
+
+        stats[index] = getColumn(type.getStatFunction());
+        experience[index] = type.getExpFunction() == null ? null : getColumn(type.getExpFunction());
+
+        // Players are sorted in descending order by the order stat, and then by the index
+        // stat, players with the same stats keep the order they have in the original
+        // list, which is the same order the leaderboard commands used to show.
+        Integer[] sorted = new Integer[players.size()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = i;
+        }
+
+        Arrays.sort(sorted, (left, right) -> {
+            int compare = Double.compare(orderColumn[right], orderColumn[left]);
+            if (compare != 0 || indexColumn == null) {
+                return compare;
+            }
+            return Double.compare(indexColumn[right], indexColumn[left]);
+        });
+
+        int[] typeOrder = new int[sorted.length];
+        int[] typeRanks = new int[sorted.length];
+        int[] typeGuildOrder = new int[sorted.length];
+        int guildPlayers = 0;
+        for (int position = 0; position < sorted.length; position++) {
+            typeOrder[position] = sorted[position];
+            typeRanks[sorted[position]] = position;
+
+            if (players.get(sorted[position]).getGuildName() != null) {
+                typeGuildOrder[guildPlayers++] = sorted[position];
+            }
+        }
+
+        double statTotal = 0D;
+        double experienceTotal = 0D;
+        int counted = 0;
+        for (int i = 0; i < stats[index].length; i++) {
+            if (stats[index][i] <= 0) {
+                continue;
+            }
+
+            statTotal += stats[index][i];
+            counted++;
+
+            if (experience[index] != null && experience[index][i] > 0) {
+                experienceTotal += experience[index][i];
+            }
+        }
+
+        averages[index] = new double[]{statTotal / counted, experienceTotal / counted};
+        guildOrder[index] = Arrays.copyOf(typeGuildOrder, guildPlayers);
+        ranks[index] = typeRanks;
+        order[index] = typeOrder;
+    }
+
+    private double[] getColumn(PlayerStatConversionFunction function) {
+        double[] column = new double[players.size()];
+        for (int i = 0; i < column.length; i++) {
+            column[i] = function.getStat(players.get(i));
+        }
+        return column;
+    }
+
+    /**
+     * Checks if the index was built for the given leaderboard type.
+     *
+     * @param type The leaderboard type that should be checked.
+     * @return <code>True</code> if the type can be used with the index, <code>False</code> otherwise.
+     */
+    public boolean isIndexed(LeaderboardType type) {
+        return order[type.ordinal()] != null;
+    }
+
+    public int size() {
+        return players.size();
+    }
+
+    /**
+     * Gets the player at the given position for the given leaderboard type.
+     *
+     * @param type     The leaderboard type.
+     * @param position The zero-based position on the leaderboard.
+     * @return The player at the given position.
+     */
+    public T getPlayer(LeaderboardType type, int position) {
+        return players.get(order[type.ordinal()][position]);
+    }
+
+    /**
+     * Gets the amount of players that are in a guild for the given leaderboard type.
+     *
+     * @param type The leaderboard type.
+     * @return The amount of players that are in a guild.
+     */
+    public int getGuildPlayerCount(LeaderboardType type) {
+        return guildOrder[type.ordinal()].length;
+    }
+
+    /**
+     * Gets the player at the given position for the given leaderboard type,
+     * only counting players that are in a guild.
+     *
+     * @param type     The leaderboard type.
+     * @param position The zero-based position among players that are in a guild.
+     * @return The player at the given position.
+     */
+    public T getGuildPlayer(LeaderboardType type, int position) {
+        return players.get(guildOrder[type.ordinal()][position]);
+    }
+
+    /**
+     * Gets the stat of the player at the given position for the given leaderboard type.
+     *
+     * @param type     The leaderboard type.
+     * @param position The zero-based position on the leaderboard.
+     * @return The stat of the player at the given position.
+     */
+    public double getStat(LeaderboardType type, int position) {
+        return stats[type.ordinal()][order[type.ordinal()][position]];
+    }
+
+    /**
+     * Gets the experience of the player at the given position for the given leaderboard type.
+     *
+     * @param type     The leaderboard type.
+     * @param position The zero-based position on the leaderboard.
+     * @return The experience of the player, or <code>NULL</code> if the type doesn't have an experience stat.
+     */
+    public Double getExperience(LeaderboardType type, int position) {
+        double[] column = experience[type.ordinal()];
+        return column == null ? null : column[order[type.ordinal()][position]];
+    }
+
+    /**
+     * Gets the rank of the player with the given UUID for the given leaderboard type.
+     *
+     * @param type The leaderboard type.
+     * @param uuid The UUID of the player.
+     * @return The one-based rank of the player, or <code>-1</code> if the player isn't on the leaderboard.
+     */
+    public int getRank(LeaderboardType type, UUID uuid) {
+        if (uuid == null) {
+            return -1;
+        }
+
+        Integer playerIndex = playerIndexes.get(uuid);
+        return playerIndex == null ? -1 : ranks[type.ordinal()][playerIndex] + 1;
+    }
+
+    /**
+     * Gets the average stat of the players with a positive stat for the given leaderboard type.
+     *
+     * @param type The leaderboard type.
+     * @return The average stat.
+     */
+    public double getAverageStat(LeaderboardType type) {
+        return averages[type.ordinal()][0];
+    }
+
+    /**
+     * Gets the total positive experience divided by the amount of players with a
+     * positive stat for the given leaderboard type.
+     *
+     * @param type The leaderboard type.
+     * @return The average experience.
+     */
+    public double getAverageExperience(LeaderboardType type) {
+        return averages[type.ordinal()][1];
+    }
+}
@@ -21,8 +21,8 @@
 
 package com.senither.hypixel.hypixel.leaderboard;
 
-import com.google.common.collect.ImmutableMultiset;
 import com.senither.hypixel.Constants;
+import com.senither.hypixel.statistics.LevelCurve;
 import com.senither.hypixel.utils.NumberUtil;
 
 import java.util.UUID;
@@ -284,15 +284,11 @@ public abstract class LeaderboardPlayer {
     }
 
     private double getExperienceForLevel(double level, boolean isRunecrafting) {
-        double totalRequiredExperience = 0;
-        ImmutableMultiset<Integer> experienceLevels = isRunecrafting
-            ? Constants.RUNECRAFTING_SKILL_EXPERIENCE
-            : Constants.GENERAL_SKILL_EXPERIENCE;
+        LevelCurve levels = isRunecrafting
+            ? Constants.RUNECRAFTING_SKILL_LEVELS
+            : Constants.GENERAL_SKILL_LEVELS;
 
-        for (int i = 0; i < Math.min(level, experienceLevels.size()); i++) {
-            totalRequiredExperience += experienceLevels.asList().get(i);
-        }
-        return totalRequiredExperience;
+        return levels.getExperienceForLevel((int) Math.ceil(level));
     }
 
     public class PlayerWeight extends WeightContainer {
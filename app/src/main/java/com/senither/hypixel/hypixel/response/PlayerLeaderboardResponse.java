@@ -22,6 +22,7 @@
 package com.senither.hypixel.hypixel.response;
 
 import com.senither.hypixel.contracts.hypixel.Response;
+import com.senither.hypixel.hypixel.leaderboard.LeaderboardIndex;
 import com.senither.hypixel.hypixel.leaderboard.LeaderboardPlayer;
 
 import java.util.List;
@@ -31,10 +32,32 @@ public class PlayerLeaderboardResponse extends Response {
 
     protected List<Player> data;
 
+    private transient volatile LeaderboardIndex<Player> index;
+
     public List<Player> getData() {
         return data;
     }
 
+    /**
+     * Gets the leaderboard index for the players in the response, the index
+     * is built the first time it's requested, which normally happens when
+     * the response is cached, and is then re-used for every lookup.
+     *
+     * @return The leaderboard index for the players in the response.
+     */
+    public LeaderboardIndex<Player> getIndex() {
+        LeaderboardIndex<Player> leaderboardIndex = index;
+        if (leaderboardIndex == null) {
+            synchronized (this) {
+                leaderboardIndex = index;
+                if (leaderboardIndex == null) {
+                    index = leaderboardIndex = new LeaderboardIndex<>(data);
+                }
+            }
+        }
+        return leaderboardIndex;
+    }
+
     public class Player extends LeaderboardPlayer {
         //
     }
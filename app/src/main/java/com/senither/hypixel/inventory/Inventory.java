@@ -21,70 +21,68 @@
 
 package com.senither.hypixel.inventory;
 
-import com.github.steveice10.opennbt.tag.builtin.ByteArrayTag;
-import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
-import com.github.steveice10.opennbt.tag.builtin.ListTag;
-import com.github.steveice10.opennbt.tag.builtin.Tag;
-import com.senither.hypixel.contracts.inventory.InventoryDecoder;
 import com.senither.hypixel.contracts.inventory.Searchable;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Base64;
-import java.util.List;
+import java.util.*;
 
-public class Inventory implements Searchable, InventoryDecoder {
-
-    private final List<Item> items = new ArrayList<>();
+/**
+ * An immutable collection of items decoded from an inventory, the items are indexed by
+ * their type, rarity, name, name suffix, and Hypixel item ID when the inventory is
+ * created, so looking up items or counting them doesn't require scanning every item.
+ */
+public class Inventory implements Searchable {
 
-    public Inventory(String encodedInventory) throws IOException {
-        Tag decodedInventoryTag = decodeInventoryString(encodedInventory);
-        if (decodedInventoryTag == null || !(decodedInventoryTag instanceof CompoundTag)) {
-            throw new IOException("Decoded inventory is not a LinkedHashMap, unable to parse inventory data!");
-        }
+    private final List<Item> items;
 
-        Tag inventoryContentsTag = ((CompoundTag) decodedInventoryTag).get("i");
-        if (!(inventoryContentsTag instanceof ListTag)) {
-            throw new IOException("Inventory contents tag is not a list, unable to get inventory contents!");
-        }
+    private final EnumMap<ItemType, List<Item>> itemsByType = new EnumMap<>(ItemType.class);
+    private final EnumMap<ItemType, int[]> rarityCountsByType = new EnumMap<>(ItemType.class);
+    private final Map<String, List<Item>> itemsByName = new HashMap<>();
+    private final Map<String, List<Item>> itemsById = new HashMap<>();
 
-        for (Tag tag : (ListTag) inventoryContentsTag) {
-            if (!(tag instanceof CompoundTag)) {
-                continue;
-            }
+    /**
+     * The items sorted by their reversed name, items ending with the same
+     * name are then next to each other, so they can be found using a
+     * binary search for the reversed name they should end with.
+     */
+    private List<Item> itemsByReversedName;
+    private String[] reversedNames;
 
-            CompoundTag itemTag = (CompoundTag) tag;
-            if (itemTag.isEmpty()) {
-                continue;
-            }
+    public Inventory(String encodedInventory) throws IOException {
+        List<Item> items = new ArrayList<>();
+        InventoryReader.readItems(encodedInventory, items);
 
-            try {
-                items.add(new Item(this, itemTag));
-            } catch (Exception e) {
-                // This should only be thrown if the item is not properly formatted or
-                // is an illegal item and shouldn't exist in the game to begin with.
-            }
-        }
+        this.items = Collections.unmodifiableList(items);
+        buildIndexes();
     }
 
-    void addBackpackContent(ByteArrayTag backpackData) {
-        try {
-            Inventory inventory = new Inventory(Base64.getEncoder().encodeToString(backpackData.getValue()));
+    Inventory(List<Item> items) {
+        this.items = Collections.unmodifiableList(items);
+        buildIndexes();
+    }
 
+    /**
+     * Creates a new inventory holding the items from all the given inventories,
+     * allowing multiple inventory sections to be searched as if they were one.
+     *
+     * @param inventories The inventories that should be combined.
+     * @return The combined inventory.
+     */
+    public static Inventory combine(Inventory... inventories) {
+        List<Item> items = new ArrayList<>();
+        for (Inventory inventory : inventories) {
             items.addAll(inventory.getItems());
-        } catch (IOException e) {
-            e.printStackTrace();
         }
+        return new Inventory(items);
     }
 
     @Override
     public boolean hasItem(String name) {
-        for (Item item : items) {
-            if (item.getName().equalsIgnoreCase(name)) {
-                return true;
-            }
-        }
-        return false;
+        return name != null && itemsByName.containsKey(normalizeName(name));
+    }
+
+    public boolean hasItemWithId(String id) {
+        return id != null && itemsById.containsKey(id.toUpperCase(Locale.ROOT));
     }
 
     public List<Item> getItems() {
@@ -92,17 +90,114 @@ public class Inventory implements Searchable, InventoryDecoder {
     }
 
     public List<Item> getItemsWithType(ItemType type) {
-        List<Item> itemsWithType = new ArrayList<>();
         if (type == null) {
-            return itemsWithType;
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(itemsByType.getOrDefault(type, Collections.emptyList()));
+    }
+
+    public List<Item> getItemsWithId(String id) {
+        if (id == null) {
+            return Collections.emptyList();
+        }
+        return itemsById.getOrDefault(id.toUpperCase(Locale.ROOT), Collections.emptyList());
+    }
+
+    /**
+     * Gets all the items where the name ends with the given name while ignoring casing, so
+     * <code>Midas' Sword</code> matches items with reforges like <code>Spicy Midas' Sword</code>,
+     * or with leftover formatting codes in their name like <code>§lMidas' Sword</code>.
+     *
+     * @param name The name the items should end with.
+     * @return An immutable list of the items ending with the given name.
+     */
+    public List<Item> getItemsEndingWith(String name) {
+        if (name == null) {
+            return Collections.emptyList();
         }
+        String suffix = reverse(normalizeName(name));
+
+        int start = lowerBound(suffix);
 
-        for (Item item : getItems()) {
-            if (item.getType() == type) {
-                itemsWithType.add(item);
+        int end = start;
+        while (end < reversedNames.length && reversedNames[end].startsWith(suffix)) {
+            end++;
+        }
+
+        return itemsByReversedName.subList(start, end);
+    }
+
+    public int countItems(ItemType type) {
+        return itemsByType.getOrDefault(type, Collections.emptyList()).size();
+    }
+
+    public int countItems(ItemType type, ItemRarity rarity) {
+        int[] rarityCounts = rarityCountsByType.get(type);
+        return rarityCounts == null || rarity == null ? 0 : rarityCounts[rarity.ordinal()];
+    }
+
+    private void buildIndexes() {
+        for (Item item : items) {
+            itemsByType.computeIfAbsent(item.getType(), type -> new ArrayList<>()).add(item);
+            rarityCountsByType.computeIfAbsent(item.getType(), type -> new int[ItemRarity.values().length])[item.getRarity().ordinal()]++;
+
+            String name = normalizeName(item.getName());
+            itemsByName.computeIfAbsent(name, key -> new ArrayList<>()).add(item);
+
+            Object id = item.getAttribute("id");
+            if (id instanceof String) {
+                itemsById.computeIfAbsent(((String) id).toUpperCase(Locale.ROOT), key -> new ArrayList<>()).add(item);
             }
         }
 
-        return itemsWithType;
+        Item[] sortedItems = items.toArray(new Item[0]);
+        String[] sortedNames = new String[sortedItems.length];
+        for (int i = 0; i < sortedItems.length; i++) {
+            sortedNames[i] = reverse(normalizeName(sortedItems[i].getName()));
+        }
+
+        Integer[] order = new Integer[sortedItems.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(index -> sortedNames[index]));
+
+        Item[] itemsByReversedName = new Item[order.length];
+        reversedNames = new String[order.length];
+        for (int i = 0; i < order.length; i++) {
+            itemsByReversedName[i] = sortedItems[order[i]];
+            reversedNames[i] = sortedNames[order[i]];
+        }
+        this.itemsByReversedName = Collections.unmodifiableList(Arrays.asList(itemsByReversedName));
+    }
+
+    /**
+     * Finds the index of the first reversed name that isn't sorted before the given
+     * name, unlike {@link Arrays#binarySearch(Object[], Object)} this always finds
+     * the first of multiple equal names, so duplicate items aren't skipped.
+     *
+     * @param name The reversed name that should be searched for.
+     * @return The index of the first reversed name that is greater than or equal to the given name.
+     */
+    private int lowerBound(String name) {
+        int low = 0;
+        int high = reversedNames.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (reversedNames[middle].compareTo(name) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static String reverse(String name) {
+        return new StringBuilder(name).reverse().toString();
+    }
+
+    private static String normalizeName(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
     }
 }
@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.inventory;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.gson.JsonObject;
+import com.senither.hypixel.cache.CacheManager;
+import com.senither.hypixel.cache.ManagedCache;
+import com.senither.hypixel.metrics.Metrics;
+
+import io.prometheus.client.Histogram;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+
+public class InventoryCache {
+
+    /**
+     * The rough amount of bytes a decoded inventory uses on the heap for every
+     * character in its encoded form, the encoded inventory is gzipped NBT data,
+     * which takes up a lot more space once it has been parsed into tags.
+     */
+    private static final int decodedBytesPerEncodedCharacter = 8;
+
+    /**
+     * The rough amount of bytes a combined inventory uses on the heap for every character
+     * in the encoded form of its sections, combined inventories share their items with
+     * the sections they're made from, so only their own indexes take up extra space.
+     */
+    private static final int combinedBytesPerEncodedCharacter = 1;
+
+    private static final ManagedCache<InventoryKey, Inventory> cache = CacheManager.newBuilder("decoded-inventory")
+        .expireAfterAccess(5, TimeUnit.MINUTES)
+        .maximumWeight(64 * 1024 * 1024)
+        .build((InventoryKey key, Inventory inventory) -> (int) Math.min(Integer.MAX_VALUE,
+            (long) key.encodedLength * (key.combined ? combinedBytesPerEncodedCharacter : decodedBytesPerEncodedCharacter)
+        ));
+
+    /**
+     * The pool used to decode the sections of a combined inventory concurrently, the
+     * pool is kept small so a guild scan decoding inventories for a lot of players
+     * at once can't take over every core on the machine.
+     */
+    private static final ForkJoinPool decoderPool = new ForkJoinPool(
+        Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())),
+        pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("inventory-decoder-" + thread.getPoolIndex());
+            return thread;
+        },
+        null,
+        false
+    );
+
+    /**
+     * Gets the decoded inventory for the given profile member and inventory section,
+     * the inventory is only decoded if it isn't already cached, or if the encoded
+     * inventory has changed since it was cached, so the rank checkers and
+     * commands that look at the same inventory can share the decoded items.
+     * <p>
+     * Since the inventory is shared, it must be treated as read-only.
+     *
+     * @param profileId        The ID of the SkyBlock profile the inventory belongs to.
+     * @param memberId         The UUID of the profile member, without dashes.
+     * @param section          The name of the inventory section, like <code>inv_contents</code>.
+     * @param encodedInventory The base64 encoded inventory data from the profile.
+     * @return The decoded inventory.
+     * @throws IOException If the inventory couldn't be decoded.
+     */
+    public static Inventory getInventory(String profileId, String memberId, String section, String encodedInventory) throws IOException {
+        InventoryKey key = new InventoryKey(profileId, memberId, section, encodedInventory);
+
+        Inventory inventory = cache.getIfPresent(key);
+        if (inventory != null) {
+            Metrics.decodedInventoryLookups.labels(section, "hit").inc();
+            return inventory;
+        }
+
+        Metrics.decodedInventoryLookups.labels(section, "miss").inc();
+
+        return decode(key, encodedInventory);
+    }
+
+    /**
+     * Gets the decoded inventories for all the given sections of the profile member, combined
+     * into a single inventory. Sections that aren't already cached are decoded at the same
+     * time, one of them on the calling thread, and the rest on the inventory decoder pool,
+     * the combined inventory is then cached alongside its sections, so the indexes for
+     * the combined inventory are only built once while none of the sections change.
+     *
+     * @param profileId The ID of the SkyBlock profile the inventories belong to.
+     * @param memberId  The UUID of the profile member, without dashes.
+     * @param member    The profile member object holding the inventory sections.
+     * @param sections  The names of the inventory sections that should be combined.
+     * @return The combined inventory, with the items in the same order as the sections were given.
+     * @throws IOException If any of the sections couldn't be decoded.
+     */
+    public static Inventory getCombinedInventory(String profileId, String memberId, JsonObject member, String... sections) throws IOException {
+        Inventory[] inventories = new Inventory[sections.length];
+        List<Integer> missingSections = new ArrayList<>();
+        InventoryKey[] keys = new InventoryKey[sections.length];
+        String[] encodedInventories = new String[sections.length];
+
+        for (int i = 0; i < sections.length; i++) {
+            encodedInventories[i] = member.get(sections[i]).getAsJsonObject().get("data").getAsString();
+            keys[i] = new InventoryKey(profileId, memberId, sections[i], encodedInventories[i]);
+        }
+
+        InventoryKey combinedKey = sections.length > 1 ? new InventoryKey(keys) : null;
+        if (combinedKey != null) {
+            Inventory inventory = cache.getIfPresent(combinedKey);
+            if (inventory != null) {
+                Metrics.decodedInventoryLookups.labels(combinedKey.section, "hit").inc();
+                return inventory;
+            }
+
+            Metrics.decodedInventoryLookups.labels(combinedKey.section, "miss").inc();
+        }
+
+        for (int i = 0; i < sections.length; i++) {
+            inventories[i] = cache.getIfPresent(keys[i]);
+            if (inventories[i] != null) {
+                Metrics.decodedInventoryLookups.labels(sections[i], "hit").inc();
+            } else {
+                Metrics.decodedInventoryLookups.labels(sections[i], "miss").inc();
+                missingSections.add(i);
+            }
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 1; i < missingSections.size(); i++) {
+            int index = missingSections.get(i);
+            futures.add(CompletableFuture.runAsync(() -> {
+                try {
+                    inventories[index] = decode(keys[index], encodedInventories[index]);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, decoderPool));
+        }
+
+        if (!missingSections.isEmpty()) {
+            int index = missingSections.get(0);
+            inventories[index] = decode(keys[index], encodedInventories[index]);
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+
+        if (combinedKey == null) {
+            return inventories.length == 1 ? inventories[0] : Inventory.combine(inventories);
+        }
+
+        Inventory inventory = Inventory.combine(inventories);
+        cache.put(combinedKey, inventory);
+
+        return inventory;
+    }
+
+    private static Inventory decode(InventoryKey key, String encodedInventory) throws IOException {
+        Histogram.Timer timer = Metrics.inventoryDecodeTime.labels(key.section).startTimer();
+        try {
+            Inventory inventory = new Inventory(encodedInventory);
+            cache.put(key, inventory);
+
+            return inventory;
+        } finally {
+            timer.observeDuration();
+        }
+    }
+
+    static class InventoryKey {
+
+        private final String profileId;
+        private final String memberId;
+        private final String section;
+        private final int encodedLength;
+        private final long contentHash;
+        private final boolean combined;
+
+        InventoryKey(String profileId, String memberId, String section, String encodedInventory) {
+            this.profileId = profileId;
+            this.memberId = memberId;
+            this.section = section;
+            this.encodedLength = encodedInventory.length();
+            this.contentHash = Hashing.murmur3_128().hashUnencodedChars(encodedInventory).asLong();
+            this.combined = false;
+        }
+
+        InventoryKey(InventoryKey... sections) {
+            StringJoiner names = new StringJoiner("+");
+            Hasher hasher = Hashing.murmur3_128().newHasher();
+            int encodedLength = 0;
+
+            for (InventoryKey section : sections) {
+                names.add(section.section);
+                hasher.putLong(section.contentHash);
+                encodedLength += section.encodedLength;
+            }
+
+            this.profileId = sections[0].profileId;
+            this.memberId = sections[0].memberId;
+            this.section = names.toString();
+            this.encodedLength = encodedLength;
+            this.contentHash = hasher.hash().asLong();
+            this.combined = true;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            InventoryKey that = (InventoryKey) o;
+            return encodedLength == that.encodedLength
+                && combined == that.combined
+                && contentHash == that.contentHash
+                && Objects.equals(profileId, that.profileId)
+                && Objects.equals(memberId, that.memberId)
+                && Objects.equals(section, that.section);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(profileId, memberId, section, contentHash);
+        }
+    }
+}
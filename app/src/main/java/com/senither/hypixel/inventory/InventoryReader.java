@@ -0,0 +1,535 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.inventory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads items directly from the NBT data used for inventories, instead of building the entire
+ * tag tree for the inventory, the reader walks through the raw bytes and only extracts the
+ * few values used by {@link Item}, skipping over everything else without creating any
+ * objects, backpacks are read straight from their byte arrays as they're found.
+ */
+final class InventoryReader {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryReader.class);
+
+    private static final Pattern colourCodePattern = Pattern.compile("([!|#|%]?[§]+[a-f|0-9])");
+
+    private static final int maximumDepth = 512;
+
+    private static final byte TAG_END = 0;
+    private static final byte TAG_BYTE = 1;
+    private static final byte TAG_SHORT = 2;
+    private static final byte TAG_INT = 3;
+    private static final byte TAG_LONG = 4;
+    private static final byte TAG_FLOAT = 5;
+    private static final byte TAG_DOUBLE = 6;
+    private static final byte TAG_BYTE_ARRAY = 7;
+    private static final byte TAG_STRING = 8;
+    private static final byte TAG_LIST = 9;
+    private static final byte TAG_COMPOUND = 10;
+    private static final byte TAG_INT_ARRAY = 11;
+    private static final byte TAG_LONG_ARRAY = 12;
+
+    private static final byte[] inventoryContentsName = ascii("i");
+    private static final byte[] tagName = ascii("tag");
+    private static final byte[] hideFlagsName = ascii("HideFlags");
+    private static final byte[] extraAttributesName = ascii("ExtraAttributes");
+    private static final byte[] displayName = ascii("display");
+    private static final byte[] nameName = ascii("Name");
+    private static final byte[] loreName = ascii("Lore");
+    private static final byte[] backpackDataSuffix = ascii("_backpack_data");
+
+    private final byte[] buffer;
+    private final int backpackDepth;
+    private int position = 0;
+
+    private InventoryReader(byte[] buffer, int backpackDepth) {
+        this.buffer = buffer;
+        this.backpackDepth = backpackDepth;
+    }
+
+    /**
+     * Reads all the items from the given base64 encoded inventory, and adds them to the list.
+     *
+     * @param encodedInventory The base64 encoded inventory.
+     * @param items            The list the items should be added to.
+     * @throws IOException If the inventory is empty, or isn't a valid inventory.
+     */
+    static void readItems(String encodedInventory, List<Item> items) throws IOException {
+        final byte[] decodedInventory = Base64.getDecoder().decode(encodedInventory);
+        if (decodedInventory.length == 0) {
+            throw new IOException("Failed to decode inventory, inventory can't be empty or null!");
+        }
+
+        readItems(decodedInventory, items, 0);
+    }
+
+    private static void readItems(byte[] inventory, List<Item> items, int backpackDepth) throws IOException {
+        new InventoryReader(isCompressed(inventory) ? decompress(inventory) : inventory, backpackDepth).readInventory(items);
+    }
+
+    private void readInventory(List<Item> items) throws IOException {
+        if (readByte() != TAG_COMPOUND) {
+            throw new IOException("Decoded inventory is not a compound tag, unable to parse inventory data!");
+        }
+        skip(readUnsignedShort());
+
+        boolean foundContents = false;
+        byte type;
+        while ((type = readByte()) != TAG_END) {
+            int nameLength = readUnsignedShort();
+            boolean isContents = type == TAG_LIST && nameEquals(nameLength, inventoryContentsName);
+            skip(nameLength);
+
+            if (!isContents) {
+                skipPayload(type, 1);
+                continue;
+            }
+
+            foundContents = true;
+
+            byte elementType = readByte();
+            int length = readLength();
+            if (elementType != TAG_COMPOUND) {
+                skipListElements(elementType, length, 1);
+                continue;
+            }
+
+            for (int i = 0; i < length; i++) {
+                readItem(items);
+            }
+        }
+
+        if (!foundContents) {
+            throw new IOException("Inventory contents tag is not a list, unable to get inventory contents!");
+        }
+    }
+
+    private void readItem(List<Item> items) throws IOException {
+        ItemData item = new ItemData();
+
+        byte type;
+        while ((type = readByte()) != TAG_END) {
+            int nameLength = readUnsignedShort();
+            boolean isTag = type == TAG_COMPOUND && nameEquals(nameLength, tagName);
+            skip(nameLength);
+
+            if (isTag) {
+                item.hasTag = true;
+                readItemTag(item);
+            } else {
+                skipPayload(type, 2);
+            }
+        }
+
+        // Items without a tag, or without hide flags, are skipped entirely, while
+        // backpacks are opened before the rest of the item is validated, so
+        // their contents are added even if the backpack item is invalid.
+        if (!item.hasTag || item.hideFlags == null) {
+            return;
+        }
+
+        if (item.backpackData != null) {
+            readBackpackItems(item.backpackData, items);
+        }
+
+        Item parsedItem = item.toItem();
+        if (parsedItem != null) {
+            items.add(parsedItem);
+        }
+    }
+
+    private void readItemTag(ItemData item) throws IOException {
+        byte type;
+        while ((type = readByte()) != TAG_END) {
+            int nameLength = readUnsignedShort();
+            int nameStart = position;
+            skip(nameLength);
+
+            if (type == TAG_INT && nameEquals(nameStart, nameLength, hideFlagsName)) {
+                item.hideFlags = readInt();
+            } else if (type == TAG_COMPOUND && nameEquals(nameStart, nameLength, extraAttributesName)) {
+                readExtraAttributes(item);
+            } else if (type == TAG_COMPOUND && nameEquals(nameStart, nameLength, displayName)) {
+                item.hasDisplay = true;
+                readDisplay(item);
+            } else {
+                skipPayload(type, 3);
+            }
+        }
+    }
+
+    private void readExtraAttributes(ItemData item) throws IOException {
+        byte type;
+        while ((type = readByte()) != TAG_END) {
+            int nameLength = readUnsignedShort();
+            int nameStart = position;
+            skip(nameLength);
+
+            switch (type) {
+                case TAG_BYTE:
+                    item.putAttribute(buffer, nameStart, nameLength, readByte());
+                    break;
+
+                case TAG_SHORT:
+                    item.putAttribute(buffer, nameStart, nameLength, (short) readUnsignedShort());
+                    break;
+
+                case TAG_INT:
+                    item.putAttribute(buffer, nameStart, nameLength, readInt());
+                    break;
+
+                case TAG_LONG:
+                    item.putAttribute(buffer, nameStart, nameLength, readLong());
+                    break;
+
+                case TAG_FLOAT:
+                    item.putAttribute(buffer, nameStart, nameLength, Float.intBitsToFloat(readInt()));
+                    break;
+
+                case TAG_DOUBLE:
+                    item.putAttribute(buffer, nameStart, nameLength, Double.longBitsToDouble(readLong()));
+                    break;
+
+                case TAG_STRING:
+                    item.putAttribute(buffer, nameStart, nameLength, readString());
+                    break;
+
+                case TAG_BYTE_ARRAY:
+                    if (item.backpackData == null && nameEndsWith(nameStart, nameLength, backpackDataSuffix)) {
+                        int length = readLength();
+                        ensureAvailable(length);
+
+                        item.backpackData = new byte[length];
+                        System.arraycopy(buffer, position, item.backpackData, 0, length);
+                        position += length;
+                    } else {
+                        skipPayload(type, 4);
+                    }
+                    break;
+
+                default:
+                    skipPayload(type, 4);
+            }
+        }
+    }
+
+    private void readDisplay(ItemData item) throws IOException {
+        byte type;
+        while ((type = readByte()) != TAG_END) {
+            int nameLength = readUnsignedShort();
+            int nameStart = position;
+            skip(nameLength);
+
+            if (type == TAG_STRING && nameEquals(nameStart, nameLength, nameName)) {
+                item.name = readString();
+            } else if (type == TAG_LIST && nameEquals(nameStart, nameLength, loreName)) {
+                readLastLoreLine(item);
+            } else {
+                skipPayload(type, 4);
+            }
+        }
+    }
+
+    private void readLastLoreLine(ItemData item) throws IOException {
+        byte elementType = readByte();
+        int length = readLength();
+        if (elementType != TAG_STRING) {
+            skipListElements(elementType, length, 5);
+            return;
+        }
+
+        // Only the last line of the lore is used, so all the lines before it are skipped.
+        for (int i = 0; i < length - 1; i++) {
+            skip(readUnsignedShort());
+        }
+        if (length > 0) {
+            item.lastLoreLine = readString();
+        }
+    }
+
+    private void readBackpackItems(byte[] backpackData, List<Item> items) {
+        try {
+            if (backpackDepth >= maximumDepth) {
+                throw new IOException("Backpacks are nested too deep, unable to read backpack contents!");
+            }
+            readItems(backpackData, items, backpackDepth + 1);
+        } catch (IOException e) {
+            log.error("Failed to read the contents of a backpack, error: {}", e.getMessage(), e);
+        }
+    }
+
+    private void skipPayload(byte type, int depth) throws IOException {
+        switch (type) {
+            case TAG_BYTE:
+                skip(1);
+                break;
+
+            case TAG_SHORT:
+                skip(2);
+                break;
+
+            case TAG_INT:
+            case TAG_FLOAT:
+                skip(4);
+                break;
+
+            case TAG_LONG:
+            case TAG_DOUBLE:
+                skip(8);
+                break;
+
+            case TAG_BYTE_ARRAY:
+                skip(readLength());
+                break;
+
+            case TAG_STRING:
+                skip(readUnsignedShort());
+                break;
+
+            case TAG_LIST:
+                byte elementType = readByte();
+                skipListElements(elementType, readLength(), depth + 1);
+                break;
+
+            case TAG_COMPOUND:
+                checkDepth(depth);
+
+                byte childType;
+                while ((childType = readByte()) != TAG_END) {
+                    skip(readUnsignedShort());
+                    skipPayload(childType, depth + 1);
+                }
+                break;
+
+            case TAG_INT_ARRAY:
+                skip(readLength() * 4L);
+                break;
+
+            case TAG_LONG_ARRAY:
+                skip(readLength() * 8L);
+                break;
+
+            default:
+                throw new IOException("Unknown tag type " + type + ", unable to parse inventory data!");
+        }
+    }
+
+    private void skipListElements(byte elementType, int length, int depth) throws IOException {
+        checkDepth(depth);
+
+        switch (elementType) {
+            case TAG_END:
+                return;
+
+            case TAG_BYTE:
+                skip(length);
+                return;
+
+            case TAG_SHORT:
+                skip(length * 2L);
+                return;
+
+            case TAG_INT:
+            case TAG_FLOAT:
+                skip(length * 4L);
+                return;
+
+            case TAG_LONG:
+            case TAG_DOUBLE:
+                skip(length * 8L);
+                return;
+
+            default:
+                for (int i = 0; i < length; i++) {
+                    skipPayload(elementType, depth);
+                }
+        }
+    }
+
+    private void checkDepth(int depth) throws IOException {
+        if (depth > maximumDepth) {
+            throw new IOException("Tags are nested too deep, unable to parse inventory data!");
+        }
+    }
+
+    private boolean nameEquals(int nameLength, byte[] expected) {
+        return nameEquals(position, nameLength, expected);
+    }
+
+    private boolean nameEquals(int nameStart, int nameLength, byte[] expected) {
+        if (nameLength != expected.length) {
+            return false;
+        }
+
+        for (int i = 0; i < nameLength; i++) {
+            if (buffer[nameStart + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean nameEndsWith(int nameStart, int nameLength, byte[] suffix) {
+        return nameLength >= suffix.length && nameEquals(nameStart + nameLength - suffix.length, suffix.length, suffix);
+    }
+
+    private byte readByte() throws IOException {
+        ensureAvailable(1);
+        return buffer[position++];
+    }
+
+    private int readUnsignedShort() throws IOException {
+        ensureAvailable(2);
+        return ((buffer[position++] & 0xFF) << 8) | (buffer[position++] & 0xFF);
+    }
+
+    private int readInt() throws IOException {
+        ensureAvailable(4);
+        return ((buffer[position++] & 0xFF) << 24)
+            | ((buffer[position++] & 0xFF) << 16)
+            | ((buffer[position++] & 0xFF) << 8)
+            | (buffer[position++] & 0xFF);
+    }
+
+    private long readLong() throws IOException {
+        return ((long) readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+    }
+
+    private int readLength() throws IOException {
+        int length = readInt();
+        if (length < 0) {
+            throw new IOException("Negative length found, unable to parse inventory data!");
+        }
+        return length;
+    }
+
+    /**
+     * Reads a string written using the modified UTF-8 encoding used by NBT,
+     * which is the same encoding used by {@link java.io.DataInput#readUTF()}.
+     *
+     * @return The string that was read.
+     * @throws IOException If the string is cut short, or isn't valid modified UTF-8.
+     */
+    private String readString() throws IOException {
+        int length = readUnsignedShort();
+        ensureAvailable(length);
+
+        int end = position + length;
+        char[] chars = new char[length];
+        int count = 0;
+
+        while (position < end) {
+            int first = buffer[position++] & 0xFF;
+            if (first < 0x80) {
+                chars[count++] = (char) first;
+            } else if ((first & 0xE0) == 0xC0 && position < end) {
+                int second = buffer[position++] & 0xFF;
+                chars[count++] = (char) (((first & 0x1F) << 6) | (second & 0x3F));
+            } else if ((first & 0xF0) == 0xE0 && position + 1 < end) {
+                int second = buffer[position++] & 0xFF;
+                int third = buffer[position++] & 0xFF;
+                chars[count++] = (char) (((first & 0x0F) << 12) | ((second & 0x3F) << 6) | (third & 0x3F));
+            } else {
+                throw new IOException("Malformed string found, unable to parse inventory data!");
+            }
+        }
+
+        return new String(chars, 0, count);
+    }
+
+    private void skip(long length) throws IOException {
+        ensureAvailable(length);
+        position += (int) length;
+    }
+
+    private void ensureAvailable(long length) throws IOException {
+        if (length > buffer.length - position) {
+            throw new IOException("Unexpected end of inventory data, unable to parse inventory data!");
+        }
+    }
+
+    private static boolean isCompressed(final byte[] compressed) {
+        return compressed.length > 1
+            && (compressed[0] == (byte) (GZIPInputStream.GZIP_MAGIC))
+            && (compressed[1] == (byte) (GZIPInputStream.GZIP_MAGIC >> 8));
+    }
+
+    private static byte[] decompress(byte[] compressed) throws IOException {
+        try (GZIPInputStream stream = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return stream.readAllBytes();
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    static String stripColourCodes(String value) {
+        return colourCodePattern.matcher(value).replaceAll("");
+    }
+
+    private static class ItemData {
+
+        private boolean hasTag = false;
+        private boolean hasDisplay = false;
+        private Integer hideFlags = null;
+        private String name = null;
+        private String lastLoreLine = null;
+        private byte[] backpackData = null;
+        private Map<String, Object> attributes = null;
+
+        void putAttribute(byte[] buffer, int nameStart, int nameLength, Object value) {
+            if (attributes == null) {
+                attributes = new HashMap<>();
+            }
+            attributes.putIfAbsent(new String(buffer, nameStart, nameLength, StandardCharsets.UTF_8), value);
+        }
+
+        Item toItem() {
+            if (!hasDisplay || name == null || lastLoreLine == null) {
+                return null;
+            }
+
+            try {
+                return new Item(stripColourCodes(name), hideFlags, stripColourCodes(lastLoreLine), attributes);
+            } catch (Exception e) {
+                // This should only be thrown if the item is not properly formatted or
+                // is an illegal item and shouldn't exist in the game to begin with.
+                return null;
+            }
+        }
+    }
+}
@@ -21,53 +21,22 @@
 
 package com.senither.hypixel.inventory;
 
-import com.github.steveice10.opennbt.tag.builtin.ByteArrayTag;
-import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
-import com.github.steveice10.opennbt.tag.builtin.IntTag;
-import com.github.steveice10.opennbt.tag.builtin.ListTag;
-import com.senither.hypixel.contracts.inventory.InventoryDecoder;
+import java.util.Collections;
+import java.util.Map;
 
-import java.io.IOException;
-
-public class Item implements InventoryDecoder {
+public class Item {
 
     private final String name;
     private final int tagId;
     private final ItemRarity rarity;
     private final ItemType type;
     private final boolean recombobulated;
+    private final Map<String, Object> attributes;
 
-    private final CompoundTag compoundTag;
-
-    Item(Inventory inventory, CompoundTag compoundTag) throws IOException {
-        if (!compoundTag.contains("tag")) {
-            throw new IOException("Missing tag named \"tag\", unable to create item");
-        }
-
-        this.compoundTag = compoundTag;
-
-        CompoundTag tag = compoundTag.get("tag");
-        tagId = ((IntTag) tag.get("HideFlags")).getValue();
-
-        if (tag.contains("ExtraAttributes")) {
-            ByteArrayTag backpackData = getInventoryDataFromAttributes(tag.get("ExtraAttributes"));
-            if (backpackData != null) {
-                inventory.addBackpackContent(backpackData);
-            }
-        }
-        if (!tag.contains("display")) {
-            throw new IOException("Missing display tag, unable to create item");
-        }
-
-        CompoundTag display = tag.get("display");
-        this.name = display.get("Name").getValue().toString().replaceAll("([!|#|%]?[§]+[a-f|0-9])", "");
-
-        ListTag lore = display.get("Lore");
-
-        String metaString = lore.get(lore.size() - 1)
-            .getValue()
-            .toString()
-            .replaceAll("([!|#|%]?[§]+[a-f|0-9])", "");
+    Item(String name, int tagId, String metaString, Map<String, Object> attributes) {
+        this.name = name;
+        this.tagId = tagId;
+        this.attributes = attributes == null ? Collections.emptyMap() : attributes;
 
         String[] itemMeta = metaString.split(" ");
 
@@ -102,7 +71,23 @@ public class Item implements InventoryDecoder {
         return recombobulated;
     }
 
-    public CompoundTag getRawCompoundTag() {
-        return compoundTag;
+    /**
+     * Checks if the item has an extra attribute with the given name, only attributes
+     * holding a number or a string are kept when the item is read.
+     *
+     * @param name The name of the extra attribute.
+     * @return <code>True</code> if the item has the attribute, <code>False</code> otherwise.
+     */
+    public boolean hasAttribute(String name) {
+        return attributes.containsKey(name);
+    }
+
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    public long getLongAttribute(String name, long defaultValue) {
+        Object value = attributes.get(name);
+        return value instanceof Number ? ((Number) value).longValue() : defaultValue;
     }
 }
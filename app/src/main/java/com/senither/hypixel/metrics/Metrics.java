@@ -23,18 +23,9 @@ package com.senither.hypixel.metrics;
 
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
-import com.senither.hypixel.commands.middlewares.ThrottleMiddleware;
-import com.senither.hypixel.commands.middlewares.VerificationMiddleware;
-import com.senither.hypixel.commands.misc.BoopCommand;
-import com.senither.hypixel.commands.misc.BotStatsCommand;
-import com.senither.hypixel.contracts.commands.Command;
-import com.senither.hypixel.database.controller.GuildController;
-import com.senither.hypixel.hypixel.Hypixel;
-import com.senither.hypixel.servlet.routes.GetGuildRoute;
 import io.prometheus.client.Counter;
 import io.prometheus.client.Gauge;
 import io.prometheus.client.Histogram;
-import io.prometheus.client.guava.cache.CacheMetricsCollector;
 import io.prometheus.client.hotspot.DefaultExports;
 import io.prometheus.client.logback.InstrumentedAppender;
 import net.dv8tion.jda.api.events.Event;
@@ -141,6 +132,279 @@ public class Metrics {
         .labelNames("type")
         .register();
 
+    public static final Histogram databaseQueryTime = Histogram.build()
+        .name("skyblock_assistant_database_query_duration_seconds")
+        .help("Time spent running database queries, including the connection wait time, by normalized SQL template")
+        .labelNames("template")
+        .buckets(0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5)
+        .register();
+
+    public static final Counter databaseQueryRows = Counter.build()
+        .name("skyblock_assistant_database_query_rows_total")
+        .help("Total rows returned or affected by database queries by normalized SQL template")
+        .labelNames("template")
+        .register();
+
+    public static final Counter databaseSlowQueries = Counter.build()
+        .name("skyblock_assistant_database_slow_queries_total")
+        .help("Total database queries that took longer than the slow query threshold by normalized SQL template")
+        .labelNames("template")
+        .register();
+
+    public static final Gauge databasePoolConnections = Gauge.build()
+        .name("skyblock_assistant_database_pool_connections")
+        .help("The amount of pooled database connections by state")
+        .labelNames("state") // active, idle
+        .register();
+
+    public static final Histogram databasePoolWaitTime = Histogram.build()
+        .name("skyblock_assistant_database_pool_wait_duration_seconds")
+        .help("Time spent waiting to acquire a connection from the database pool")
+        .buckets(0.001, 0.005, 0.01, 0.05, 0.1, 0.5, 1, 2.5, 5, 10)
+        .register();
+
+    public static final Counter databasePoolTimeouts = Counter.build()
+        .name("skyblock_assistant_database_pool_timeouts_total")
+        .help("Total times a caller timed out waiting for a database connection")
+        .register();
+
+    public static final Counter databasePoolEvictions = Counter.build()
+        .name("skyblock_assistant_database_pool_evictions_total")
+        .help("Total pooled database connections that were closed by reason")
+        .labelNames("reason")
+        .register();
+
+    public static final Counter databaseStatementCache = Counter.build()
+        .name("skyblock_assistant_database_statement_cache_total")
+        .help("Total prepared statement cache lookups by result")
+        .labelNames("result") // hit, miss
+        .register();
+
+    public static final Gauge hypixelKeyBudget = Gauge.build()
+        .name("skyblock_assistant_hypixel_key_budget")
+        .help("The amount of requests each Hypixel API key has left in its bucket")
+        .labelNames("key")
+        .register();
+
+    public static final Gauge hypixelKeyQueue = Gauge.build()
+        .name("skyblock_assistant_hypixel_key_queue")
+        .help("The amount of requests currently waiting for a concurrency permit or an available Hypixel API key")
+        .register();
+
+    public static final Histogram hypixelKeyWaitTime = Histogram.build()
+        .name("skyblock_assistant_hypixel_key_wait_duration_seconds")
+        .help("Time spent waiting for a concurrency permit and an available Hypixel API key")
+        .buckets(0.001, 0.01, 0.1, 0.5, 1, 2.5, 5, 10, 30)
+        .register();
+
+    public static final Counter hypixelKeyQuarantines = Counter.build()
+        .name("skyblock_assistant_hypixel_key_quarantines_total")
+        .help("Total times a Hypixel API key has been quarantined by reason")
+        .labelNames("key", "reason") // ratelimit, auth
+        .register();
+
+    public static final Counter hypixelRequests = Counter.build()
+        .name("skyblock_assistant_hypixel_requests_total")
+        .help("Total player, profile and guild lookups by whether they were issued or joined an in-flight lookup")
+        .labelNames("type") // issued, coalesced
+        .register();
+
+    public static final Gauge hypixelCircuitState = Gauge.build()
+        .name("skyblock_assistant_hypixel_circuit_state")
+        .help("The state of the Hypixel API circuit breaker, 0 is closed, 1 is half-open, and 2 is open")
+        .register();
+
+    public static final Counter hypixelCircuitTransitions = Counter.build()
+        .name("skyblock_assistant_hypixel_circuit_transitions_total")
+        .help("Total times the Hypixel API circuit breaker changed to each state")
+        .labelNames("state") // closed, half_open, open
+        .register();
+
+    public static final Gauge hypixelConcurrencyLimit = Gauge.build()
+        .name("skyblock_assistant_hypixel_concurrency_limit")
+        .help("The amount of requests that can be sent to the Hypixel API at the same time")
+        .register();
+
+    public static final Gauge hypixelConcurrencyInflight = Gauge.build()
+        .name("skyblock_assistant_hypixel_concurrency_inflight")
+        .help("The amount of requests currently being sent to the Hypixel API")
+        .register();
+
+    public static final Counter hypixelRequestsRejected = Counter.build()
+        .name("skyblock_assistant_hypixel_requests_rejected_total")
+        .help("Total requests to the Hypixel API that were rejected before being sent by reason")
+        .labelNames("reason") // circuit_open, concurrency_limit, rate_limited
+        .register();
+
+    public static final Counter hypixelHedgedRequests = Counter.build()
+        .name("skyblock_assistant_hypixel_hedged_requests_total")
+        .help("Total hedged requests sent to the Hypixel API, and how many of them replied first")
+        .labelNames("result") // issued, won
+        .register();
+
+    public static final Counter replyCacheLookups = Counter.build()
+        .name("skyblock_assistant_reply_cache_lookups_total")
+        .help("Total reply cache lookups by reply type and result")
+        .labelNames("type", "result") // fresh, stale, fallback, expired, miss
+        .register();
+
+    public static final Counter replyCacheRefreshes = Counter.build()
+        .name("skyblock_assistant_reply_cache_refreshes_total")
+        .help("Total background refreshes of stale replies by reply type and outcome")
+        .labelNames("type", "outcome") // success, failure, rejected
+        .register();
+
+    public static final Gauge cacheWeight = Gauge.build()
+        .name("skyblock_assistant_cache_weight_bytes")
+        .help("The estimated amount of bytes used by each cache")
+        .labelNames("cache")
+        .register();
+
+    public static final Gauge cacheMaximumWeight = Gauge.build()
+        .name("skyblock_assistant_cache_maximum_weight_bytes")
+        .help("The byte budget of each cache")
+        .labelNames("cache")
+        .register();
+
+    public static final Counter cacheAdmissions = Counter.build()
+        .name("skyblock_assistant_cache_admissions_total")
+        .help("Total cache writes by whether they were admitted into the cache")
+        .labelNames("cache", "result") // admitted, rejected, oversized
+        .register();
+
+    public static final Gauge offHeapStoreUsedSize = Gauge.build()
+        .name("skyblock_assistant_off_heap_store_used_bytes")
+        .help("The amount of off-heap memory used by each off-heap store")
+        .labelNames("store")
+        .register();
+
+    public static final Gauge offHeapStoreMaximumSize = Gauge.build()
+        .name("skyblock_assistant_off_heap_store_maximum_bytes")
+        .help("The maximum amount of off-heap memory each off-heap store can use")
+        .labelNames("store")
+        .register();
+
+    public static final Gauge offHeapStoreCompressionRatio = Gauge.build()
+        .name("skyblock_assistant_off_heap_store_compression_ratio")
+        .help("The uncompressed size divided by the compressed size of everything in each off-heap store")
+        .labelNames("store")
+        .register();
+
+    public static final Counter offHeapStoreRejections = Counter.build()
+        .name("skyblock_assistant_off_heap_store_rejections_total")
+        .help("Total blobs that didn't fit in each off-heap store")
+        .labelNames("store")
+        .register();
+
+    public static final Histogram offHeapStoreDecodeTime = Histogram.build()
+        .name("skyblock_assistant_off_heap_store_decode_duration_seconds")
+        .help("Time spent decoding entries read from each off-heap store")
+        .labelNames("store")
+        .buckets(0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25)
+        .register();
+
+    public static final Counter bazaarSnapshots = Counter.build()
+        .name("skyblock_assistant_bazaar_snapshots_total")
+        .help("Total Bazaar polls by whether they published a new snapshot")
+        .labelNames("result") // published, unchanged, failed
+        .register();
+
+    public static final Gauge bazaarSnapshotUpdated = Gauge.build()
+        .name("skyblock_assistant_bazaar_snapshot_updated_seconds")
+        .help("The time Hypixel last updated the Bazaar data in the latest snapshot")
+        .register();
+
+    public static final Histogram bazaarArchiveAppendTime = Histogram.build()
+        .name("skyblock_assistant_bazaar_archive_append_duration_seconds")
+        .help("Time spent appending Bazaar snapshots to the Bazaar archive")
+        .buckets(0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1)
+        .register();
+
+    public static final Gauge bazaarArchiveSegments = Gauge.build()
+        .name("skyblock_assistant_bazaar_archive_segments")
+        .help("The amount of Bazaar archive segment files currently mapped into memory")
+        .register();
+
+    public static final Counter auctionIndexPages = Counter.build()
+        .name("skyblock_assistant_auction_index_pages_total")
+        .help("Total auction pages loaded for the auction price index by result")
+        .labelNames("result") // success, failure
+        .register();
+
+    public static final Counter auctionIndexCycles = Counter.build()
+        .name("skyblock_assistant_auction_index_cycles_total")
+        .help("Total auction price index cycles by result")
+        .labelNames("result") // success, failure
+        .register();
+
+    public static final Histogram auctionIndexCycleTime = Histogram.build()
+        .name("skyblock_assistant_auction_index_cycle_duration_seconds")
+        .help("Time spent loading every auction page and building the auction price index")
+        .buckets(0.5, 1, 2.5, 5, 10, 15, 20, 30, 45, 60)
+        .register();
+
+    public static final Gauge auctionIndexListings = Gauge.build()
+        .name("skyblock_assistant_auction_index_listings")
+        .help("The amount of BIN auctions in the current auction price index")
+        .register();
+
+    public static final Gauge auctionIndexItems = Gauge.build()
+        .name("skyblock_assistant_auction_index_items")
+        .help("The amount of unique items in the current auction price index")
+        .register();
+
+    public static final Counter writeBehindWrites = Counter.build()
+        .name("skyblock_assistant_write_behind_writes_total")
+        .help("Total writes handled by the database write-behind queues by result")
+        .labelNames("table", "result") // table, queued/coalesced/dropped/flushed/failed
+        .register();
+
+    public static final Gauge writeBehindQueueDepth = Gauge.build()
+        .name("skyblock_assistant_write_behind_queue_depth")
+        .help("The amount of rows currently waiting to be written by the database write-behind queues")
+        .labelNames("table")
+        .register();
+
+    public static final Histogram writeBehindFlushTime = Histogram.build()
+        .name("skyblock_assistant_write_behind_flush_duration_seconds")
+        .help("Time spent flushing a batch of writes from the database write-behind queues")
+        .labelNames("table")
+        .buckets(0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5)
+        .register();
+
+    public static final Histogram databaseReplySize = Histogram.build()
+        .name("skyblock_assistant_database_reply_size_bytes")
+        .help("The size of player and profile replies encoded for the database cache tables")
+        .labelNames("table")
+        .buckets(1024, 2048, 4096, 8192, 16384, 32768, 65536, 131072, 262144, 524288)
+        .register();
+
+    public static final Histogram databaseReplyDecodeTime = Histogram.build()
+        .name("skyblock_assistant_database_reply_decode_duration_seconds")
+        .help("Time spent decoding player and profile replies loaded from the database cache tables")
+        .labelNames("table", "format") // table, json/binary
+        .buckets(0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1)
+        .register();
+
+    public static final Counter replyEncodingConversions = Counter.build()
+        .name("skyblock_assistant_reply_encoding_conversions_total")
+        .help("Total JSON rows in the database cache tables converted to the binary reply format by result")
+        .labelNames("table", "result") // table, converted/failed
+        .register();
+
+    public static final Counter decodedInventoryLookups = Counter.build()
+        .name("skyblock_assistant_decoded_inventory_lookups_total")
+        .help("Total decoded inventory cache lookups by inventory section and result")
+        .labelNames("section", "result") // hit, miss
+        .register();
+
+    public static final Histogram inventoryDecodeTime = Histogram.build()
+        .name("skyblock_assistant_inventory_decode_duration_seconds")
+        .help("Time spent decoding inventories from SkyBlock profiles by inventory section")
+        .labelNames("section")
+        .buckets(0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1)
+        .register();
+
     public static final Gauge blacklist = Gauge.build()
         .name("skyblock_assistant_blacklist_current")
         .help("The amount of servers and users that are currently on the blacklist")
@@ -166,23 +430,6 @@ public class Metrics {
         DefaultExports.initialize();
         Metrics.initializeEventMetrics();
 
-        CacheMetricsCollector cacheMetrics = new CacheMetricsCollector().register();
-        cacheMetrics.addCache("boop", BoopCommand.cache);
-        cacheMetrics.addCache("bot-stats", BotStatsCommand.cache);
-        cacheMetrics.addCache("levels", BotStatsCommand.cache);
-        cacheMetrics.addCache("api-guilds", GetGuildRoute.guildCache);
-        cacheMetrics.addCache("username-to-uuid", Hypixel.usernameToUuidCache);
-        cacheMetrics.addCache("uuid-to-discord-id", Hypixel.uuidToDiscordIdCache);
-        cacheMetrics.addCache("uuid-to-username", Hypixel.uuidToUsernameCache);
-        cacheMetrics.addCache("reply", Hypixel.replyCache);
-        cacheMetrics.addCache("response", Hypixel.responseCache);
-        cacheMetrics.addCache("profile-auctions", Hypixel.auctionsCache);
-        cacheMetrics.addCache("verify", VerificationMiddleware.cache);
-        cacheMetrics.addCache("database-guild", GuildController.cache);
-        cacheMetrics.addCache("discord-id-to-username", Command.discordIdToUsernameCache);
-        cacheMetrics.addCache("discord-id-to-uuid", Command.discordIdToUuidCache);
-        cacheMetrics.addCache("throttle-commands", ThrottleMiddleware.cache);
-
         isSetup = true;
     }
 
@@ -26,6 +26,7 @@ import com.senither.hypixel.contracts.rank.RankRequirementChecker;
 import com.senither.hypixel.database.controller.GuildController;
 import com.senither.hypixel.exceptions.FriendlyException;
 import com.senither.hypixel.exceptions.NoRankRequirementException;
+import com.senither.hypixel.inventory.Inventory;
 import com.senither.hypixel.inventory.Item;
 import com.senither.hypixel.inventory.ItemType;
 import com.senither.hypixel.rank.RankCheckResponse;
@@ -84,12 +85,13 @@ public class ArmorChecker extends RankRequirementChecker {
         }
 
         try {
-            List<Item> items = new ArrayList<>();
-            items.addAll(buildInventoryForPlayer(member, "ender_chest_contents").getItemsWithType(ItemType.ARMOR));
-            items.addAll(buildInventoryForPlayer(member, "inv_contents").getItemsWithType(ItemType.ARMOR));
-            items.addAll(buildInventoryForPlayer(member, "inv_armor").getItemsWithType(ItemType.ARMOR));
+            Inventory inventory = buildCombinedInventoryForPlayer(profileReply, playerUUID,
+                "ender_chest_contents",
+                "inv_contents",
+                "inv_armor"
+            );
 
-            for (GuildReply.Guild.Rank rank : getSortedRanksFromGuild(guildReply)) {
+            for (GuildReply.Guild.Rank rank : getSortedRanksFromGuild(guildEntry)) {
                 if (!guildEntry.getRankRequirements().containsKey(rank.getName())) {
                     continue;
                 }
@@ -112,9 +114,11 @@ public class ArmorChecker extends RankRequirementChecker {
                     int armorPieces = 0;
 
                     ArmorSet armorSet = armorIntegerEntry.getKey().getArmorSet();
-                    for (Item item : items) {
-                        if (armorSet.isPartOfSet(item.getName())) {
-                            armorPieces += 1;
+                    for (String piece : armorSet.getPieces()) {
+                        for (Item item : inventory.getItemsEndingWith(piece)) {
+                            if (item.getType() == ItemType.ARMOR && armorSet.isPartOfSet(item.getName())) {
+                                armorPieces += 1;
+                            }
                         }
                     }
 
@@ -63,7 +63,7 @@ public class AverageSkillsChecker extends RankRequirementChecker {
         }
 
         double averageSkillLevel = response.getAverageSkillLevel();
-        for (GuildReply.Guild.Rank rank : getSortedRanksFromGuild(guildReply)) {
+        for (GuildReply.Guild.Rank rank : getSortedRanksFromGuild(guildEntry)) {
             if (!guildEntry.getRankRequirements().containsKey(rank.getName())) {
                 continue;
             }
@@ -63,7 +63,7 @@ public class BankChecker extends RankRequirementChecker {
         }
 
         int totalCoins = bank + purse;
-        for (GuildReply.Guild.Rank rank : getSortedRanksFromGuild(guildReply)) {
+        for (GuildReply.Guild.Rank rank : getSortedRanksFromGuild(guildEntry)) {
             if (!guildEntry.getRankRequirements().containsKey(rank.getName())) {
                 continue;
             }
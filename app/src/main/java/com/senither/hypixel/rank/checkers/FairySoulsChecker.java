@@ -58,7 +58,7 @@ public class FairySoulsChecker extends RankRequirementChecker {
             ? member.get("fairy_souls_collected").getAsInt()
             : 0;
 
-        for (GuildReply.Guild.Rank rank : getSortedRanksFromGuild(guildReply)) {
+        for (GuildReply.Guild.Rank rank : getSortedRanksFromGuild(guildEntry)) {
             if (!guildEntry.getRankRequirements().containsKey(rank.getName())) {
                 continue;
             }
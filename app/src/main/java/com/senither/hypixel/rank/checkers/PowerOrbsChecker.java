@@ -25,6 +25,7 @@ import com.google.gson.JsonObject;
 import com.senither.hypixel.contracts.rank.RankRequirementChecker;
 import com.senither.hypixel.database.controller.GuildController;
 import com.senither.hypixel.exceptions.FriendlyException;
+import com.senither.hypixel.inventory.Inventory;
 import com.senither.hypixel.inventory.Item;
 import com.senither.hypixel.rank.RankCheckResponse;
 import com.senither.hypixel.rank.items.PowerOrb;
@@ -32,9 +33,7 @@ import net.hypixel.api.reply.GuildReply;
 import net.hypixel.api.reply.skyblock.SkyBlockProfileReply;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.UUID;
 
 public class PowerOrbsChecker extends RankRequirementChecker {
@@ -65,22 +64,22 @@ public class PowerOrbsChecker extends RankRequirementChecker {
         }
 
         try {
-            List<Item> items = new ArrayList<>();
-            items.addAll(buildInventoryForPlayer(member, "ender_chest_contents").getItems());
-            items.addAll(buildInventoryForPlayer(member, "inv_contents").getItems());
+            Inventory inventory = buildCombinedInventoryForPlayer(profileReply, playerUUID,
+                "ender_chest_contents",
+                "inv_contents"
+            );
 
             PowerOrb powerOrb = null;
-            for (Item item : items) {
-                for (PowerOrb orb : PowerOrb.values()) {
-                    if (!item.getName().endsWith(orb.getName())) {
-                        continue;
-                    }
+            for (PowerOrb orb : PowerOrb.values()) {
+                if (powerOrb != null && powerOrb.getId() > orb.getId()) {
+                    continue;
+                }
 
-                    if (powerOrb != null && powerOrb.getId() > orb.getId()) {
-                        continue;
+                for (Item item : inventory.getItemsEndingWith(orb.getName())) {
+                    if (item.getName().endsWith(orb.getName())) {
+                        powerOrb = orb;
+                        break;
                     }
-
-                    powerOrb = orb;
                 }
             }
 
@@ -88,7 +87,7 @@ public class PowerOrbsChecker extends RankRequirementChecker {
                 return null;
             }
 
-            for (GuildReply.Guild.Rank rank : getSortedRanksFromGuild(guildReply)) {
+            for (GuildReply.Guild.Rank rank : getSortedRanksFromGuild(guildEntry)) {
                 if (!guildEntry.getRankRequirements().containsKey(rank.getName())) {
                     continue;
                 }
@@ -57,7 +57,7 @@ public class SlayerChecker extends RankRequirementChecker {
         JsonObject member = getProfileMemberFromUUID(profileReply, playerUUID);
 
         SlayerResponse response = StatisticsChecker.SLAYER.checkUser(null, profileReply, member);
-        for (GuildReply.Guild.Rank rank : getSortedRanksFromGuild(guildReply)) {
+        for (GuildReply.Guild.Rank rank : getSortedRanksFromGuild(guildEntry)) {
             if (!guildEntry.getRankRequirements().containsKey(rank.getName())) {
                 continue;
             }
@@ -25,16 +25,15 @@ import com.google.gson.JsonObject;
 import com.senither.hypixel.contracts.rank.RankRequirementChecker;
 import com.senither.hypixel.database.controller.GuildController;
 import com.senither.hypixel.exceptions.FriendlyException;
-import com.senither.hypixel.inventory.Item;
+import com.senither.hypixel.inventory.Inventory;
+import com.senither.hypixel.inventory.ItemRarity;
 import com.senither.hypixel.inventory.ItemType;
 import com.senither.hypixel.rank.RankCheckResponse;
 import net.hypixel.api.reply.GuildReply;
 import net.hypixel.api.reply.skyblock.SkyBlockProfileReply;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.UUID;
 
 public class TalismansChecker extends RankRequirementChecker {
@@ -68,26 +67,16 @@ public class TalismansChecker extends RankRequirementChecker {
         }
 
         try {
-            List<Item> talismans = new ArrayList<>();
-            talismans.addAll(buildInventoryForPlayer(member, "ender_chest_contents").getItemsWithType(ItemType.ACCESSORY));
-            talismans.addAll(buildInventoryForPlayer(member, "talisman_bag").getItemsWithType(ItemType.ACCESSORY));
-            talismans.addAll(buildInventoryForPlayer(member, "inv_contents").getItemsWithType(ItemType.ACCESSORY));
-
-            int epics = 0;
-            int legendaries = 0;
-
-            for (Item talisman : talismans) {
-                switch (talisman.getRarity()) {
-                    case LEGENDARY:
-                        legendaries++;
-                        break;
-                    case EPIC:
-                        epics++;
-                        break;
-                }
-            }
+            Inventory inventory = buildCombinedInventoryForPlayer(profileReply, playerUUID,
+                "ender_chest_contents",
+                "talisman_bag",
+                "inv_contents"
+            );
+
+            int epics = inventory.countItems(ItemType.ACCESSORY, ItemRarity.EPIC);
+            int legendaries = inventory.countItems(ItemType.ACCESSORY, ItemRarity.LEGENDARY);
 
-            for (GuildReply.Guild.Rank rank : getSortedRanksFromGuild(guildReply)) {
+            for (GuildReply.Guild.Rank rank : getSortedRanksFromGuild(guildEntry)) {
                 if (!guildEntry.getRankRequirements().containsKey(rank.getName())) {
                     continue;
                 }
@@ -26,6 +26,7 @@ import com.senither.hypixel.contracts.rank.RankRequirementChecker;
 import com.senither.hypixel.database.controller.GuildController;
 import com.senither.hypixel.exceptions.FriendlyException;
 import com.senither.hypixel.exceptions.NoRankRequirementException;
+import com.senither.hypixel.inventory.Inventory;
 import com.senither.hypixel.inventory.Item;
 import com.senither.hypixel.inventory.ItemType;
 import com.senither.hypixel.rank.RankCheckResponse;
@@ -83,11 +84,12 @@ public class WeaponsChecker extends RankRequirementChecker {
         }
 
         try {
-            List<Item> items = new ArrayList<>();
-            items.addAll(buildInventoryForPlayer(member, "ender_chest_contents").getItemsWithType(ItemType.WEAPON));
-            items.addAll(buildInventoryForPlayer(member, "inv_contents").getItemsWithType(ItemType.WEAPON));
+            Inventory inventory = buildCombinedInventoryForPlayer(profileReply, playerUUID,
+                "ender_chest_contents",
+                "inv_contents"
+            );
 
-            for (GuildReply.Guild.Rank rank : getSortedRanksFromGuild(guildReply)) {
+            for (GuildReply.Guild.Rank rank : getSortedRanksFromGuild(guildEntry)) {
                 if (!guildEntry.getRankRequirements().containsKey(rank.getName())) {
                     continue;
                 }
@@ -107,8 +109,8 @@ public class WeaponsChecker extends RankRequirementChecker {
 
                 int points = 0;
                 for (Map.Entry<Weapon, Integer> weaponIntegerEntry : weapons.entrySet()) {
-                    for (Item item : items) {
-                        if (weaponIntegerEntry.getKey().match(item)) {
+                    for (Item item : inventory.getItemsEndingWith(weaponIntegerEntry.getKey().getName())) {
+                        if (item.getType() == ItemType.WEAPON && weaponIntegerEntry.getKey().match(item)) {
                             points += weaponIntegerEntry.getValue();
                         }
                     }
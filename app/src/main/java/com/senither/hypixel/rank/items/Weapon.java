@@ -21,8 +21,6 @@
 
 package com.senither.hypixel.rank.items;
 
-import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
-import com.github.steveice10.opennbt.tag.builtin.IntTag;
 import com.senither.hypixel.contracts.rank.ItemRequirement;
 import com.senither.hypixel.contracts.rank.WeaponCondition;
 import com.senither.hypixel.inventory.Item;
@@ -34,13 +32,7 @@ import java.util.List;
 @SuppressWarnings("SpellCheckingInspection")
 public enum Weapon implements ItemRequirement {
 
-    MIDAS_SWORD(item -> {
-        CompoundTag tag = item.getRawCompoundTag().get("tag");
-        CompoundTag attributes = tag.get("ExtraAttributes");
-
-        return attributes.contains("winning_bid")
-            && ((IntTag) attributes.get("winning_bid")).getValue() >= 50000000;
-    }, "Midas' Sword", "midas"),
+    MIDAS_SWORD(item -> item.getLongAttribute("winning_bid", 0L) >= 50000000, "Midas' Sword", "midas"),
     REAPER_SCYTHE("Reaper Scythe", "scythe"),
     ASPECT_OF_THE_DRAGONS("Aspect of the Dragons", "aotd"),
     PIGMAN_SWORD("Pigman Sword", "pig sword", "pigman"),
@@ -31,7 +31,6 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 public class PlayerReport {
 
@@ -67,9 +66,7 @@ public class PlayerReport {
         }
 
         GuildReply.Guild.Rank rankQualifier = null;
-        List<GuildReply.Guild.Rank> sortedRanks = guildReply.getGuild().getRanks().stream()
-            .sorted((o1, o2) -> o2.getPriority() - o1.getPriority())
-            .collect(Collectors.toList());
+        List<GuildReply.Guild.Rank> sortedRanks = guildEntry.getSortedRanks();
 
         RANK_LOOP:
         for (GuildReply.Guild.Rank rank : sortedRanks) {
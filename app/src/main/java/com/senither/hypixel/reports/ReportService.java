@@ -51,7 +51,7 @@ public class ReportService {
 
                 GuildController.GuildEntry guildEntry = GuildController.getGuildById(app.getDatabaseManager(), discordId);
 
-                GuildReply guildReply = app.getHypixel().getGson().fromJson(guildEntry.getData(), GuildReply.class);
+                GuildReply guildReply = guildEntry.getGuildReply();
                 if (guildReply == null || guildReply.getGuild() == null) {
                     continue;
                 }
@@ -79,7 +79,7 @@ public class ReportService {
             return null;
         }
 
-        GuildReply guildReply = app.getHypixel().getGson().fromJson(guild.getData(), GuildReply.class);
+        GuildReply guildReply = guild.getGuildReply();
         if (guildReply == null || guildReply.getGuild() == null) {
             throw new FriendlyException("Failed to load guild data from cached guild entry, try again later");
         }
@@ -36,6 +36,7 @@ import org.slf4j.LoggerFactory;
 
 import java.sql.SQLException;
 import java.util.HashSet;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 public class DecayDonationPointsJob extends Job {
@@ -49,15 +50,11 @@ public class DecayDonationPointsJob extends Job {
     @Override
     public void run() {
         try {
-            for (DataRow dataRow : app.getDatabaseManager().query(
-                "SELECT `discord_id` FROM `guilds` WHERE `donation_time` IS NOT NULL AND `donation_points` IS NOT NULL;"
+            for (GuildController.GuildEntry guild : app.getDatabaseManager().queryList(
+                "SELECT * FROM `guilds` WHERE `donation_time` IS NOT NULL AND `donation_points` IS NOT NULL;",
+                GuildController.guildEntryMapper()
             )) {
-                GuildController.GuildEntry guild = GuildController.getGuildById(app.getDatabaseManager(), dataRow.getLong("discord_id"));
-                if (guild == null) {
-                    continue;
-                }
-
-                GuildReply guildReply = app.getHypixel().getGson().fromJson(guild.getData(), GuildReply.class);
+                GuildReply guildReply = guild.getGuildReply();
                 if (guildReply == null) {
                     continue;
                 }
@@ -68,12 +65,12 @@ public class DecayDonationPointsJob extends Job {
                 }
 
                 HashSet<String> memberIds = new HashSet<>();
-                for (GuildReply.Guild.Member member : guildReply.getGuild().getMembers()) {
-                    memberIds.add(member.getUuid().toString());
+                for (UUID memberUuid : guild.getMemberUuids()) {
+                    memberIds.add(memberUuid.toString());
                 }
 
                 Carbon time = Carbon.now().subHours(guild.getDonationTime());
-                Collection updatePlayers = app.getDatabaseManager().query(String.format(
+                Collection updatePlayers = app.getDatabaseManager().query(
                     "SELECT\n" +
                         "    `donation_points`.`uuid`,\n" +
                         "    `donation_points`.`points`,\n" +
@@ -85,9 +82,9 @@ public class DecayDonationPointsJob extends Job {
                         "LEFT JOIN `uuids` ON `donation_points`.`uuid` = `uuids`.`uuid`\n" +
                         "WHERE `donation_points`.`discord_id` = ?\n" +
                         "  AND `donation_points`.`last_checked_at` < ?\n" +
-                        "  AND `donation_points`.`uuid` IN (%s)",
-                    "'" + String.join("', '", memberIds) + "'"
-                ), guild.getDiscordId(), time);
+                        "  AND `donation_points`.`uuid` IN (?)",
+                    guild.getDiscordId(), time, memberIds
+                );
 
                 if (updatePlayers.isEmpty()) {
                     log.debug("Found no players that should be updated in {}, skipping!", guild.getDiscordId());
@@ -104,10 +101,10 @@ public class DecayDonationPointsJob extends Job {
                 }
                 log.debug("Updating {} players donation points in {}", memberIds.size(), guild.getDiscordId());
 
-                app.getDatabaseManager().queryUpdate(String.format(
-                    "UPDATE `donation_points` SET `points` = `points` - ?, `last_checked_at` = ? WHERE `discord_id` = ? AND `last_checked_at` < ? AND `uuid` IN (%s)",
-                    "'" + String.join("', '", memberIds) + "'"
-                ), guild.getDonationPoints(), Carbon.now(), guild.getDiscordId(), time);
+                app.getDatabaseManager().queryUpdate(
+                    "UPDATE `donation_points` SET `points` = `points` - ?, `last_checked_at` = ? WHERE `discord_id` = ? AND `last_checked_at` < ? AND `uuid` IN (?)",
+                    guild.getDonationPoints(), Carbon.now(), guild.getDiscordId(), time, memberIds
+                );
             }
         } catch (SQLException e) {
             log.error("An SQL exception where thrown while trying to update donation points: {}", e.getMessage(), e);
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+package com.senither.hypixel.scheduler.jobs;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.senither.hypixel.SkyblockAssistant;
+import com.senither.hypixel.contracts.scheduler.Job;
+import com.senither.hypixel.hypixel.ReplyCodec;
+import com.senither.hypixel.metrics.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class EncodeCachedRepliesJob extends Job {
+
+    private static final Logger log = LoggerFactory.getLogger(EncodeCachedRepliesJob.class);
+
+    private static final String[] tables = new String[]{"players", "profiles"};
+    private static final int batchSize = 200;
+    private static final int maximumBatchesPerRun = 10;
+
+    private final Map<String, String> lastUuids = new HashMap<>();
+
+    public EncodeCachedRepliesJob(SkyblockAssistant app) {
+        super(app, 2, 1, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public void run() {
+        if (app.getDatabaseManager() == null) {
+            return;
+        }
+
+        for (String table : tables) {
+            // Tables that have been fully converted are skipped, since all new
+            // rows are written using the binary reply format already.
+            if (lastUuids.containsKey(table) && lastUuids.get(table) == null) {
+                continue;
+            }
+
+            try {
+                for (int i = 0; i < maximumBatchesPerRun; i++) {
+                    if (!convertBatch(table)) {
+                        break;
+                    }
+                }
+            } catch (SQLException e) {
+                log.error("Failed to convert the {} table to the binary reply format, error: {}",
+                    table, e.getMessage(), e
+                );
+            }
+        }
+    }
+
+    private boolean convertBatch(String table) throws SQLException {
+        String lastUuid = lastUuids.getOrDefault(table, "");
+
+        // The rows are paged through using the unique UUID index, so each batch picks up
+        // where the last one stopped instead of scanning past every converted row.
+        List<String[]> rows = app.getDatabaseManager().queryList(String.format(
+            "SELECT `uuid`, `data` FROM `%s` WHERE `uuid` > ? AND `encoded` IS NULL ORDER BY `uuid` ASC LIMIT %d",
+            table, batchSize
+        ), cursor -> new String[]{cursor.getString(1), cursor.getString(2)}, lastUuid);
+
+        if (rows.isEmpty()) {
+            log.info("Finished converting the {} table to the binary reply format", table);
+            lastUuids.put(table, null);
+            return false;
+        }
+
+        List<Object[]> updates = new ArrayList<>(rows.size());
+        for (String[] row : rows) {
+            if (row[1] == null) {
+                continue;
+            }
+
+            try {
+                updates.add(new Object[]{ReplyCodec.encode(JsonParser.parseString(row[1])), row[0]});
+            } catch (JsonParseException e) {
+                Metrics.replyEncodingConversions.labels(table, "failed").inc();
+                log.debug("Failed to parse the {} row for {} while converting it, error: {}",
+                    table, row[0], e.getMessage()
+                );
+            }
+        }
+
+        // Rows that were written again since they were selected already use the binary
+        // format, so they're left alone to not overwrite them with the older data.
+        app.getDatabaseManager().queryBatch(String.format(
+            "UPDATE `%s` SET `encoded` = ?, `data` = NULL WHERE `uuid` = ? AND `encoded` IS NULL", table
+        ), updates);
+
+        Metrics.replyEncodingConversions.labels(table, "converted").inc(updates.size());
+        lastUuids.put(table, rows.get(rows.size() - 1)[0]);
+
+        return rows.size() == batchSize;
+    }
+}
@@ -1,8 +1,9 @@
 package com.senither.hypixel.scheduler.jobs;
 
 import com.senither.hypixel.SkyblockAssistant;
+import com.senither.hypixel.cache.CacheManager;
+import com.senither.hypixel.cache.ManagedCache;
 import com.senither.hypixel.contracts.scheduler.Job;
-import com.senither.hypixel.hypixel.Hypixel;
 
 import java.util.concurrent.TimeUnit;
 
@@ -14,24 +15,11 @@ public class GarbageCollectorJob extends Job {
 
     @Override
     public void run() {
-        synchronized (Hypixel.uuidToUsernameCache) {
-            Hypixel.uuidToUsernameCache.cleanUp();
-        }
-
-        synchronized (Hypixel.usernameToUuidCache) {
-            Hypixel.usernameToUuidCache.cleanUp();
-        }
-
-        synchronized (Hypixel.uuidToDiscordIdCache) {
-            Hypixel.usernameToUuidCache.cleanUp();
-        }
-
-        synchronized (Hypixel.replyCache) {
-            Hypixel.replyCache.cleanUp();
-        }
-
-        synchronized (Hypixel.responseCache) {
-            Hypixel.responseCache.cleanUp();
+        // Expired entries are only evicted while the caches are being written to,
+        // so caches that are mostly read from would otherwise hold onto their
+        // expired entries, and the off-heap memory they use, indefinitely.
+        for (ManagedCache<?, ?> cache : CacheManager.getCaches()) {
+            cache.cleanUp();
         }
     }
 }
@@ -87,9 +87,9 @@ public class HypixelRankSynchronizeJob extends Job {
     }
 
     private void handleCheckForUser(DataRow row) throws InterruptedException, ExecutionException, TimeoutException, SQLException {
-        PlayerReply playerReply = app.getHypixel().getClientContainer().getNextClient().getPlayerByUuid(
+        PlayerReply playerReply = app.getHypixel().getRequestGuard().execute((client, statusListener) -> client.getPlayerByUuid(
             row.getString("uuid")
-        ).get(5, TimeUnit.SECONDS);
+        )).get(5, TimeUnit.SECONDS);
 
         if (playerReply == null) {
             log.debug("Player reply returned as null for {}, skipping!", row.getLong("discord_id"));
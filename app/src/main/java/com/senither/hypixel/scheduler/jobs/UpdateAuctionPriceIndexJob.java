@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.scheduler.jobs;
+
+import com.senither.hypixel.SkyblockAssistant;
+import com.senither.hypixel.contracts.scheduler.Job;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+public class UpdateAuctionPriceIndexJob extends Job {
+
+    private static final Logger log = LoggerFactory.getLogger(UpdateAuctionPriceIndexJob.class);
+
+    public UpdateAuctionPriceIndexJob(SkyblockAssistant app) {
+        super(app, 1, 2, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public void run() {
+        // The jobs are registered before the Hypixel API wrapper is created,
+        // so we'll just skip the first run if it isn't ready yet.
+        if (app.getHypixel() == null) {
+            return;
+        }
+
+        app.getHypixel().getAuctionIngestion().runCycle().whenComplete((index, throwable) -> {
+            if (throwable != null) {
+                log.error("Failed to update the auction price index, error: {}", throwable.getMessage());
+            }
+        });
+    }
+}
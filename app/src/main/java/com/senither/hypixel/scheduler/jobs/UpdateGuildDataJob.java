@@ -23,13 +23,16 @@ package com.senither.hypixel.scheduler.jobs;
 
 import com.senither.hypixel.SkyblockAssistant;
 import com.senither.hypixel.contracts.scheduler.Job;
-import com.senither.hypixel.database.collection.DataRow;
+import com.senither.hypixel.database.DatabaseManager;
+import com.senither.hypixel.database.controller.GuildController;
 import net.dv8tion.jda.api.entities.Guild;
 import net.hypixel.api.reply.GuildReply;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -45,16 +48,25 @@ public class UpdateGuildDataJob extends Job {
     @Override
     public void run() {
         try {
-            for (DataRow row : app.getDatabaseManager().query("SELECT * FROM `guilds`")) {
-                Guild guild = app.getShardManager().getGuildById(row.getString("discord_id"));
+            // Only the IDs are loaded up front, since the guild data itself is replaced
+            // anyway, and the cursor shouldn't hold on to a database connection
+            // while we're waiting for the Hypixel API between each guild.
+            Map<Long, String> guilds = new LinkedHashMap<>();
+            app.getDatabaseManager().queryCursor("SELECT `discord_id`, `id` FROM `guilds`", DatabaseManager.defaultFetchSize, cursor -> {
+                while (cursor.next()) {
+                    guilds.put(cursor.getLong(1), cursor.getString(2));
+                }
+            });
+
+            for (Map.Entry<Long, String> entry : guilds.entrySet()) {
+                Guild guild = app.getShardManager().getGuildById(entry.getKey());
                 if (guild == null) {
                     continue;
                 }
 
                 GuildReply guildReply = app.getHypixel()
-                    .getClientContainer()
-                    .getNextClient()
-                    .getGuildById(row.getString("id"))
+                    .getRequestGuard()
+                    .execute((client, statusListener) -> client.getGuildById(entry.getValue()))
                     .get(5, TimeUnit.SECONDS);
 
                 if (guildReply == null || guildReply.getGuild() == null) {
@@ -65,8 +77,9 @@ public class UpdateGuildDataJob extends Job {
                     "UPDATE `guilds` SET `name` = ?, `data` = ?, last_updated_at = NOW() WHERE `id` = ?",
                     guildReply.getGuild().getName(),
                     app.getHypixel().getGson().toJson(guildReply),
-                    row.getString("id")
+                    entry.getValue()
                 );
+                GuildController.forgetCacheFor(entry.getKey());
 
                 Thread.sleep(500L);
             }
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+package com.senither.hypixel.servlet.routes;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.senither.hypixel.SkyblockAssistant;
+import com.senither.hypixel.contracts.servlet.SparkRoute;
+import com.senither.hypixel.database.QueryStatistics;
+import com.senither.hypixel.utils.NumberUtil;
+import spark.Request;
+import spark.Response;
+
+public class GetDebugQueriesRoute extends SparkRoute {
+
+    public GetDebugQueriesRoute(SkyblockAssistant app) {
+        super(app);
+    }
+
+    @Override
+    public Object handle(Request request, Response response) throws Exception {
+        if (!isAuthorized(request)) {
+            return generateUnauthornizedResponse(response);
+        }
+
+        int limit = Math.max(1, Math.min(NumberUtil.parseInt(request.queryParams("limit"), 25), 250));
+
+        JsonArray templates = new JsonArray();
+        for (QueryStatistics.TemplateStatistics statistics : app.getDatabaseManager().getQueryStatistics().getTopTemplates(limit)) {
+            JsonObject template = new JsonObject();
+            template.addProperty("template", statistics.getTemplate());
+            template.addProperty("calls", statistics.getCalls());
+            template.addProperty("failures", statistics.getFailures());
+            template.addProperty("rows", statistics.getRows());
+            template.addProperty("total_ms", statistics.getTotalNanos() / 1_000_000D);
+            template.addProperty("average_ms", statistics.getCalls() == 0 ? 0D : statistics.getTotalNanos() / 1_000_000D / statistics.getCalls());
+            template.addProperty("max_ms", statistics.getMaxNanos() / 1_000_000D);
+            template.addProperty("wait_ms", statistics.getWaitNanos() / 1_000_000D);
+
+            templates.add(template);
+        }
+
+        JsonObject root = new JsonObject();
+        root.add("templates", templates);
+
+        return buildDataResponse(response, 200, root);
+    }
+}
@@ -21,13 +21,13 @@
 
 package com.senither.hypixel.servlet.routes;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.senither.hypixel.SkyblockAssistant;
+import com.senither.hypixel.cache.CacheManager;
+import com.senither.hypixel.cache.ManagedCache;
 import com.senither.hypixel.contracts.servlet.SparkRoute;
-import net.hypixel.api.HypixelAPI;
+import com.senither.hypixel.hypixel.HypixelCacheKey;
 import net.hypixel.api.reply.GuildReply;
 import spark.Request;
 import spark.Response;
@@ -36,9 +36,9 @@ import java.util.concurrent.TimeUnit;
 
 public class GetGuildRoute extends SparkRoute {
 
-    public static final Cache<String, GuildReply> guildCache = CacheBuilder.newBuilder()
+    public static final ManagedCache<HypixelCacheKey, GuildReply> guildCache = CacheManager.newBuilder("api-guilds")
         .expireAfterWrite(5, TimeUnit.MINUTES)
-        .recordStats()
+        .maximumWeight(32 * 1024 * 1024)
         .build();
 
     public GetGuildRoute(SkyblockAssistant app) {
@@ -52,15 +52,14 @@ public class GetGuildRoute extends SparkRoute {
         }
 
         String name = request.params("name").trim();
-        String cacheKey = (isId(name) ? "uuid-" : "name-") + name.toLowerCase();
+        HypixelCacheKey cacheKey = isId(name) ? HypixelCacheKey.guildById(name) : HypixelCacheKey.guildByName(name);
 
         GuildReply guild = guildCache.getIfPresent(cacheKey);
         if (guild == null) {
-            HypixelAPI client = app.getHypixel().getClientContainer().getNextClient();
-
-            guild = isId(name)
-                ? client.getGuildById(name).get(5, TimeUnit.SECONDS)
-                : client.getGuildByName(String.join("+", name.split(" "))).get(5, TimeUnit.SECONDS);
+            guild = app.getHypixel().getRequestGuard().execute((client, statusListener) -> isId(name)
+                ? client.getGuildById(name)
+                : client.getGuildByName(String.join("+", name.split(" ")))
+            ).get(5, TimeUnit.SECONDS);
 
             guildCache.put(cacheKey, guild);
         }
@@ -72,7 +72,12 @@ public class GetProfileRoute extends SparkRoute {
             JsonObject data = new JsonObject();
             data.addProperty("uuid", formatUUID(player.getPlayer().get("uuid").getAsString()));
             data.addProperty("username", player.getPlayer().get("displayname").getAsString());
-            data.add("profile", profile.getProfile());
+            // The profiles used by the bot only include the member properties the bot uses
+            // itself, so the full profile is loaded again before it is handed out.
+            SkyBlockProfileReply fullProfile = app.getHypixel().getFullSkyBlockProfile(
+                profile.getProfile().get("profile_id").getAsString()
+            ).get(10, TimeUnit.SECONDS);
+            data.add("profile", fullProfile.getProfile());
 
             JsonObject stats = new JsonObject();
             stats.add("dungeons", StatisticsChecker.DUNGEON.checkUser(player, profile, member).toJson());
@@ -26,15 +26,10 @@ public class GetUsernameRoute extends SparkRoute {
             return buildResponse(response, 400, "Missing uuid or uuids query parameters for the uuids that should be resolved.");
         }
 
-        StringBuilder stringifiedParams = new StringBuilder();
-        for (String ignored : stringifiedUuids) {
-            stringifiedParams.append("?, ");
-        }
-
-        Collection usernamesCollection = app.getDatabaseManager().query(String.format(
-            "SELECT `uuid`, `username` FROM `uuids` WHERE `uuid` IN (%s)",
-            stringifiedParams.toString().substring(0, stringifiedParams.length() - 2)
-        ), stringifiedUuids.toArray());
+        Collection usernamesCollection = app.getDatabaseManager().query(
+            "SELECT `uuid`, `username` FROM `uuids` WHERE `uuid` IN (?)",
+            stringifiedUuids
+        );
 
         JsonObject jsonObject = new JsonObject();
         for (String uuidString : stringifiedUuids) {
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.statistics;
+
+import java.util.Collection;
+
+public class LevelCurve {
+
+    private final long[] thresholds;
+
+    private LevelCurve(long[] thresholds) {
+        this.thresholds = thresholds;
+    }
+
+    /**
+     * Creates a level curve from a list of experience values, where each
+     * value is the experience needed to go from the previous level
+     * to the next level.
+     *
+     * @param experiencePerLevel The experience required for each level.
+     * @return The level curve for the given experience values.
+     */
+    public static LevelCurve fromExperiencePerLevel(Collection<Integer> experiencePerLevel) {
+        long[] thresholds = new long[experiencePerLevel.size() + 1];
+
+        int level = 0;
+        for (int experience : experiencePerLevel) {
+            thresholds[level + 1] = thresholds[level] + experience;
+            level++;
+        }
+        return new LevelCurve(thresholds);
+    }
+
+    /**
+     * Creates a level curve from a list of total experience values, where
+     * each value is the total amount of experience needed to reach the level.
+     *
+     * @param totalExperience The total experience required for each level.
+     * @return The level curve for the given experience values.
+     */
+    public static LevelCurve fromTotalExperience(Collection<Integer> totalExperience) {
+        long[] thresholds = new long[totalExperience.size() + 1];
+
+        int level = 1;
+        for (int experience : totalExperience) {
+            thresholds[level++] = experience;
+        }
+        return new LevelCurve(thresholds);
+    }
+
+    /**
+     * Gets the highest level that can be reached on the curve.
+     *
+     * @return The highest level on the curve.
+     */
+    public int getMaxLevel() {
+        return thresholds.length - 1;
+    }
+
+    /**
+     * Gets the total amount of experience required to reach the given level,
+     * levels outside of the curve are capped to the lowest or highest level.
+     *
+     * @param level The level that the experience should be returned for.
+     * @return The total experience required to reach the given level.
+     */
+    public long getExperienceForLevel(int level) {
+        if (level <= 0) {
+            return 0L;
+        }
+        return thresholds[Math.min(level, getMaxLevel())];
+    }
+
+    /**
+     * Gets the highest whole level that has been reached with
+     * the given amount of experience.
+     *
+     * @param experience The total experience that should be converted.
+     * @return The whole level reached with the given experience.
+     */
+    public int getWholeLevelFromExperience(double experience) {
+        int low = 0;
+        int high = getMaxLevel();
+
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (thresholds[middle] <= experience) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Gets the level reached with the given amount of experience, including
+     * the progress made towards the next level as the decimal part, once
+     * the highest level is reached the max level will be returned.
+     *
+     * @param experience The total experience that should be converted.
+     * @return The level and progress reached with the given experience.
+     */
+    public double getLevelFromExperience(double experience) {
+        int level = getWholeLevelFromExperience(experience);
+        if (level == getMaxLevel()) {
+            return level;
+        }
+
+        return level + (experience - thresholds[level]) / (double) (thresholds[level + 1] - thresholds[level]);
+    }
+}
@@ -25,6 +25,7 @@ import com.google.gson.JsonObject;
 import com.senither.hypixel.Constants;
 import com.senither.hypixel.contracts.statistics.Checker;
 import com.senither.hypixel.hypixel.SkyBlockSkill;
+import com.senither.hypixel.statistics.LevelCurve;
 import com.senither.hypixel.statistics.responses.SkillsResponse;
 import net.hypixel.api.reply.PlayerReply;
 import net.hypixel.api.reply.skyblock.SkyBlockProfileReply;
@@ -93,13 +94,13 @@ public class SkillsChecker extends Checker<SkillsResponse> {
     }
 
     private double getSkillLevelFromExperience(SkyBlockSkill skillType, double experience) {
-        int level = 0;
-        for (int toRemove : skillType.equals(SkyBlockSkill.RUNECRAFTING) ? Constants.RUNECRAFTING_SKILL_EXPERIENCE : Constants.GENERAL_SKILL_EXPERIENCE) {
-            experience -= toRemove;
-            if (experience < 0) {
-                return level + (1D - (experience * -1) / (double) toRemove);
-            }
-            level++;
+        LevelCurve levels = skillType.equals(SkyBlockSkill.RUNECRAFTING)
+            ? Constants.RUNECRAFTING_SKILL_LEVELS
+            : Constants.GENERAL_SKILL_LEVELS;
+
+        double level = levels.getLevelFromExperience(experience);
+        if (level < levels.getMaxLevel()) {
+            return level;
         }
         return Math.min(level, skillType.getMaxLevel());
     }
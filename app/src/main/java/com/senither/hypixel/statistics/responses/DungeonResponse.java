@@ -95,15 +95,7 @@ public class DungeonResponse extends StatisticsResponse implements Jsonable {
     }
 
     private double getLevelFromExperience(double experience) {
-        int level = 0;
-        for (int toRemove : Constants.DUNGEON_EXPERIENCE) {
-            experience -= toRemove;
-            if (experience < 0) {
-                return level + (1D - (experience * -1) / (double) toRemove);
-            }
-            level++;
-        }
-        return level;
+        return Constants.DUNGEON_LEVELS.getLevelFromExperience(experience);
     }
 
     @Override
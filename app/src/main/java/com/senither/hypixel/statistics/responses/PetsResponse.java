@@ -116,20 +116,10 @@ public class PetsResponse extends StatisticsResponse {
         }
 
         public double getLevel() {
-            Integer offset = Constants.PET_OFFSET.get(getTier());
-
-            long experience = getExperience();
-            for (int i = offset; i < offset + 99; i++) {
-                Integer levelXp = Constants.PET_EXPERIENCE.asList().get(i);
-
-                if (experience > levelXp) {
-                    experience -= levelXp;
-                    continue;
-                }
-
-                return i + 1 - offset;
-            }
-            return 100;
+            // Pets start at level 1 and only level up once they have more
+            // experience than the level requires, so the experience is
+            // lowered by one to make reaching the exact amount not count.
+            return 1 + Constants.PET_LEVELS.get(getTier()).getWholeLevelFromExperience(getExperience() - 1);
         }
 
         public boolean isActive() {
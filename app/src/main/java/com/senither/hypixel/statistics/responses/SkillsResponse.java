@@ -240,11 +240,7 @@ public class SkillsResponse extends StatisticsResponse implements Jsonable {
     }
 
     private double getExperienceForLevel(double level) {
-        double totalRequiredExperience = 0;
-        for (int i = 0; i < Math.min(level, Constants.GENERAL_SKILL_EXPERIENCE.size()); i++) {
-            totalRequiredExperience += Constants.GENERAL_SKILL_EXPERIENCE.asList().get(i);
-        }
-        return totalRequiredExperience;
+        return Constants.GENERAL_SKILL_LEVELS.getExperienceForLevel((int) Math.ceil(level));
     }
 
     @Override
@@ -150,14 +150,7 @@ public class SlayerResponse extends StatisticsResponse implements Jsonable {
 
         @Override
         public double getLevel() {
-            for (int level = 0; level < Constants.SLAYER_EXPERIENCE.size(); level++) {
-                double requirement = Constants.SLAYER_EXPERIENCE.asList().get(level);
-                if (this.experience < requirement) {
-                    double lastRequirement = level == 0 ? 0D : Constants.SLAYER_EXPERIENCE.asList().get(level - 1);
-                    return level + (this.experience - lastRequirement) / (requirement - lastRequirement);
-                }
-            }
-            return 9D;
+            return Constants.SLAYER_LEVELS.getLevelFromExperience(experience);
         }
 
         @Override
@@ -66,14 +66,6 @@ public enum DungeonWeight {
     }
 
     private double getLevelFromExperience(double experience) {
-        int level = 0;
-        for (int toRemove : Constants.DUNGEON_EXPERIENCE) {
-            experience -= toRemove;
-            if (experience < 0) {
-                return level + (1D - (experience * -1) / (double) toRemove);
-            }
-            level++;
-        }
-        return level;
+        return Constants.DUNGEON_LEVELS.getLevelFromExperience(experience);
     }
 }
@@ -75,14 +75,6 @@ public enum SkillWeight {
     }
 
     private double getSkillLevelFromExperience(double experience) {
-        int level = 0;
-        for (int toRemove : Constants.GENERAL_SKILL_EXPERIENCE) {
-            experience -= toRemove;
-            if (experience < 0) {
-                return Math.min(level + (1D - (experience * -1) / (double) toRemove), skillType.getMaxLevel());
-            }
-            level++;
-        }
-        return Math.min(level, skillType.getMaxLevel());
+        return Math.min(Constants.GENERAL_SKILL_LEVELS.getLevelFromExperience(experience), skillType.getMaxLevel());
     }
 }
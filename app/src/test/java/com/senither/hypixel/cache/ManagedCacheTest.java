@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.cache;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ManagedCacheTest {
+
+    private static final int megabyte = 1024 * 1024;
+
+    @Test
+    public void entriesHeavierThanASegmentAreKept() {
+        ManagedCache<String, Object> cache = CacheManager.newBuilder("test-heavy-entries")
+            .maximumWeight(32 * megabyte)
+            .build();
+
+        Object value = new Object();
+        cache.put("leaderboard", value, 9 * megabyte);
+
+        assertSame(value, cache.getIfPresent("leaderboard"));
+        assertEquals(9 * megabyte, cache.getWeight());
+    }
+
+    @Test
+    public void entriesHeavierThanTheBudgetAreRejected() {
+        List<Object> released = new ArrayList<>();
+        ManagedCache<String, Object> cache = CacheManager.newBuilder("test-oversized-entries")
+            .maximumWeight(8 * megabyte)
+            .build((String key, Object value) -> 1, released::add);
+
+        Object value = new Object();
+        cache.put("leaderboard", value, 9 * megabyte);
+
+        assertNull(cache.getIfPresent("leaderboard"));
+        assertEquals(0, cache.getWeight());
+        assertEquals(1, released.size());
+        assertSame(value, released.get(0));
+    }
+
+    @Test
+    public void keysAreOnlyAdmittedOnceTheyHaveBeenLookedUpRepeatedly() {
+        ManagedCache<String, Object> cache = CacheManager.newBuilder("test-admission")
+            .maximumWeight(4 * megabyte)
+            .build();
+
+        Object popular = new Object();
+        cache.put("popular", popular, 3 * megabyte);
+
+        Object value = new Object();
+        assertNull(cache.getIfPresent("candidate"));
+        cache.put("candidate", value, 2 * megabyte);
+
+        assertNull(cache.getIfPresent("candidate"));
+        assertSame(popular, cache.getIfPresent("popular"));
+
+        cache.put("candidate", value, 2 * megabyte);
+
+        assertSame(value, cache.getIfPresent("candidate"));
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.hypixel;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ReplyCodecTest {
+
+    private static final String base64Alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+
+    @Test
+    public void largeAndNegativeLongsAreRoundTripped() throws IOException {
+        long[] values = {
+            0L, 1L, -1L, 63L, -64L, 128L, Integer.MAX_VALUE, Integer.MIN_VALUE,
+            1_234_567_890_123L, -1_234_567_890_123L, Long.MAX_VALUE, Long.MIN_VALUE
+        };
+
+        for (long value : values) {
+            assertEquals(value, roundTrip(new JsonPrimitive(value)).getAsLong());
+
+            // Numbers parsed from JSON are lazily parsed numbers rather than longs.
+            JsonElement parsed = roundTrip(JsonParser.parseString(Long.toString(value)));
+            assertEquals(value, parsed.getAsLong());
+            assertEquals(Long.toString(value), parsed.toString());
+        }
+    }
+
+    @Test
+    public void integersTooLargeForALongAreKeptAsTheirOriginalString() throws IOException {
+        String json = "[9223372036854775808,-9223372036854775809,123456789012345678901234567890]";
+
+        assertEquals(json, roundTrip(JsonParser.parseString(json)).toString());
+    }
+
+    @Test
+    public void doublesThatArentExactFloatsKeepTheirFullPrecision() throws IOException {
+        double[] values = {0.1D, -0.1D, 1D / 3D, Math.PI, 1e300D, -1e-300D, 12345678.9D, Double.MIN_VALUE};
+
+        for (double value : values) {
+            assertNotEquals(value, (double) (float) value, 0D);
+
+            assertEquals(value, roundTrip(new JsonPrimitive(value)).getAsDouble(), 0D);
+            assertEquals(value, roundTrip(JsonParser.parseString(Double.toString(value))).getAsDouble(), 0D);
+        }
+    }
+
+    @Test
+    public void doublesThatAreExactFloatsAreRoundTripped() throws IOException {
+        double[] values = {0D, 0.5D, -2.25D, 1024.125D, 12.5D};
+
+        for (double value : values) {
+            assertEquals(value, roundTrip(new JsonPrimitive(value)).getAsDouble(), 0D);
+            assertEquals(value, roundTrip(JsonParser.parseString(Double.toString(value))).getAsDouble(), 0D);
+        }
+    }
+
+    @Test
+    public void base64StringsAreRoundTripped() throws IOException {
+        String base64 = Base64.getEncoder().encodeToString(randomBytes(600));
+
+        assertEquals(base64, roundTrip(new JsonPrimitive(base64)).getAsString());
+    }
+
+    @Test
+    public void base64StringsThatDontEncodeBackIdenticallyAreRoundTripped() throws IOException {
+        // 200 bytes leaves two unused bits in the last character before the padding, setting
+        // them still decodes to the same bytes, but those encode back to a different string.
+        String canonical = Base64.getEncoder().encodeToString(randomBytes(200));
+        char last = canonical.charAt(canonical.length() - 2);
+        String nonCanonical = canonical.substring(0, canonical.length() - 2)
+            + base64Alphabet.charAt(base64Alphabet.indexOf(last) | 0b11) + "=";
+
+        assertTrue(nonCanonical.length() >= 256);
+        assertNotEquals(canonical, nonCanonical);
+        assertEquals(canonical, Base64.getEncoder().encodeToString(Base64.getDecoder().decode(nonCanonical)));
+        assertEquals(nonCanonical, roundTrip(new JsonPrimitive(nonCanonical)).getAsString());
+
+        // MIME style base64 with line breaks, and strings with spaces, are left as they are.
+        String mime = Base64.getMimeEncoder().encodeToString(randomBytes(600));
+        assertEquals(mime, roundTrip(new JsonPrimitive(mime)).getAsString());
+
+        String padded = canonical.substring(0, 260) + "====";
+        assertEquals(padded, roundTrip(new JsonPrimitive(padded)).getAsString());
+    }
+
+    @Test
+    public void multipleBase64StringsKeepTheirOrder() throws IOException {
+        JsonObject object = new JsonObject();
+        JsonArray inventories = new JsonArray();
+        for (int i = 0; i < 5; i++) {
+            inventories.add(Base64.getEncoder().encodeToString(randomBytes(300 + i * 50)));
+        }
+        object.add("inventories", inventories);
+        object.addProperty("data", inventories.get(2).getAsString());
+
+        assertEquals(object, roundTrip(object));
+    }
+
+    @Test
+    public void emptyAndNestedArraysAreRoundTripped() throws IOException {
+        String[] trees = {
+            "[]",
+            "[[]]",
+            "[[],[[]],[[[]]]]",
+            "{\"a\":[],\"b\":[[1,2],[],[[\"c\"]]],\"c\":[{},{\"d\":[]},null,true,false]}",
+            "[{\"a\":[{\"a\":[{\"a\":[]}]}]},{\"a\":{\"b\":{}}}]"
+        };
+
+        for (String tree : trees) {
+            JsonElement element = JsonParser.parseString(tree);
+
+            assertEquals(element, roundTrip(element));
+            assertEquals(tree, roundTrip(element).toString());
+        }
+    }
+
+    @Test
+    public void repeatedObjectKeysAreRoundTripped() throws IOException {
+        String json = "{\"members\":{\"a\":{\"coins\":1,\"name\":\"x\"},\"b\":{\"name\":\"y\",\"coins\":2},\"coins\":3}}";
+
+        assertEquals(json, roundTrip(JsonParser.parseString(json)).toString());
+    }
+
+    @Test
+    public void rowsWithoutEncodedBytesAreReadFromTheirJson() throws IOException {
+        String json = "{\"success\":true,\"player\":{\"uuid\":\"abc\",\"coins\":0.1,\"stats\":[]}}";
+
+        assertEquals(JsonParser.parseString(json), ReplyCodec.decode(null, json));
+    }
+
+    @Test
+    public void rowsWithEncodedBytesIgnoreTheirJson() throws IOException {
+        JsonElement element = JsonParser.parseString("{\"success\":true,\"player\":null}");
+
+        assertEquals(element, ReplyCodec.decode(ReplyCodec.encode(element), "{\"success\":false}"));
+        assertEquals(element, ReplyCodec.decode(ReplyCodec.encode(element), null));
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void rowsWithoutEncodedBytesAndMalformedJsonFailToDecode() throws IOException {
+        ReplyCodec.decode(null, "{\"success\":");
+    }
+
+    @Test(expected = IOException.class)
+    public void encodedBytesWithAnUnknownVersionFailToDecode() throws IOException {
+        byte[] encoded = ReplyCodec.encode(JsonParser.parseString("{\"success\":true}"));
+        encoded[0] = ReplyCodec.currentVersion + 1;
+
+        ReplyCodec.decode(encoded, "{\"success\":true}");
+    }
+
+    private static JsonElement roundTrip(JsonElement element) throws IOException {
+        return ReplyCodec.decode(ReplyCodec.encode(element));
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+}
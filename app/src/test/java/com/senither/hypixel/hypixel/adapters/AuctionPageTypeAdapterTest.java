@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.hypixel.adapters;
+
+import com.google.gson.JsonObject;
+import com.senither.hypixel.hypixel.auctions.AuctionPage;
+import com.senither.hypixel.inventory.ItemRarity;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class AuctionPageTypeAdapterTest {
+
+    private final AuctionPageTypeAdapter adapter = new AuctionPageTypeAdapter();
+
+    @Test
+    public void pagesKeepOnlyUnclaimedBinAuctions() throws IOException {
+        AuctionPage page = adapter.fromJson("{\"success\":true,\"page\":3,\"totalPages\":42,\"totalAuctions\":41000,"
+            + "\"lastUpdated\":1603152000000,\"auctions\":["
+            + auction("Hyperion", "MYTHIC", 900000000, true, false) + ","
+            + auction("Aspect of the End", "RARE", 250000, false, false) + ","
+            + auction("Midas' Sword", "LEGENDARY", 50000000, true, true) + ","
+            + auction("§6Ancient Necron's Chestplate ✪✪✪✪✪", "LEGENDARY", 1234567890123L, true, false)
+            + "]}");
+
+        assertTrue(page.isSuccess());
+        assertEquals(3, page.getPage());
+        assertEquals(42, page.getTotalPages());
+        assertEquals(1603152000000L, page.getLastUpdated());
+        assertEquals(2, page.getListings().size());
+
+        AuctionPage.Listing hyperion = page.getListings().get(0);
+        assertEquals("Hyperion", hyperion.getItemName());
+        assertEquals(ItemRarity.MYTHIC, hyperion.getRarity());
+        assertEquals(900000000L, hyperion.getPrice());
+
+        AuctionPage.Listing chestplate = page.getListings().get(1);
+        assertEquals("§6Ancient Necron's Chestplate ✪✪✪✪✪", chestplate.getItemName());
+        assertEquals(ItemRarity.LEGENDARY, chestplate.getRarity());
+        assertEquals(1234567890123L, chestplate.getPrice());
+    }
+
+    @Test
+    public void unknownAndNestedPropertiesAreSkipped() throws IOException {
+        AuctionPage page = adapter.fromJson("{\"auctions\":[{"
+            + "\"uuid\":\"abc\",\"item_bytes\":{\"type\":0,\"data\":\"H4sIAAAAAAAAAA==\"},"
+            + "\"bids\":[{\"bidder\":\"a\",\"amount\":5},{\"bidder\":\"b\",\"amount\":10}],"
+            + "\"claimed_bidders\":[],\"extra\":\"Hyperion Diamond Sword\",\"coop\":[\"a\",\"b\"],"
+            + "\"item_name\":\"Hyperion\",\"tier\":\"MYTHIC\",\"starting_bid\":5,\"bin\":true,\"claimed\":false"
+            + "}],\"success\":true,\"totalPages\":1,\"unknown\":{\"nested\":[1,[2,{\"a\":null}]]}}");
+
+        assertTrue(page.isSuccess());
+        assertEquals(1, page.getTotalPages());
+        assertEquals(1, page.getListings().size());
+        assertEquals("Hyperion", page.getListings().get(0).getItemName());
+        assertEquals(5L, page.getListings().get(0).getPrice());
+    }
+
+    @Test
+    public void nullPropertiesAreIgnored() throws IOException {
+        AuctionPage page = adapter.fromJson("{\"success\":true,\"auctions\":["
+            + "{\"item_name\":null,\"tier\":\"RARE\",\"starting_bid\":5,\"bin\":true},"
+            + "{\"item_name\":\"Bat Talisman\",\"tier\":null,\"starting_bid\":10,\"bin\":true,\"claimed\":null}"
+            + "]}");
+
+        assertEquals(1, page.getListings().size());
+        assertEquals("Bat Talisman", page.getListings().get(0).getItemName());
+        assertEquals(ItemRarity.UNKNOWN, page.getListings().get(0).getRarity());
+    }
+
+    @Test
+    public void pagesWithoutAuctionsHaveNoListings() throws IOException {
+        AuctionPage failedPage = adapter.fromJson("{\"success\":false,\"cause\":\"Page not found\"}");
+        assertFalse(failedPage.isSuccess());
+        assertTrue(failedPage.getListings().isEmpty());
+
+        AuctionPage nullAuctions = adapter.fromJson("{\"success\":true,\"auctions\":null}");
+        assertTrue(nullAuctions.isSuccess());
+        assertTrue(nullAuctions.getListings().isEmpty());
+    }
+
+    @Test
+    public void nullPagesAreReadAsNull() throws IOException {
+        assertNull(adapter.fromJson("null"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void pagesCantBeWritten() throws IOException {
+        adapter.toJson(new StringWriter(), new AuctionPage(true, 0, 1, 0, null));
+    }
+
+    private static String auction(String itemName, String tier, long startingBid, boolean bin, boolean claimed) {
+        JsonObject auction = new JsonObject();
+        auction.addProperty("uuid", "409a1e0f261a49849493278d6cd9305a");
+        auction.addProperty("item_name", itemName);
+        auction.addProperty("item_lore", "§7Damage: §c+260\n§d§l§ka§r §d§l§d§lMYTHIC DUNGEON SWORD §d§l§ka");
+        auction.addProperty("tier", tier);
+        auction.addProperty("starting_bid", startingBid);
+        auction.addProperty("bin", bin);
+        auction.addProperty("claimed", claimed);
+        auction.addProperty("item_bytes", "H4sIAAAAAAAAAONiYOBkYMzkYmBgYGRg");
+        return auction.toString();
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.hypixel.adapters;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import net.hypixel.api.reply.skyblock.SkyBlockProfileReply;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SkyBlockProfileReplyTypeAdapterFactoryTest {
+
+    private static final String reply = "{\"success\":true,\"profile\":{"
+        + "\"profile_id\":\"abc\",\"cute_name\":\"Apple\",\"members\":{"
+        + "\"uuid\":{\"coin_purse\":12.5,\"experience_skill_mining\":100,\"objectives\":{\"a\":1},\"quests\":[1,2]}"
+        + "}}}";
+
+    @Test
+    public void projectedProfilesOnlyKeepTheUsedMemberProperties() {
+        Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(new SkyBlockProfileReplyTypeAdapterFactory())
+            .create();
+
+        SkyBlockProfileReply profileReply = gson.fromJson(reply, SkyBlockProfileReply.class);
+        JsonObject member = profileReply.getProfile().getAsJsonObject("members").getAsJsonObject("uuid");
+
+        assertTrue(profileReply.isSuccess());
+        assertEquals("Apple", profileReply.getProfile().get("cute_name").getAsString());
+        assertEquals(12.5D, member.get("coin_purse").getAsDouble(), 0D);
+        assertEquals(100, member.get("experience_skill_mining").getAsInt());
+        assertFalse(member.has("objectives"));
+        assertFalse(member.has("quests"));
+    }
+
+    @Test
+    public void profilesReadWithoutTheFactoryKeepEveryMemberProperty() {
+        SkyBlockProfileReply profileReply = new Gson().fromJson(reply, SkyBlockProfileReply.class);
+        JsonObject member = profileReply.getProfile().getAsJsonObject("members").getAsJsonObject("uuid");
+
+        assertTrue(member.has("objectives"));
+        assertEquals(2, member.getAsJsonArray("quests").size());
+    }
+}
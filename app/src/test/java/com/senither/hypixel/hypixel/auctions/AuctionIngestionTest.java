@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.hypixel.auctions;
+
+import com.senither.hypixel.inventory.ItemRarity;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AuctionIngestionTest {
+
+    @Test
+    public void everyPageIsLoadedOnceAndMergedIntoTheIndex() throws Exception {
+        List<Integer> loadedPages = Collections.synchronizedList(new ArrayList<>());
+        AuctionIngestion ingestion = new AuctionIngestion(page -> {
+            loadedPages.add(page);
+            return CompletableFuture.completedFuture(createPage(page, 10));
+        }, 3);
+
+        AuctionPriceIndex index = ingestion.runCycle().get();
+
+        Collections.sort(loadedPages);
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), loadedPages);
+        assertSame(index, ingestion.getIndex());
+
+        assertEquals(20, index.getListings());
+        assertEquals(11, index.size());
+        assertEquals(1_000_009L, index.getLastUpdated());
+
+        AuctionPrice hyperion = index.getPrice("§dHyperion", ItemRarity.MYTHIC);
+        assertEquals(10, hyperion.getCount());
+        assertEquals(100L, hyperion.getLowestBin());
+        assertEquals(600L, hyperion.getMedianBin());
+        assertNull(index.getPrice("Hyperion", ItemRarity.LEGENDARY));
+
+        for (int page = 0; page < 10; page++) {
+            assertEquals(1, index.getPrice("Item " + page, ItemRarity.COMMON).getCount());
+        }
+    }
+
+    @Test
+    public void lanesLoadTheirPagesOneAfterAnotherInParallel() throws Exception {
+        Map<Integer, CompletableFuture<AuctionPage>> pending = new ConcurrentHashMap<>();
+        AuctionIngestion ingestion = new AuctionIngestion(page -> {
+            CompletableFuture<AuctionPage> future = new CompletableFuture<>();
+            assertNull("Page " + page + " was loaded twice", pending.put(page, future));
+            return future;
+        }, 3);
+
+        CompletableFuture<AuctionPriceIndex> cycle = ingestion.runCycle();
+        assertEquals(set(0), pending.keySet());
+
+        // The lanes load every third page, starting with page 1, 2, and 3.
+        complete(pending, 0, 8);
+        assertEquals(set(1, 2, 3), pending.keySet());
+
+        complete(pending, 2, 8);
+        assertEquals(set(1, 3, 5), pending.keySet());
+
+        complete(pending, 5, 8);
+        assertEquals(set(1, 3), pending.keySet());
+
+        complete(pending, 1, 8);
+        assertEquals(set(3, 4), pending.keySet());
+
+        complete(pending, 3, 8);
+        complete(pending, 4, 8);
+        assertEquals(set(6, 7), pending.keySet());
+
+        complete(pending, 7, 8);
+        assertFalse(cycle.isDone());
+        complete(pending, 6, 8);
+
+        assertTrue(pending.isEmpty());
+        assertEquals(16, cycle.get().getListings());
+    }
+
+    @Test
+    public void cyclesWithASinglePageDontStartAnyLanes() throws Exception {
+        List<Integer> loadedPages = Collections.synchronizedList(new ArrayList<>());
+        AuctionIngestion ingestion = new AuctionIngestion(page -> {
+            loadedPages.add(page);
+            return CompletableFuture.completedFuture(createPage(page, 1));
+        }, 4);
+
+        assertEquals(2, ingestion.runCycle().get().getListings());
+        assertEquals(Collections.singletonList(0), loadedPages);
+    }
+
+    @Test
+    public void failedPagesKeepThePreviousIndex() throws Exception {
+        Set<Integer> failingPages = ConcurrentHashMap.newKeySet();
+        AuctionIngestion ingestion = new AuctionIngestion(page -> {
+            if (!failingPages.contains(page)) {
+                return CompletableFuture.completedFuture(createPage(page, 6));
+            }
+
+            CompletableFuture<AuctionPage> future = new CompletableFuture<>();
+            future.completeExceptionally(new IllegalStateException("Failed to load page " + page));
+            return future;
+        }, 2);
+
+        AuctionPriceIndex index = ingestion.runCycle().get();
+        assertNotNull(index);
+
+        failingPages.add(4);
+        try {
+            ingestion.runCycle().get();
+            fail("The cycle should fail when a page fails to load");
+        } catch (ExecutionException e) {
+            assertEquals("Failed to load page 4", e.getCause().getMessage());
+        }
+        assertSame(index, ingestion.getIndex());
+
+        // The next cycle can run again once the failed cycle has finished.
+        failingPages.clear();
+        assertEquals(12, ingestion.runCycle().get().getListings());
+    }
+
+    @Test
+    public void unsuccessfulPagesFailTheCycle() throws Exception {
+        AuctionIngestion ingestion = new AuctionIngestion(page -> CompletableFuture.completedFuture(
+            page == 2 ? new AuctionPage(false, page, 0, 0, null) : createPage(page, 4)
+        ), 2);
+
+        try {
+            ingestion.runCycle().get();
+            fail("The cycle should fail when a page isn't successful");
+        } catch (ExecutionException e) {
+            assertEquals("Failed to load auction page 2", e.getCause().getMessage());
+        }
+        assertNull(ingestion.getIndex());
+    }
+
+    @Test
+    public void cyclesStartedWhileACycleIsRunningReturnTheCurrentIndex() throws Exception {
+        CompletableFuture<AuctionPage> firstPage = new CompletableFuture<>();
+        AuctionIngestion ingestion = new AuctionIngestion(page -> firstPage, 1);
+
+        CompletableFuture<AuctionPriceIndex> cycle = ingestion.runCycle();
+        CompletableFuture<AuctionPriceIndex> concurrentCycle = ingestion.runCycle();
+
+        assertTrue(concurrentCycle.isDone());
+        assertNull(concurrentCycle.get());
+
+        firstPage.complete(createPage(0, 1));
+        assertSame(cycle.get(), ingestion.getIndex());
+    }
+
+    private static void complete(Map<Integer, CompletableFuture<AuctionPage>> pending, int page, int totalPages) {
+        pending.remove(page).complete(createPage(page, totalPages));
+    }
+
+    private static AuctionPage createPage(int page, int totalPages) {
+        return new AuctionPage(true, page, totalPages, 1_000_000L + page, Arrays.asList(
+            new AuctionPage.Listing("Hyperion", ItemRarity.MYTHIC, (page + 1) * 100L),
+            new AuctionPage.Listing("Item " + page, ItemRarity.COMMON, page)
+        ));
+    }
+
+    private static Set<Integer> set(Integer... pages) {
+        return new HashSet<>(Arrays.asList(pages));
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.hypixel.bazaar;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BazaarArchiveTest {
+
+    private static final long hour = TimeUnit.HOURS.toMillis(1);
+    private static final long minute = TimeUnit.MINUTES.toMillis(1);
+
+    // Two hours before a new hour segment starts, so the snapshots are split across two segments.
+    private static final long base = ArchiveResolution.HOUR.getSegmentStart(1_600_000_000_000L)
+        + ArchiveResolution.HOUR.getSegmentSize() - 2 * hour;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void snapshotsAreRolledUpIntoEachBucket() throws IOException {
+        BazaarArchive archive = new BazaarArchive(folder.getRoot().toPath(), 28);
+        appendSnapshots(archive);
+
+        ArchiveSeries series = archive.query(BazaarProduct.SEEDS, ArchiveResolution.HOUR, base, base + 3 * hour);
+
+        assertArrayEquals(new long[]{base, base + hour, base + 2 * hour}, series.getTimes());
+        assertArrayEquals(new float[]{15F, 30F, 40F}, series.getBuyPrices(), 0F);
+        assertArrayEquals(new float[]{7.5F, 15F, 20F}, series.getSellPrices(), 0F);
+        assertArrayEquals(new float[]{150F, 300F, 400F}, series.getBuyVolumes(), 0F);
+        assertArrayEquals(new float[]{1500F, 3000F, 4000F}, series.getSellVolumes(), 0F);
+
+        ArchiveSeries minutes = archive.query(BazaarProduct.SEEDS, ArchiveResolution.MINUTE, base, base + hour);
+        assertArrayEquals(new long[]{base + minute, base + 2 * minute}, minutes.getTimes());
+        assertArrayEquals(new float[]{10F, 20F}, minutes.getBuyPrices(), 0F);
+    }
+
+    @Test
+    public void productsAreOnlyRecordedWhileTheyreListed() throws IOException {
+        BazaarArchive archive = new BazaarArchive(folder.getRoot().toPath(), 28);
+        appendSnapshots(archive);
+
+        ArchiveSeries series = archive.query(BazaarProduct.HAY_BLOCK, ArchiveResolution.HOUR, base, base + 3 * hour);
+
+        assertArrayEquals(new long[]{base + 2 * hour}, series.getTimes());
+        assertArrayEquals(new float[]{2F}, series.getBuyPrices(), 0F);
+        assertTrue(archive.query(BazaarProduct.ENCHANTED_SEEDS, ArchiveResolution.HOUR, base, base + 3 * hour).isEmpty());
+    }
+
+    @Test
+    public void queriesOnlyReturnBucketsWithinTheRange() throws IOException {
+        BazaarArchive archive = new BazaarArchive(folder.getRoot().toPath(), 28);
+        appendSnapshots(archive);
+
+        ArchiveSeries series = archive.query(BazaarProduct.SEEDS, ArchiveResolution.HOUR, base + hour, base + 2 * hour);
+        assertArrayEquals(new long[]{base + hour}, series.getTimes());
+
+        assertTrue(archive.query(BazaarProduct.SEEDS, ArchiveResolution.HOUR, base - 5 * hour, base).isEmpty());
+        assertTrue(archive.query(BazaarProduct.SEEDS, ArchiveResolution.HOUR, base + 3 * hour, base + 9 * hour).isEmpty());
+    }
+
+    @Test
+    public void archivesAreReadBackAfterARestart() throws IOException {
+        appendSnapshots(new BazaarArchive(folder.getRoot().toPath(), 28));
+
+        BazaarArchive archive = new BazaarArchive(folder.getRoot().toPath(), 28);
+        ArchiveSeries series = archive.query(BazaarProduct.SEEDS, ArchiveResolution.HOUR, base, base + 3 * hour);
+        assertArrayEquals(new long[]{base, base + hour, base + 2 * hour}, series.getTimes());
+        assertArrayEquals(new float[]{15F, 30F, 40F}, series.getBuyPrices(), 0F);
+
+        // Buckets keep being averaged with the samples written before the restart.
+        archive.append(createSnapshot(base + 2 * hour + 10 * minute, 60D, false));
+        series = archive.query(BazaarProduct.SEEDS, ArchiveResolution.HOUR, base + 2 * hour, base + 3 * hour);
+        assertArrayEquals(new float[]{50F}, series.getBuyPrices(), 0F);
+
+        // Hour segments start at midnight, so the snapshots are split across two days as well.
+        ArchiveSeries days = archive.query(BazaarProduct.SEEDS, ArchiveResolution.DAY, base, base + 3 * hour);
+        assertArrayEquals(new long[]{base + 2 * hour - TimeUnit.DAYS.toMillis(1), base + 2 * hour}, days.getTimes());
+        assertArrayEquals(new float[]{20F, 50F}, days.getBuyPrices(), 0F);
+    }
+
+    private static void appendSnapshots(BazaarArchive archive) {
+        archive.append(createSnapshot(base + minute, 10D, false));
+        archive.append(createSnapshot(base + 2 * minute, 20D, false));
+        archive.append(createSnapshot(base + hour + 5 * minute, 30D, false));
+        archive.append(createSnapshot(base + 2 * hour + 5 * minute, 40D, true));
+    }
+
+    private static BazaarSnapshot createSnapshot(long lastUpdated, double seedsPrice, boolean hayListed) {
+        JsonObject products = new JsonObject();
+        products.add("SEEDS", createProduct("SEEDS", seedsPrice));
+        if (hayListed) {
+            products.add("HAY_BLOCK", createProduct("HAY_BLOCK", 2D));
+        }
+
+        JsonObject reply = new JsonObject();
+        reply.addProperty("success", true);
+        reply.addProperty("lastUpdated", lastUpdated);
+        reply.add("products", products);
+
+        return new BazaarSnapshot(new Gson().fromJson(reply, BazaarProductReply.class), lastUpdated);
+    }
+
+    private static JsonObject createProduct(String key, double price) {
+        JsonObject quickStatus = new JsonObject();
+        quickStatus.addProperty("productId", key);
+        quickStatus.addProperty("buyPrice", price);
+        quickStatus.addProperty("sellPrice", price / 2);
+        quickStatus.addProperty("buyVolume", price * 10);
+        quickStatus.addProperty("sellVolume", price * 100);
+
+        JsonObject product = new JsonObject();
+        product.addProperty("product_id", key);
+        product.add("quick_status", quickStatus);
+        return product;
+    }
+}
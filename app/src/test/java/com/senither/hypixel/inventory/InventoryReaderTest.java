@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.inventory;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Reads the gzipped base64 inventories in the <code>inventories</code> test resources, and
+ * compares the items against the matching <code>.expected</code> file, which lists the
+ * items in the order they're read in, using the format
+ * <code>id | name | rarity | type | recombobulated</code>.
+ */
+public class InventoryReaderTest {
+
+    @Test
+    public void inventoryContentsMatchTheExpectedItems() throws IOException {
+        assertFixture("inv_contents");
+    }
+
+    @Test
+    public void enderChestContentsMatchTheExpectedItems() throws IOException {
+        assertFixture("ender_chest_contents");
+    }
+
+    @Test
+    public void backpackContentsAreReadBeforeTheBackpackItself() throws IOException {
+        assertFixture("backpack_contents");
+    }
+
+    @Test
+    public void itemsKeepTheirHideFlagsAndNumberAndStringAttributes() throws IOException {
+        List<Item> items = readFixture("inv_contents");
+
+        Item aspectOfTheEnd = items.get(0);
+        assertEquals(254, aspectOfTheEnd.getTagId());
+        assertEquals("heroic", aspectOfTheEnd.getAttribute("modifier"));
+        assertEquals(10, aspectOfTheEnd.getAttribute("hot_potato_count"));
+        assertFalse(aspectOfTheEnd.hasAttribute("enchantments"));
+
+        Item junglePickaxe = items.get(2);
+        assertEquals((short) 3, junglePickaxe.getAttribute("anvil_uses"));
+        assertEquals(123456789012L, junglePickaxe.getLongAttribute("compact_blocks", 0));
+        assertEquals(5L, junglePickaxe.getLongAttribute("originTag", 5));
+
+        Item hyperion = items.get(4);
+        assertFalse(hyperion.hasAttribute("ability_scroll"));
+        assertEquals(1L, hyperion.getLongAttribute("rarity_upgrades", 0));
+    }
+
+    @Test(expected = IOException.class)
+    public void truncatedInventoriesFailToRead() throws IOException {
+        byte[] inventory = Base64.getDecoder().decode(readResource("inv_contents.txt").trim());
+        byte[] truncated = new byte[inventory.length / 2];
+        System.arraycopy(inventory, 0, truncated, 0, truncated.length);
+
+        new Inventory(Base64.getEncoder().encodeToString(truncated));
+    }
+
+    @Test(expected = IOException.class)
+    public void emptyInventoriesFailToRead() throws IOException {
+        new Inventory("");
+    }
+
+    private void assertFixture(String name) throws IOException {
+        List<String> expected = new ArrayList<>();
+        for (String line : readResource(name + ".expected").split("\n")) {
+            if (!line.trim().isEmpty()) {
+                expected.add(line.trim());
+            }
+        }
+
+        List<String> actual = readFixture(name).stream()
+            .map(item -> String.format("%s | %s | %s | %s | %s",
+                item.getAttribute("id"), item.getName(), item.getRarity(), item.getType(), item.isRecombobulated()
+            ))
+            .collect(Collectors.toList());
+
+        assertEquals(expected, actual);
+    }
+
+    private List<Item> readFixture(String name) throws IOException {
+        return new Inventory(readResource(name + ".txt").trim()).getItems();
+    }
+
+    private String readResource(String name) throws IOException {
+        InputStream stream = getClass().getResourceAsStream("/inventories/" + name);
+        assertNotNull("Missing test resource " + name, stream);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            return reader.lines().collect(Collectors.joining("\n"));
+        }
+    }
+}
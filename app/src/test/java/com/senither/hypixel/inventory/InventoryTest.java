@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.inventory;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class InventoryTest {
+
+    @Test
+    public void duplicateItemsAreAllReturned() {
+        Inventory inventory = createInventory("Midas Sword", "Midas Sword", "Z");
+
+        assertEquals(2, inventory.getItemsEndingWith("Midas Sword").size());
+        assertEquals(2, inventory.getItemsEndingWith("sword").size());
+        assertEquals(1, inventory.getItemsEndingWith("Z").size());
+    }
+
+    @Test
+    public void itemsEndingWithMatchesEveryCharacterSuffix() {
+        Inventory inventory = createInventory(
+            "§lMidas' Sword", "Spicy Midas' Sword", "Midas' Sword", "Longsword", "Aspect of the End", "Midas' Sword"
+        );
+
+        assertEquals(4, inventory.getItemsEndingWith("Midas' Sword").size());
+        assertEquals(5, inventory.getItemsEndingWith("sword").size());
+        assertEquals(1, inventory.getItemsEndingWith("Aspect of the End").size());
+        assertTrue(inventory.getItemsEndingWith("Hyperion").isEmpty());
+    }
+
+    @Test
+    public void itemsEndingWithMatchesAScanOfEveryItem() {
+        String[] names = new String[]{"a", "ba", "ab", "b", "aa", "ba", "a", "cab", "", "ab"};
+        Inventory inventory = createInventory(names);
+
+        for (String suffix : new String[]{"", "a", "b", "ab", "ba", "aa", "cab", "c", "zz"}) {
+            int expected = 0;
+            for (String name : names) {
+                if (name.endsWith(suffix)) {
+                    expected++;
+                }
+            }
+            assertEquals("Items ending with \"" + suffix + "\"", expected, inventory.getItemsEndingWith(suffix).size());
+        }
+    }
+
+    private Inventory createInventory(String... names) {
+        List<Item> items = new ArrayList<>();
+        for (String name : names) {
+            items.add(new Item(name, 1, "§6§lLEGENDARY SWORD", null));
+        }
+        return new Inventory(items);
+    }
+}
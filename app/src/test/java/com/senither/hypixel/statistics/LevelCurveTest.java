@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * This file is part of Hypixel Skyblock Assistant.
+ *
+ * Hypixel Guild Synchronizer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hypixel Guild Synchronizer is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Hypixel Guild Synchronizer.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ */
+
+package com.senither.hypixel.statistics;
+
+import com.google.common.collect.ImmutableMultiset;
+import com.senither.hypixel.Constants;
+import com.senither.hypixel.inventory.ItemRarity;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the level curves against the loops that walked through the experience
+ * lists before the curves were added, at every level boundary, one experience
+ * point on either side of it, at zero, and past the highest level.
+ */
+public class LevelCurveTest {
+
+    private static final double delta = 1e-9;
+
+    @Test
+    public void skillLevelsMatchTheExperienceListLoop() {
+        assertCurveMatchesLoop(Constants.GENERAL_SKILL_LEVELS, Constants.GENERAL_SKILL_EXPERIENCE);
+        assertCurveMatchesLoop(Constants.RUNECRAFTING_SKILL_LEVELS, Constants.RUNECRAFTING_SKILL_EXPERIENCE);
+        assertCurveMatchesLoop(Constants.DUNGEON_LEVELS, Constants.DUNGEON_EXPERIENCE);
+    }
+
+    @Test
+    public void skillExperienceForLevelMatchesTheExperienceListLoop() {
+        assertExperienceForLevelMatchesLoop(Constants.GENERAL_SKILL_LEVELS, Constants.GENERAL_SKILL_EXPERIENCE);
+        assertExperienceForLevelMatchesLoop(Constants.RUNECRAFTING_SKILL_LEVELS, Constants.RUNECRAFTING_SKILL_EXPERIENCE);
+        assertExperienceForLevelMatchesLoop(Constants.DUNGEON_LEVELS, Constants.DUNGEON_EXPERIENCE);
+    }
+
+    @Test
+    public void slayerLevelsMatchTheTotalExperienceLoop() {
+        List<Long> thresholds = new ArrayList<>();
+        for (int experience : Constants.SLAYER_EXPERIENCE) {
+            thresholds.add((long) experience);
+        }
+
+        for (long experience : boundaries(thresholds)) {
+            assertEquals("Slayer level for " + experience + " XP",
+                oldSlayerLevel(experience), Constants.SLAYER_LEVELS.getLevelFromExperience(experience), delta
+            );
+        }
+        assertEquals(9, Constants.SLAYER_LEVELS.getMaxLevel());
+    }
+
+    @Test
+    public void petLevelsMatchTheOldPetLoop() {
+        for (Map.Entry<ItemRarity, Integer> entry : Constants.PET_OFFSET.entrySet()) {
+            LevelCurve curve = Constants.PET_LEVELS.get(entry.getKey());
+            int offset = entry.getValue();
+
+            List<Long> thresholds = new ArrayList<>();
+            long total = 0;
+            for (int i = offset; i < offset + 99; i++) {
+                total += Constants.PET_EXPERIENCE.asList().get(i);
+                thresholds.add(total);
+            }
+
+            for (long experience : boundaries(thresholds)) {
+                assertEquals(entry.getKey() + " pet level for " + experience + " XP",
+                    oldPetLevel(offset, experience), 1 + curve.getWholeLevelFromExperience(experience - 1)
+                );
+            }
+        }
+    }
+
+    @Test
+    public void petExperienceBetweenLevelsMatchesTheOldPetLoop() {
+        for (Map.Entry<ItemRarity, Integer> entry : Constants.PET_OFFSET.entrySet()) {
+            LevelCurve curve = Constants.PET_LEVELS.get(entry.getKey());
+            int offset = entry.getValue();
+
+            for (int min = 1; min <= 100; min++) {
+                for (int max = min; max <= 100; max++) {
+                    long xp = 0;
+                    for (int i = offset + min - 1; i < offset + max - 1; i++) {
+                        xp += Constants.PET_EXPERIENCE.asList().get(i);
+                    }
+
+                    assertEquals(xp, curve.getExperienceForLevel(max - 1) - curve.getExperienceForLevel(min - 1));
+                }
+            }
+        }
+    }
+
+    private static void assertCurveMatchesLoop(LevelCurve curve, ImmutableMultiset<Integer> experienceList) {
+        List<Long> thresholds = new ArrayList<>();
+        long total = 0;
+        for (int experience : experienceList) {
+            total += experience;
+            thresholds.add(total);
+        }
+
+        assertEquals(experienceList.size(), curve.getMaxLevel());
+        for (long experience : boundaries(thresholds)) {
+            double expected = oldSkillLevel(experienceList, experience);
+
+            assertEquals("Level for " + experience + " XP", expected, curve.getLevelFromExperience(experience), delta);
+            assertEquals("Whole level for " + experience + " XP", (int) Math.floor(expected), curve.getWholeLevelFromExperience(experience));
+        }
+    }
+
+    private static void assertExperienceForLevelMatchesLoop(LevelCurve curve, ImmutableMultiset<Integer> experienceList) {
+        for (int level = -1; level <= experienceList.size() + 1; level++) {
+            double expected = 0;
+            for (int i = 0; i < Math.min(level, experienceList.size()); i++) {
+                expected += experienceList.asList().get(i);
+            }
+
+            assertEquals("Experience for level " + level, expected, curve.getExperienceForLevel(level), 0D);
+        }
+    }
+
+    /**
+     * Gets the experience values that should be checked for the given thresholds, which
+     * is zero, every threshold and one point on either side of it, and well past the
+     * highest threshold.
+     */
+    private static List<Long> boundaries(List<Long> thresholds) {
+        List<Long> experience = new ArrayList<>();
+        experience.add(0L);
+        experience.add(1L);
+        for (long threshold : thresholds) {
+            experience.add(threshold - 1);
+            experience.add(threshold);
+            experience.add(threshold + 1);
+        }
+
+        long highest = thresholds.get(thresholds.size() - 1);
+        experience.add(highest * 2);
+        experience.add((long) Integer.MAX_VALUE * 4);
+        return experience;
+    }
+
+    private static double oldSkillLevel(ImmutableMultiset<Integer> experienceList, double experience) {
+        int level = 0;
+        for (int toRemove : experienceList) {
+            experience -= toRemove;
+            if (experience < 0) {
+                return level + (1D - (experience * -1) / (double) toRemove);
+            }
+            level++;
+        }
+        return level;
+    }
+
+    private static double oldSlayerLevel(double experience) {
+        for (int level = 0; level < Constants.SLAYER_EXPERIENCE.size(); level++) {
+            double requirement = Constants.SLAYER_EXPERIENCE.asList().get(level);
+            if (experience < requirement) {
+                double lastRequirement = level == 0 ? 0D : Constants.SLAYER_EXPERIENCE.asList().get(level - 1);
+                return level + (experience - lastRequirement) / (requirement - lastRequirement);
+            }
+        }
+        return 9D;
+    }
+
+    private static int oldPetLevel(int offset, long experience) {
+        for (int i = offset; i < offset + 99; i++) {
+            Integer levelXp = Constants.PET_EXPERIENCE.asList().get(i);
+
+            if (experience > levelXp) {
+                experience -= levelXp;
+                continue;
+            }
+
+            return i + 1 - offset;
+        }
+        return 100;
+    }
+}